@@ -0,0 +1,952 @@
+package com.example.meditation_app;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioManager;
+import android.media.AudioTrack;
+import android.media.MediaCodec;
+import android.media.MediaExtractor;
+import android.media.MediaFormat;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.SparseArray;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import io.flutter.FlutterInjector;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * Gapless ambient loops for the music screen and the session backgrounds.
+ *
+ * A source is an asset opened once and shared by every voice that plays it;
+ * the Dart side reference counts sources and closes one when the last screen
+ * using it lets go. Tracks up to {@link #STREAM_THRESHOLD_US} long are decoded
+ * whole to stereo PCM at the output rate. Longer ones are decoded by a thread
+ * per voice into a short ring buffer just ahead of the mixer, so a 2 MB mp3
+ * never sits in memory as 20 MB of samples.
+ *
+ * Loops are joined on the sample. The encoder delay and padding that mp3 and
+ * AAC add around a recording are trimmed, and the last {@code crossfade}
+ * frames of the track are mixed into its first ones with equal-power gains,
+ * so the seam has neither a gap nor a click. All voices are mixed by one
+ * writer thread into a single {@link AudioTrack}. Fades are applied per
+ * frame and are equal power as well, so fading one track out while another
+ * fades in keeps the loudness steady.
+ */
+public class AmbientAudioEngine implements MethodChannel.MethodCallHandler {
+    public static final String CHANNEL = "meditation_app/ambient_audio";
+
+    private static final String TAG = "AmbientAudioEngine";
+
+    /** Tracks longer than this are streamed instead of decoded whole. */
+    static final long STREAM_THRESHOLD_US = 30_000_000L;
+    /** Longest loop crossfade honoured; longer requests are clamped. */
+    static final int MAX_CROSSFADE_MS = 10_000;
+
+    private static final int BLOCK_FRAMES = 512;
+    private static final int STREAM_BUFFER_MS = 750;
+    private static final long IDLE_NANOS = 2_000_000_000L;
+    private static final double HALF_PI = Math.PI / 2;
+
+    private static final int AFTER_NONE = 0;
+    private static final int AFTER_PAUSE = 1;
+    private static final int AFTER_STOP = 2;
+
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService loader =
+            Executors.newSingleThreadExecutor(r -> new Thread(r, "AmbientLoader"));
+    private final LinkedBlockingQueue<Runnable> commands = new LinkedBlockingQueue<>();
+    private final int sampleRate;
+
+    // Main thread only.
+    private final SparseArray<Source> sources = new SparseArray<>();
+    private final SparseArray<Voice> voices = new SparseArray<>();
+    private int nextId = 1;
+
+    private AudioTrack track;
+    private Thread mixerThread;
+    private volatile boolean running;
+
+    // Owned by the mixer thread.
+    private final ArrayList<Voice> mixing = new ArrayList<>();
+    private long lastAudibleNanos;
+
+    public AmbientAudioEngine(Context context) {
+        this.context = context.getApplicationContext();
+        this.sampleRate = AudioTrack.getNativeOutputSampleRate(AudioManager.STREAM_MUSIC);
+    }
+
+    @Override
+    public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
+        switch (call.method) {
+            case "open": {
+                String asset = call.argument("asset");
+                if (asset == null) {
+                    result.error("bad_asset", "No asset given", null);
+                    return;
+                }
+                open(asset, intArgument(call, "crossfadeMs"), result);
+                break;
+            }
+            case "close":
+                close(intArgument(call, "source"));
+                result.success(null);
+                break;
+            case "createVoice": {
+                Source source = sources.get(intArgument(call, "source"));
+                if (source == null) {
+                    result.error("no_source", "Unknown source: " + call.argument("source"), null);
+                    return;
+                }
+                Voice voice = new Voice(nextId++, source);
+                voices.put(voice.id, voice);
+                result.success(voice.id);
+                break;
+            }
+            case "play":
+            case "pause":
+            case "stop":
+            case "setVolume":
+            case "disposeVoice":
+                onVoiceCall(call, result);
+                break;
+            case "release":
+                release();
+                result.success(null);
+                break;
+            default:
+                result.notImplemented();
+        }
+    }
+
+    private void onVoiceCall(MethodCall call, MethodChannel.Result result) {
+        final Voice voice = voices.get(intArgument(call, "voice"));
+        if (voice == null) {
+            result.error("no_voice", "Unknown voice: " + call.argument("voice"), null);
+            return;
+        }
+        final int fade = framesFor(intArgument(call, "fadeMs"));
+        Number volumeArgument = call.argument("volume");
+        final float volume = volumeArgument != null
+                ? Math.max(0f, Math.min(1f, volumeArgument.floatValue()))
+                : voice.volume;
+        switch (call.method) {
+            case "play":
+                if (!post(() -> voice.play(volume, fade))) {
+                    result.error("no_output", "Could not open the audio output", null);
+                    return;
+                }
+                break;
+            case "pause":
+                post(() -> voice.fadeOut(fade, AFTER_PAUSE));
+                break;
+            case "stop":
+                post(() -> voice.fadeOut(fade, AFTER_STOP));
+                break;
+            case "setVolume":
+                post(() -> voice.setVolume(volume, fade));
+                break;
+            case "disposeVoice":
+                voices.remove(voice.id);
+                if (!post(voice::dispose)) voice.dispose();
+                break;
+        }
+        result.success(null);
+    }
+
+    private static int intArgument(MethodCall call, String name) {
+        Number value = call.argument(name);
+        return value != null ? value.intValue() : 0;
+    }
+
+    private int framesFor(int millis) {
+        return (int) ((long) Math.max(0, millis) * sampleRate / 1000);
+    }
+
+    /** Decodes (or starts streaming) {@code asset} off the main thread and answers its id. */
+    private void open(final String asset, final int crossfadeMs, final MethodChannel.Result result) {
+        final int fadeFrames = framesFor(Math.min(crossfadeMs, MAX_CROSSFADE_MS));
+        loader.execute(() -> {
+            try {
+                final Source source = Source.load(context, asset, sampleRate, fadeFrames);
+                mainHandler.post(() -> {
+                    int id = nextId++;
+                    sources.put(id, source);
+                    result.success(id);
+                });
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to open " + asset, e);
+                final String message = e.getMessage();
+                mainHandler.post(() -> result.error("open_failed",
+                        "Could not open " + asset + ": " + message, null));
+            }
+        });
+    }
+
+    /** Drops a source and any voice still playing it. */
+    private void close(int id) {
+        Source source = sources.get(id);
+        if (source == null) return;
+        sources.remove(id);
+        for (int i = voices.size() - 1; i >= 0; i--) {
+            final Voice voice = voices.valueAt(i);
+            if (voice.source == source) {
+                voices.removeAt(i);
+                if (!post(voice::dispose)) voice.dispose();
+            }
+        }
+    }
+
+    /** Queues {@code command} for the mixer, starting it if needed. */
+    private boolean post(Runnable command) {
+        if (!ensureMixer()) return false;
+        commands.offer(command);
+        return true;
+    }
+
+    private synchronized boolean ensureMixer() {
+        if (running) return true;
+        try {
+            int minBuffer = AudioTrack.getMinBufferSize(sampleRate,
+                    AudioFormat.CHANNEL_OUT_STEREO, AudioFormat.ENCODING_PCM_16BIT);
+            AudioAttributes attributes = new AudioAttributes.Builder()
+                    .setUsage(AudioAttributes.USAGE_MEDIA)
+                    .setContentType(AudioAttributes.CONTENT_TYPE_MUSIC)
+                    .build();
+            AudioFormat format = new AudioFormat.Builder()
+                    .setSampleRate(sampleRate)
+                    .setChannelMask(AudioFormat.CHANNEL_OUT_STEREO)
+                    .setEncoding(AudioFormat.ENCODING_PCM_16BIT)
+                    .build();
+            track = new AudioTrack.Builder()
+                    .setAudioAttributes(attributes)
+                    .setAudioFormat(format)
+                    .setTransferMode(AudioTrack.MODE_STREAM)
+                    .setBufferSizeInBytes(Math.max(minBuffer, BLOCK_FRAMES * 2 * 2 * 2))
+                    .build();
+            track.play();
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to open ambient audio output", e);
+            if (track != null) {
+                track.release();
+                track = null;
+            }
+            return false;
+        }
+        lastAudibleNanos = System.nanoTime();
+        running = true;
+        mixerThread = new Thread(this::mixLoop, "AmbientMixer");
+        mixerThread.setPriority(Thread.MAX_PRIORITY);
+        mixerThread.start();
+        return true;
+    }
+
+    public synchronized void release() {
+        running = false;
+        if (mixerThread != null) {
+            mixerThread.interrupt();
+            try {
+                mixerThread.join(500);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            mixerThread = null;
+        }
+        if (track != null) {
+            track.release();
+            track = null;
+        }
+        commands.clear();
+        mixing.clear();
+        for (int i = 0; i < voices.size(); i++) {
+            voices.valueAt(i).dispose();
+        }
+        voices.clear();
+        sources.clear();
+        loader.shutdownNow();
+    }
+
+    private void mixLoop() {
+        final AudioTrack out = track;
+        final int[] mix = new int[BLOCK_FRAMES * 2];
+        final short[] scratch = new short[BLOCK_FRAMES * 2];
+        final short[] block = new short[BLOCK_FRAMES * 2];
+        while (running) {
+            if (mixing.isEmpty() && System.nanoTime() - lastAudibleNanos > IDLE_NANOS
+                    && !sleepUntilCommand(out)) {
+                return;
+            }
+            Runnable command;
+            while ((command = commands.poll()) != null) {
+                command.run();
+            }
+
+            Arrays.fill(mix, 0);
+            for (int i = mixing.size() - 1; i >= 0; i--) {
+                Voice voice = mixing.get(i);
+                if (voice.active) {
+                    voice.render(mix, scratch, BLOCK_FRAMES);
+                }
+                if (!voice.active) {
+                    mixing.remove(i);
+                }
+            }
+            if (!mixing.isEmpty()) {
+                lastAudibleNanos = System.nanoTime();
+            }
+            for (int i = 0; i < block.length; i++) {
+                block[i] = clip(mix[i]);
+            }
+
+            int written = 0;
+            while (written < block.length && running) {
+                int n = out.write(block, written, block.length - written);
+                if (n < 0) {
+                    Log.e(TAG, "AudioTrack write failed: " + n);
+                    stopAfterFailure(out);
+                    return;
+                }
+                written += n;
+            }
+        }
+    }
+
+    /**
+     * Called by the mixer thread when its track fails. Releases the track
+     * and clears the mixer's state, so the next {@link #ensureMixer} starts
+     * afresh; voices that were sounding are stopped where they are. Does
+     * nothing if {@link #release} got there first.
+     */
+    private synchronized void stopAfterFailure(AudioTrack out) {
+        if (track != out) return;
+        running = false;
+        track = null;
+        mixerThread = null;
+        out.release();
+        // Run what was queued so disposals still close their streams.
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            command.run();
+        }
+        for (Voice voice : mixing) {
+            voice.active = false;
+        }
+        mixing.clear();
+    }
+
+    /**
+     * Pauses the track and blocks until a command arrives. Returns false if
+     * the engine was released meanwhile.
+     */
+    private boolean sleepUntilCommand(AudioTrack out) {
+        out.pause();
+        Runnable command;
+        try {
+            command = commands.take();
+        } catch (InterruptedException e) {
+            return false;
+        }
+        if (!running) return false;
+        command.run();
+        out.play();
+        lastAudibleNanos = System.nanoTime();
+        return true;
+    }
+
+    private static short clip(int sample) {
+        if (sample > Short.MAX_VALUE) return Short.MAX_VALUE;
+        if (sample < Short.MIN_VALUE) return Short.MIN_VALUE;
+        return (short) sample;
+    }
+
+    /** Equal-power fade-in gain at {@code t} in [0, 1]. */
+    static double fadeInGain(double t) {
+        return Math.sin(t * HALF_PI);
+    }
+
+    /** Equal-power fade-out gain at {@code t} in [0, 1]; its square and {@link #fadeInGain}'s add to one. */
+    static double fadeOutGain(double t) {
+        return Math.cos(t * HALF_PI);
+    }
+
+    /**
+     * Frame {@code i} of a seam {@code length} frames long: the track's tail
+     * frame fading out mixed with its head frame fading in.
+     */
+    static short seamSample(short tail, short head, int i, int length) {
+        double t = (i + 0.5) / length;
+        return clip((int) Math.round(tail * fadeOutGain(t) + head * fadeInGain(t)));
+    }
+
+    /**
+     * The loop body of a fully decoded track: everything after the first
+     * {@code fade} frames, with the last {@code fade} frames crossfaded into
+     * the first ones. Playing the head once and then this buffer over and over
+     * gives the track with a seamless join.
+     */
+    static short[] bakeLoop(short[] pcm, int frames, int fade) {
+        short[] loop = Arrays.copyOfRange(pcm, fade * 2, frames * 2);
+        int seamStart = (frames - 2 * fade) * 2;
+        for (int i = 0; i < fade; i++) {
+            for (int c = 0; c < 2; c++) {
+                int at = seamStart + i * 2 + c;
+                loop[at] = seamSample(loop[at], pcm[i * 2 + c], i, fade);
+            }
+        }
+        return loop;
+    }
+
+    /** An opened asset, shared by all of its voices. */
+    private static final class Source {
+        final String asset;
+        /** Frames crossfaded at the loop seam. */
+        final int fadeFrames;
+        /** The first {@link #fadeFrames} frames, stereo interleaved. */
+        final short[] head;
+        /** See {@link #bakeLoop}; null for streamed sources. */
+        final short[] loop;
+
+        private Source(String asset, int fadeFrames, short[] head, short[] loop) {
+            this.asset = asset;
+            this.fadeFrames = fadeFrames;
+            this.head = head;
+            this.loop = loop;
+        }
+
+        boolean streamed() {
+            return loop == null;
+        }
+
+        static Source load(Context context, String asset, int rate, int fadeFrames)
+                throws IOException {
+            try (PcmStream stream = new PcmStream(context, asset, rate)) {
+                if (stream.durationUs > 0 && stream.durationUs <= STREAM_THRESHOLD_US) {
+                    short[] pcm = new short[(int) (stream.durationUs * rate / 1_000_000L + 1) * 2];
+                    int frames = 0;
+                    while (true) {
+                        if (frames * 2 + BLOCK_FRAMES * 2 > pcm.length) {
+                            pcm = Arrays.copyOf(pcm, pcm.length * 2);
+                        }
+                        int n = stream.read(pcm, frames, BLOCK_FRAMES);
+                        if (n < 0) break;
+                        frames += n;
+                    }
+                    if (frames == 0) {
+                        throw new IOException("No audio in " + asset);
+                    }
+                    int fade = Math.min(fadeFrames, frames / 2);
+                    return new Source(asset, fade, Arrays.copyOf(pcm, fade * 2),
+                            bakeLoop(pcm, frames, fade));
+                }
+                // Long or of unknown length: keep only the head for the seam.
+                short[] head = new short[fadeFrames * 2];
+                int frames = 0;
+                while (frames < fadeFrames) {
+                    int n = stream.read(head, frames, fadeFrames - frames);
+                    if (n < 0) break;
+                    frames += n;
+                }
+                return new Source(asset, frames, Arrays.copyOf(head, frames * 2), null);
+            }
+        }
+    }
+
+    /** One playback of a source, with its own position, gain and fades. */
+    private final class Voice {
+        final int id;
+        final Source source;
+
+        // Mixer thread only, apart from construction.
+        Streamer streamer;
+        boolean active;
+        boolean disposed;
+        float volume = 1f;
+        boolean inHead = true;
+        int position;
+        float gain;
+        float rampFrom;
+        float rampTo;
+        int rampFrames;
+        int rampDone;
+        int afterRamp = AFTER_NONE;
+
+        Voice(int id, Source source) {
+            this.id = id;
+            this.source = source;
+            // Start decoding now so the first play finds the buffer full.
+            if (source.streamed()) {
+                streamer = new Streamer(source);
+            }
+        }
+
+        void play(float target, int fade) {
+            if (disposed) return;
+            volume = target;
+            if (!active) {
+                active = true;
+                mixing.add(this);
+            }
+            rampTo(target, fade, AFTER_NONE);
+        }
+
+        void setVolume(float target, int fade) {
+            volume = target;
+            if (active && afterRamp == AFTER_NONE) {
+                rampTo(target, fade, AFTER_NONE);
+            }
+        }
+
+        void fadeOut(int fade, int after) {
+            rampTo(0f, active ? fade : 0, after);
+        }
+
+        void dispose() {
+            disposed = true;
+            active = false;
+            if (streamer != null) {
+                streamer.close();
+                streamer = null;
+            }
+        }
+
+        private void rampTo(float target, int frames, int after) {
+            afterRamp = after;
+            if (frames <= 0) {
+                gain = target;
+                rampFrom = rampTo = target;
+                rampFrames = rampDone = 0;
+                if (after != AFTER_NONE) finishRamp();
+                return;
+            }
+            rampFrom = gain;
+            rampTo = target;
+            rampFrames = frames;
+            rampDone = 0;
+        }
+
+        private void finishRamp() {
+            active = false;
+            if (afterRamp == AFTER_STOP) rewind();
+            afterRamp = AFTER_NONE;
+        }
+
+        private void rewind() {
+            if (disposed) return;
+            inHead = true;
+            position = 0;
+            if (streamer != null) {
+                streamer.close();
+                streamer = new Streamer(source);
+            }
+        }
+
+        void render(int[] mix, short[] scratch, int frames) {
+            fill(scratch, frames);
+            for (int f = 0; f < frames; f++) {
+                if (rampDone < rampFrames) {
+                    rampDone++;
+                    double t = (double) rampDone / rampFrames;
+                    double shape = rampTo > rampFrom ? fadeInGain(t) : 1 - fadeOutGain(t);
+                    gain = (float) (rampFrom + (rampTo - rampFrom) * shape);
+                    if (rampDone == rampFrames && afterRamp != AFTER_NONE) {
+                        finishRamp();
+                        return;
+                    }
+                }
+                mix[f * 2] += (int) (scratch[f * 2] * gain);
+                mix[f * 2 + 1] += (int) (scratch[f * 2 + 1] * gain);
+            }
+        }
+
+        private void fill(short[] scratch, int frames) {
+            if (streamer != null) {
+                int n = streamer.read(scratch, frames);
+                // An underrun plays as silence rather than stalling every other voice.
+                Arrays.fill(scratch, n * 2, frames * 2, (short) 0);
+                return;
+            }
+            int filled = 0;
+            while (filled < frames) {
+                short[] pcm = inHead ? source.head : source.loop;
+                int available = pcm.length / 2 - position;
+                if (available <= 0) {
+                    inHead = false;
+                    position = 0;
+                    continue;
+                }
+                int n = Math.min(frames - filled, available);
+                System.arraycopy(pcm, position * 2, scratch, filled * 2, n * 2);
+                position += n;
+                filled += n;
+            }
+        }
+    }
+
+    /**
+     * Decodes a streamed voice into a ring buffer a little ahead of the mixer.
+     *
+     * The last {@code fadeFrames} decoded frames are held back in a delay
+     * line. At the end of the track they are mixed with the source's head to
+     * form the seam, the decoder rewinds, and the head frames are skipped on
+     * the next pass because the seam already played them.
+     */
+    private final class Streamer implements Runnable {
+        private final Source source;
+        private final short[] ring;
+        private final int capacity;
+        private final Thread thread;
+        private volatile long written;
+        private volatile long read;
+        private volatile boolean closed;
+
+        Streamer(Source source) {
+            this.source = source;
+            this.capacity = Math.max(BLOCK_FRAMES * 2, framesFor(STREAM_BUFFER_MS));
+            this.ring = new short[capacity * 2];
+            this.thread = new Thread(this, "AmbientStream");
+            thread.start();
+        }
+
+        void close() {
+            closed = true;
+            thread.interrupt();
+        }
+
+        /** Mixer side: copies up to {@code frames} decoded frames and returns how many. */
+        int read(short[] dst, int frames) {
+            long start = read;
+            int n = (int) Math.min(frames, written - start);
+            int at = (int) (start % capacity);
+            int first = Math.min(n, capacity - at);
+            System.arraycopy(ring, at * 2, dst, 0, first * 2);
+            System.arraycopy(ring, 0, dst, first * 2, (n - first) * 2);
+            read = start + n;
+            return n;
+        }
+
+        @Override
+        public void run() {
+            final int fade = source.fadeFrames;
+            final short[] delay = new short[fade * 2];
+            final short[] chunk = new short[BLOCK_FRAMES * 2];
+            final short[] out = new short[BLOCK_FRAMES * 2];
+            int delayStart = 0;
+            int delayCount = 0;
+            int skip = 0;
+            boolean producedThisPass = false;
+            try (PcmStream stream = new PcmStream(context, source.asset, sampleRate)) {
+                while (!closed) {
+                    int n = stream.read(chunk, 0, BLOCK_FRAMES);
+                    if (n < 0) {
+                        if (!producedThisPass) return;
+                        // The delay line holds the track's tail: cross it into the head.
+                        int count = 0;
+                        for (int i = 0; i < delayCount; i++) {
+                            int at = (delayStart + i) % fade;
+                            for (int c = 0; c < 2; c++) {
+                                out[count * 2 + c] = seamSample(
+                                        delay[at * 2 + c], source.head[i * 2 + c], i, delayCount);
+                            }
+                            if (++count == BLOCK_FRAMES) {
+                                push(out, count);
+                                count = 0;
+                            }
+                        }
+                        push(out, count);
+                        skip = delayCount;
+                        delayStart = 0;
+                        delayCount = 0;
+                        producedThisPass = false;
+                        stream.rewind();
+                        continue;
+                    }
+                    producedThisPass = true;
+                    int from = Math.min(skip, n);
+                    skip -= from;
+                    int count = 0;
+                    for (int f = from; f < n; f++) {
+                        if (fade == 0) {
+                            out[count * 2] = chunk[f * 2];
+                            out[count * 2 + 1] = chunk[f * 2 + 1];
+                            count++;
+                        } else if (delayCount < fade) {
+                            int at = (delayStart + delayCount) % fade;
+                            delay[at * 2] = chunk[f * 2];
+                            delay[at * 2 + 1] = chunk[f * 2 + 1];
+                            delayCount++;
+                        } else {
+                            out[count * 2] = delay[delayStart * 2];
+                            out[count * 2 + 1] = delay[delayStart * 2 + 1];
+                            delay[delayStart * 2] = chunk[f * 2];
+                            delay[delayStart * 2 + 1] = chunk[f * 2 + 1];
+                            delayStart = (delayStart + 1) % fade;
+                            count++;
+                        }
+                    }
+                    push(out, count);
+                }
+            } catch (IOException e) {
+                Log.e(TAG, "Streaming " + source.asset + " failed", e);
+            } catch (InterruptedException ignored) {
+                // Closed.
+            }
+        }
+
+        /** Decoder side: blocks until {@code frames} frames fit, then appends them. */
+        private void push(short[] src, int frames) throws InterruptedException {
+            int done = 0;
+            while (done < frames) {
+                if (closed) throw new InterruptedException();
+                long end = written;
+                int space = capacity - (int) (end - read);
+                if (space == 0) {
+                    Thread.sleep(5);
+                    continue;
+                }
+                int n = Math.min(space, frames - done);
+                int at = (int) (end % capacity);
+                int first = Math.min(n, capacity - at);
+                System.arraycopy(src, done * 2, ring, at * 2, first * 2);
+                System.arraycopy(src, (done + first) * 2, ring, 0, (n - first) * 2);
+                written = end + n;
+                done += n;
+            }
+        }
+    }
+
+    /**
+     * One asset decoded to interleaved stereo at the output rate, a buffer at
+     * a time. The encoder delay and padding are trimmed so that the first and
+     * last frames read are the first and last frames of the recording.
+     */
+    static final class PcmStream implements AutoCloseable {
+        private final MediaExtractor extractor = new MediaExtractor();
+        private final MediaCodec.BufferInfo info = new MediaCodec.BufferInfo();
+        private final int outRate;
+        private MediaCodec codec;
+        long durationUs = -1;
+        private int channels;
+        private int inRate;
+        private int delayFrames;
+        private int paddingFrames;
+
+        private boolean inputDone;
+        private boolean outputDone;
+        private int skipFrames;
+        // Decoded frames at the input rate; the last paddingFrames are held back.
+        private short[] staging = new short[4096 * 2];
+        private int stagingFrames;
+        // Frames at the output rate, waiting to be read.
+        private short[] ready = new short[4096 * 2];
+        private int readyStart;
+        private int readyFrames;
+        private double resamplePos;
+        private short prevLeft;
+        private short prevRight;
+
+        PcmStream(Context context, String asset, int outRate) throws IOException {
+            this.outRate = outRate;
+            String key = FlutterInjector.instance().flutterLoader().getLookupKeyForAsset(asset);
+            try (AssetFileDescriptor afd = context.getAssets().openFd(key)) {
+                extractor.setDataSource(afd.getFileDescriptor(), afd.getStartOffset(), afd.getLength());
+                MediaFormat format = null;
+                for (int i = 0; i < extractor.getTrackCount(); i++) {
+                    MediaFormat candidate = extractor.getTrackFormat(i);
+                    String mime = candidate.getString(MediaFormat.KEY_MIME);
+                    if (mime != null && mime.startsWith("audio/")) {
+                        extractor.selectTrack(i);
+                        format = candidate;
+                        break;
+                    }
+                }
+                if (format == null) {
+                    throw new IOException("No audio track in " + asset);
+                }
+                if (format.containsKey(MediaFormat.KEY_DURATION)) {
+                    durationUs = format.getLong(MediaFormat.KEY_DURATION);
+                }
+                channels = format.getInteger(MediaFormat.KEY_CHANNEL_COUNT);
+                inRate = format.getInteger(MediaFormat.KEY_SAMPLE_RATE);
+                delayFrames = format.containsKey("encoder-delay") ? format.getInteger("encoder-delay") : 0;
+                paddingFrames = format.containsKey("encoder-padding") ? format.getInteger("encoder-padding") : 0;
+                skipFrames = delayFrames;
+
+                codec = MediaCodec.createDecoderByType(format.getString(MediaFormat.KEY_MIME));
+                codec.configure(format, null, null, 0);
+                codec.start();
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        /**
+         * Copies up to {@code frames} frames to {@code dst} at frame
+         * {@code dstFrame}. Returns how many, or -1 at the end of the track.
+         */
+        int read(short[] dst, int dstFrame, int frames) {
+            while (readyFrames == 0) {
+                if (outputDone) return -1;
+                decode();
+            }
+            int n = Math.min(frames, readyFrames);
+            System.arraycopy(ready, readyStart * 2, dst, dstFrame * 2, n * 2);
+            readyStart += n;
+            readyFrames -= n;
+            return n;
+        }
+
+        /** Goes back to the first frame of the recording. */
+        void rewind() {
+            extractor.seekTo(0, MediaExtractor.SEEK_TO_CLOSEST_SYNC);
+            codec.flush();
+            inputDone = false;
+            outputDone = false;
+            skipFrames = delayFrames;
+            stagingFrames = 0;
+            readyStart = 0;
+            readyFrames = 0;
+            resamplePos = 0;
+            prevLeft = 0;
+            prevRight = 0;
+        }
+
+        private void decode() {
+            if (!inputDone) {
+                int inIndex = codec.dequeueInputBuffer(10_000);
+                if (inIndex >= 0) {
+                    ByteBuffer in = codec.getInputBuffer(inIndex);
+                    int size = extractor.readSampleData(in, 0);
+                    if (size < 0) {
+                        codec.queueInputBuffer(inIndex, 0, 0, 0, MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+                        inputDone = true;
+                    } else {
+                        codec.queueInputBuffer(inIndex, 0, size, extractor.getSampleTime(), 0);
+                        extractor.advance();
+                    }
+                }
+            }
+
+            int outIndex = codec.dequeueOutputBuffer(info, 10_000);
+            if (outIndex == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED) {
+                MediaFormat outFormat = codec.getOutputFormat();
+                channels = outFormat.getInteger(MediaFormat.KEY_CHANNEL_COUNT);
+                inRate = outFormat.getInteger(MediaFormat.KEY_SAMPLE_RATE);
+            } else if (outIndex >= 0) {
+                ByteBuffer out = codec.getOutputBuffer(outIndex);
+                out.position(info.offset);
+                out.limit(info.offset + info.size);
+                stage(out.order(ByteOrder.LITTLE_ENDIAN).asShortBuffer());
+                codec.releaseOutputBuffer(outIndex, false);
+                if ((info.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0) {
+                    outputDone = true;
+                }
+                releaseStaged();
+            }
+        }
+
+        /** Appends decoded samples as stereo frames, dropping the encoder delay. */
+        private void stage(ShortBuffer samples) {
+            int frames = samples.remaining() / channels;
+            if ((stagingFrames + frames) * 2 > staging.length) {
+                staging = Arrays.copyOf(staging, Math.max(staging.length * 2, (stagingFrames + frames) * 2));
+            }
+            for (int f = 0; f < frames; f++) {
+                short left = samples.get();
+                short right = channels > 1 ? samples.get() : left;
+                for (int c = 2; c < channels; c++) {
+                    samples.get();
+                }
+                if (skipFrames > 0) {
+                    skipFrames--;
+                    continue;
+                }
+                staging[stagingFrames * 2] = left;
+                staging[stagingFrames * 2 + 1] = right;
+                stagingFrames++;
+            }
+        }
+
+        /** Resamples what is safe to release; at the end the padding is dropped. */
+        private void releaseStaged() {
+            int usable = Math.max(0, stagingFrames - paddingFrames);
+            if (usable > 0) {
+                resample(usable);
+            }
+            if (outputDone) {
+                stagingFrames = 0;
+            } else if (usable > 0) {
+                System.arraycopy(staging, usable * 2, staging, 0, (stagingFrames - usable) * 2);
+                stagingFrames -= usable;
+            }
+        }
+
+        /**
+         * Linear resampling of the first {@code frames} staged frames into
+         * {@link #ready}, carrying the position and last frame over so that
+         * buffers join without a discontinuity.
+         */
+        private void resample(int frames) {
+            readyStart = 0;
+            if (inRate == outRate) {
+                if (frames * 2 > ready.length) ready = new short[frames * 2];
+                System.arraycopy(staging, 0, ready, 0, frames * 2);
+                readyFrames = frames;
+                return;
+            }
+            final double step = (double) inRate / outRate;
+            double pos = resamplePos;
+            int n = 0;
+            while (true) {
+                int i0 = (int) Math.floor(pos);
+                if (i0 + 1 >= frames) break;
+                if ((n + 1) * 2 > ready.length) {
+                    ready = Arrays.copyOf(ready, ready.length * 2);
+                }
+                double frac = pos - i0;
+                int left0 = i0 < 0 ? prevLeft : staging[i0 * 2];
+                int right0 = i0 < 0 ? prevRight : staging[i0 * 2 + 1];
+                int left1 = staging[(i0 + 1) * 2];
+                int right1 = staging[(i0 + 1) * 2 + 1];
+                ready[n * 2] = (short) Math.round(left0 + (left1 - left0) * frac);
+                ready[n * 2 + 1] = (short) Math.round(right0 + (right1 - right0) * frac);
+                n++;
+                pos += step;
+            }
+            resamplePos = pos - frames;
+            prevLeft = staging[(frames - 1) * 2];
+            prevRight = staging[(frames - 1) * 2 + 1];
+            readyFrames = n;
+        }
+
+        @Override
+        public void close() {
+            if (codec != null) {
+                try {
+                    codec.stop();
+                } catch (IllegalStateException ignored) {
+                    // Never started.
+                }
+                codec.release();
+                codec = null;
+            }
+            extractor.release();
+        }
+    }
+}
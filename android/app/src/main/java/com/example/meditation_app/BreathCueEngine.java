@@ -0,0 +1,583 @@
+package com.example.meditation_app;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioManager;
+import android.media.AudioTimestamp;
+import android.media.AudioTrack;
+import android.media.MediaCodec;
+import android.media.MediaExtractor;
+import android.media.MediaFormat;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.meditation_app.session.CueClock;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import io.flutter.FlutterInjector;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * Low-latency breath cue player.
+ *
+ * The inhale/exhale bells and the Bhramari hum are decoded once into mono PCM
+ * at the device's native output rate and mixed by a single writer thread into
+ * one streaming {@link AudioTrack}. Cues are requested with an absolute
+ * {@link System#nanoTime()} deadline and converted to a frame position using
+ * the track's presentation timestamp, so a cue starts on the sample frame that
+ * is heard at that instant instead of whenever the platform channel call lands.
+ *
+ * One engine is shared by the activity and {@link BreathSessionRunner} through
+ * {@link #acquire} and {@link #releaseShared}, so a session keeps its bells
+ * when the Flutter UI goes away. After a second with nothing to play the track
+ * is paused and the mixer sleeps until the next cue arrives.
+ */
+public class BreathCueEngine implements MethodChannel.MethodCallHandler {
+    public static final String CHANNEL = "meditation_app/breath_cues";
+
+    private static final String TAG = "BreathCueEngine";
+
+    static final int CUE_INHALE = 0;
+    static final int CUE_EXHALE = 1;
+    static final int CUE_HUM = 2;
+    /** Cuts whatever is sounding at the requested instant ("Hold" phases). */
+    static final int CUE_SILENCE = 3;
+    private static final int CUE_CANCEL = -1;
+
+    private static final String[] CUE_ASSETS = {
+            "assets/music/inhale_bell1.mp3",
+            "assets/music/exhale_bell1.mp3",
+            "assets/music/hmmsound_.mp3",
+    };
+
+    private static final int BLOCK_FRAMES = 256;
+    private static final int MAX_VOICES = 4;
+    private static final long TIMESTAMP_REFRESH_NANOS = 200_000_000L;
+    private static final long IDLE_NANOS = 1_000_000_000L;
+    /**
+     * After waking from idle the presentation timestamp is stale; cues further
+     * out than this wait for a fresh one instead of guessing their frame.
+     */
+    private static final long RESYNC_NANOS = 100_000_000L;
+
+    private static BreathCueEngine shared;
+    private static int sharedUsers;
+
+    /** The process-wide engine; pair every call with {@link #releaseShared()}. */
+    static synchronized BreathCueEngine acquire(Context context) {
+        if (shared == null) {
+            shared = new BreathCueEngine(context);
+        }
+        sharedUsers++;
+        return shared;
+    }
+
+    /** Releases the shared engine once its last user is done with it. */
+    static synchronized void releaseShared() {
+        if (sharedUsers == 0) return;
+        if (--sharedUsers == 0) {
+            shared.release();
+            shared = null;
+        }
+    }
+
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ArrayBlockingQueue<PendingCue> pending = new ArrayBlockingQueue<>(64);
+    private final Voice[] voices = new Voice[MAX_VOICES];
+
+    private short[][] cuePcm;
+    private AudioTrack track;
+    private Thread mixerThread;
+    private volatile boolean running;
+    private volatile float volume = 1.0f;
+    private int sampleRate;
+
+    // Owned by the mixer thread.
+    private long framesWritten;
+    private final AudioTimestamp timestamp = new AudioTimestamp();
+    private boolean timestampValid;
+    private long lastTimestampPoll;
+    private long lastAudibleNanos;
+    private final ArrayList<PendingCue> deferred = new ArrayList<>();
+
+    public BreathCueEngine(Context context) {
+        this.context = context.getApplicationContext();
+        for (int i = 0; i < MAX_VOICES; i++) {
+            voices[i] = new Voice();
+        }
+    }
+
+    @Override
+    public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
+        switch (call.method) {
+            case "load":
+                load(result);
+                break;
+            case "now":
+                result.success(System.nanoTime());
+                break;
+            case "scheduleCue": {
+                Integer cue = cueFromPhase(call.<String>argument("phase"));
+                Number at = call.argument("atMonotonicNanos");
+                if (cue == null) {
+                    result.error("bad_phase", "Unknown cue phase: " + call.argument("phase"), null);
+                    return;
+                }
+                result.success(scheduleCue(cue, at != null ? at.longValue() : System.nanoTime()));
+                break;
+            }
+            case "cancelAll":
+                cancelAll();
+                result.success(null);
+                break;
+            case "setVolume": {
+                Number value = call.argument("volume");
+                setVolume(value != null ? value.floatValue() : 1.0f);
+                result.success(null);
+                break;
+            }
+            default:
+                result.notImplemented();
+        }
+    }
+
+    static Integer cueFromPhase(String phase) {
+        if (phase == null) return null;
+        switch (phase) {
+            case "inhale":
+                return CUE_INHALE;
+            case "exhale":
+                return CUE_EXHALE;
+            case "hum":
+                return CUE_HUM;
+            case "hold":
+            case "silence":
+                return CUE_SILENCE;
+            default:
+                return null;
+        }
+    }
+
+    /** Decodes the cue assets (once) and starts the mixer off the main thread. */
+    private void load(final MethodChannel.Result result) {
+        if (running) {
+            result.success(true);
+            return;
+        }
+        new Thread(() -> {
+            boolean ok;
+            try {
+                start();
+                ok = true;
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to start breath cue engine", e);
+                ok = false;
+            }
+            final boolean loaded = ok;
+            mainHandler.post(() -> result.success(loaded));
+        }, "BreathCueLoader").start();
+    }
+
+    /** Decodes the cues and starts the mixer if needed; blocks while decoding. */
+    void ensureStarted() throws IOException {
+        start();
+    }
+
+    private synchronized void start() throws IOException {
+        if (running) return;
+        sampleRate = AudioTrack.getNativeOutputSampleRate(AudioManager.STREAM_MUSIC);
+        if (cuePcm == null) {
+            short[][] decoded = new short[CUE_ASSETS.length][];
+            for (int i = 0; i < CUE_ASSETS.length; i++) {
+                decoded[i] = decodeAsset(CUE_ASSETS[i], sampleRate);
+            }
+            cuePcm = decoded;
+        }
+
+        int minBuffer = AudioTrack.getMinBufferSize(sampleRate,
+                AudioFormat.CHANNEL_OUT_MONO, AudioFormat.ENCODING_PCM_16BIT);
+        AudioAttributes attributes = new AudioAttributes.Builder()
+                .setUsage(AudioAttributes.USAGE_MEDIA)
+                .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                .build();
+        AudioFormat format = new AudioFormat.Builder()
+                .setSampleRate(sampleRate)
+                .setChannelMask(AudioFormat.CHANNEL_OUT_MONO)
+                .setEncoding(AudioFormat.ENCODING_PCM_16BIT)
+                .build();
+        AudioTrack.Builder builder = new AudioTrack.Builder()
+                .setAudioAttributes(attributes)
+                .setAudioFormat(format)
+                .setTransferMode(AudioTrack.MODE_STREAM)
+                .setBufferSizeInBytes(Math.max(minBuffer, BLOCK_FRAMES * 2 * 2));
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            builder.setPerformanceMode(AudioTrack.PERFORMANCE_MODE_LOW_LATENCY);
+        }
+        track = builder.build();
+        track.setVolume(volume);
+        track.play();
+
+        framesWritten = 0;
+        timestampValid = false;
+        lastAudibleNanos = System.nanoTime();
+        running = true;
+        mixerThread = new Thread(this::mixLoop, "BreathCueMixer");
+        mixerThread.setPriority(Thread.MAX_PRIORITY);
+        mixerThread.start();
+    }
+
+    /**
+     * Queues a cue to start at {@code atMonotonicNanos} on the {@link System#nanoTime()}
+     * clock. Returns false if the engine is not running or the queue is full.
+     */
+    public boolean scheduleCue(int cue, long atMonotonicNanos) {
+        return running && pending.offer(new PendingCue(cue, atMonotonicNanos));
+    }
+
+    /** Drops every queued and sounding cue. */
+    public void cancelAll() {
+        if (!running) return;
+        pending.clear();
+        pending.offer(new PendingCue(CUE_CANCEL, 0));
+    }
+
+    public void setVolume(float value) {
+        volume = Math.max(0f, Math.min(1f, value));
+        AudioTrack current = track;
+        if (current != null) {
+            current.setVolume(volume);
+        }
+    }
+
+    private synchronized void release() {
+        running = false;
+        if (mixerThread != null) {
+            mixerThread.interrupt();
+            try {
+                mixerThread.join(500);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            mixerThread = null;
+        }
+        if (track != null) {
+            track.release();
+            track = null;
+        }
+        pending.clear();
+    }
+
+    private void mixLoop() {
+        final short[] block = new short[BLOCK_FRAMES];
+        final AudioTrack out = track;
+        while (running) {
+            if (isIdle() && !sleepUntilCue(out)) {
+                return;
+            }
+            pollTimestamp(out);
+            drainPending();
+
+            Arrays.fill(block, (short) 0);
+            final long blockStart = framesWritten;
+            final long blockEnd = blockStart + BLOCK_FRAMES;
+            boolean audible = false;
+            for (Voice voice : voices) {
+                if (voice.active) {
+                    audible = true;
+                    mixVoice(voice, block, blockStart, blockEnd);
+                }
+            }
+            if (audible) {
+                lastAudibleNanos = System.nanoTime();
+            }
+
+            int written = 0;
+            while (written < BLOCK_FRAMES && running) {
+                int n = out.write(block, written, BLOCK_FRAMES - written);
+                if (n < 0) {
+                    Log.e(TAG, "AudioTrack write failed: " + n);
+                    stopAfterFailure(out);
+                    return;
+                }
+                written += n;
+            }
+            framesWritten = blockEnd;
+        }
+    }
+
+    /**
+     * Called by the mixer thread when its track fails. Releases the track
+     * and clears the mixer's state, so the next {@link #start} builds them
+     * afresh. Does nothing if {@link #release} got there first.
+     */
+    private synchronized void stopAfterFailure(AudioTrack out) {
+        if (track != out) return;
+        running = false;
+        track = null;
+        mixerThread = null;
+        out.release();
+        pending.clear();
+        deferred.clear();
+        for (Voice voice : voices) {
+            voice.active = false;
+        }
+    }
+
+    private void mixVoice(Voice voice, short[] block, long blockStart, long blockEnd) {
+        if (voice.startFrame >= blockEnd) return;
+        final short[] pcm = voice.pcm;
+        final int dst = (int) Math.max(0, voice.startFrame - blockStart);
+        final int src = (int) (blockStart + dst - voice.startFrame);
+        final int limit = voice.stopFrame < blockEnd
+                ? (int) Math.max(0, voice.stopFrame - blockStart)
+                : BLOCK_FRAMES;
+        final int count = Math.min(limit - dst, pcm.length - src);
+        for (int i = 0; i < count; i++) {
+            int mixed = block[dst + i] + pcm[src + i];
+            if (mixed > Short.MAX_VALUE) mixed = Short.MAX_VALUE;
+            else if (mixed < Short.MIN_VALUE) mixed = Short.MIN_VALUE;
+            block[dst + i] = (short) mixed;
+        }
+        if (src + Math.max(count, 0) >= pcm.length || voice.stopFrame <= blockEnd) {
+            voice.active = false;
+        }
+    }
+
+    private boolean isIdle() {
+        if (!deferred.isEmpty() || !pending.isEmpty()) return false;
+        for (Voice voice : voices) {
+            if (voice.active) return false;
+        }
+        return System.nanoTime() - lastAudibleNanos > IDLE_NANOS;
+    }
+
+    /**
+     * Pauses the track and blocks until a cue is queued. Returns false if the
+     * engine was released meanwhile.
+     */
+    private boolean sleepUntilCue(AudioTrack out) {
+        out.pause();
+        try {
+            PendingCue cue = pending.take();
+            deferred.add(cue);
+        } catch (InterruptedException e) {
+            return false;
+        }
+        if (!running) return false;
+        out.play();
+        // The paused stretch broke the frame-to-time mapping; wait for a new timestamp.
+        timestampValid = false;
+        lastTimestampPoll = 0;
+        lastAudibleNanos = System.nanoTime();
+        return true;
+    }
+
+    private void drainPending() {
+        PendingCue cue;
+        while ((cue = nextCue()) != null) {
+            if (cue.cue == CUE_CANCEL) {
+                deferred.clear();
+                for (Voice voice : voices) {
+                    voice.active = false;
+                }
+                continue;
+            }
+            final long frame = Math.max(framesWritten, frameAt(cue.atNanos));
+            // Cues are monophonic: a new phase cuts whatever the previous one left ringing.
+            for (Voice voice : voices) {
+                if (voice.active && voice.stopFrame > frame) {
+                    voice.stopFrame = frame;
+                }
+            }
+            if (cue.cue == CUE_SILENCE) continue;
+            Voice slot = freeVoice();
+            slot.pcm = cuePcm[cue.cue];
+            slot.startFrame = frame;
+            slot.stopFrame = Long.MAX_VALUE;
+            slot.active = true;
+        }
+    }
+
+    /**
+     * The next cue to place: deferred ones once a timestamp is available or
+     * they are nearly due, then newly queued ones.
+     */
+    private PendingCue nextCue() {
+        final long now = System.nanoTime();
+        for (int i = 0; i < deferred.size(); i++) {
+            PendingCue cue = deferred.get(i);
+            if (timestampValid || cue.cue == CUE_CANCEL || cue.atNanos - now < RESYNC_NANOS) {
+                return deferred.remove(i);
+            }
+        }
+        while (true) {
+            PendingCue cue = pending.poll();
+            if (cue == null) return null;
+            if (timestampValid || cue.cue == CUE_CANCEL || cue.atNanos - now < RESYNC_NANOS) {
+                return cue;
+            }
+            deferred.add(cue);
+        }
+    }
+
+    private Voice freeVoice() {
+        Voice oldest = voices[0];
+        for (Voice voice : voices) {
+            if (!voice.active) return voice;
+            if (voice.startFrame < oldest.startFrame) oldest = voice;
+        }
+        return oldest;
+    }
+
+    private void pollTimestamp(AudioTrack out) {
+        long now = System.nanoTime();
+        if (timestampValid && now - lastTimestampPoll < TIMESTAMP_REFRESH_NANOS) return;
+        lastTimestampPoll = now;
+        timestampValid = out.getTimestamp(timestamp);
+    }
+
+    /** Maps a monotonic instant to the frame that will be presented at that instant. */
+    private long frameAt(long atNanos) {
+        if (timestampValid) {
+            return CueClock.frameAt(timestamp.framePosition, timestamp.nanoTime, atNanos, sampleRate);
+        }
+        // No presentation timestamp yet: assume the write head is what is heard now.
+        return CueClock.frameAt(framesWritten, System.nanoTime(), atNanos, sampleRate);
+    }
+
+    private short[] decodeAsset(String asset, int outRate) throws IOException {
+        String key = FlutterInjector.instance().flutterLoader().getLookupKeyForAsset(asset);
+        MediaExtractor extractor = new MediaExtractor();
+        MediaCodec codec = null;
+        try (AssetFileDescriptor afd = context.getAssets().openFd(key)) {
+            extractor.setDataSource(afd.getFileDescriptor(), afd.getStartOffset(), afd.getLength());
+            MediaFormat format = null;
+            for (int i = 0; i < extractor.getTrackCount(); i++) {
+                MediaFormat candidate = extractor.getTrackFormat(i);
+                String mime = candidate.getString(MediaFormat.KEY_MIME);
+                if (mime != null && mime.startsWith("audio/")) {
+                    extractor.selectTrack(i);
+                    format = candidate;
+                    break;
+                }
+            }
+            if (format == null) {
+                throw new IOException("No audio track in " + asset);
+            }
+
+            codec = MediaCodec.createDecoderByType(format.getString(MediaFormat.KEY_MIME));
+            codec.configure(format, null, null, 0);
+            codec.start();
+
+            int channels = format.getInteger(MediaFormat.KEY_CHANNEL_COUNT);
+            int inRate = format.getInteger(MediaFormat.KEY_SAMPLE_RATE);
+            short[] mono = new short[inRate * 2];
+            int monoLength = 0;
+
+            MediaCodec.BufferInfo info = new MediaCodec.BufferInfo();
+            boolean inputDone = false;
+            boolean outputDone = false;
+            while (!outputDone) {
+                if (!inputDone) {
+                    int inIndex = codec.dequeueInputBuffer(10_000);
+                    if (inIndex >= 0) {
+                        ByteBuffer in = codec.getInputBuffer(inIndex);
+                        int size = extractor.readSampleData(in, 0);
+                        if (size < 0) {
+                            codec.queueInputBuffer(inIndex, 0, 0, 0,
+                                    MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+                            inputDone = true;
+                        } else {
+                            codec.queueInputBuffer(inIndex, 0, size, extractor.getSampleTime(), 0);
+                            extractor.advance();
+                        }
+                    }
+                }
+
+                int outIndex = codec.dequeueOutputBuffer(info, 10_000);
+                if (outIndex == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED) {
+                    MediaFormat outFormat = codec.getOutputFormat();
+                    channels = outFormat.getInteger(MediaFormat.KEY_CHANNEL_COUNT);
+                    inRate = outFormat.getInteger(MediaFormat.KEY_SAMPLE_RATE);
+                } else if (outIndex >= 0) {
+                    ByteBuffer out = codec.getOutputBuffer(outIndex);
+                    out.position(info.offset);
+                    out.limit(info.offset + info.size);
+                    ShortBuffer samples = out.order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+                    int frames = samples.remaining() / channels;
+                    if (monoLength + frames > mono.length) {
+                        mono = Arrays.copyOf(mono, Math.max(mono.length * 2, monoLength + frames));
+                    }
+                    for (int f = 0; f < frames; f++) {
+                        int sum = 0;
+                        for (int c = 0; c < channels; c++) {
+                            sum += samples.get();
+                        }
+                        mono[monoLength++] = (short) (sum / channels);
+                    }
+                    codec.releaseOutputBuffer(outIndex, false);
+                    if ((info.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0) {
+                        outputDone = true;
+                    }
+                }
+            }
+            return resample(mono, monoLength, inRate, outRate);
+        } finally {
+            if (codec != null) {
+                codec.stop();
+                codec.release();
+            }
+            extractor.release();
+        }
+    }
+
+    /** Linear resampling; the cues are short bells so this is done once at load. */
+    static short[] resample(short[] in, int length, int inRate, int outRate) {
+        if (inRate == outRate) {
+            return Arrays.copyOf(in, length);
+        }
+        int outLength = (int) ((long) length * outRate / inRate);
+        short[] out = new short[outLength];
+        double step = (double) inRate / outRate;
+        for (int i = 0; i < outLength; i++) {
+            double pos = i * step;
+            int i0 = (int) pos;
+            int i1 = Math.min(i0 + 1, length - 1);
+            double frac = pos - i0;
+            out[i] = (short) Math.round(in[i0] * (1 - frac) + in[i1] * frac);
+        }
+        return out;
+    }
+
+    private static final class PendingCue {
+        final int cue;
+        final long atNanos;
+
+        PendingCue(int cue, long atNanos) {
+            this.cue = cue;
+            this.atNanos = atNanos;
+        }
+    }
+
+    private static final class Voice {
+        short[] pcm;
+        long startFrame;
+        long stopFrame;
+        boolean active;
+    }
+}
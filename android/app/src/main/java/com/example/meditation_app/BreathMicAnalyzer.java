@@ -0,0 +1,241 @@
+package com.example.meditation_app;
+
+import android.Manifest;
+import android.app.Activity;
+import android.content.pm.PackageManager;
+import android.media.AudioFormat;
+import android.media.AudioRecord;
+import android.media.AudioTimestamp;
+import android.media.MediaRecorder;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.meditation_app.session.BreathDetector;
+import com.example.meditation_app.session.CueClock;
+
+import io.flutter.plugin.common.EventChannel;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * Listens to the microphone during a session and reports breaths and hums.
+ *
+ * Methods on {@link #CHANNEL}: {@code start}, which asks for the microphone
+ * permission the first time and answers whether listening began, and
+ * {@code stop}. Each sound the {@link BreathDetector} starts or ends is sent
+ * on {@link #EVENTS} as {@code [event, ageMicros, levelCentiDb]}: the
+ * detector's event code, how long before delivery the sound started or
+ * ended, and its level in hundredths of a dBFS. Sending the age rather than
+ * an instant spares Dart a clock shared with this side.
+ *
+ * A single capture thread reads one detector hop at a time and analyses it
+ * in place; nothing is allocated per hop, only per event.
+ */
+public class BreathMicAnalyzer implements MethodChannel.MethodCallHandler, EventChannel.StreamHandler {
+    public static final String CHANNEL = "meditation_app/breath_detector";
+    public static final String EVENTS = "meditation_app/breath_detector/events";
+
+    private static final String TAG = "BreathMicAnalyzer";
+    private static final int PERMISSION_REQUEST = 0xB4EA;
+    /** Preferred rate; 44.1 kHz is the one every device has to support. */
+    private static final int[] SAMPLE_RATES = {16_000, 44_100};
+    /** Slack in the recorder's buffer before it drops audio. */
+    private static final int BUFFER_MILLIS = 250;
+
+    private final Activity activity;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Main thread only.
+    private EventChannel.EventSink sink;
+    private MethodChannel.Result pendingStart;
+    private AudioRecord record;
+    private Thread captureThread;
+
+    private volatile boolean capturing;
+
+    public BreathMicAnalyzer(Activity activity) {
+        this.activity = activity;
+    }
+
+    @Override
+    public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
+        switch (call.method) {
+            case "start":
+                start(result);
+                break;
+            case "stop":
+                stop();
+                result.success(null);
+                break;
+            default:
+                result.notImplemented();
+        }
+    }
+
+    private void start(MethodChannel.Result result) {
+        if (captureThread != null) {
+            result.success(true);
+            return;
+        }
+        if (activity.checkSelfPermission(Manifest.permission.RECORD_AUDIO)
+                == PackageManager.PERMISSION_GRANTED) {
+            result.success(startCapture());
+            return;
+        }
+        if (pendingStart != null) {
+            result.error("busy", "Already asking for the microphone", null);
+            return;
+        }
+        pendingStart = result;
+        activity.requestPermissions(new String[] {Manifest.permission.RECORD_AUDIO}, PERMISSION_REQUEST);
+    }
+
+    /** Forwarded from the activity; true if the request was this one's. */
+    public boolean onRequestPermissionsResult(int requestCode, @NonNull int[] grantResults) {
+        if (requestCode != PERMISSION_REQUEST) return false;
+        MethodChannel.Result result = pendingStart;
+        pendingStart = null;
+        if (result != null) {
+            boolean granted = grantResults.length > 0
+                    && grantResults[0] == PackageManager.PERMISSION_GRANTED;
+            result.success(granted && startCapture());
+        }
+        return true;
+    }
+
+    private boolean startCapture() {
+        for (int sampleRate : SAMPLE_RATES) {
+            AudioRecord candidate = openRecord(sampleRate);
+            if (candidate == null) continue;
+            try {
+                candidate.startRecording();
+            } catch (IllegalStateException e) {
+                Log.w(TAG, "Microphone refused at " + sampleRate + " Hz", e);
+                candidate.release();
+                continue;
+            }
+            record = candidate;
+            capturing = true;
+            captureThread = new Thread(() -> capture(candidate, sampleRate), "BreathMic");
+            captureThread.start();
+            return true;
+        }
+        return false;
+    }
+
+    private static AudioRecord openRecord(int sampleRate) {
+        int minBytes = AudioRecord.getMinBufferSize(sampleRate,
+                AudioFormat.CHANNEL_IN_MONO, AudioFormat.ENCODING_PCM_16BIT);
+        if (minBytes <= 0) return null;
+        AudioRecord candidate;
+        try {
+            // Voice recognition input skips the gain control and noise
+            // suppression that would flatten the sounds being listened for.
+            candidate = new AudioRecord(MediaRecorder.AudioSource.VOICE_RECOGNITION, sampleRate,
+                    AudioFormat.CHANNEL_IN_MONO, AudioFormat.ENCODING_PCM_16BIT,
+                    Math.max(minBytes, 2 * sampleRate * BUFFER_MILLIS / 1000));
+        } catch (IllegalArgumentException | SecurityException e) {
+            Log.w(TAG, "No microphone at " + sampleRate + " Hz", e);
+            return null;
+        }
+        if (candidate.getState() != AudioRecord.STATE_INITIALIZED) {
+            candidate.release();
+            return null;
+        }
+        return candidate;
+    }
+
+    /** Runs on the capture thread until {@link #stop}. */
+    private void capture(AudioRecord input, int sampleRate) {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_AUDIO);
+        AudioTimestamp timestamp = Build.VERSION.SDK_INT >= Build.VERSION_CODES.N ? new AudioTimestamp() : null;
+        long[] anchor = new long[2];
+        BreathDetector detector = new BreathDetector(sampleRate, (event, sample, levelDb) -> {
+            long heardNanos = CueClock.nanosAt(anchor[0], anchor[1], sample, sampleRate);
+            long centiDb = Math.round(levelDb * 100);
+            mainHandler.post(() -> send(event, heardNanos, centiDb));
+        });
+        short[] hop = new short[detector.hopSize()];
+        long frames = 0;
+        while (capturing) {
+            int read = input.read(hop, 0, hop.length);
+            if (read < 0) {
+                Log.w(TAG, "Microphone read failed: " + read);
+                break;
+            }
+            frames += read;
+            // The recorder's own timestamp places the frame it reports by when
+            // it was captured; without one, the newest frame is taken to be
+            // now, which is later than it was by the input latency.
+            if (timestamp != null && input.getTimestamp(timestamp, AudioTimestamp.TIMEBASE_MONOTONIC)
+                    == AudioRecord.SUCCESS) {
+                anchor[0] = timestamp.framePosition;
+                anchor[1] = timestamp.nanoTime;
+            } else {
+                anchor[0] = frames;
+                anchor[1] = System.nanoTime();
+            }
+            detector.process(hop, 0, read);
+        }
+        detector.flush();
+        if (capturing) {
+            // The recorder failed rather than being stopped; release it from
+            // the main thread unless a new capture has started meanwhile.
+            Thread self = Thread.currentThread();
+            mainHandler.post(() -> {
+                if (captureThread == self) stop();
+            });
+        }
+    }
+
+    private void send(int event, long heardNanos, long centiDb) {
+        EventChannel.EventSink current = sink;
+        if (current == null) return;
+        long ageMicros = Math.max(0, (System.nanoTime() - heardNanos) / 1_000L);
+        current.success(new long[] {event, ageMicros, centiDb});
+    }
+
+    /** Stops listening and releases the microphone. */
+    public void stop() {
+        Thread thread = captureThread;
+        if (thread == null) return;
+        capturing = false;
+        try {
+            record.stop();
+        } catch (IllegalStateException ignored) {
+            // Already stopped.
+        }
+        try {
+            thread.join(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        record.release();
+        record = null;
+        captureThread = null;
+    }
+
+    @Override
+    public void onListen(Object arguments, EventChannel.EventSink events) {
+        sink = events;
+    }
+
+    @Override
+    public void onCancel(Object arguments) {
+        sink = null;
+    }
+
+    public void release() {
+        stop();
+        sink = null;
+        if (pendingStart != null) {
+            pendingStart.success(false);
+            pendingStart = null;
+        }
+    }
+}
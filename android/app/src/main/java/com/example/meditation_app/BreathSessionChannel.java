@@ -0,0 +1,195 @@
+package com.example.meditation_app;
+
+import android.Manifest;
+import android.app.Activity;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import com.example.meditation_app.session.BreathSessionTimeline;
+
+import java.util.List;
+import java.util.Map;
+
+import io.flutter.plugin.common.EventChannel;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * Platform channels for the native session runner.
+ *
+ * Methods on {@link #CHANNEL}: {@code start}, {@code pause}, {@code resume},
+ * {@code stop} and {@code status}. While the UI listens on {@link #EVENTS},
+ * every phase change is sent to it; when the UI is detached nothing is sent,
+ * and {@code status} brings it up to date when it comes back.
+ *
+ * On Android 13 and later the first {@code start} asks for permission to post
+ * notifications before starting the foreground service. The session runs
+ * either way; without the permission its notification is just not shown.
+ */
+public class BreathSessionChannel implements MethodChannel.MethodCallHandler,
+        EventChannel.StreamHandler, BreathSessionRunner.Listener {
+    public static final String CHANNEL = "meditation_app/breath_session";
+    public static final String EVENTS = "meditation_app/breath_session/events";
+
+    private static final int PERMISSION_REQUEST = 0xB4EB;
+
+    private final Activity activity;
+    private final Context context;
+    private final BreathSessionRunner runner;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private EventChannel.EventSink sink;
+    // A start waiting for the notification permission answer.
+    private Runnable pendingStart;
+    private MethodChannel.Result pendingResult;
+
+    public BreathSessionChannel(Activity activity) {
+        this.activity = activity;
+        this.context = activity.getApplicationContext();
+        this.runner = BreathSessionRunner.get(context);
+    }
+
+    @Override
+    public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
+        switch (call.method) {
+            case "start":
+                start(call, result);
+                break;
+            case "pause":
+                runner.pause();
+                result.success(null);
+                break;
+            case "resume":
+                runner.resume();
+                result.success(null);
+                break;
+            case "stop":
+                runner.stop();
+                result.success(null);
+                break;
+            case "status":
+                runner.snapshot(snapshot -> mainHandler.post(() -> result.success(snapshot)));
+                break;
+            default:
+                result.notImplemented();
+        }
+    }
+
+    private void start(MethodCall call, MethodChannel.Result result) {
+        List<Number> millis = call.argument("phaseMillis");
+        List<String> cues = call.argument("cues");
+        List<String> labels = call.argument("labels");
+        Number rounds = call.argument("rounds");
+        Number elapsed = call.argument("elapsedMillis");
+        String title = call.argument("title");
+        Boolean haptics = call.argument("haptics");
+        if (millis == null || cues == null || labels == null || rounds == null
+                || millis.size() != cues.size() || millis.size() != labels.size()) {
+            result.error("bad_session", "phaseMillis, cues, labels and rounds are required", null);
+            return;
+        }
+
+        long[] phaseNanos = new long[millis.size()];
+        int[] phaseCues = new int[cues.size()];
+        for (int i = 0; i < phaseNanos.length; i++) {
+            phaseNanos[i] = millis.get(i).longValue() * 1_000_000L;
+            Integer cue = BreathCueEngine.cueFromPhase(cues.get(i));
+            if (cue == null) {
+                result.error("bad_phase", "Unknown cue phase: " + cues.get(i), null);
+                return;
+            }
+            phaseCues[i] = cue;
+        }
+        BreathSessionTimeline timeline;
+        try {
+            timeline = new BreathSessionTimeline(phaseNanos, phaseCues,
+                    labels.toArray(new String[0]), rounds.intValue());
+        } catch (IllegalArgumentException e) {
+            result.error("bad_session", e.getMessage(), null);
+            return;
+        }
+
+        long elapsedNanos = elapsed != null ? elapsed.longValue() * 1_000_000L : 0;
+        long askedAt = System.nanoTime();
+        // The screen's session keeps going while the permission dialog is up.
+        Runnable launch = () -> launch(timeline, elapsedNanos + System.nanoTime() - askedAt,
+                title != null ? title : "", haptics == null || haptics, result);
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.TIRAMISU
+                || activity.checkSelfPermission(Manifest.permission.POST_NOTIFICATIONS)
+                        == PackageManager.PERMISSION_GRANTED) {
+            launch.run();
+            return;
+        }
+        if (pendingStart != null) {
+            result.error("busy", "Already asking to post notifications", null);
+            return;
+        }
+        pendingStart = launch;
+        pendingResult = result;
+        activity.requestPermissions(
+                new String[] {Manifest.permission.POST_NOTIFICATIONS}, PERMISSION_REQUEST);
+    }
+
+    /** Forwarded from the activity; true if the request was this one's. */
+    public boolean onRequestPermissionsResult(int requestCode) {
+        if (requestCode != PERMISSION_REQUEST) return false;
+        Runnable launch = pendingStart;
+        pendingStart = null;
+        pendingResult = null;
+        // Denied only hides the notification; the session still runs.
+        if (launch != null) launch.run();
+        return true;
+    }
+
+    private void launch(BreathSessionTimeline timeline, long elapsedNanos, String title,
+            boolean haptics, MethodChannel.Result result) {
+        runner.start(timeline, elapsedNanos, title, haptics);
+        try {
+            BreathSessionService.start(context);
+        } catch (RuntimeException e) {
+            // Starting a foreground service can be refused, e.g. from the background.
+            runner.stop();
+            result.error("service_refused", e.getMessage(), null);
+            return;
+        }
+        result.success(true);
+    }
+
+    @Override
+    public void onListen(Object arguments, EventChannel.EventSink events) {
+        sink = events;
+        runner.addListener(this);
+        runner.snapshot(this::onSessionChanged);
+    }
+
+    @Override
+    public void onCancel(Object arguments) {
+        runner.removeListener(this);
+        sink = null;
+    }
+
+    @Override
+    public void onSessionChanged(Map<String, Object> snapshot) {
+        mainHandler.post(() -> {
+            EventChannel.EventSink current = sink;
+            if (current != null) {
+                current.success(snapshot);
+            }
+        });
+    }
+
+    /** Detaches from the runner; the session itself keeps going. */
+    public void dispose() {
+        runner.removeListener(this);
+        sink = null;
+        if (pendingResult != null) {
+            pendingResult.success(false);
+            pendingResult = null;
+            pendingStart = null;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.meditation_app;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.os.Vibrator;
+import android.util.Log;
+
+import com.example.meditation_app.session.BreathSessionTimeline;
+import com.example.meditation_app.session.CueClock;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Runs a breathing session natively, independent of the Flutter UI.
+ *
+ * The runner wakes once per phase: {@link #CUE_LEAD_NANOS} before a boundary
+ * it queues the boundary's cue on the {@link BreathCueEngine} at the exact
+ * instant, and at the boundary it tells its listeners. Haptics are not
+ * fired per phase; {@link SessionHaptics} plays them as precompiled
+ * waveforms timed by the vibrator. In between nothing runs, so a session
+ * with the screen off costs a handful of wakeups per minute. A partial wake
+ * lock keeps those wakeups on time while the screen is off.
+ *
+ * There is one runner per process; {@link BreathSessionService} keeps the
+ * process in the foreground while a session is active.
+ */
+final class BreathSessionRunner {
+    private static final String TAG = "BreathSessionRunner";
+
+    /** How far ahead of a boundary its cue is handed to the audio engine. */
+    static final long CUE_LEAD_NANOS = 500_000_000L;
+    /** How far ahead of its first pulse the next haptic waveform is started. */
+    private static final long HAPTIC_LEAD_NANOS = 250_000_000L;
+    /**
+     * Token of the timed boundary and haptic tasks, so cancelling them leaves
+     * queued commands and snapshots alone.
+     */
+    private static final Object TIMED = new Object();
+
+    /** Receives session changes on the runner thread. */
+    interface Listener {
+        void onSessionChanged(Map<String, Object> snapshot);
+    }
+
+    private static BreathSessionRunner instance;
+
+    static synchronized BreathSessionRunner get(Context context) {
+        if (instance == null) {
+            instance = new BreathSessionRunner(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private final Context context;
+    private final Handler handler;
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Vibrator vibrator;
+    private final PowerManager.WakeLock wakeLock;
+
+    // Owned by the runner thread.
+    private BreathCueEngine engine;
+    private BreathSessionTimeline timeline;
+    private String title = "";
+    private SessionHaptics haptics;
+    private long startNanos;
+    private long pausedAtNanos = -1;
+    private int nextBoundary;
+    private int currentBoundary = -1;
+    private boolean complete;
+
+    private BreathSessionRunner(Context context) {
+        this.context = context;
+        HandlerThread thread = new HandlerThread("BreathSession");
+        thread.start();
+        handler = new Handler(thread.getLooper());
+        vibrator = (Vibrator) context.getSystemService(Context.VIBRATOR_SERVICE);
+        PowerManager power = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        wakeLock = power.newWakeLock(PowerManager.PARTIAL_WAKE_LOCK, "meditation_app:breath_session");
+        wakeLock.setReferenceCounted(false);
+    }
+
+    void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Starts {@code session} as if it had already run for {@code elapsedNanos}. */
+    void start(BreathSessionTimeline session, long elapsedNanos, String sessionTitle, boolean withHaptics) {
+        handler.post(() -> {
+            stopLocked(false);
+            if (engine == null) {
+                engine = BreathCueEngine.acquire(context);
+            }
+            try {
+                engine.ensureStarted();
+            } catch (Exception e) {
+                Log.e(TAG, "Cue engine failed to start; running without audio", e);
+            }
+            timeline = session;
+            title = sessionTitle;
+            haptics = withHaptics && vibrator != null && vibrator.hasVibrator()
+                    ? new SessionHaptics(vibrator, session)
+                    : null;
+            startNanos = System.nanoTime() - elapsedNanos;
+            pausedAtNanos = -1;
+            complete = false;
+            currentBoundary = session.boundaryAt(elapsedNanos);
+            nextBoundary = session.firstBoundaryFrom(elapsedNanos);
+            if (currentBoundary == nextBoundary) currentBoundary--;
+            // Handler delays run on uptime, which stops in deep sleep; the lock
+            // keeps the wakeups on time while the CPU idles in between.
+            wakeLock.acquire(session.totalNanos() / 1_000_000L + 60_000L);
+            scheduleNext();
+            playHaptics();
+            notifyListeners();
+        });
+    }
+
+    void pause() {
+        handler.post(() -> {
+            if (timeline == null || complete || pausedAtNanos >= 0) return;
+            pausedAtNanos = System.nanoTime();
+            handler.removeCallbacksAndMessages(TIMED);
+            engine.cancelAll();
+            if (haptics != null) haptics.cancel();
+            if (wakeLock.isHeld()) wakeLock.release();
+            notifyListeners();
+        });
+    }
+
+    void resume() {
+        handler.post(() -> {
+            if (timeline == null || complete || pausedAtNanos < 0) return;
+            startNanos += System.nanoTime() - pausedAtNanos;
+            pausedAtNanos = -1;
+            // Queue again whatever was already handed to the engine before the pause.
+            nextBoundary = timeline.firstBoundaryFrom(elapsedNanos());
+            wakeLock.acquire((timeline.totalNanos() - elapsedNanos()) / 1_000_000L + 60_000L);
+            scheduleNext();
+            playHaptics();
+            notifyListeners();
+        });
+    }
+
+    void stop() {
+        handler.post(() -> stopLocked(true));
+    }
+
+    /** The session state, computed on the runner thread. */
+    void snapshot(SnapshotCallback callback) {
+        handler.post(() -> callback.onSnapshot(snapshotLocked()));
+    }
+
+    interface SnapshotCallback {
+        void onSnapshot(Map<String, Object> snapshot);
+    }
+
+    private void stopLocked(boolean notify) {
+        handler.removeCallbacksAndMessages(TIMED);
+        if (engine != null && timeline != null) {
+            engine.cancelAll();
+        }
+        if (haptics != null) {
+            haptics.cancel();
+            haptics = null;
+        }
+        boolean hadSession = timeline != null;
+        timeline = null;
+        complete = false;
+        pausedAtNanos = -1;
+        if (wakeLock.isHeld()) wakeLock.release();
+        if (engine != null) {
+            BreathCueEngine.releaseShared();
+            engine = null;
+        }
+        if (notify && hadSession) notifyListeners();
+    }
+
+    private long elapsedNanos() {
+        long now = pausedAtNanos >= 0 ? pausedAtNanos : System.nanoTime();
+        return Math.min(now - startNanos, timeline.totalNanos());
+    }
+
+    private void scheduleNext() {
+        if (nextBoundary >= timeline.boundaryCount()) {
+            postAt(startNanos + timeline.totalNanos(), this::finish);
+            return;
+        }
+        final int boundary = nextBoundary;
+        final long at = startNanos + timeline.startOf(boundary);
+        postAt(CueClock.handOffAt(timeline, boundary, startNanos, CUE_LEAD_NANOS), () -> {
+            engine.scheduleCue(timeline.cueOf(boundary), at);
+            nextBoundary = boundary + 1;
+            postAt(at, () -> enterPhase(boundary));
+        });
+    }
+
+    private void enterPhase(int boundary) {
+        currentBoundary = boundary;
+        notifyListeners();
+        scheduleNext();
+    }
+
+    /** Plays the haptic chunk from the current position and posts the next one. */
+    private void playHaptics() {
+        if (haptics == null) return;
+        long next = haptics.play(elapsedNanos());
+        if (next >= 0) {
+            postAt(startNanos + next - HAPTIC_LEAD_NANOS, this::playHaptics);
+        }
+    }
+
+    private void finish() {
+        complete = true;
+        haptics = null;
+        currentBoundary = timeline.boundaryCount() - 1;
+        if (wakeLock.isHeld()) wakeLock.release();
+        BreathCueEngine.releaseShared();
+        engine = null;
+        notifyListeners();
+    }
+
+    /** Posts {@code task} to run at {@code atNanos} on the {@link System#nanoTime()} clock. */
+    private void postAt(long atNanos, Runnable task) {
+        long delayMillis = Math.max(0, (atNanos - System.nanoTime()) / 1_000_000L);
+        handler.postAtTime(task, TIMED, SystemClock.uptimeMillis() + delayMillis);
+    }
+
+    private Map<String, Object> snapshotLocked() {
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("active", timeline != null && !complete);
+        snapshot.put("complete", complete);
+        snapshot.put("paused", pausedAtNanos >= 0);
+        if (timeline != null) {
+            snapshot.put("title", title);
+            snapshot.put("elapsedMillis", elapsedNanos() / 1_000_000L);
+            snapshot.put("totalMillis", timeline.totalNanos() / 1_000_000L);
+            snapshot.put("rounds", timeline.rounds());
+            if (currentBoundary >= 0) {
+                snapshot.put("round", timeline.roundOf(currentBoundary));
+                snapshot.put("phase", timeline.phaseOf(currentBoundary));
+                snapshot.put("label", timeline.labelOf(currentBoundary));
+            }
+        }
+        return snapshot;
+    }
+
+    private void notifyListeners() {
+        Map<String, Object> snapshot = snapshotLocked();
+        for (Listener listener : listeners) {
+            listener.onSessionChanged(snapshot);
+        }
+    }
+}
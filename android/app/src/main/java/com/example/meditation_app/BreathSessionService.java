@@ -0,0 +1,143 @@
+package com.example.meditation_app;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ServiceInfo;
+import android.os.Build;
+import android.os.Handler;
+import android.os.IBinder;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+
+import java.util.Map;
+
+/**
+ * Foreground service that keeps a {@link BreathSessionRunner} session alive
+ * while the app is in the background or the screen is off.
+ *
+ * The service does no timing itself; it holds the process in the foreground,
+ * shows the current phase in its notification, and stops itself when the
+ * session completes or is stopped.
+ */
+public class BreathSessionService extends Service implements BreathSessionRunner.Listener {
+    private static final String NOTIFICATION_CHANNEL = "breath_session";
+    private static final int NOTIFICATION_ID = 4207;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private BreathSessionRunner runner;
+    private NotificationManager notifications;
+    private String lastTitle;
+    private String lastText;
+
+    static void start(Context context) {
+        Intent intent = new Intent(context, BreathSessionService.class);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            context.startForegroundService(intent);
+        } else {
+            context.startService(intent);
+        }
+    }
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        notifications = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(NOTIFICATION_CHANNEL,
+                    "Breathing sessions", NotificationManager.IMPORTANCE_LOW);
+            channel.setShowBadge(false);
+            notifications.createNotificationChannel(channel);
+        }
+        runner = BreathSessionRunner.get(this);
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        Notification notification = buildNotification("Breathing session", "Starting");
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            startForeground(NOTIFICATION_ID, notification,
+                    ServiceInfo.FOREGROUND_SERVICE_TYPE_MEDIA_PLAYBACK);
+        } else {
+            startForeground(NOTIFICATION_ID, notification);
+        }
+        runner.removeListener(this);
+        runner.addListener(this);
+        runner.snapshot(this::onSessionChanged);
+        // A restarted process has no session to resume.
+        return START_NOT_STICKY;
+    }
+
+    /** Called on the runner thread; the service is updated on the main thread. */
+    @Override
+    public void onSessionChanged(Map<String, Object> snapshot) {
+        mainHandler.post(() -> update(snapshot));
+    }
+
+    private void update(Map<String, Object> snapshot) {
+        if (!Boolean.TRUE.equals(snapshot.get("active"))) {
+            runner.removeListener(this);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+                stopForeground(STOP_FOREGROUND_REMOVE);
+            } else {
+                stopForeground(true);
+            }
+            stopSelf();
+            return;
+        }
+        Object title = snapshot.get("title");
+        String titleText = title != null && !"".equals(title) ? title.toString() : "Breathing session";
+        String text = describe(snapshot);
+        if (!titleText.equals(lastTitle) || !text.equals(lastText)) {
+            lastTitle = titleText;
+            lastText = text;
+            notifications.notify(NOTIFICATION_ID, buildNotification(titleText, text));
+        }
+    }
+
+    private static String describe(Map<String, Object> snapshot) {
+        Object label = snapshot.get("label");
+        Object round = snapshot.get("round");
+        Object rounds = snapshot.get("rounds");
+        if (Boolean.TRUE.equals(snapshot.get("paused"))) return "Paused";
+        if (label == null || round == null) return "Starting";
+        return label + " · round " + ((Integer) round + 1) + " of " + rounds;
+    }
+
+    private Notification buildNotification(String title, String text) {
+        Intent open = new Intent(this, MainActivity.class)
+                .setFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP | Intent.FLAG_ACTIVITY_REORDER_TO_FRONT);
+        PendingIntent content = PendingIntent.getActivity(this, 0, open,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+        Notification.Builder builder = Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
+                ? new Notification.Builder(this, NOTIFICATION_CHANNEL)
+                : new Notification.Builder(this);
+        return builder
+                .setSmallIcon(R.mipmap.ic_launcher)
+                .setContentTitle(title)
+                .setContentText(text)
+                .setContentIntent(content)
+                .setOngoing(true)
+                .setOnlyAlertOnce(true)
+                .build();
+    }
+
+    @Override
+    public void onDestroy() {
+        if (runner != null) {
+            runner.removeListener(this);
+        }
+        super.onDestroy();
+    }
+
+    @Nullable
+    @Override
+    public IBinder onBind(Intent intent) {
+        return null;
+    }
+}
@@ -1,6 +1,99 @@
 package com.example.meditation_app;
 
+import androidx.annotation.NonNull;
+
 import io.flutter.embedding.android.FlutterActivity;
+import io.flutter.embedding.engine.FlutterEngine;
+import io.flutter.plugin.common.EventChannel;
+import io.flutter.plugin.common.MethodChannel;
 
 public class MainActivity extends FlutterActivity {
+    private BreathCueEngine breathCueEngine;
+    private MethodChannel breathCueChannel;
+    private BreathSessionChannel breathSession;
+    private MethodChannel breathSessionChannel;
+    private EventChannel breathSessionEvents;
+    private AmbientAudioEngine ambientAudio;
+    private MethodChannel ambientAudioChannel;
+    private BreathMicAnalyzer breathMic;
+    private MethodChannel breathMicChannel;
+    private EventChannel breathMicEvents;
+
+    @Override
+    public void configureFlutterEngine(@NonNull FlutterEngine flutterEngine) {
+        super.configureFlutterEngine(flutterEngine);
+        breathCueEngine = BreathCueEngine.acquire(this);
+        breathCueChannel = new MethodChannel(
+                flutterEngine.getDartExecutor().getBinaryMessenger(), BreathCueEngine.CHANNEL);
+        breathCueChannel.setMethodCallHandler(breathCueEngine);
+
+        // Sessions run in BreathSessionService and outlive this activity.
+        breathSession = new BreathSessionChannel(this);
+        breathSessionChannel = new MethodChannel(
+                flutterEngine.getDartExecutor().getBinaryMessenger(), BreathSessionChannel.CHANNEL);
+        breathSessionChannel.setMethodCallHandler(breathSession);
+        breathSessionEvents = new EventChannel(
+                flutterEngine.getDartExecutor().getBinaryMessenger(), BreathSessionChannel.EVENTS);
+        breathSessionEvents.setStreamHandler(breathSession);
+
+        ambientAudio = new AmbientAudioEngine(this);
+        ambientAudioChannel = new MethodChannel(
+                flutterEngine.getDartExecutor().getBinaryMessenger(), AmbientAudioEngine.CHANNEL);
+        ambientAudioChannel.setMethodCallHandler(ambientAudio);
+
+        breathMic = new BreathMicAnalyzer(this);
+        breathMicChannel = new MethodChannel(
+                flutterEngine.getDartExecutor().getBinaryMessenger(), BreathMicAnalyzer.CHANNEL);
+        breathMicChannel.setMethodCallHandler(breathMic);
+        breathMicEvents = new EventChannel(
+                flutterEngine.getDartExecutor().getBinaryMessenger(), BreathMicAnalyzer.EVENTS);
+        breathMicEvents.setStreamHandler(breathMic);
+    }
+
+    @Override
+    public void onRequestPermissionsResult(
+            int requestCode, @NonNull String[] permissions, @NonNull int[] grantResults) {
+        if (breathMic != null && breathMic.onRequestPermissionsResult(requestCode, grantResults)) {
+            return;
+        }
+        if (breathSession != null && breathSession.onRequestPermissionsResult(requestCode)) {
+            return;
+        }
+        super.onRequestPermissionsResult(requestCode, permissions, grantResults);
+    }
+
+    @Override
+    public void cleanUpFlutterEngine(@NonNull FlutterEngine flutterEngine) {
+        if (breathMicChannel != null) {
+            breathMicChannel.setMethodCallHandler(null);
+            breathMicEvents.setStreamHandler(null);
+            breathMic.release();
+            breathMicChannel = null;
+            breathMicEvents = null;
+            breathMic = null;
+        }
+        if (ambientAudioChannel != null) {
+            ambientAudioChannel.setMethodCallHandler(null);
+            ambientAudio.release();
+            ambientAudioChannel = null;
+            ambientAudio = null;
+        }
+        if (breathSessionChannel != null) {
+            breathSessionChannel.setMethodCallHandler(null);
+            breathSessionEvents.setStreamHandler(null);
+            breathSession.dispose();
+            breathSessionChannel = null;
+            breathSessionEvents = null;
+            breathSession = null;
+        }
+        if (breathCueChannel != null) {
+            breathCueChannel.setMethodCallHandler(null);
+            breathCueChannel = null;
+        }
+        if (breathCueEngine != null) {
+            BreathCueEngine.releaseShared();
+            breathCueEngine = null;
+        }
+        super.cleanUpFlutterEngine(flutterEngine);
+    }
 }
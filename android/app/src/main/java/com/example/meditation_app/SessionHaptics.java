@@ -0,0 +1,60 @@
+package com.example.meditation_app;
+
+import android.os.Build;
+import android.os.VibrationEffect;
+import android.os.Vibrator;
+
+import com.example.meditation_app.session.BreathSessionTimeline;
+import com.example.meditation_app.session.HapticWaveform;
+
+import java.util.Arrays;
+
+/**
+ * Plays a session's {@link HapticWaveform} on the vibrator.
+ *
+ * Instead of one vibrate call per phase, {@link #play(long)} hands the
+ * vibrator a single waveform covering the next
+ * {@link HapticWaveform#CHUNK_PULSES} boundaries, timed by the vibrator
+ * itself. The caller starts the next chunk shortly before its first pulse.
+ */
+final class SessionHaptics {
+    private final Vibrator vibrator;
+    private final HapticWaveform waveform;
+    private final int[] amplitudes;
+
+    SessionHaptics(Vibrator vibrator, BreathSessionTimeline timeline) {
+        this.vibrator = vibrator;
+        this.waveform = new HapticWaveform(timeline);
+        amplitudes = new int[waveform.chunkPulses() * 2];
+        for (int i = 1; i < amplitudes.length; i += 2) {
+            amplitudes[i] = VibrationEffect.DEFAULT_AMPLITUDE;
+        }
+    }
+
+    /**
+     * Plays the pulses of the chunk starting at the first boundary at or
+     * after {@code elapsedNanos}.
+     *
+     * @return the session offset of the next chunk's first pulse, or -1 when
+     *     this chunk ends the session
+     */
+    long play(long elapsedNanos) {
+        int first = waveform.chunkStart(elapsedNanos);
+        if (first < 0) return -1;
+
+        long[] chunk = waveform.chunk(first, elapsedNanos);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            int[] chunkAmplitudes = chunk.length == amplitudes.length
+                    ? amplitudes
+                    : Arrays.copyOf(amplitudes, chunk.length);
+            vibrator.vibrate(VibrationEffect.createWaveform(chunk, chunkAmplitudes, -1));
+        } else {
+            vibrator.vibrate(chunk, -1);
+        }
+        return waveform.nextChunkAt(first);
+    }
+
+    void cancel() {
+        vibrator.cancel();
+    }
+}
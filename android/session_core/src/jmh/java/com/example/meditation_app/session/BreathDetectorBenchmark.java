@@ -0,0 +1,63 @@
+package com.example.meditation_app.session;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Breath detection on the microphone thread. One hop is what the thread
+ * does per read, so its time against the hop length (16 ms at 16 kHz) is
+ * the share of a core the detector takes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BreathDetectorBenchmark {
+    private static final int SAMPLE_RATE = 16_000;
+
+    private BreathDetector detector;
+    private short[] audio;
+    private int at;
+    private int events;
+
+    @Setup
+    public void setUp() {
+        detector = new BreathDetector(SAMPLE_RATE, (event, sample, levelDb) -> events++);
+        // Ten seconds of quiet noise with a hummed tone every other second,
+        // so the detector goes through onsets and offsets.
+        Random random = new Random(7);
+        audio = new short[10 * SAMPLE_RATE];
+        for (int i = 0; i < audio.length; i++) {
+            double noise = random.nextGaussian() * 30;
+            double hum = (i / SAMPLE_RATE) % 2 == 1 ? 3000 * Math.sin(2 * Math.PI * 140 * i / SAMPLE_RATE) : 0;
+            audio[i] = (short) (noise + hum);
+        }
+    }
+
+    /** One microphone read of a hop. */
+    @Benchmark
+    public int hop() {
+        int hop = detector.hopSize();
+        if (at + hop > audio.length) at = 0;
+        detector.process(audio, at, hop);
+        at += hop;
+        return events;
+    }
+
+    /** A second of audio in one call. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int second() {
+        if (at + SAMPLE_RATE > audio.length) at = 0;
+        detector.process(audio, at, SAMPLE_RATE);
+        at += SAMPLE_RATE;
+        return events;
+    }
+}
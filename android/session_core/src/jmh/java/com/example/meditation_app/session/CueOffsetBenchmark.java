@@ -0,0 +1,60 @@
+package com.example.meditation_app.session;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Haptic waveform timings and cue frame positions. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CueOffsetBenchmark {
+    private static final long SECOND = 1_000_000_000L;
+
+    @Param({"10", "1000"})
+    public int rounds;
+
+    private BreathSessionTimeline timeline;
+    private HapticWaveform waveform;
+    private long elapsed;
+
+    @Setup
+    public void setUp() {
+        timeline = new BreathSessionTimeline(
+                new long[] {4 * SECOND, 7 * SECOND, 8 * SECOND, 0},
+                new int[] {0, 1, 2, 1},
+                new String[] {"Inhale", "Hold", "Exhale", "Hold"},
+                rounds);
+        waveform = new HapticWaveform(timeline);
+    }
+
+    /** Compiling a session's pulses, once per start. */
+    @Benchmark
+    public HapticWaveform buildWaveform() {
+        return new HapticWaveform(timeline);
+    }
+
+    /** One chunk handed to the vibrator. */
+    @Benchmark
+    public long[] chunk() {
+        elapsed = (elapsed + 3_001_000_007L) % timeline.totalNanos();
+        int first = waveform.chunkStart(elapsed);
+        return first >= 0 ? waveform.chunk(first, elapsed) : null;
+    }
+
+    /** Placing one cue: its hand-off instant and the frame it lands on. */
+    @Benchmark
+    public long cueFrame() {
+        elapsed = (elapsed + 3_001_000_007L) % timeline.totalNanos();
+        int boundary = timeline.boundaryAt(elapsed);
+        long at = CueClock.handOffAt(timeline, boundary, 0, 0);
+        return CueClock.frameAt(123_456, elapsed, at, 48_000);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.meditation_app.session;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Encoding and decoding practice logs of a few years of daily sessions. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PracticeRecordBenchmark {
+    @Param({"100", "10000"})
+    public int records;
+
+    private List<PracticeRecord> list;
+    private byte[] log;
+    private ByteBuffer buffer;
+    private final ByteBuffer one = ByteBuffer.allocate(PracticeRecordCodec.RECORD_SIZE);
+    private final String[] uids = {"Xk2pQ9aLr0MbTz7uV3nYc8sWe1f2", "a1B2c3D4e5F6g7H8i9J0k1L2m3N4"};
+
+    /** Sums durations without allocating per record. */
+    private static final class Total implements PracticeRecordCodec.Visitor {
+        long seconds;
+
+        @Override
+        public void record(long uidHash, long startEpochSeconds, long durationSeconds, int technique) {
+            seconds += durationSeconds;
+        }
+    }
+
+    private final Total total = new Total();
+
+    @Setup
+    public void setUp() {
+        list = new ArrayList<>(records);
+        long uid = PracticeRecordCodec.hashUid(uids[0]);
+        for (int i = 0; i < records; i++) {
+            list.add(new PracticeRecord(uid, 1_600_000_000L + i * 86_400L, 300 + i % 1800, i % 7));
+        }
+        log = PracticeRecordCodec.encodeLog(list);
+        buffer = ByteBuffer.wrap(log);
+    }
+
+    @Benchmark
+    public byte[] encodeLog() {
+        return PracticeRecordCodec.encodeLog(list);
+    }
+
+    @Benchmark
+    public List<PracticeRecord> decodeLog() {
+        return PracticeRecordCodec.decodeLog(log);
+    }
+
+    @Benchmark
+    public long visitLog() {
+        total.seconds = 0;
+        PracticeRecordCodec.forEach(buffer, total);
+        return total.seconds;
+    }
+
+    /** One append, as logging a finished session does. */
+    @Benchmark
+    public ByteBuffer encodeOne() {
+        one.clear();
+        PracticeRecordCodec.encode(list.get(0), one);
+        return one;
+    }
+
+    @Benchmark
+    public long hashUid() {
+        return PracticeRecordCodec.hashUid(uids[records & 1]);
+    }
+}
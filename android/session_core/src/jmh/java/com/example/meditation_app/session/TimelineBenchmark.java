@@ -0,0 +1,66 @@
+package com.example.meditation_app.session;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Building a timeline, and the lookups the runner makes once per phase. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TimelineBenchmark {
+    private static final long SECOND = 1_000_000_000L;
+
+    /** Box breathing, 4-7-8 with one hold, and a cycle of sub-second phases. */
+    @Param({"4,4,4,4", "4,7,8,0", "0.5,0,0.5,0"})
+    public String cycle;
+
+    @Param({"10", "1000"})
+    public int rounds;
+
+    private long[] phaseNanos;
+    private final int[] cues = {0, 1, 2, 1};
+    private final String[] labels = {"Inhale", "Hold", "Exhale", "Hold"};
+    private BreathSessionTimeline timeline;
+    private long probe;
+
+    @Setup
+    public void setUp() {
+        String[] seconds = cycle.split(",");
+        phaseNanos = new long[seconds.length];
+        for (int i = 0; i < seconds.length; i++) {
+            phaseNanos[i] = (long) (Double.parseDouble(seconds[i]) * SECOND);
+        }
+        timeline = new BreathSessionTimeline(phaseNanos, cues, labels, rounds);
+    }
+
+    @Benchmark
+    public BreathSessionTimeline build() {
+        return new BreathSessionTimeline(phaseNanos, cues, labels, rounds);
+    }
+
+    /** Where a resumed session picks up: the next boundary and its start. */
+    @Benchmark
+    public long firstBoundaryFrom() {
+        probe = (probe + 7_919_000_003L) % timeline.totalNanos();
+        int boundary = timeline.firstBoundaryFrom(probe);
+        return boundary < timeline.boundaryCount() ? timeline.startOf(boundary) : -1;
+    }
+
+    /** Every boundary of the session, as the runner walks them. */
+    @Benchmark
+    public void walkSession(Blackhole blackhole) {
+        for (int b = 0; b < timeline.boundaryCount(); b++) {
+            blackhole.consume(timeline.startOf(b));
+            blackhole.consume(timeline.cueOf(b));
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package com.example.meditation_app.session;
+
+/**
+ * Finds breath sounds and humming in a stream of microphone samples.
+ *
+ * Samples are collected in a {@link SampleRing}; every hop (half a frame of
+ * about 32 ms) the newest frame is windowed and transformed. Its level is
+ * taken from the frame itself; the rest from a spectrum smoothed over the
+ * last few hops, since one frame's is too noisy to judge. Three things are
+ * measured:
+ *
+ * <ul>
+ *   <li>its level between 80 Hz and 4 kHz, smoothed by an envelope follower
+ *       and compared with a noise floor that follows the room;</li>
+ *   <li>its harmonicity: how much more energy sits on the harmonics of the
+ *       strongest partial between 70 and 400 Hz than halfway between them,
+ *       which is high for a hum and about even for noise (a partial too
+ *       weak to be a hum's fundamental counts as none);</li>
+ *   <li>its spectral flatness between 400 Hz and 3 kHz, which is high for
+ *       the broadband hiss of breath through the nose or a narrowed throat
+ *       and low for tones such as bells.</li>
+ * </ul>
+ *
+ * A sound starts once each hop's level has been {@link #ON_DB} above the
+ * floor for {@link #ON_FRAMES} hops in a row, so a knock or a click does not
+ * count, and ends once the smoothed envelope has stayed within
+ * {@link #OFF_DB} of the floor for {@link #OFF_FRAMES}. Each hop votes hum, breath
+ * or neither, and the votes decide what a sound is; a breath that turns into
+ * a hum is reported as one ending and the other starting. Tonal sounds that
+ * are not hums are not reported. Events carry the sample at which the sound
+ * crossed the threshold, not the later hop that confirmed it.
+ *
+ * Which breath is an inhale and which an exhale is not decided here: the two
+ * sound alike to a phone microphone, and the session knows which one it
+ * asked for.
+ *
+ * All buffers are allocated by the constructor; {@link #process} allocates
+ * nothing and is meant to run on the audio thread.
+ */
+public final class BreathDetector {
+    public static final int BREATH_START = 1;
+    public static final int BREATH_END = 2;
+    public static final int HUM_START = 3;
+    public static final int HUM_END = 4;
+
+    /** How far above the noise floor a sound has to rise to start. */
+    static final float ON_DB = 10f;
+    /** How close to the noise floor a sound has to fall to end. */
+    static final float OFF_DB = 6f;
+    static final int ON_FRAMES = 4;
+    static final int OFF_FRAMES = 6;
+    static final float HUM_HARMONICITY = 0.8f;
+    /** Share of a hum's energy its fundamental has to hold. */
+    static final float FUNDAMENTAL_SHARE = 0.25f;
+    static final float BREATH_FLATNESS = 0.2f;
+    /**
+     * Hops of votes a sound's kind is judged on once it is going; all but
+     * one have to agree to change it.
+     */
+    static final int VOTES = 6;
+
+    /**
+     * Weight of each new frame in the spectrum the kind is judged on. One
+     * frame's spectrum is too noisy to tell hiss from harmonics reliably.
+     */
+    private static final float SPECTRUM_SMOOTHING = 0.4f;
+    private static final float ATTACK_SECONDS = 0.01f;
+    private static final float RELEASE_SECONDS = 0.08f;
+    private static final float FLOOR_FALL_SECONDS = 0.15f;
+    /** How fast the floor creeps up between sounds. */
+    private static final float FLOOR_RISE_DB_PER_SECOND = 0.5f;
+    /** Past this a sound is more likely a new, louder room; the floor follows it. */
+    private static final float MAX_SOUND_SECONDS = 20f;
+    private static final float FLOOR_CHASE_DB_PER_SECOND = 3f;
+    private static final float SILENCE_DB = -100f;
+
+    private static final int NONE = 0;
+    private static final int BREATH = 1;
+    private static final int HUM = 2;
+    /** Loud enough, but neither breath nor hum. */
+    private static final int OTHER = 3;
+
+    /** Receives detected sounds; called on the thread that calls {@link #process}. */
+    public interface Listener {
+        /**
+         * @param event one of {@link #BREATH_START}, {@link #BREATH_END},
+         *     {@link #HUM_START} or {@link #HUM_END}
+         * @param sample index of the first sample of the hop where the sound
+         *     crossed the threshold, counted from the first sample processed
+         * @param levelDb the sound's level in dB relative to full scale
+         */
+        void onSound(int event, long sample, float levelDb);
+    }
+
+    private final int sampleRate;
+    private final int frameSize;
+    private final int hop;
+    private final Listener listener;
+    private final SampleRing ring;
+    private final Fft fft;
+    private final float[] window;
+    private final float[] re;
+    private final float[] im;
+    /**
+     * Per-bin share of each frame's band power, smoothed across hops by
+     * {@link #SPECTRUM_SMOOTHING}.
+     */
+    private final float[] smoothed;
+
+    private final int bandLo;
+    private final int bandHi;
+    private final int humLo;
+    private final int humHi;
+    private final int harmonicHi;
+    private final int flatLo;
+    private final int flatHi;
+    /** Divides band power into mean square, so a level is dBFS RMS. */
+    private final double levelNorm;
+
+    private final float attack;
+    private final float release;
+    private final float floorFall;
+    private final float floorRise;
+    private final float floorChase;
+    private final long maxSoundHops;
+
+    private int sinceHop;
+    private boolean primed;
+    private float level;
+    private float envelope;
+    private float floor;
+    private float harmonicity;
+    private float flatness;
+
+    private boolean sounding;
+    private int kind = NONE;
+    private int above;
+    private int below;
+    private long onsetSample;
+    private long offsetSample;
+    private long soundHops;
+    /** One bit per recent hop of the current or starting sound, newest lowest. */
+    private int humBits;
+    private int breathBits;
+    private int votes;
+    private int streakKind = NONE;
+    private long streakStart;
+
+    public BreathDetector(int sampleRate, Listener listener) {
+        if (sampleRate < 8000) {
+            throw new IllegalArgumentException("Sample rate too low: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+        this.listener = listener;
+        // About 32 ms: long enough to resolve a low hum's harmonics.
+        frameSize = Integer.highestOneBit(sampleRate * 32 / 1000);
+        hop = frameSize / 2;
+        ring = new SampleRing(frameSize);
+        fft = new Fft(frameSize);
+        window = new float[frameSize];
+        for (int i = 0; i < frameSize; i++) {
+            window[i] = (float) (0.5 - 0.5 * Math.cos(2 * Math.PI * i / frameSize));
+        }
+        re = new float[frameSize];
+        im = new float[frameSize];
+        smoothed = new float[frameSize / 2 + 1];
+
+        bandLo = bin(80);
+        bandHi = bin(4000);
+        humLo = bin(70);
+        humHi = bin(400);
+        harmonicHi = bin(2000);
+        flatLo = bin(400);
+        flatHi = bin(3000);
+        // A Hann-windowed frame of mean square m has about 3 * N * N * m / 32 of power
+        // in the positive half of its spectrum.
+        levelNorm = 3.0 * frameSize * frameSize / 32.0;
+
+        float hopSeconds = (float) hop / sampleRate;
+        attack = smoothing(hopSeconds, ATTACK_SECONDS);
+        release = smoothing(hopSeconds, RELEASE_SECONDS);
+        floorFall = smoothing(hopSeconds, FLOOR_FALL_SECONDS);
+        floorRise = FLOOR_RISE_DB_PER_SECOND * hopSeconds;
+        floorChase = FLOOR_CHASE_DB_PER_SECOND * hopSeconds;
+        maxSoundHops = (long) (MAX_SOUND_SECONDS / hopSeconds);
+    }
+
+    private static float smoothing(float hopSeconds, float timeConstant) {
+        return (float) (1 - Math.exp(-hopSeconds / timeConstant));
+    }
+
+    private int bin(int hz) {
+        return Math.min(frameSize / 2, (int) Math.ceil((double) hz * frameSize / sampleRate));
+    }
+
+    public int sampleRate() {
+        return sampleRate;
+    }
+
+    /** Samples per analysis hop, and so the detector's time resolution. */
+    public int hopSize() {
+        return hop;
+    }
+
+    /** Smoothed level of the latest hop, dBFS. */
+    public float levelDb() {
+        return envelope;
+    }
+
+    /** Current noise floor, dBFS. */
+    public float floorDb() {
+        return floor;
+    }
+
+    /** Feeds 16-bit mono samples; listeners are called from inside. */
+    public void process(short[] pcm, int offset, int length) {
+        while (length > 0) {
+            int n = Math.min(length, hop - sinceHop);
+            ring.write(pcm, offset, n);
+            offset += n;
+            length -= n;
+            sinceHop += n;
+            if (sinceHop == hop) {
+                sinceHop = 0;
+                if (ring.written() >= frameSize) analyze(ring.written() - hop);
+            }
+        }
+    }
+
+    /** Ends a sound in progress, e.g. when the microphone stops. */
+    public void flush() {
+        if (sounding) endSound(ring.written());
+        sounding = false;
+        above = 0;
+        below = 0;
+    }
+
+    private void analyze(long hopSample) {
+        measure();
+        int frameKind = harmonicity >= HUM_HARMONICITY ? HUM
+                : flatness >= BREATH_FLATNESS ? BREATH
+                : OTHER;
+        if (frameKind != streakKind) {
+            streakKind = frameKind;
+            streakStart = hopSample;
+        }
+
+        if (!primed) {
+            primed = true;
+            envelope = level;
+            floor = level;
+        }
+        envelope += (level > envelope ? attack : release) * (level - envelope);
+
+        if (!sounding) {
+            if (level > floor + ON_DB) {
+                if (above++ == 0) {
+                    onsetSample = hopSample;
+                    humBits = 0;
+                    breathBits = 0;
+                    votes = 0;
+                }
+                vote(frameKind);
+                if (above >= ON_FRAMES) {
+                    sounding = true;
+                    below = 0;
+                    soundHops = above;
+                    kind = NONE;
+                    switchKind(majority(Math.min(above, VOTES)), onsetSample);
+                }
+            } else {
+                above = 0;
+                followFloor();
+            }
+            return;
+        }
+
+        soundHops++;
+        if (soundHops > maxSoundHops) floor += floorChase;
+        if (envelope < floor + OFF_DB) {
+            if (below++ == 0) offsetSample = hopSample;
+            if (below >= OFF_FRAMES) {
+                endSound(offsetSample);
+                sounding = false;
+                above = 0;
+                followFloor();
+            }
+            return;
+        }
+        below = 0;
+        // Only hops as loud as an onset vote, so a fading tail cannot flip the kind.
+        if (level <= floor + ON_DB) return;
+        vote(frameKind);
+        int decided = settled();
+        if (decided != kind && decided != OTHER) {
+            switchKind(decided, streakKind == decided ? streakStart : hopSample);
+        }
+    }
+
+    private void followFloor() {
+        if (envelope < floor) {
+            floor += floorFall * (envelope - floor);
+        } else {
+            floor = Math.min(envelope, floor + floorRise);
+        }
+    }
+
+    private void vote(int frameKind) {
+        int mask = (1 << VOTES) - 1;
+        humBits = ((humBits << 1) | (frameKind == HUM ? 1 : 0)) & mask;
+        breathBits = ((breathBits << 1) | (frameKind == BREATH ? 1 : 0)) & mask;
+        votes++;
+    }
+
+    /** What more than half of the last {@code count} votes went to; {@link #OTHER} if nothing. */
+    private int majority(int count) {
+        int mask = (1 << count) - 1;
+        if (2 * Integer.bitCount(humBits & mask) > count) return HUM;
+        if (2 * Integer.bitCount(breathBits & mask) > count) return BREATH;
+        return OTHER;
+    }
+
+    /** What all but one of the last {@link #VOTES} votes went to; {@link #OTHER} if nothing. */
+    private int settled() {
+        if (votes < VOTES) return OTHER;
+        if (Integer.bitCount(humBits) >= VOTES - 1) return HUM;
+        if (Integer.bitCount(breathBits) >= VOTES - 1) return BREATH;
+        return OTHER;
+    }
+
+    private void switchKind(int next, long sample) {
+        endSound(sample);
+        kind = next;
+        if (kind == BREATH) listener.onSound(BREATH_START, sample, envelope);
+        if (kind == HUM) listener.onSound(HUM_START, sample, envelope);
+    }
+
+    private void endSound(long sample) {
+        if (kind == BREATH) listener.onSound(BREATH_END, sample, envelope);
+        if (kind == HUM) listener.onSound(HUM_END, sample, envelope);
+        kind = NONE;
+    }
+
+    /** Fills {@link #level}, {@link #harmonicity} and {@link #flatness} from the newest frame. */
+    private void measure() {
+        ring.latest(re, frameSize);
+        for (int i = 0; i < frameSize; i++) {
+            re[i] *= window[i];
+            im[i] = 0f;
+        }
+        fft.transform(re, im);
+        double band = 0;
+        for (int k = bandLo; k <= bandHi; k++) {
+            band += re[k] * re[k] + im[k] * im[k];
+        }
+        // The level follows the raw frame, so onsets are not delayed.
+        level = band > 0
+                ? Math.max(SILENCE_DB, (float) (10 * Math.log10(band / levelNorm)))
+                : SILENCE_DB;
+
+        // Only the shape is smoothed, so one loud knock does not colour the
+        // spectrum of the quieter hops after it.
+        // A sound that may be starting is judged on its own spectrum, not
+        // the room's before it.
+        float weight = !sounding && above == 0 && level > floor + ON_DB ? 1f : SPECTRUM_SMOOTHING;
+        float scale = band > 0 ? (float) (1 / band) : 0f;
+        double smoothedBand = 0;
+        for (int k = 0; k < smoothed.length; k++) {
+            float p = (re[k] * re[k] + im[k] * im[k]) * scale;
+            smoothed[k] += weight * (p - smoothed[k]);
+            if (k >= bandLo && k <= bandHi) smoothedBand += smoothed[k];
+        }
+
+        int peak = humLo;
+        for (int k = humLo + 1; k <= humHi; k++) {
+            if (smoothed[k] > smoothed[peak]) peak = k;
+        }
+        double fundamental = smoothed[peak - 1] + smoothed[peak] + smoothed[peak + 1];
+        // Parabolic interpolation puts the fundamental between bins.
+        double f0 = peak;
+        double d = smoothed[peak - 1] - 2 * smoothed[peak] + smoothed[peak + 1];
+        if (d < 0) {
+            f0 += Math.max(-0.5, Math.min(0.5, 0.5 * (smoothed[peak - 1] - smoothed[peak + 1]) / d));
+        }
+        double onHarmonics = 0;
+        double between = 0;
+        // The fundamental is left out: it was picked for being the strongest bin.
+        for (int h = 2; h <= 10; h++) {
+            int at = (int) Math.round(h * f0);
+            int mid = (int) Math.round((h + 0.5) * f0);
+            if (mid + 1 > harmonicHi) break;
+            onHarmonics += smoothed[at - 1] + smoothed[at] + smoothed[at + 1];
+            between += smoothed[mid - 1] + smoothed[mid] + smoothed[mid + 1];
+        }
+        // A hum carries much of its energy in the fundamental; a bell or a
+        // whistle above the hum range leaves only leakage there.
+        harmonicity = onHarmonics + between > 0 && fundamental >= FUNDAMENTAL_SHARE * smoothedBand
+                ? (float) (onHarmonics / (onHarmonics + between))
+                : 0f;
+
+        double logSum = 0;
+        double sum = 0;
+        for (int k = flatLo; k <= flatHi; k++) {
+            double p = smoothed[k] + 1e-12;
+            logSum += Math.log(p);
+            sum += p;
+        }
+        int bins = flatHi - flatLo + 1;
+        flatness = (float) (Math.exp(logSum / bins) / (sum / bins));
+    }
+}
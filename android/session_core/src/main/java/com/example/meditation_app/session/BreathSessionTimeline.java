@@ -0,0 +1,105 @@
+package com.example.meditation_app.session;
+
+/**
+ * The phase boundaries of a breathing session: {@code rounds} repetitions of
+ * a fixed cycle of phases (inhale, hold, exhale, hold). Zero-length phases
+ * are skipped, matching the Dart {@code BreathSessionScheduler}.
+ *
+ * Boundaries are numbered from 0 and computed arithmetically, so a long
+ * session costs nothing to look up and never accumulates drift.
+ */
+public final class BreathSessionTimeline {
+    private final long[] phaseNanos;
+    private final int[] phaseCues;
+    private final String[] phaseLabels;
+    private final int rounds;
+    private final long cycleNanos;
+
+    /** Indexes into the cycle of the phases that have a duration. */
+    private final int[] activePhases;
+    /** Offset of each cycle phase from the start of its round. */
+    private final long[] phaseOffsets;
+
+    public BreathSessionTimeline(long[] phaseNanos, int[] phaseCues, String[] phaseLabels, int rounds) {
+        if (phaseNanos.length != phaseCues.length || phaseNanos.length != phaseLabels.length) {
+            throw new IllegalArgumentException("Phase arrays differ in length");
+        }
+        this.phaseNanos = phaseNanos.clone();
+        this.phaseCues = phaseCues.clone();
+        this.phaseLabels = phaseLabels.clone();
+        this.rounds = rounds;
+
+        phaseOffsets = new long[phaseNanos.length];
+        int active = 0;
+        long offset = 0;
+        for (int i = 0; i < phaseNanos.length; i++) {
+            phaseOffsets[i] = offset;
+            offset += phaseNanos[i];
+            if (phaseNanos[i] > 0) active++;
+        }
+        cycleNanos = offset;
+        if (cycleNanos <= 0 || rounds <= 0) {
+            throw new IllegalArgumentException("A session needs a cycle duration and rounds");
+        }
+        activePhases = new int[active];
+        for (int i = 0, j = 0; i < phaseNanos.length; i++) {
+            if (phaseNanos[i] > 0) activePhases[j++] = i;
+        }
+    }
+
+    public int rounds() {
+        return rounds;
+    }
+
+    public long totalNanos() {
+        return cycleNanos * rounds;
+    }
+
+    public int boundaryCount() {
+        return activePhases.length * rounds;
+    }
+
+    public int roundOf(int boundary) {
+        return boundary / activePhases.length;
+    }
+
+    /** Index of the boundary's phase within the cycle. */
+    public int phaseOf(int boundary) {
+        return activePhases[boundary % activePhases.length];
+    }
+
+    public int cueOf(int boundary) {
+        return phaseCues[phaseOf(boundary)];
+    }
+
+    public String labelOf(int boundary) {
+        return phaseLabels[phaseOf(boundary)];
+    }
+
+    /** Offset of the boundary from the session start. */
+    public long startOf(int boundary) {
+        return roundOf(boundary) * cycleNanos + phaseOffsets[phaseOf(boundary)];
+    }
+
+    /** The first boundary at or after {@code elapsedNanos}; {@link #boundaryCount()} if none. */
+    public int firstBoundaryFrom(long elapsedNanos) {
+        if (elapsedNanos <= 0) return 0;
+        if (elapsedNanos >= totalNanos()) return boundaryCount();
+        int round = (int) (elapsedNanos / cycleNanos);
+        long inRound = elapsedNanos - round * cycleNanos;
+        for (int j = 0; j < activePhases.length; j++) {
+            if (phaseOffsets[activePhases[j]] >= inRound) {
+                return round * activePhases.length + j;
+            }
+        }
+        return (round + 1) * activePhases.length;
+    }
+
+    /** The boundary whose phase is sounding at {@code elapsedNanos}, or -1 before the start. */
+    public int boundaryAt(long elapsedNanos) {
+        if (elapsedNanos < 0) return -1;
+        int next = firstBoundaryFrom(elapsedNanos);
+        if (next < boundaryCount() && startOf(next) == elapsedNanos) return next;
+        return next - 1;
+    }
+}
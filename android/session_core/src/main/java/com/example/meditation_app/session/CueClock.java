@@ -0,0 +1,41 @@
+package com.example.meditation_app.session;
+
+/**
+ * Conversions between the monotonic clock cues are scheduled on and the
+ * frame positions of an audio stream.
+ *
+ * An anchor is a pair of a frame and the instant it is (or will be) heard,
+ * such as an {@code AudioTimestamp} or the write head at the moment of
+ * writing. Everything else is extrapolated from it at the stream's sample
+ * rate, so a cue lands on the same frame however late it is placed.
+ */
+public final class CueClock {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private CueClock() {}
+
+    /**
+     * The frame heard at {@code atNanos}, given that {@code anchorFrame} is
+     * heard at {@code anchorNanos}: the last one to start at or before it.
+     */
+    public static long frameAt(long anchorFrame, long anchorNanos, long atNanos, int sampleRate) {
+        return anchorFrame + Math.floorDiv((atNanos - anchorNanos) * sampleRate, NANOS_PER_SECOND);
+    }
+
+    /**
+     * The first whole nanosecond at which {@code frame} is heard, given that
+     * {@code anchorFrame} is heard at {@code anchorNanos}.
+     */
+    public static long nanosAt(long anchorFrame, long anchorNanos, long frame, int sampleRate) {
+        return anchorNanos - Math.floorDiv((anchorFrame - frame) * NANOS_PER_SECOND, sampleRate);
+    }
+
+    /**
+     * The instant a cue for {@code boundary} of a session started at
+     * {@code startNanos} has to be handed to the engine, {@code leadNanos}
+     * ahead of the boundary.
+     */
+    public static long handOffAt(BreathSessionTimeline timeline, int boundary, long startNanos, long leadNanos) {
+        return startNanos + timeline.startOf(boundary) - leadNanos;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.meditation_app.session;
+
+import java.util.Arrays;
+
+/**
+ * The phase pulses of a whole session as vibrator waveform timings, in the
+ * off/on millisecond pairs {@code Vibrator.vibrate(long[], int)} and
+ * {@code VibrationEffect.createWaveform} take.
+ *
+ * The timings are computed once from the timeline and handed out in chunks
+ * of at most {@link #chunkPulses()} pulses, so a waveform never grows past
+ * what vibrator HALs accept however long the session is.
+ */
+public final class HapticWaveform {
+    public static final long PULSE_MILLIS = 40;
+    /** Pulses per chunk. */
+    public static final int CHUNK_PULSES = 64;
+
+    private final BreathSessionTimeline timeline;
+    private final int chunkPulses;
+    /**
+     * Off/on pairs for every boundary: {@code timings[2b]} is the gap since
+     * the previous pulse ended, {@code timings[2b + 1]} the pulse itself.
+     */
+    private final long[] timings;
+
+    public HapticWaveform(BreathSessionTimeline timeline) {
+        this(timeline, PULSE_MILLIS, CHUNK_PULSES);
+    }
+
+    public HapticWaveform(BreathSessionTimeline timeline, long pulseMillis, int chunkPulses) {
+        if (pulseMillis <= 0 || chunkPulses <= 0) {
+            throw new IllegalArgumentException("Pulses need a duration and a chunk size");
+        }
+        this.timeline = timeline;
+        this.chunkPulses = chunkPulses;
+        int count = timeline.boundaryCount();
+        timings = new long[count * 2];
+        long previousEnd = 0;
+        for (int b = 0; b < count; b++) {
+            long at = timeline.startOf(b) / 1_000_000L;
+            timings[2 * b] = Math.max(0, at - previousEnd);
+            timings[2 * b + 1] = pulseMillis;
+            previousEnd = Math.max(previousEnd, at) + pulseMillis;
+        }
+    }
+
+    public int chunkPulses() {
+        return chunkPulses;
+    }
+
+    /**
+     * The first pulse of the chunk played from {@code elapsedNanos}: the
+     * first boundary at or after it, or -1 when no pulses are left.
+     */
+    public int chunkStart(long elapsedNanos) {
+        int first = timeline.firstBoundaryFrom(elapsedNanos);
+        return first < timeline.boundaryCount() ? first : -1;
+    }
+
+    /**
+     * The timings of the chunk starting at pulse {@code first}, with the
+     * leading gap measured from {@code elapsedNanos} rather than from the
+     * previous pulse.
+     */
+    public long[] chunk(int first, long elapsedNanos) {
+        int end = Math.min(first + chunkPulses, timeline.boundaryCount());
+        long[] chunk = Arrays.copyOfRange(timings, 2 * first, 2 * end);
+        chunk[0] = Math.max(0, (timeline.startOf(first) - elapsedNanos) / 1_000_000L);
+        return chunk;
+    }
+
+    /**
+     * The session offset of the first pulse after the chunk starting at
+     * {@code first}, or -1 when that chunk ends the session.
+     */
+    public long nextChunkAt(int first) {
+        int end = first + chunkPulses;
+        return end < timeline.boundaryCount() ? timeline.startOf(end) : -1;
+    }
+}
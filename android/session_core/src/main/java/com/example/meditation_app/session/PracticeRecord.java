@@ -0,0 +1,53 @@
+package com.example.meditation_app.session;
+
+/**
+ * One logged practice session, as stored by the Dart {@code PracticeLog}.
+ *
+ * {@link #technique} is the index of the Dart {@code PracticeTechnique}
+ * value; it is kept as stored, so indices added by a newer app survive a
+ * round trip.
+ */
+public final class PracticeRecord {
+    public final long uidHash;
+    public final long startEpochSeconds;
+    public final long durationSeconds;
+    public final int technique;
+
+    public PracticeRecord(long uidHash, long startEpochSeconds, long durationSeconds, int technique) {
+        if (durationSeconds < 0 || durationSeconds > 0xFFFFFFFFL) {
+            throw new IllegalArgumentException("Duration out of range: " + durationSeconds);
+        }
+        if (technique < 0 || technique > 0xFFFF) {
+            throw new IllegalArgumentException("Technique out of range: " + technique);
+        }
+        this.uidHash = uidHash;
+        this.startEpochSeconds = startEpochSeconds;
+        this.durationSeconds = durationSeconds;
+        this.technique = technique;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof PracticeRecord)) return false;
+        PracticeRecord r = (PracticeRecord) other;
+        return uidHash == r.uidHash
+                && startEpochSeconds == r.startEpochSeconds
+                && durationSeconds == r.durationSeconds
+                && technique == r.technique;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (uidHash ^ (uidHash >>> 32));
+        result = 31 * result + (int) (startEpochSeconds ^ (startEpochSeconds >>> 32));
+        result = 31 * result + (int) durationSeconds;
+        return 31 * result + technique;
+    }
+
+    @Override
+    public String toString() {
+        return "PracticeRecord(" + Long.toHexString(uidHash) + ", " + startEpochSeconds
+                + ", " + durationSeconds + "s, " + technique + ")";
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.meditation_app.session;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The binary format of the Dart {@code PracticeLog}: an 8-byte header
+ * (magic, version) followed by 24-byte little-endian records:
+ *
+ * <pre>
+ *     uid hash (int64) | start epoch seconds (int64) |
+ *     duration seconds (uint32) | technique (uint16) | reserved (uint16)
+ * </pre>
+ *
+ * Buffers passed in are switched to little-endian.
+ */
+public final class PracticeRecordCodec {
+    public static final int HEADER_SIZE = 8;
+    public static final int RECORD_SIZE = 24;
+    public static final int MAGIC = 0x474F4C50; // "PLOG"
+    public static final int VERSION = 1;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private PracticeRecordCodec() {}
+
+    /** Receives decoded fields without a {@link PracticeRecord} being allocated. */
+    public interface Visitor {
+        void record(long uidHash, long startEpochSeconds, long durationSeconds, int technique);
+    }
+
+    /** Stable 64-bit FNV-1a hash of a Firebase uid, as {@code PracticeLog.hashUid}. */
+    public static long hashUid(String uid) {
+        long hash = FNV_OFFSET;
+        for (byte b : uid.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    public static void writeHeader(ByteBuffer out) {
+        out.order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+    }
+
+    /** Writes {@code record} at the buffer's position and advances past it. */
+    public static void encode(PracticeRecord record, ByteBuffer out) {
+        out.order(ByteOrder.LITTLE_ENDIAN);
+        out.putLong(record.uidHash);
+        out.putLong(record.startEpochSeconds);
+        out.putInt((int) record.durationSeconds);
+        out.putShort((short) record.technique);
+        out.putShort((short) 0);
+    }
+
+    /** Reads the record at the buffer's position and advances past it. */
+    public static PracticeRecord decode(ByteBuffer in) {
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        long uidHash = in.getLong();
+        long start = in.getLong();
+        long duration = in.getInt() & 0xFFFFFFFFL;
+        int technique = in.getShort() & 0xFFFF;
+        in.getShort();
+        return new PracticeRecord(uidHash, start, duration, technique);
+    }
+
+    /** A whole log file with {@code records} in it. */
+    public static byte[] encodeLog(List<PracticeRecord> records) {
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + RECORD_SIZE * records.size());
+        writeHeader(out);
+        for (int i = 0; i < records.size(); i++) {
+            encode(records.get(i), out);
+        }
+        return out.array();
+    }
+
+    /**
+     * Hands every whole record of the log in {@code log}, from its position
+     * to its limit, to {@code visitor}. A record torn by a crash mid-write is
+     * left out.
+     *
+     * @return the number of records visited, or -1 if the header is missing
+     *     or unknown
+     */
+    public static int forEach(ByteBuffer log, Visitor visitor) {
+        log.order(ByteOrder.LITTLE_ENDIAN);
+        int base = log.position();
+        int length = log.remaining();
+        if (length < HEADER_SIZE || log.getInt(base) != MAGIC) return -1;
+        int count = (length - HEADER_SIZE) / RECORD_SIZE;
+        for (int i = 0; i < count; i++) {
+            int offset = base + HEADER_SIZE + i * RECORD_SIZE;
+            visitor.record(
+                    log.getLong(offset),
+                    log.getLong(offset + 8),
+                    log.getInt(offset + 16) & 0xFFFFFFFFL,
+                    log.getShort(offset + 20) & 0xFFFF);
+        }
+        return count;
+    }
+
+    /** The records of a whole log file; none if its header is unknown. */
+    public static List<PracticeRecord> decodeLog(byte[] bytes) {
+        ByteBuffer log = ByteBuffer.wrap(bytes);
+        if (bytes.length < HEADER_SIZE) return Collections.emptyList();
+        final List<PracticeRecord> records =
+                new ArrayList<>(Math.max(0, (bytes.length - HEADER_SIZE) / RECORD_SIZE));
+        int count = forEach(log, (uidHash, start, duration, technique) ->
+                records.add(new PracticeRecord(uidHash, start, duration, technique)));
+        return count < 0 ? Collections.<PracticeRecord>emptyList() : records;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.meditation_app.session;
+
+/**
+ * A fixed-size ring of the most recent audio samples, as floats in
+ * {@code [-1, 1)}.
+ *
+ * Writing and reading copy into storage allocated once, so the ring can sit
+ * on an audio thread without producing garbage.
+ */
+public final class SampleRing {
+    private final float[] samples;
+    private final int mask;
+    private long written;
+
+    /** A ring holding at least {@code capacity} samples. */
+    public SampleRing(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Bad capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        samples = new float[size];
+        mask = size - 1;
+    }
+
+    public int capacity() {
+        return samples.length;
+    }
+
+    /** Samples written since the ring was made, including overwritten ones. */
+    public long written() {
+        return written;
+    }
+
+    /** Appends 16-bit PCM samples, overwriting the oldest when full. */
+    public void write(short[] pcm, int offset, int length) {
+        int at = (int) (written & mask);
+        for (int i = 0; i < length; i++) {
+            samples[at] = pcm[offset + i] * (1f / 32768f);
+            at = (at + 1) & mask;
+        }
+        written += length;
+    }
+
+    /**
+     * Copies the newest {@code count} samples into the start of {@code dest},
+     * oldest first. Samples not written yet read as silence.
+     */
+    public void latest(float[] dest, int count) {
+        if (count > samples.length) {
+            throw new IllegalArgumentException("Only " + samples.length + " samples are kept");
+        }
+        int missing = (int) Math.max(0, count - written);
+        for (int i = 0; i < missing; i++) {
+            dest[i] = 0f;
+        }
+        int at = (int) ((written - (count - missing)) & mask);
+        for (int i = missing; i < count; i++) {
+            dest[i] = samples[at];
+            at = (at + 1) & mask;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.meditation_app.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+
+/**
+ * Runs the detector over the WAV fixtures in src/test/resources/breath and
+ * compares what it finds with each file's label track (see BreathFixtures).
+ */
+public class BreathDetectorTest {
+    /** How far a reported start may be from the labelled one, in seconds. */
+    private static final double START_TOLERANCE = 0.15;
+    /** Ends fade out, so they are looser. */
+    private static final double END_TOLERANCE = 0.35;
+
+    private static final class Segment {
+        final String label;
+        final double start;
+        final double end;
+
+        Segment(String label, double start, double end) {
+            this.label = label;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s %.2f-%.2f", label, start, end);
+        }
+    }
+
+    /** Collects events as segments, and how many samples had been fed when each arrived. */
+    private static final class Recorder implements BreathDetector.Listener {
+        final int sampleRate;
+        final List<Segment> segments = new ArrayList<>();
+        final List<long[]> delays = new ArrayList<>();
+        long fed;
+        double openStart = -1;
+
+        Recorder(int sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        @Override
+        public void onSound(int event, long sample, float levelDb) {
+            double at = (double) sample / sampleRate;
+            delays.add(new long[] {event, fed - sample});
+            if (event == BreathDetector.BREATH_START || event == BreathDetector.HUM_START) {
+                assertTrue("Sound started inside another at " + at, openStart < 0);
+                openStart = at;
+            } else {
+                assertTrue("Sound ended without starting at " + at, openStart >= 0);
+                segments.add(new Segment(event == BreathDetector.HUM_END ? "hum" : "breath", openStart, at));
+                openStart = -1;
+            }
+        }
+    }
+
+    private static File fixtures() throws URISyntaxException {
+        return new File(BreathDetectorTest.class.getResource("/breath/bhramari.wav").toURI()).getParentFile();
+    }
+
+    private static Recorder detect(Wav wav, int chunk) {
+        Recorder recorder = new Recorder(wav.sampleRate);
+        BreathDetector detector = new BreathDetector(wav.sampleRate, recorder);
+        for (int i = 0; i < wav.samples.length; i += chunk) {
+            int n = Math.min(chunk, wav.samples.length - i);
+            recorder.fed = i + n;
+            detector.process(wav.samples, i, n);
+        }
+        detector.flush();
+        return recorder;
+    }
+
+    private static List<Segment> labels(File file) throws IOException {
+        List<Segment> labels = new ArrayList<>();
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            if (line.trim().isEmpty()) continue;
+            String[] fields = line.split("\t");
+            labels.add(new Segment(fields[2].trim(), Double.parseDouble(fields[0]), Double.parseDouble(fields[1])));
+        }
+        return labels;
+    }
+
+    @Test
+    public void fixturesMatchTheirLabels() throws Exception {
+        File[] wavs = fixtures().listFiles((dir, name) -> name.endsWith(".wav"));
+        assertTrue(wavs != null && wavs.length > 0);
+        Arrays.sort(wavs);
+        for (File wav : wavs) {
+            File txt = new File(wav.getPath().replaceAll("\\.wav$", ".txt"));
+            if (!txt.exists()) continue;
+            List<Segment> expected = labels(txt);
+            List<Segment> found = detect(Wav.read(wav), 1024).segments;
+
+            String name = wav.getName();
+            assertEquals(name + ": found " + found, expected.size(), found.size());
+            for (int i = 0; i < expected.size(); i++) {
+                Segment want = expected.get(i);
+                Segment got = found.get(i);
+                assertEquals(name + " " + want, want.label, got.label);
+                assertEquals(name + " start of " + want + ", found " + got, want.start, got.start, START_TOLERANCE);
+                assertEquals(name + " end of " + want + ", found " + got, want.end, got.end, END_TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    public void soundsAreReportedWithinATenthOfASecond() throws Exception {
+        Wav wav = Wav.read(new File(fixtures(), "bhramari.wav"));
+        Recorder recorder = detect(wav, 256);
+
+        assertFalse(recorder.delays.isEmpty());
+        for (long[] delay : recorder.delays) {
+            boolean start = delay[0] == BreathDetector.BREATH_START || delay[0] == BreathDetector.HUM_START;
+            if (start) {
+                assertTrue("Start reported " + delay[1] + " samples late", delay[1] <= wav.sampleRate / 10);
+            }
+        }
+    }
+
+    @Test
+    public void howSamplesArriveDoesNotMatter() throws Exception {
+        Wav wav = Wav.read(new File(fixtures(), "bhramari.wav"));
+
+        String whole = detect(wav, wav.samples.length).segments.toString();
+        assertEquals(whole, detect(wav, 1).segments.toString());
+        assertEquals(whole, detect(wav, 333).segments.toString());
+    }
+
+    @Test
+    public void aSoundStillGoingIsEndedByFlush() throws Exception {
+        Wav wav = Wav.read(new File(fixtures(), "bhramari.wav"));
+        short[] cut = Arrays.copyOf(wav.samples, 5 * wav.sampleRate);
+
+        List<Segment> found = detect(new Wav(wav.sampleRate, cut), 1024).segments;
+        Segment last = found.get(found.size() - 1);
+        assertEquals("hum", last.label);
+        assertEquals(5.0, last.end, 0.05);
+    }
+
+    @Test
+    public void processingDoesNotAllocate() throws Exception {
+        Wav wav = Wav.read(new File(fixtures(), "bhramari.wav"));
+        BreathDetector detector = new BreathDetector(wav.sampleRate, (event, sample, level) -> {});
+        for (int i = 0; i < 3; i++) {
+            detector.process(wav.samples, 0, wav.samples.length);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < wav.samples.length; i += 256) {
+            detector.process(wav.samples, i, Math.min(256, wav.samples.length - i));
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        assertTrue("Allocated " + allocated + " bytes", allocated < 1024);
+    }
+}
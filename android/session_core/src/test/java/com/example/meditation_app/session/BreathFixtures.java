@@ -0,0 +1,194 @@
+package com.example.meditation_app.session;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Writes the synthetic fixtures in src/test/resources/breath: a quiet room
+ * with breaths, hums, a bell and a knock laid over it, and an Audacity label
+ * track (start, end, label; tab separated) of the breaths and hums in each.
+ *
+ *     gradle -p android/session_core breathFixtures
+ *
+ * Recordings made on a phone can sit next to them: label them in Audacity,
+ * export the labels to a .txt of the same name and BreathDetectorTest
+ * checks them too.
+ */
+final class BreathFixtures {
+    static final int RATE = 16_000;
+
+    private final Random random;
+    private final float[] mix;
+    private final List<String> labels = new ArrayList<>();
+
+    private BreathFixtures(double seconds, long seed) {
+        random = new Random(seed);
+        mix = new float[(int) (seconds * RATE)];
+        room(-58);
+    }
+
+    public static void main(String[] args) throws IOException {
+        File dir = new File(args.length > 0 ? args[0] : "src/test/resources/breath");
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+
+        // Bhramari: a breath in, then a hum out, twice; the second hum lower.
+        new BreathFixtures(11, 1)
+                .breath(0.8, 2.6, -34)
+                .hum(3.6, 7.0, 150, -24)
+                .breath(7.5, 9.1, -36)
+                .hum(9.3, 10.7, 118, -26)
+                .save(dir, "bhramari");
+
+        // Ujjayi: throat-narrowed breaths in and out with short pauses.
+        new BreathFixtures(9, 2)
+                .breath(0.6, 3.0, -32)
+                .breath(3.4, 6.2, -30)
+                .breath(6.7, 8.6, -33)
+                .save(dir, "ujjayi");
+
+        // Nothing to report: the session bell and a knock on the table.
+        new BreathFixtures(4, 3)
+                .bell(0.5, 660, -22)
+                .knock(2.8, -12)
+                .save(dir, "room");
+    }
+
+    private void save(File dir, String name) throws IOException {
+        short[] pcm = new short[mix.length];
+        for (int i = 0; i < mix.length; i++) {
+            pcm[i] = (short) Math.max(-32768, Math.min(32767, Math.round(mix[i] * 32768)));
+        }
+        new Wav(RATE, pcm).write(new File(dir, name + ".wav"));
+        try (PrintWriter out = new PrintWriter(new File(dir, name + ".txt"), StandardCharsets.UTF_8.name())) {
+            for (String label : labels) {
+                out.print(label + "\n");
+            }
+        }
+    }
+
+    private static float gain(double db) {
+        return (float) Math.pow(10, db / 20);
+    }
+
+    /** Smooth rise and fall, 0 outside {@code [0, length)}. */
+    private static double envelope(double t, double length, double rise, double fall) {
+        if (t < 0 || t >= length) return 0;
+        double e = 1;
+        if (t < rise) e = 0.5 - 0.5 * Math.cos(Math.PI * t / rise);
+        if (length - t < fall) e = Math.min(e, 0.5 - 0.5 * Math.cos(Math.PI * (length - t) / fall));
+        return e;
+    }
+
+    /** Pinkish background noise and a little mains hum. */
+    private void room(double db) {
+        float g = gain(db) * 3;
+        double lp = 0;
+        for (int i = 0; i < mix.length; i++) {
+            lp += 0.1 * (random.nextGaussian() - lp);
+            mix[i] += g * (float) lp + gain(db - 8) * (float) Math.sin(2 * Math.PI * 50 * i / RATE);
+        }
+    }
+
+    /** Air through the nose or a narrowed throat: noise through two resonances. */
+    private BreathFixtures breath(double start, double end, double db) {
+        Resonator low = new Resonator(700 + 200 * random.nextDouble(), 2.5);
+        Resonator high = new Resonator(1900 + 500 * random.nextDouble(), 3);
+        int from = (int) (start * RATE);
+        double length = end - start;
+        float g = gain(db) * 4;
+        double wobble = 2 * Math.PI * random.nextDouble();
+        for (int i = from; i < Math.min(mix.length, (int) (end * RATE)); i++) {
+            double t = (double) (i - from) / RATE;
+            double noise = random.nextGaussian();
+            double shaped = low.next(noise) + 0.7 * high.next(noise);
+            double swell = 1 + 0.25 * Math.sin(2 * Math.PI * 0.7 * t + wobble);
+            mix[i] += g * (float) (shaped * swell * envelope(t, length, 0.3, 0.4));
+        }
+        label(start, end, "breath");
+        return this;
+    }
+
+    /** A voiced "mmm": harmonics of {@code f0} with a slight vibrato. */
+    private BreathFixtures hum(double start, double end, double f0, double db) {
+        int from = (int) (start * RATE);
+        double length = end - start;
+        float g = gain(db) * 1.4f;
+        double phase = 0;
+        Resonator nasal = new Resonator(250, 1.5);
+        for (int i = from; i < Math.min(mix.length, (int) (end * RATE)); i++) {
+            double t = (double) (i - from) / RATE;
+            double f = f0 * (1 + 0.01 * Math.sin(2 * Math.PI * 5 * t));
+            phase += 2 * Math.PI * f / RATE;
+            double voice = 0;
+            for (int h = 1; h * f0 < 3000; h++) {
+                voice += Math.sin(h * phase) / Math.pow(h, 1.3);
+            }
+            double s = 0.7 * voice + 0.3 * nasal.next(voice) + 0.02 * random.nextGaussian();
+            mix[i] += g * (float) (s * envelope(t, length, 0.08, 0.2));
+        }
+        label(start, end, "hum");
+        return this;
+    }
+
+    /** A struck bell: inharmonic partials decaying over a couple of seconds. */
+    private BreathFixtures bell(double start, double f, double db) {
+        double[] ratios = {1, 2.76, 5.4, 8.93};
+        int from = (int) (start * RATE);
+        float g = gain(db);
+        for (int i = from; i < mix.length; i++) {
+            double t = (double) (i - from) / RATE;
+            double s = 0;
+            for (int p = 0; p < ratios.length; p++) {
+                s += Math.sin(2 * Math.PI * f * ratios[p] * t) * Math.exp(-t * (1.2 + p)) / (p + 1);
+            }
+            mix[i] += g * (float) (s * Math.min(1, t / 0.002));
+        }
+        return this;
+    }
+
+    /** A knuckle on the table: a short, loud thump. */
+    private BreathFixtures knock(double at, double db) {
+        int from = (int) (at * RATE);
+        float g = gain(db);
+        Resonator body = new Resonator(180, 4);
+        for (int i = from; i < Math.min(mix.length, from + RATE / 10); i++) {
+            double t = (double) (i - from) / RATE;
+            double excite = t < 0.002 ? random.nextGaussian() : 0;
+            mix[i] += g * (float) (body.next(excite * 20) * Math.exp(-t * 60));
+        }
+        return this;
+    }
+
+    private void label(double start, double end, String label) {
+        labels.add(String.format(Locale.ROOT, "%.3f\t%.3f\t%s", start, end, label));
+    }
+
+    /** Two-pole band-pass resonator, unity gain at its centre. */
+    private static final class Resonator {
+        private final double a1;
+        private final double a2;
+        private final double b0;
+        private double y1;
+        private double y2;
+
+        Resonator(double hz, double q) {
+            double r = Math.exp(-Math.PI * hz / q / RATE);
+            a1 = 2 * r * Math.cos(2 * Math.PI * hz / RATE);
+            a2 = -r * r;
+            b0 = 1 - r;
+        }
+
+        double next(double x) {
+            double y = b0 * x + a1 * y1 + a2 * y2;
+            y2 = y1;
+            y1 = y;
+            return y;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.meditation_app.session;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class BreathSessionTimelineTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    /** Inhale, hold, exhale, hold, in seconds. */
+    static BreathSessionTimeline cycle(long inhale, long holdIn, long exhale, long holdOut, int rounds) {
+        return new BreathSessionTimeline(
+                new long[] {inhale * SECOND, holdIn * SECOND, exhale * SECOND, holdOut * SECOND},
+                new int[] {0, 1, 2, 1},
+                new String[] {"Inhale", "Hold", "Exhale", "Hold"},
+                rounds);
+    }
+
+    @Test
+    public void boxBreathingHasFourBoundariesPerRound() {
+        BreathSessionTimeline timeline = cycle(4, 4, 4, 4, 3);
+
+        assertEquals(12, timeline.boundaryCount());
+        assertEquals(48 * SECOND, timeline.totalNanos());
+        for (int b = 0; b < timeline.boundaryCount(); b++) {
+            assertEquals(b * 4 * SECOND, timeline.startOf(b));
+            assertEquals(b / 4, timeline.roundOf(b));
+            assertEquals(b % 4, timeline.phaseOf(b));
+        }
+        assertEquals("Exhale", timeline.labelOf(6));
+        assertEquals(2, timeline.cueOf(6));
+    }
+
+    @Test
+    public void zeroLengthHoldsAreSkipped() {
+        BreathSessionTimeline timeline = cycle(4, 0, 6, 0, 2);
+
+        assertEquals(4, timeline.boundaryCount());
+        assertEquals(14 * SECOND, timeline.startOf(3));
+        assertEquals(2, timeline.phaseOf(1));
+        assertEquals(0, timeline.phaseOf(2));
+        assertEquals(10 * SECOND, timeline.startOf(2));
+    }
+
+    @Test
+    public void boundariesAreFoundFromAnElapsedTime() {
+        BreathSessionTimeline timeline = cycle(4, 7, 8, 0, 5);
+
+        assertEquals(0, timeline.firstBoundaryFrom(-SECOND));
+        assertEquals(0, timeline.firstBoundaryFrom(0));
+        assertEquals(1, timeline.firstBoundaryFrom(1));
+        assertEquals(1, timeline.firstBoundaryFrom(4 * SECOND));
+        assertEquals(3, timeline.firstBoundaryFrom(19 * SECOND));
+        assertEquals(3, timeline.firstBoundaryFrom(18 * SECOND + 1));
+        assertEquals(timeline.boundaryCount(), timeline.firstBoundaryFrom(timeline.totalNanos()));
+
+        assertEquals(-1, timeline.boundaryAt(-1));
+        assertEquals(0, timeline.boundaryAt(0));
+        assertEquals(0, timeline.boundaryAt(4 * SECOND - 1));
+        assertEquals(1, timeline.boundaryAt(4 * SECOND));
+        assertEquals(2, timeline.boundaryAt(19 * SECOND - 1));
+        assertEquals(timeline.boundaryCount() - 1, timeline.boundaryAt(timeline.totalNanos()));
+    }
+
+    @Test
+    public void longSessionsDoNotDrift() {
+        BreathSessionTimeline timeline = cycle(4, 4, 4, 4, 100_000);
+
+        int last = timeline.boundaryCount() - 1;
+        assertEquals(timeline.totalNanos() - 4 * SECOND, timeline.startOf(last));
+        assertEquals(last, timeline.boundaryAt(timeline.startOf(last) + 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void aSessionNeedsACycle() {
+        cycle(0, 0, 0, 0, 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void aSessionNeedsRounds() {
+        cycle(4, 4, 4, 4, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void phaseArraysMustMatch() {
+        new BreathSessionTimeline(new long[] {SECOND}, new int[] {0, 1}, new String[] {"Inhale"}, 1);
+    }
+}
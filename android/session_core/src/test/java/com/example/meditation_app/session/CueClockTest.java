@@ -0,0 +1,35 @@
+package com.example.meditation_app.session;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class CueClockTest {
+    @Test
+    public void framesAreExtrapolatedFromTheAnchor() {
+        long anchorNanos = 123_456_789_000L;
+
+        assertEquals(1000, CueClock.frameAt(1000, anchorNanos, anchorNanos, 48_000));
+        assertEquals(1000 + 48_000, CueClock.frameAt(1000, anchorNanos, anchorNanos + 1_000_000_000L, 48_000));
+        assertEquals(1000 - 441, CueClock.frameAt(1000, anchorNanos, anchorNanos - 10_000_000L, 44_100));
+    }
+
+    @Test
+    public void framesAndInstantsRoundTrip() {
+        long anchorNanos = 5_000_000_000L;
+        for (long frame = 0; frame < 480_000; frame += 4801) {
+            long at = CueClock.nanosAt(96_000, anchorNanos, frame, 48_000);
+            assertEquals(frame, CueClock.frameAt(96_000, anchorNanos, at, 48_000));
+        }
+    }
+
+    @Test
+    public void cuesAreHandedOffAheadOfTheirBoundary() {
+        BreathSessionTimeline timeline = BreathSessionTimelineTest.cycle(4, 4, 4, 4, 2);
+        long start = 10_000_000_000L;
+
+        assertEquals(start - 500_000_000L, CueClock.handOffAt(timeline, 0, start, 500_000_000L));
+        assertEquals(start + 20_000_000_000L - 500_000_000L,
+                CueClock.handOffAt(timeline, 5, start, 500_000_000L));
+    }
+}
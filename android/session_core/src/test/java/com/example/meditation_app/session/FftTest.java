@@ -0,0 +1,42 @@
+package com.example.meditation_app.session;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FftTest {
+    @Test
+    public void matchesADirectTransform() {
+        int n = 64;
+        Random random = new Random(5);
+        float[] re = new float[n];
+        float[] im = new float[n];
+        for (int i = 0; i < n; i++) {
+            re[i] = random.nextFloat() - 0.5f;
+            im[i] = random.nextFloat() - 0.5f;
+        }
+        float[] inRe = re.clone();
+        float[] inIm = im.clone();
+
+        new Fft(n).transform(re, im);
+
+        for (int k = 0; k < n; k++) {
+            double sumRe = 0;
+            double sumIm = 0;
+            for (int t = 0; t < n; t++) {
+                double angle = -2 * Math.PI * k * t / n;
+                sumRe += inRe[t] * Math.cos(angle) - inIm[t] * Math.sin(angle);
+                sumIm += inRe[t] * Math.sin(angle) + inIm[t] * Math.cos(angle);
+            }
+            assertEquals(sumRe, re[k], 1e-4);
+            assertEquals(sumIm, im[k], 1e-4);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sizesArePowersOfTwo() {
+        new Fft(48);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.meditation_app.session;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HapticWaveformTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void pulsesAreTimedFromTheEndOfThePreviousOne() {
+        HapticWaveform waveform = new HapticWaveform(BreathSessionTimelineTest.cycle(4, 0, 6, 0, 2));
+
+        assertEquals(0, waveform.chunkStart(0));
+        assertArrayEquals(new long[] {0, 40, 3960, 40, 5960, 40, 3960, 40}, waveform.chunk(0, 0));
+        assertEquals(-1, waveform.nextChunkAt(0));
+    }
+
+    @Test
+    public void aChunkStartsAtTheNextPulse() {
+        HapticWaveform waveform = new HapticWaveform(BreathSessionTimelineTest.cycle(4, 0, 6, 0, 2));
+
+        assertEquals(1, waveform.chunkStart(SECOND));
+        assertArrayEquals(new long[] {3000, 40, 5960, 40, 3960, 40}, waveform.chunk(1, SECOND));
+        assertEquals(-1, waveform.chunkStart(20 * SECOND));
+    }
+
+    @Test
+    public void longSessionsArePlayedInChunks() {
+        BreathSessionTimeline timeline = BreathSessionTimelineTest.cycle(4, 4, 4, 4, 50);
+        HapticWaveform waveform = new HapticWaveform(timeline);
+
+        int pulses = 0;
+        long elapsed = 0;
+        int first;
+        while ((first = waveform.chunkStart(elapsed)) >= 0) {
+            long[] chunk = waveform.chunk(first, elapsed);
+            assertEquals(0, chunk.length % 2);
+            assertTrue(chunk.length <= 2 * HapticWaveform.CHUNK_PULSES);
+            pulses += chunk.length / 2;
+            long next = waveform.nextChunkAt(first);
+            if (next < 0) break;
+            assertEquals(timeline.startOf(first + HapticWaveform.CHUNK_PULSES), next);
+            elapsed = next - SECOND / 4;
+        }
+        assertEquals(timeline.boundaryCount(), pulses);
+    }
+
+    @Test
+    public void pulsesLongerThanAPhaseDoNotOverlap() {
+        BreathSessionTimeline timeline = new BreathSessionTimeline(
+                new long[] {20_000_000L, 1_000_000_000L}, new int[] {0, 2},
+                new String[] {"Inhale", "Exhale"}, 1);
+        HapticWaveform waveform = new HapticWaveform(timeline);
+
+        assertArrayEquals(new long[] {0, 40, 0, 40}, waveform.chunk(0, 0));
+    }
+}
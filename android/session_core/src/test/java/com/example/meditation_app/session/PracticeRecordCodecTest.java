@@ -0,0 +1,84 @@
+package com.example.meditation_app.session;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class PracticeRecordCodecTest {
+    @Test
+    public void uidHashIsFnv1a() {
+        assertEquals(0xcbf29ce484222325L, PracticeRecordCodec.hashUid(""));
+        assertEquals(0xaf63dc4c8601ec8cL, PracticeRecordCodec.hashUid("a"));
+        assertEquals(0x85944171f73967e8L, PracticeRecordCodec.hashUid("foobar"));
+    }
+
+    @Test
+    public void recordsHaveTheDartLayout() {
+        byte[] log = PracticeRecordCodec.encodeLog(Arrays.asList(
+                new PracticeRecord(0x0102030405060708L, 1_700_000_000L, 0xFFFFFFFFL, 4)));
+
+        assertEquals(PracticeRecordCodec.HEADER_SIZE + PracticeRecordCodec.RECORD_SIZE, log.length);
+        assertArrayEquals(new byte[] {
+                'P', 'L', 'O', 'G', 1, 0, 0, 0,
+                8, 7, 6, 5, 4, 3, 2, 1,
+                0x00, (byte) 0xF1, 0x53, 0x65, 0, 0, 0, 0,
+                -1, -1, -1, -1, 4, 0, 0, 0,
+        }, log);
+    }
+
+    @Test
+    public void recordsRoundTrip() {
+        List<PracticeRecord> records = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            records.add(new PracticeRecord(PracticeRecordCodec.hashUid("user" + i % 3),
+                    1_600_000_000L + i * 86_400L, i * 37L, i % 7));
+        }
+
+        assertEquals(records, PracticeRecordCodec.decodeLog(PracticeRecordCodec.encodeLog(records)));
+
+        ByteBuffer buffer = ByteBuffer.allocate(PracticeRecordCodec.RECORD_SIZE);
+        PracticeRecordCodec.encode(records.get(42), buffer);
+        assertEquals(0, buffer.remaining());
+        buffer.flip();
+        assertEquals(records.get(42), PracticeRecordCodec.decode(buffer));
+    }
+
+    @Test
+    public void aTornRecordIsLeftOut() {
+        byte[] whole = PracticeRecordCodec.encodeLog(Arrays.asList(
+                new PracticeRecord(1, 2, 3, 0), new PracticeRecord(4, 5, 6, 1)));
+        byte[] torn = Arrays.copyOf(whole, whole.length - 5);
+
+        assertEquals(Arrays.asList(new PracticeRecord(1, 2, 3, 0)), PracticeRecordCodec.decodeLog(torn));
+    }
+
+    @Test
+    public void anUnknownHeaderIsIgnored() {
+        byte[] log = PracticeRecordCodec.encodeLog(Arrays.asList(new PracticeRecord(1, 2, 3, 0)));
+        log[0] = 'X';
+
+        assertTrue(PracticeRecordCodec.decodeLog(log).isEmpty());
+        assertTrue(PracticeRecordCodec.decodeLog(new byte[3]).isEmpty());
+        assertEquals(-1, PracticeRecordCodec.forEach(ByteBuffer.wrap(log), (u, s, d, t) -> {}));
+    }
+
+    @Test
+    public void unknownTechniquesSurvive() {
+        PracticeRecord record = new PracticeRecord(9, 9, 9, 0xFFFF);
+
+        assertEquals(Arrays.asList(record),
+                PracticeRecordCodec.decodeLog(PracticeRecordCodec.encodeLog(Arrays.asList(record))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void durationsAreUnsigned32Bit() {
+        new PracticeRecord(1, 2, -1, 0);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.meditation_app.session;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SampleRingTest {
+    @Test
+    public void keepsTheNewestSamplesInOrder() {
+        SampleRing ring = new SampleRing(6);
+        assertEquals(8, ring.capacity());
+
+        short[] pcm = new short[13];
+        for (int i = 0; i < pcm.length; i++) {
+            pcm[i] = (short) (i * 1024);
+        }
+        ring.write(pcm, 0, 5);
+        ring.write(pcm, 5, 8);
+        assertEquals(13, ring.written());
+
+        float[] latest = new float[4];
+        ring.latest(latest, 4);
+        assertArrayEquals(new float[] {9 / 32f, 10 / 32f, 11 / 32f, 12 / 32f}, latest, 0f);
+    }
+
+    @Test
+    public void unwrittenSamplesAreSilence() {
+        SampleRing ring = new SampleRing(8);
+        ring.write(new short[] {16384, -16384}, 0, 2);
+
+        float[] latest = new float[5];
+        ring.latest(latest, 5);
+        assertArrayEquals(new float[] {0, 0, 0, 0.5f, -0.5f}, latest, 0f);
+    }
+}
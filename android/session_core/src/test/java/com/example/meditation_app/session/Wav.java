@@ -0,0 +1,64 @@
+package com.example.meditation_app.session;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+
+/** 16-bit mono PCM WAV files, read and written whole. */
+final class Wav {
+    final int sampleRate;
+    final short[] samples;
+
+    Wav(int sampleRate, short[] samples) {
+        this.sampleRate = sampleRate;
+        this.samples = samples;
+    }
+
+    static Wav read(File file) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+        if (in.getInt(0) != 0x46464952 || in.getInt(8) != 0x45564157) { // "RIFF", "WAVE"
+            throw new IOException(file + " is not a WAV file");
+        }
+        int sampleRate = 0;
+        int position = 12;
+        while (position + 8 <= in.limit()) {
+            int id = in.getInt(position);
+            int size = in.getInt(position + 4);
+            int body = position + 8;
+            if (id == 0x20746d66) { // "fmt "
+                int format = in.getShort(body) & 0xFFFF;
+                int channels = in.getShort(body + 2);
+                int bits = in.getShort(body + 14);
+                if (format != 1 || channels != 1 || bits != 16) {
+                    throw new IOException(file + " is not 16-bit mono PCM");
+                }
+                sampleRate = in.getInt(body + 4);
+            } else if (id == 0x61746164) { // "data"
+                if (sampleRate == 0) throw new IOException(file + " has data before its format");
+                short[] samples = new short[Math.min(size, in.limit() - body) / 2];
+                for (int i = 0; i < samples.length; i++) {
+                    samples[i] = in.getShort(body + 2 * i);
+                }
+                return new Wav(sampleRate, samples);
+            }
+            position = body + size + (size & 1);
+        }
+        throw new IOException(file + " has no audio");
+    }
+
+    void write(File file) throws IOException {
+        ByteBuffer out = ByteBuffer.allocate(44 + 2 * samples.length).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(0x46464952).putInt(36 + 2 * samples.length).putInt(0x45564157);
+        out.putInt(0x20746d66).putInt(16)
+                .putShort((short) 1).putShort((short) 1)
+                .putInt(sampleRate).putInt(sampleRate * 2)
+                .putShort((short) 2).putShort((short) 16);
+        out.putInt(0x61746164).putInt(2 * samples.length);
+        for (short s : samples) {
+            out.putShort(s);
+        }
+        Files.write(file.toPath(), out.array());
+    }
+}
@@ -1,6 +1,13 @@
 import 'package:flutter/material.dart';
+import 'package:meditation_app/common_widgets/sized_asset_image.dart';
+import 'package:flutter/scheduler.dart';
 import 'dart:async';
-import 'package:just_audio/just_audio.dart';
+import '../services/ambient_audio.dart';
+import '../services/breath_detection.dart';
+import '../services/breath_session_scheduler.dart';
+import '../services/practice_log.dart';
+import '../services/session_telemetry.dart';
+import '../services/warm_up_service.dart';
 
 class BhramariScreen extends StatefulWidget {
   final int inhaleDuration;
@@ -19,22 +26,31 @@ class BhramariScreen extends StatefulWidget {
 }
 
 class _BhramariScreenState extends State<BhramariScreen>
-    with SingleTickerProviderStateMixin {
+    with TickerProviderStateMixin {
   late AnimationController _controller;
-  late AudioPlayer _hummingPlayer;
+  late final BreathSessionScheduler _scheduler;
+  late final Ticker _ticker;
+  AmbientTrack? _hum;
+  SessionTracker? _tracker;
+  late final BreathFollower _follower;
+  StreamSubscription<BreathSoundEvent>? _sounds;
 
   bool isRunning = false;
   bool isAudioEnabled = true;
+  // Listening mutes the guide hum, which the microphone would hear too.
+  bool _listening = false;
+  int _exhalesHeard = 0;
+  int _exhalesListened = 0;
   String breathingText = "Get Ready";
   int _currentRound = 0;
   String _currentPhase = "prepare";
 
-  // Humming sound file path (place this in your assets/audio folder)
-  final String _hummingSoundPath = 'assets/music/hmmsound_.mp3';
-
   // Phase boundary
   late final double _inhaleFraction;
 
+  // Humming sound file path (place this in your assets/audio folder)
+  final String _hummingSoundPath = WarmUpService.humAsset;
+
   @override
   void initState() {
     super.initState();
@@ -43,59 +59,141 @@ class _BhramariScreenState extends State<BhramariScreen>
     final totalDuration = widget.inhaleDuration + widget.exhaleDuration;
     _inhaleFraction = widget.inhaleDuration / totalDuration;
 
-    // Initialize the audio player
-    _hummingPlayer = AudioPlayer();
+    _scheduler = BreathSessionScheduler(
+      inhale: Duration(seconds: widget.inhaleDuration),
+      exhale: Duration(seconds: widget.exhaleDuration),
+      rounds: widget.rounds,
+    );
+    _ticker = createTicker(_onTick);
+    _follower = BreathFollower(_scheduler);
+
     _loadAudio();
 
     _controller = AnimationController(
       duration: Duration(seconds: totalDuration),
       vsync: this,
     );
-
-    _controller.addListener(_handleAnimationProgress);
-    _controller.addStatusListener(_handleAnimationStatus);
   }
 
   Future<void> _loadAudio() async {
     try {
-      await _hummingPlayer.setAsset(_hummingSoundPath);
-      await _hummingPlayer.setVolume(1.0); // Always play at full volume
+      // Use the hum prepared at startup when there is one. It loops, so an
+      // exhale longer than the recording keeps humming without a gap.
+      final hum = WarmUpService.instance.takeHumTrack() ??
+          await AmbientAudio.instance
+              .acquire(_hummingSoundPath, crossfade: WarmUpService.humCrossfade);
+      if (!mounted) {
+        hum.release();
+        return;
+      }
+      _hum = hum;
+      if (_currentPhase == "exhale" && isRunning && _guideHum) {
+        _playHumming();
+      }
     } catch (e) {
       debugPrint('Error loading audio: $e');
     }
   }
 
-  void _handleAnimationProgress() {
-    double progress = _controller.value;
-    String newPhase;
-
-    if (progress <= _inhaleFraction) {
-      newPhase = "inhale";
-    } else {
-      newPhase = "exhale";
+  void _onTick(Duration _) {
+    if (_listening) {
+      // Let a long hum finish before the next inhale.
+      final wasHolding = _follower.isHolding;
+      _follower.holdBefore(BreathPhase.inhale, BreathSound.hum);
+      if (_follower.isHolding != wasHolding) setState(() {});
     }
-
-    if (newPhase != _currentPhase) {
-      _currentPhase = newPhase;
+    for (final event in _scheduler.poll()) {
+      _checkExhale(_scheduler.timeline.indexOf(event) - 1);
+      _tracker?.phaseStarted(event);
+      _currentRound = event.round;
+      _currentPhase = event.phase == BreathPhase.inhale ? "inhale" : "exhale";
       setState(() {
-        breathingText = _currentPhase.capitalize();
+        breathingText = event.label;
       });
       _handlePhaseChange(_currentPhase);
     }
+    _controller.value = _scheduler.roundProgress;
+    if (_scheduler.isComplete) {
+      _checkExhale(_scheduler.timeline.length - 1);
+      _ticker.stop();
+      _tracker?.complete();
+      setState(() {
+        _currentRound = widget.rounds;
+        isRunning = false;
+        breathingText = "Complete";
+      });
+      _stopHumming();
+    }
   }
 
+  bool get _guideHum => isAudioEnabled && !_listening;
+
   void _handlePhaseChange(String phase) async {
     if (phase == "inhale") {
       await _stopHumming();
-    } else if (phase == "exhale" && isAudioEnabled) {
+    } else if (phase == "exhale" && _guideHum) {
       await _playHumming();
     }
   }
 
+  /// Counts whether the exhale at [index] of the timeline was hummed.
+  void _checkExhale(int index) {
+    if (!_listening || index < 0) return;
+    final exhale = _scheduler.timeline[index];
+    if (exhale.phase != BreathPhase.exhale) return;
+    setState(() {
+      _exhalesListened++;
+      if (_follower.heardIn(BreathSound.hum, exhale)) _exhalesHeard++;
+    });
+  }
+
+  Future<void> toggleListening() async {
+    if (_listening) {
+      await _stopListening();
+      if (_currentPhase == "exhale" && isRunning && _guideHum) {
+        await _playHumming();
+      }
+      return;
+    }
+    final started = await BreathDetection.instance.start();
+    if (!mounted) {
+      if (started) BreathDetection.instance.stop();
+      return;
+    }
+    if (!started) {
+      ScaffoldMessenger.of(context).showSnackBar(
+        const SnackBar(content: Text("Microphone not available")),
+      );
+      return;
+    }
+    _follower.clear();
+    _sounds = BreathDetection.instance.events.listen(_follower.add);
+    setState(() {
+      _listening = true;
+      _exhalesHeard = 0;
+      _exhalesListened = 0;
+    });
+    await _stopHumming();
+  }
+
+  Future<void> _stopListening() async {
+    await _sounds?.cancel();
+    _sounds = null;
+    if (_follower.isHolding) {
+      _follower.cancelHold();
+      if (isRunning) _scheduler.resume();
+    }
+    if (mounted) {
+      setState(() {
+        _listening = false;
+      });
+    }
+    await BreathDetection.instance.stop();
+  }
+
   Future<void> _playHumming() async {
     try {
-      await _hummingPlayer.seek(Duration.zero);
-      await _hummingPlayer.play();
+      await _hum?.play(fade: const Duration(milliseconds: 80));
     } catch (e) {
       debugPrint('Error playing humming: $e');
     }
@@ -103,42 +201,39 @@ class _BhramariScreenState extends State<BhramariScreen>
 
   Future<void> _stopHumming() async {
     try {
-      await _hummingPlayer.stop();
+      await _hum?.stop(fade: const Duration(milliseconds: 150));
     } catch (e) {
       debugPrint('Error stopping humming: $e');
     }
   }
 
-  void _handleAnimationStatus(AnimationStatus status) async {
-    if (status == AnimationStatus.completed) {
-      _currentRound++;
-      if (_currentRound < widget.rounds) {
-        _controller.reset();
-        await Future.delayed(const Duration(milliseconds: 2));
-        if (isRunning) {
-          _startBreathingCycle();
-        }
-      } else {
-        setState(() {
-          isRunning = false;
-          breathingText = "Complete";
-        });
-        await _stopHumming();
+  /// Starts a new session, or resumes a paused one where it left off.
+  ///
+  /// Not handed to BackgroundSession yet: the guide hum is an ambient track the
+  /// native session cannot play, and following the hum holds the scheduler.
+  void _startBreathingCycle() {
+    if (!_scheduler.isStarted || _scheduler.isComplete) {
+      _scheduler.start();
+      _tracker = SessionTelemetry.instance.begin(PracticeTechnique.bhramari);
+      _follower.clear();
+      _exhalesHeard = 0;
+      _exhalesListened = 0;
+    } else {
+      _scheduler.resume();
+      if (_currentPhase == "exhale") {
+        _handlePhaseChange(_currentPhase);
       }
     }
-  }
-
-  void _startBreathingCycle() {
-    setState(() {
-      breathingText = "Inhale";
-      _currentPhase = "inhale";
-    });
-    _controller.forward();
+    if (!_ticker.isActive) {
+      _ticker.start();
+    }
   }
 
   Future<void> toggleBreathing() async {
     if (isRunning) {
-      _controller.stop();
+      _follower.cancelHold();
+      _scheduler.pause();
+      _ticker.stop();
       await _stopHumming();
       setState(() {
         isRunning = false;
@@ -158,9 +253,9 @@ class _BhramariScreenState extends State<BhramariScreen>
     setState(() {
       isAudioEnabled = !isAudioEnabled;
     });
-    if (!isAudioEnabled && _currentPhase == "exhale") {
+    if (!_guideHum && _currentPhase == "exhale") {
       await _stopHumming();
-    } else if (isAudioEnabled && _currentPhase == "exhale") {
+    } else if (_guideHum && _currentPhase == "exhale") {
       await _playHumming();
     }
   }
@@ -218,8 +313,10 @@ class _BhramariScreenState extends State<BhramariScreen>
         width: 250,
         decoration: BoxDecoration(
           shape: BoxShape.circle,
-          image: const DecorationImage(
-            image: AssetImage('assets/images/muladhara_chakra3.png'),
+          image: DecorationImage(
+            // Decoded for the 1.5x peak of the breath scale.
+            image: SizedAssetImage.provider(
+                'assets/images/muladhara_chakra3.png', const Size(375, 225), MediaQuery.of(context).devicePixelRatio),
             fit: BoxFit.cover,
           ),
           boxShadow: [
@@ -276,8 +373,15 @@ class _BhramariScreenState extends State<BhramariScreen>
 
   @override
   void dispose() {
+    _tracker?.abort();
+    if (_listening) {
+      _sounds?.cancel();
+      BreathDetection.instance.stop();
+    }
+    _ticker.dispose();
+    _scheduler.dispose();
     _controller.dispose();
-    _hummingPlayer.dispose();
+    _hum?.release();
     super.dispose();
   }
 
@@ -324,6 +428,13 @@ class _BhramariScreenState extends State<BhramariScreen>
                       fontWeight: FontWeight.bold,
                     ),
                   ),
+                  if (_listening)
+                    Text(
+                      _follower.isHolding
+                          ? "Finish your hum"
+                          : "Hum heard $_exhalesHeard / $_exhalesListened",
+                      style: const TextStyle(color: Colors.white70, fontSize: 16),
+                    ),
                 ],
               ),
             ),
@@ -340,6 +451,20 @@ class _BhramariScreenState extends State<BhramariScreen>
               onPressed: toggleAudio,
             ),
           ),
+          if (BreathDetection.instance.isSupported)
+            Positioned(
+              top: kToolbarHeight + 10,
+              left: 15,
+              child: IconButton(
+                icon: Icon(
+                  _listening ? Icons.mic : Icons.mic_none,
+                  color: Colors.teal,
+                  size: 36.0,
+                ),
+                tooltip: _listening ? "Stop listening" : "Listen for your hum",
+                onPressed: toggleListening,
+              ),
+            ),
         ],
       ),
     );
@@ -1,6 +1,14 @@
 import 'package:flutter/material.dart';
+import 'package:meditation_app/common_widgets/sized_asset_image.dart';
+import 'package:flutter/scheduler.dart';
 import 'dart:async';
 import 'package:audioplayers/audioplayers.dart';
+import '../services/ambient_audio.dart';
+import '../services/background_session.dart';
+import '../services/breath_cue_engine.dart';
+import '../services/breath_session_scheduler.dart';
+import '../services/practice_log.dart';
+import '../services/session_telemetry.dart';
 
 class BilateralScreen extends StatefulWidget {
   final int inhaleDuration;
@@ -27,83 +35,47 @@ class BilateralScreen extends StatefulWidget {
 }
 
 class _BilateralScreenState extends State<BilateralScreen>
-    with SingleTickerProviderStateMixin {
+    with TickerProviderStateMixin, WidgetsBindingObserver {
   late AnimationController _controller;
-  late Animation<double> sizeTween;
-  late AudioPlayer _audioPlayer;
+  late final BreathSessionScheduler _scheduler;
+  late final Ticker _ticker;
+  AmbientTrack? _ambient;
   late AudioPlayer _bellPlayer;
 
   bool isRunning = false;
   bool isAudioPlaying = false;
   int completedRounds = 0;
   int totalRounds = 0;
-  bool lastPhaseWasInhale = false;
+  SessionTracker? _tracker;
+  // True while the native session plays the bells, in or out of the foreground
+  bool _backgroundSession = false;
+  // Bells held back while the native session is starting, which plays them
+  // itself once it has.
+  bool _backgroundStarting = false;
+  BreathPhaseEvent? _heldCue;
 
   String breathingText = "Inhale";
 
   @override
   void initState() {
     super.initState();
+    WidgetsBinding.instance.addObserver(this);
     totalRounds = widget.rounds;
 
+    // Session timing comes from the scheduler; the controller follows it
+    _scheduler = BreathSessionScheduler(
+      inhale: Duration(seconds: widget.inhaleDuration),
+      exhale: Duration(seconds: widget.exhaleDuration),
+      rounds: widget.rounds,
+    );
+    _ticker = createTicker(_onTick);
+
     // Animation setup
     _controller = AnimationController(
       duration: Duration(seconds: widget.inhaleDuration + widget.exhaleDuration),
       vsync: this,
     );
 
-    sizeTween = Tween<double>(begin: 1.0, end: 1.5).animate(
-      CurvedAnimation(
-        parent: _controller,
-        curve: const Interval(0.0, 1.0, curve: Curves.easeInOut),
-      ),
-    );
-
-    _controller.addListener(() {
-      double inhaleThreshold = widget.inhaleDuration / (widget.inhaleDuration + widget.exhaleDuration);
-
-      if (_controller.value <= inhaleThreshold && (!lastPhaseWasInhale || _controller.value < 0.01)) {
-        setState(() {
-          breathingText = "Inhale";
-          lastPhaseWasInhale = true;
-        });
-        _playBellSound();
-      } else if (_controller.value > inhaleThreshold && lastPhaseWasInhale) {
-        setState(() {
-          breathingText = "Exhale";
-          lastPhaseWasInhale = false;
-        });
-        _playBellSound();
-      }
-    });
-
-    _controller.addStatusListener((status) async {
-      if (status == AnimationStatus.completed) {
-        completedRounds++;
-
-        if (completedRounds >= totalRounds && totalRounds > 0) {
-          _controller.stop();
-          setState(() {
-            isRunning = false;
-            breathingText = "Complete";
-          });
-          return;
-        }
-
-        _controller.reset();
-        setState(() {
-          lastPhaseWasInhale = false;
-        });
-
-        await Future.delayed(const Duration(milliseconds: 5));
-
-        if (isRunning) {
-          _startBreathingCycle();
-        }
-      }
-    });
-
-    _audioPlayer = AudioPlayer();
     _bellPlayer = AudioPlayer();
 
     // Set AudioContext to allow simultaneous playback
@@ -121,21 +93,27 @@ class _BilateralScreenState extends State<BilateralScreen>
       ),
     );
 
-    _audioPlayer.setAudioContext(audioContext);
     _bellPlayer.setAudioContext(audioContext);
 
     // Setup players
     if (widget.audioPath.isNotEmpty) {
-      _setupAudioPlayer();
+      _loadAmbient();
     }
 
     _setupBellPlayer();
   }
 
-  Future<void> _setupAudioPlayer() async {
+  /// The background sound loops through the shared ambient engine, which
+  /// joins the end of the track to its start without a gap.
+  Future<void> _loadAmbient() async {
     try {
-      await _audioPlayer.setSourceAsset(widget.audioPath);
-      await _audioPlayer.setReleaseMode(ReleaseMode.loop);
+      final track = await AmbientAudio.instance.acquire(widget.audioPath);
+      if (!mounted) {
+        track.release();
+        return;
+      }
+      _ambient = track;
+      if (isAudioPlaying) track.play();
     } catch (e) {
       print('Error setting up audio player: $e');
     }
@@ -143,18 +121,31 @@ class _BilateralScreenState extends State<BilateralScreen>
 
   Future<void> _setupBellPlayer() async {
     try {
+      await BreathCueEngine.instance.ensureLoaded();
       await _bellPlayer.setReleaseMode(ReleaseMode.release);
     } catch (e) {
       print('Error setting up bell player: $e');
     }
   }
 
-  Future<void> _playBellSound() async {
+  // The native engine only carries the stock bells; custom paths stay on audioplayers.
+  // Callers name the stock bells with or without the assets/ prefix.
+  bool get _useCueEngine =>
+      BreathCueEngine.instance.isAvailable &&
+      widget.inhaleAudioPath.endsWith('music/inhale_bell1.mp3') &&
+      widget.exhaleAudioPath.endsWith('music/exhale_bell1.mp3');
+
+  Future<void> _playBellSound(bool isInhale) async {
+    if (_useCueEngine) {
+      await BreathCueEngine.instance
+          .scheduleCue(isInhale ? BreathCue.inhale : BreathCue.exhale);
+      return;
+    }
     try {
       // Stop any current playing to avoid overlap
       await _bellPlayer.stop();
       // Play different bell sounds for inhale and exhale
-      if (breathingText == "Inhale") {
+      if (isInhale) {
         await _bellPlayer.play(AssetSource(widget.inhaleAudioPath));
       } else {
         await _bellPlayer.play(AssetSource(widget.exhaleAudioPath));
@@ -164,17 +155,107 @@ class _BilateralScreenState extends State<BilateralScreen>
     }
   }
 
-  void _startBreathingCycle() {
-    _controller.forward();
-    // Play initial bell sound when starting
-    if (_controller.value < 0.01) {
-      _playBellSound();
+  void _onTick(Duration _) {
+    for (final event in _scheduler.poll()) {
+      _tracker?.phaseStarted(event);
+      setState(() {
+        completedRounds = event.round;
+        breathingText = event.label;
+      });
+      _cue(event);
+    }
+    _controller.value = _scheduler.roundProgress;
+    if (_scheduler.isComplete) {
+      _ticker.stop();
+      if (_backgroundSession) {
+        _backgroundSession = false;
+        BackgroundSession.instance.stop();
+      }
+      _tracker?.complete();
+      setState(() {
+        completedRounds = totalRounds;
+        isRunning = false;
+        breathingText = "Complete";
+      });
+    }
+  }
+
+  /// Rings the bell for [event] unless the native session does.
+  void _cue(BreathPhaseEvent event) {
+    if (_backgroundSession) return;
+    if (_backgroundStarting) {
+      _heldCue = event;
+      return;
+    }
+    _playBellSound(event.phase == BreathPhase.inhale);
+  }
+
+  /// Starts a new session, or resumes a paused one where it left off.
+  Future<void> _startBreathingCycle() async {
+    final fresh = !_scheduler.isStarted || _scheduler.isComplete;
+    if (fresh) {
+      _scheduler.start();
+      _tracker = SessionTelemetry.instance.begin(PracticeTechnique.bilateral);
+    } else {
+      _scheduler.resume();
+      if (_backgroundSession) BackgroundSession.instance.resume();
+    }
+    if (!_ticker.isActive) {
+      _ticker.start();
+    }
+    if (!fresh || !_useCueEngine || !BackgroundSession.instance.isSupported) {
+      return;
+    }
+
+    // The native session keeps the bells on time with the screen off. It
+    // starts from the scheduler's position and rings the bells from there,
+    // the first one included unless it had to ask to post notifications.
+    _backgroundStarting = true;
+    final started = await BackgroundSession.instance.start(
+      _scheduler,
+      cues: const {
+        BreathPhase.inhale: BreathCue.inhale,
+        BreathPhase.exhale: BreathCue.exhale,
+      },
+      title: 'Bilateral breathing',
+    );
+    _backgroundStarting = false;
+    final held = _heldCue;
+    _heldCue = null;
+    if (!mounted || _scheduler.isComplete) {
+      if (started) BackgroundSession.instance.stop();
+      return;
+    }
+    _backgroundSession = started;
+    if (!started) {
+      if (held != null) _playBellSound(held.phase == BreathPhase.inhale);
+    } else if (!isRunning) {
+      BackgroundSession.instance.pause();
+    }
+  }
+
+  @override
+  void didChangeAppLifecycleState(AppLifecycleState state) {
+    if (state == AppLifecycleState.resumed && _backgroundSession) {
+      _catchUpWithBackgroundSession();
+    }
+  }
+
+  /// Moves the scheduler to where the native session got to while no frames
+  /// were drawn; the next tick replays the phases that were missed.
+  Future<void> _catchUpWithBackgroundSession() async {
+    final status = await BackgroundSession.instance.status();
+    if (!mounted || status == null || !_scheduler.isStarted) return;
+    if (status.active || status.complete) {
+      _scheduler.syncTo(status.elapsed);
     }
   }
 
   void toggleBreathing() {
     if (isRunning) {
-      _controller.stop();
+      _scheduler.pause();
+      _ticker.stop();
+      if (_backgroundSession) BackgroundSession.instance.pause();
       setState(() {
         isRunning = false;
       });
@@ -185,7 +266,6 @@ class _BilateralScreenState extends State<BilateralScreen>
         if (breathingText == "Complete") {
           completedRounds = 0;
           breathingText = "Inhale";
-          lastPhaseWasInhale = false;
         }
       });
       _startBreathingCycle();
@@ -201,19 +281,14 @@ class _BilateralScreenState extends State<BilateralScreen>
       return;
     }
 
-    if (isAudioPlaying) {
-      await _audioPlayer.pause();
-    } else {
-      try {
-        await _audioPlayer.resume();
-      } catch (e) {
-        // Try to play if resume fails
-        try {
-          await _audioPlayer.play(AssetSource(widget.audioPath));
-        } catch (e) {
-          print('Error playing audio: $e');
-        }
+    try {
+      if (isAudioPlaying) {
+        await _ambient?.pause();
+      } else {
+        await _ambient?.play();
       }
+    } catch (e) {
+      print('Error playing audio: $e');
     }
     setState(() {
       isAudioPlaying = !isAudioPlaying;
@@ -222,8 +297,14 @@ class _BilateralScreenState extends State<BilateralScreen>
 
   @override
   void dispose() {
+    WidgetsBinding.instance.removeObserver(this);
+    _tracker?.abort();
+    if (_backgroundSession) BackgroundSession.instance.stop();
+    BreathCueEngine.instance.cancelAll();
+    _ticker.dispose();
+    _scheduler.dispose();
     _controller.dispose();
-    _audioPlayer.dispose();
+    _ambient?.release(fadeOut: AmbientAudio.defaultFade);
     _bellPlayer.dispose();
     super.dispose();
   }
@@ -340,7 +421,9 @@ class _BilateralScreenState extends State<BilateralScreen>
           decoration: BoxDecoration(
             shape: BoxShape.circle,
             image: DecorationImage(
-              image: AssetImage(widget.imagePath),
+              // Decoded for the 1.5x peak of the breath scale.
+              image: SizedAssetImage.provider(
+                  widget.imagePath, const Size(375, 225), MediaQuery.of(context).devicePixelRatio),
               fit: BoxFit.cover,
             ),
             boxShadow: [
@@ -0,0 +1,412 @@
+import 'package:flutter/foundation.dart';
+import 'package:flutter/material.dart';
+
+/// Listenable session state for the box breathing screen.
+///
+/// Every value the session changes while running has its own channel, so a
+/// phase flip only rebuilds the widgets that show that value. The active side
+/// is fanned out into one notifier per edge: moving from "top" to "right"
+/// rebuilds exactly those two verse panels.
+class BoxSessionState {
+  static const List<String> sides = ["top", "right", "bottom", "left"];
+
+  final ValueNotifier<String> phase = ValueNotifier<String>("");
+  final ValueNotifier<String> breathingText = ValueNotifier<String>("Get Ready");
+  final ValueNotifier<int> round = ValueNotifier<int>(0);
+  final ValueNotifier<int> verseIndex = ValueNotifier<int>(0);
+  final Map<String, ValueNotifier<bool>> sideActive = {
+    for (final side in sides) side: ValueNotifier<bool>(side == "top"),
+  };
+  final Map<String, ValueNotifier<bool>> sideRead = {
+    for (final side in sides) side: ValueNotifier<bool>(false),
+  };
+
+  String _activeSide = "top";
+
+  String get activeSide => _activeSide;
+
+  set activeSide(String side) {
+    if (side == _activeSide) return;
+    sideActive[_activeSide]!.value = false;
+    sideActive[side]!.value = true;
+    _activeSide = side;
+  }
+
+  void resetSideRead() {
+    for (final read in sideRead.values) {
+      read.value = false;
+    }
+  }
+
+  void dispose() {
+    phase.dispose();
+    breathingText.dispose();
+    round.dispose();
+    verseIndex.dispose();
+    for (final notifier in [...sideActive.values, ...sideRead.values]) {
+      notifier.dispose();
+    }
+  }
+}
+
+/// The square, its four verse panels and the moving ball.
+///
+/// The ball is painted straight from [progress] inside its own
+/// [RepaintBoundary], so animation ticks repaint one layer and rebuild nothing.
+class BreathingBox extends StatelessWidget {
+  static const double boxSize = 300;
+  static const double textPadding = 40.0;
+
+  final BoxSessionState session;
+  final Animation<double> progress;
+  final double f1; // end of Inhale phase
+  final double f2; // end of Hold1 phase
+  final double f3; // end of Exhale phase
+  final bool showVerses;
+  final String Function(String side) verseForSide;
+  final void Function(String side) onSideTap;
+
+  const BreathingBox({
+    Key? key,
+    required this.session,
+    required this.progress,
+    required this.f1,
+    required this.f2,
+    required this.f3,
+    required this.showVerses,
+    required this.verseForSide,
+    required this.onSideTap,
+  }) : super(key: key);
+
+  @override
+  Widget build(BuildContext context) {
+    return Container(
+      width: boxSize + (textPadding * 2),
+      height: boxSize + (textPadding * 2),
+      child: Stack(
+        clipBehavior: Clip.none,
+        children: [
+          // Background glow
+          Positioned(
+            left: textPadding,
+            top: textPadding,
+            child: Container(
+              width: boxSize,
+              height: boxSize,
+              decoration: BoxDecoration(
+                borderRadius: BorderRadius.circular(12),
+                boxShadow: [
+                  BoxShadow(
+                    color: Color(0xFF2E7D32).withOpacity(0.2),
+                    blurRadius: 20,
+                    spreadRadius: 5,
+                  ),
+                ],
+              ),
+            ),
+          ),
+
+          // The main box with gradient border
+          Positioned(
+            left: textPadding,
+            top: textPadding,
+            child: RepaintBoundary(
+              child: CustomPaint(
+                painter: GradientBoxPainter(),
+                size: Size(boxSize, boxSize),
+              ),
+            ),
+          ),
+
+          if (showVerses) ...[
+            Positioned(
+              top: 0,
+              left: textPadding + 20,
+              right: textPadding + 20,
+              child: _edge("top"),
+            ),
+            Positioned(
+              right: 0,
+              top: textPadding + 20,
+              bottom: textPadding + 20,
+              width: textPadding * 2,
+              child: _edge("right"),
+            ),
+            Positioned(
+              bottom: 0,
+              left: textPadding + 20,
+              right: textPadding + 20,
+              child: _edge("bottom"),
+            ),
+            Positioned(
+              left: 0,
+              top: textPadding + 20,
+              bottom: textPadding + 20,
+              width: textPadding * 2,
+              child: _edge("left"),
+            ),
+          ],
+
+          // The moving ball
+          Positioned.fill(
+            child: IgnorePointer(
+              child: RepaintBoundary(
+                child: CustomPaint(
+                  painter: BreathingBallPainter(
+                    progress: progress,
+                    phase: session.phase,
+                    f1: f1,
+                    f2: f2,
+                    f3: f3,
+                    inset: textPadding,
+                  ),
+                ),
+              ),
+            ),
+          ),
+        ],
+      ),
+    );
+  }
+
+  Widget _edge(String side) {
+    return RepaintBoundary(
+      child: _VerseEdge(
+        side: side,
+        session: session,
+        verseForSide: verseForSide,
+        onTap: onSideTap,
+      ),
+    );
+  }
+}
+
+/// One verse panel; listens only to its own side's channels.
+class _VerseEdge extends StatelessWidget {
+  final String side;
+  final BoxSessionState session;
+  final String Function(String side) verseForSide;
+  final void Function(String side) onTap;
+
+  const _VerseEdge({
+    required this.side,
+    required this.session,
+    required this.verseForSide,
+    required this.onTap,
+  });
+
+  @override
+  Widget build(BuildContext context) {
+    return ListenableBuilder(
+      listenable: Listenable.merge([
+        session.sideActive[side],
+        session.sideRead[side],
+        session.verseIndex,
+      ]),
+      builder: (context, _) {
+        final bool isActive = session.sideActive[side]!.value;
+        final bool isRead = session.sideRead[side]!.value;
+        final String verse = verseForSide(side);
+
+        // Define colors for different states
+        Color textColor = isActive
+            ? isRead ? Color(0xFF4CAF50) : Color(0xFFFFAB40)
+            : Colors.grey[400]!;
+
+        Color bgColor = isActive
+            ? isRead ? Color(0xFF4CAF50).withOpacity(0.15) : Color(0xFFFFAB40)
+            .withOpacity(0.15)
+            : Colors.transparent;
+
+        Color borderColor = isActive
+            ? isRead ? Color(0xFF4CAF50) : Color(0xFFFFAB40)
+            : Colors.transparent;
+
+        Widget textWidget = Text(
+          verse,
+          style: TextStyle(
+            color: textColor,
+            fontSize: isActive ? 16.0 : 14.0,
+            fontWeight: isActive ? FontWeight.bold : FontWeight.normal,
+            letterSpacing: 0.5,
+          ),
+          textAlign: TextAlign.center,
+          maxLines: 2,
+          overflow: TextOverflow.ellipsis,
+        );
+
+        // Rotate text for left and right sides
+        if (side == "left") {
+          textWidget = RotatedBox(quarterTurns: 3, child: textWidget);
+        } else if (side == "right") {
+          textWidget = RotatedBox(quarterTurns: 1, child: textWidget);
+        }
+
+        return GestureDetector(
+          onTap: () => isActive ? onTap(side) : null,
+          child: AnimatedContainer(
+            duration: const Duration(milliseconds: 300),
+            padding: const EdgeInsets.all(10),
+            decoration: BoxDecoration(
+              color: bgColor,
+              borderRadius: BorderRadius.circular(12),
+              border: Border.all(color: borderColor, width: 1.5),
+              boxShadow: isActive ? [
+                BoxShadow(
+                  color: borderColor.withOpacity(0.3),
+                  blurRadius: 8,
+                  spreadRadius: 1,
+                )
+              ] : null,
+            ),
+            child: textWidget,
+          ),
+        );
+      },
+    );
+  }
+}
+
+/// Paints the ball travelling along the square's perimeter.
+class BreathingBallPainter extends CustomPainter {
+  static const double ballDiameter = 24;
+
+  final Animation<double> progress;
+  final ValueListenable<String> phase;
+  final double f1;
+  final double f2;
+  final double f3;
+  final double inset;
+
+  BreathingBallPainter({
+    required this.progress,
+    required this.phase,
+    required this.f1,
+    required this.f2,
+    required this.f3,
+    required this.inset,
+  }) : super(repaint: Listenable.merge([progress, phase]));
+
+  /// Computes the center of the moving ball along the square's perimeter.
+  Offset _positionAt(double t, double size) {
+    if (t < f1) {
+      // Inhale: from A to B
+      return Offset(t / f1 * size, 0);
+    } else if (t < f2) {
+      // Hold: from B to C
+      return Offset(size, (t - f1) / (f2 - f1) * size);
+    } else if (t < f3) {
+      // Exhale: from C to D
+      return Offset(size * (1 - (t - f2) / (f3 - f2)), size);
+    } else {
+      // Hold: from D to A
+      return Offset(0, size * (1 - (t - f3) / (1 - f3)));
+    }
+  }
+
+  @override
+  void paint(Canvas canvas, Size size) {
+    final double t = progress.value;
+    final double boxSize = size.width - inset * 2;
+    final Offset center = Offset(inset, inset) + _positionAt(t, boxSize);
+
+    Color ballColor;
+    if (phase.value == "Inhale") {
+      ballColor = Color(0xFF1E88E5); // Blue for inhale
+    } else if (phase.value == "Exhale") {
+      ballColor = Color(0xFFE57373); // Red for exhale
+    } else {
+      ballColor = Color(0xFFFFB74D); // Orange for hold
+    }
+
+    // The ball swells through the inhale
+    double scale = 1.0;
+    if (phase.value == "Inhale" && f1 > 0) {
+      scale = 1.0 + 0.2 * Curves.easeInOut.transform((t / f1).clamp(0.0, 1.0));
+    }
+    final double radius = ballDiameter * scale / 2;
+
+    canvas.drawCircle(
+      center,
+      radius + 5,
+      Paint()
+        ..color = ballColor.withOpacity(0.5)
+        ..maskFilter = MaskFilter.blur(BlurStyle.normal, 15 * 0.57735 + 0.5),
+    );
+    canvas.drawCircle(center, radius, Paint()..color = ballColor);
+    canvas.drawCircle(
+      center,
+      radius - 1,
+      Paint()
+        ..color = Colors.white
+        ..style = PaintingStyle.stroke
+        ..strokeWidth = 2,
+    );
+    canvas.drawCircle(
+      center,
+      ballDiameter * 0.25,
+      Paint()..color = Colors.white.withOpacity(0.6),
+    );
+  }
+
+  @override
+  bool shouldRepaint(BreathingBallPainter oldDelegate) {
+    return oldDelegate.progress != progress ||
+        oldDelegate.phase != phase ||
+        oldDelegate.f1 != f1 ||
+        oldDelegate.f2 != f2 ||
+        oldDelegate.f3 != f3 ||
+        oldDelegate.inset != inset;
+  }
+}
+
+/// Custom painter for a gradient border
+class GradientBoxPainter extends CustomPainter {
+  @override
+  void paint(Canvas canvas, Size size) {
+    final rect = Rect.fromLTWH(0, 0, size.width, size.height);
+    final rrect = RRect.fromRectAndRadius(rect, Radius.circular(12));
+
+    final gradient = LinearGradient(
+      begin: Alignment.topLeft,
+      end: Alignment.bottomRight,
+      colors: [
+        Color(0xFF00BFA5),
+        Color(0xFF1976D2),
+        Color(0xFF9C27B0),
+        Color(0xFFFF5722),
+      ],
+      stops: [0.0, 0.3, 0.7, 1.0],
+    );
+
+    final paint = Paint()
+      ..shader = gradient.createShader(rect)
+      ..style = PaintingStyle.stroke
+      ..strokeWidth = 4.0;
+
+    canvas.drawRRect(rrect, paint);
+
+    // Draw subtle inner glow
+    final innerGlowPaint = Paint()
+      ..shader = RadialGradient(
+        center: Alignment.center,
+        radius: 0.8,
+        colors: [
+          Colors.white.withOpacity(0.1),
+          Colors.transparent,
+        ],
+      ).createShader(rect)
+      ..style = PaintingStyle.fill;
+
+    canvas.drawRRect(
+      RRect.fromRectAndRadius(
+        rect.deflate(4),
+        Radius.circular(8),
+      ),
+      innerGlowPaint,
+    );
+  }
+
+  @override
+  bool shouldRepaint(CustomPainter oldDelegate) => false;
+}
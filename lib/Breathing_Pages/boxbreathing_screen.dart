@@ -1,8 +1,17 @@
 import 'package:flutter/material.dart';
+import 'package:flutter/scheduler.dart';
 import 'dart:async';
 import 'package:audioplayers/audioplayers.dart';
 import 'dart:ui' as ui;
 import 'dart:math';
+import '../services/background_session.dart';
+import '../services/breath_cue_engine.dart';
+import '../services/breath_session_scheduler.dart';
+import '../services/metrics.dart';
+import '../services/practice_log.dart';
+import '../services/session_telemetry.dart';
+import '../services/verse_corpus.dart';
+import 'box_session_view.dart';
 
 class BoxBreathingScreen extends StatefulWidget {
   final int inhaleDuration;  // seconds for Inhale phase
@@ -25,30 +34,35 @@ class BoxBreathingScreen extends StatefulWidget {
 }
 
 class _BoxBreathingScreenState extends State<BoxBreathingScreen>
-    with SingleTickerProviderStateMixin {
+    with TickerProviderStateMixin, WidgetsBindingObserver {
   late AnimationController _controller;
+  late final BreathSessionScheduler _scheduler;
+  late final Ticker _ticker;
+  Duration _cuedThrough = Duration.zero;
+  // True while the native session plays the cues, in or out of the foreground
+  bool _backgroundSession = false;
+  SessionTracker? _tracker;
+  late final FrameMetrics _frames;
+  // How late the frame that noticed a phase change was, and how long from
+  // then until the fallback bell started
+  final LatencyHistogram _phaseLag = Metrics.instance.histogram('box.phase_lag');
+  final LatencyHistogram _bellLatency =
+      Metrics.instance.histogram('box.bell_latency');
   late AudioPlayer _inhalePlayer;
   late AudioPlayer _exhalePlayer;
   bool isRunning = false;
   bool isAudioPlaying = true; // Default to true for better UX
   bool showHanumanChalisa = false; // Toggle for Hanuman Chalisa
   bool showAdityaMantra = false; // Toggle for Aditya Mantra
-  String breathingText = "Get Ready";
-  int _currentRound = 0;
-  String _currentPhase = "";
-  int _currentVerseIndex = 0;
+  // Phase, round, verse and side state; see BoxSessionState
+  final BoxSessionState _session = BoxSessionState();
 
   // Selected language
   String _selectedLanguage = "Sanskrit"; // Default language
-
-  // Track which sides have been read in current cycle
-  Map<String, bool> _sideRead = {
-    "top": false,
-    "right": false,
-    "bottom": false,
-    "left": false,
-  };
-  String _activeSide = "top"; // Current active side
+  // Verses of the selected text and language once loaded, and the four on
+  // the box for the current verseIndex
+  VerseBook? _verses;
+  List<String> _versePage = const [];
 
   // Audio sources (ensure these assets exist and update paths accordingly)
   late final AssetSource _inhaleSound;
@@ -64,286 +78,11 @@ class _BoxBreathingScreenState extends State<BoxBreathingScreen>
   // Animation for pulse effect
   late Animation<double> _pulseAnimation;
 
-  // Sanskrit verses (Keep your original _hanumanChalisaVerses and _adityaMantraVerses)
-  final List<String> _hanumanChalisaVerses = [
-    "श्री गुरु चरन सरोज रज, निज मनु मुकुरु सुधारि",
-    "बरनऊं रघुबर बिमल जसु, जो दायकु फल चारि",
-    "बुद्धिहीन तनु जानिके, सुमिरौं पवन कुमार",
-    "बल बुद्धि विद्या देहु मोहिं, हरहु कलेस विकार",
-    "जय हनुमान ज्ञान गुन सागर, जय कपीस तिहुं लोक उजागर",
-    "राम दूत अतुलित बल धामा, अंजनि पुत्र पवनसुत नामा",
-    "महाबीर विक्रम बजरंगी, कुमति निवार सुमति के संगी",
-    "कंचन बरन बिराज सुबेसा, कानन कुंडल कुंचित केसा",
-    "हाथ बज्र औ ध्वजा बिराजै, कांधे मूंज जनेऊ साजै",
-    "शंकर सुवन केसरी नंदन, तेज प्रताप महा जग बंदन",
-    "विद्यावान गुनी अति चातुर, राम काज करिबे को आतुर",
-    "प्रभु चरित्र सुनिबे को रसिया, राम लखन सीता मन बसिया",
-    "सूक्ष्म रूप धरि सियहिं दिखावा, बिकट रूप धरि लंक जरावा",
-    "भीम रूप धरि असुर संहारे, रामचंद्र के काज संवारे",
-    "लाय सजीवन लखन जियाये, श्री रघुबीर हरषि उर लाये",
-    "रघुपति कीन्ही बहुत बड़ाई, तुम मम प्रिय भरतहि सम भाई",
-    "सहस बदन तुम्हरो जस गावैं, अस कहि श्रीपति कंठ लगावैं",
-    "सनकादिक ब्रह्मादि मुनीसा, नारद सारद सहित अहीसा",
-    "जम कुबेर दिगपाल जहां ते, कबि कोबिद कहि सके कहां ते",
-    "तुम उपकार सुग्रीवहिं कीन्हा, राम मिलाय राज पद दीन्हा",
-    "तुम्हरो मंत्र विभीषन माना, लंकेश्वर भए सब जग जाना",
-    "जुग सहस्र जोजन पर भानू, लील्यो ताहि मधुर फल जानू",
-    "प्रभु मुद्रिका मेलि मुख माहीं, जलधि लांघि गये अचरज नाहीं",
-    "दुर्गम काज जगत के जेते, सुगम अनुग्रह तुम्हरे तेते",
-    "राम दुआरे तुम रखवारे, होत न आज्ञा बिनु पैसारे",
-    "सब सुख लहै तुम्हारी सरना, तुम रक्षक काहू को डर ना",
-    "आपन तेज सम्हारो आपै, तीनों लोक हांक तें कांपै",
-    "भूत पिसाच निकट नहिं आवै, महाबीर जब नाम सुनावै",
-    "नासै रोग हरै सब पीरा, जपत निरंतर हनुमत बीरा",
-    "संकट तें हनुमान छुड़ावै, मन क्रम बचन ध्यान जो लावै",
-    "सब पर राम तपस्वी राजा, तिन के काज सकल तुम साजा",
-    "और मनोरथ जो कोई लावै, सोइ अमित जीवन फल पावै",
-    "चारों जुग परताप तुम्हारा, है परसिद्ध जगत उजियारा",
-    "साधु संत के तुम रखवारे, असुर निकंदन राम दुलारे",
-    "अष्ट सिद्धि नौ निधि के दाता, अस बर दीन जानकी माता",
-    "राम रसायन तुम्हरे पासा, सदा रहो रघुपति के दासा",
-    "तुम्हरे भजन राम को पावै, जनम जनम के दुख बिसरावै",
-    "अन्तकाल रघुबर पुर जाई, जहां जन्म हरि भक्त कहाई",
-    "और देवता चित्त न धरई, हनुमत सेई सर्व सुख करई",
-    "संकट कटै मिटै सब पीरा, जो सुमिरै हनुमत बलबीरा",
-    "जै जै जै हनुमान गोसाईं, कृपा करहु गुरुदेव की नाईं",
-    "जो सत बार पाठ कर कोई, छूटहि बंदि महा सुख होई",
-    "जो यह पढ़ै हनुमान चालीसा, होय सिद्धि साखी गौरीसा",
-    "तुलसीदास सदा हरि चेरा, कीजै नाथ हृदय मंह डेरा",
-  ];
-
-  // ADD YOUR SANSKRIT HANUMAN CHALISA VERSES HERE
-  // These are already in your original code
-
-  final List<String> _adityaMantraVerses = [
-    "ओम अस्य आदित्यह्रदय स्तोत्रस्य अगस्त्यऋषि: अनुष्टुप्छन्दः",
-    "आदित्यह्रदयभूतो भगवान् ब्रह्मा देवता निरस्ताशेषविघ्नतया",
-    "ब्रह्माविद्यासिद्धौ सर्वत्र जयसिद्धौ च विनियोगः।",
-    "ततो युद्धपरिश्रान्तं समरे चिन्तया स्थितम्‌।",
-    "रावणं चाग्रतो दृष्ट्वा युद्धाय समुपस्थितम्‌।",
-    "दैवतैश्च समागम्य द्रष्टुमभ्यागतो रणम्‌।",
-    "उपगम्याब्रवीद् राममगस्त्यो भगवांस्तदा।",
-    "राम राम महाबाहो श्रृणु गुह्मं सनातनम्‌।",
-    "येन सर्वानरीन्‌ वत्स समरे विजयिष्यसे।",
-    "आदित्यहृदयं पुण्यं सर्वशत्रुविनाशनम्‌।",
-    "जयावहं जपं नित्यमक्षयं परमं शिवम्‌।",
-    "सर्वमंगलमागल्यं सर्वपापप्रणाशनम्‌।",
-    "चिन्ताशोकप्रशमनमायुर्वर्धनमुत्तमम्‌।",
-    "रश्मिमन्तं समुद्यन्तं देवासुरनमस्कृतम्‌।",
-    "पुजयस्व विवस्वन्तं भास्करं भुवनेश्वरम्‌।",
-    "सर्वदेवात्मको ह्येष तेजस्वी रश्मिभावन:।",
-    "एष देवासुरगणांल्लोकान्‌ पाति गभस्तिभि:।",
-    "एष ब्रह्मा च विष्णुश्च शिव: स्कन्द: प्रजापति:।",
-    "महेन्द्रो धनद: कालो यम: सोमो ह्यापां पतिः।",
-    "पितरो वसव: साध्या अश्विनौ मरुतो मनु:।",
-    "वायुर्वहिन: प्रजा प्राण ऋतुकर्ता प्रभाकर:।",
-    "आदित्य: सविता सूर्य: खग: पूषा गभस्तिमान्‌।",
-    "सुवर्णसदृशो भानुर्हिरण्यरेता दिवाकर:।",
-    "हरिदश्व: सहस्त्रार्चि: सप्तसप्तिर्मरीचिमान्‌।",
-    "तिमिरोन्मथन: शम्भुस्त्वष्टा मार्तण्डकोंऽशुमान्‌।",
-    "हिरण्यगर्भ: शिशिरस्तपनोऽहस्करो रवि:।",
-    "अग्निगर्भोऽदिते: पुत्रः शंखः शिशिरनाशन:।",
-    "व्योमनाथस्तमोभेदी ऋग्यजु:सामपारग:।",
-    "घनवृष्टिरपां मित्रो विन्ध्यवीथीप्लवंगमः।",
-    "आतपी मण्डली मृत्यु: पिगंल: सर्वतापन:।",
-    "कविर्विश्वो महातेजा: रक्त:सर्वभवोद् भव:।",
-    "नक्षत्रग्रहताराणामधिपो विश्वभावन:।",
-    "तेजसामपि तेजस्वी द्वादशात्मन्‌ नमोऽस्तु ते।",
-    "नम: पूर्वाय गिरये पश्चिमायाद्रये नम:।",
-    "ज्योतिर्गणानां पतये दिनाधिपतये नम:।",
-    "जयाय जयभद्राय हर्यश्वाय नमो नम:।",
-    "नमो नम: सहस्त्रांशो आदित्याय नमो नम:।",
-    "नम उग्राय वीराय सारंगाय नमो नम:।",
-    "नम: पद्मप्रबोधाय प्रचण्डाय नमोऽस्तु ते।",
-    "ब्रह्मेशानाच्युतेशाय सुरायादित्यवर्चसे।",
-    "भास्वते सर्वभक्षाय रौद्राय वपुषे नम:।",
-    "तमोघ्नाय हिमघ्नाय शत्रुघ्नायामितात्मने।",
-    "कृतघ्नघ्नाय देवाय ज्योतिषां पतये नम:।",
-    "तप्तचामीकराभाय हरये विश्वकर्मणे।",
-    "नमस्तमोऽभिनिघ्नाय रुचये लोकसाक्षिणे।",
-    "नाशयत्येष वै भूतं तमेष सृजति प्रभु:।",
-    "पायत्येष तपत्येष वर्षत्येष गभस्तिभि:।",
-    "एष सुप्तेषु जागर्ति भूतेषु परिनिष्ठित:।",
-    "एष चैवाग्निहोत्रं च फलं चैवाग्निहोत्रिणाम्‌।",
-    "देवाश्च क्रतवश्चैव क्रतुनां फलमेव च।",
-    "यानि कृत्यानि लोकेषु सर्वेषु परमं प्रभु:।",
-    "एनमापत्सु कृच्छ्रेषु कान्तारेषु भयेषु च।",
-    "कीर्तयन्‌ पुरुष: कश्चिन्नावसीदति राघव।",
-    "पूजयस्वैनमेकाग्रो देवदेवं जगप्ततिम्‌।",
-    "एतत्त्रिगुणितं जप्त्वा युद्धेषु विजयिष्यसि।",
-    "अस्मिन्‌ क्षणे महाबाहो रावणं त्वं जहिष्यसि।",
-    "एवमुक्ता ततोऽगस्त्यो जगाम स यथागतम्‌।",
-    "एतच्छ्रुत्वा महातेजा नष्टशोकोऽभवत्‌ तदा।",
-    "धारयामास सुप्रीतो राघव प्रयतात्मवान्‌।",
-    "आदित्यं प्रेक्ष्य जप्त्वेदं परं हर्षमवाप्तवान्‌।",
-    "त्रिराचम्य शूचिर्भूत्वा धनुरादाय वीर्यवान्‌।",
-    "रावणं प्रेक्ष्य हृष्टात्मा जयार्थं समुपागतम्‌।",
-    "सर्वयत्नेन महता वृतस्तस्य वधेऽभवत्‌।",
-    "अथ रविरवदन्निरीक्ष्य रामं मुदितमना: परमं प्रहृष्यमाण:।",
-    "निशिचरपतिसंक्षयं विदित्वा सुरगणमध्यगतो वचस्त्वरेति।"
-  ];
-
-
-  // English verses
-  final List<String> _englishHanumanChalisaVerses = [
-    "Shri Guru Charan Saroj raj, Nij manu mukur sudhari",
-    "Baranau Raghuvar bimal jasu, Jo dayaku phal chari",
-    "Buddhiheen Tanu janike, Sumirau Pavan Kumar",
-    "Bal budhi vidya dehu mohi, Harahu kalesh vikaar",
-
-    "Jai Hanuman gyan gun sagar",
-    "Jai Kapis tihun lok ujagar",
-    "Ram doot atulit bal dhama",
-    "Anjani putra Pavan sut nama",
-
-    "Mahabir vikram Bajrangi",
-    "Kumati nivar sumati Ke sangi",
-    "Kanchan varan viraj subesa",
-    "Kanan Kundal Kunchit Kesha",
-
-    "Hath Vajra Aur Dhwaja Viraje",
-    "Kandhe moonj janeu saaje",
-    "Sankar suvan kesri Nandan",
-    "Tej prataap maha jag vandan",
-
-    "Vidyavan guni ati chatur",
-    "Ram kaj karibe ko aatur",
-    "Prabhu charitra sunibe ko rasiya",
-    "Ram Lakhan Sita man basiya",
-
-    "Sukshma roop dhari Siyahi dikhawa",
-    "Vikat roop dhari Lanka jalawa",
-    "Bhim roop dhari asur sanghare",
-    "Ramachandra ke kaj savare",
-
-    "Laye Sanjeevan Lakhan Jiyaye",
-    "Shri Raghuvir Harashi ur laye",
-    "Raghupati kinhi bahut badai",
-    "Tum mam priya Bharat hi sam bhai",
-
-    "Sahas badan tumharo yash gaave",
-    "Asa-kahi Shripati kanth lagaave",
-    "Sanakadik Brahmadi Muneesha",
-    "Narad Sarad sahit Aheesha",
-
-    "Yam Kuber Digpal jahan te",
-    "Kavi ko vid kahi sake kahan te",
-    "Tum upkar Sugrivahi keenha",
-    "Ram milaye rajpad deenha"
-  ];
-
-
-  final List<String> _englishAdityaMantraVerses = [
-    "Om Asya Aditya Hridaya Stotrasya Agastya Rishi: Anushtup Chandah",
-    "Aditya Hridaya Bhuto Bhagwan Brahma Devata Nirasta Shesha Vighnataya",
-    "Brahmavidya Siddhau Sarvatra Jayasiddhau Cha Viniyogah.",
-    "Tato Yuddha Parishrantam Samare Chintaya Sthitam.",
-    "Ravanam Chagrato Drishtva Yuddhaya Samupasthitam.",
-    "Daivataishcha Samagamya Drashtum Abhyagato Ranam.",
-    "Upagamyabravid Ramam Agastyo Bhagawant Tada.",
-    "Ram Ram Mahabaho Shrinu Guhyam Sanatanam.",
-    "Yena Sarvan Arin Vatsa Samare Vijayishyase.",
-    "Aditya Hridayam Punyam Sarva Shatru Vinashanam.",
-    "Jayavaham Japam Nityam Akshayam Paramam Shivam.",
-    "Sarva Mangala Mangalya Sarva Papa Pranashanam.",
-    "Chinta Shoka Prashamanam Ayur Vardhanam Uttamam.",
-
-    "Shri Guru Charan Saroj raj Nija manu Mukura sudhari",
-    "Baranau Raghuvar Bimal Jasu Jo Dayaku Phala Chari",
-    "Budheeheen Tanu Jannike Sumiro Pavan Kumara",
-    "Bal Buddhi Vidya Dehoo Mohee Harahu Kalesh Vikaar",
-    "Jai Hanuman gyan gun sagar",
-    "Jai Kapis tihun lok ujagar",
-    "Ram doot atulit bal dhama",
-    "Anjani putra Pavan sut nama",
-    "Mahabir vikram Bajrangi",
-    "Kumati nivar sumati Ke sangi",
-    "Kanchan varan viraj subesa",
-    "Kanan Kundal Kunchit Kesha",
-    "Hath Vajra Aur Dhwaja Viraje",
-    "Kaandhe moonj janeu saaje",
-    "Sankar suvan kesri Nandan",
-    "Tej prataap maha jag vandan"
-  ];
-
-  // Kannada verses
-  final List<String> _kannadaHanumanChalisaVerses =[
-    "ದೋಹಾ",
-    "ಶ್ರೀ ಗುರು ಚರಣ ಸರೋಜ ರಜ ನಿಜಮನ ಮುಕುರ ಸುಧಾರಿ ।",
-    "ವರಣೌ ರಘುವರ ವಿಮಲಯಶ ಜೋ ದಾಯಕ ಫಲಚಾರಿ ॥",
-    "ಬುದ್ಧಿಹೀನ ತನುಜಾನಿಕೈ ಸುಮಿರೌ ಪವನ ಕುಮಾರ ।",
-    "ಬಲ ಬುದ್ಧಿ ವಿದ್ಯಾ ದೇಹು ಮೋಹಿ ಹರಹು ಕಲೇಶ ವಿಕಾರ ॥",
-
-    "ಧ್ಯಾನಂ",
-    "ಅತುಲಿತ ಬಲಧಾಮಂ ಸ್ವರ್ಣ ಶೈಲಾಭ ದೇಹಮ್ ।",
-    "ದನುಜ ವನ ಕೃಶಾನುಂ ಜ್ಞಾನಿನಾ ಮಗ್ರಗಣ್ಯಮ್ ॥",
-    "ಸಕಲ ಗುಣ ನಿಧಾನಂ ವಾನರಾಣಾ ಮಧೀಶಮ್ ।",
-    "ರಘುಪತಿ ಪ್ರಿಯ ಭಕ್ತಂ ವಾತಜಾತಂ ನಮಾಮಿ ॥",
-
-    "ಗೋಷ್ಪದೀಕೃತ ವಾರಾಶಿಂ ಮಶಕೀಕೃತ ರಾಕ್ಷಸಮ್ ।",
-    "ರಾಮಾಯಣ ಮಹಾಮಾಲಾ ರತ್ನಂ ವಂದೇ-(ಅ)ನಿಲಾತ್ಮಜಮ್ ॥",
-    "ಯತ್ರ ಯತ್ರ ರಘುನಾಥ ಕೀರ್ತನಂ ತತ್ರ ತತ್ರ ಕೃತಮಸ್ತಕಾಂಜಲಿಮ್ ।",
-    "ಭಾಷ್ಪವಾರಿ ಪರಿಪೂರ್ಣ ಲೋಚನಂ ಮಾರುತಿಂ ನಮತ ರಾಕ್ಷಸಾಂತಕಮ್ ॥",
-
-    "ಮನೋಜವಂ ಮಾರುತ ತುಲ್ಯವೇಗಮ್ ।",
-    "ಜಿತೇಂದ್ರಿಯಂ ಬುದ್ಧಿ ಮತಾಂ ವರಿಷ್ಟಮ್ ॥",
-    "ವಾತಾತ್ಮಜಂ ವಾನರಯೂಥ ಮುಖ್ಯಮ್ ।",
-    "ಶ್ರೀ ರಾಮ ದೂತಂ ಶಿರಸಾ ನಮಾಮಿ ॥",
-
-    "ಚೌಪಾಈ",
-    "ಜಯ ಹನುಮಾನ ಜ್ಞಾನ ಗುಣ ಸಾಗರ ।",
-    "ಜಯ ಕಪೀಶ ತಿಹು ಲೋಕ ಉಜಾಗರ ॥",
-    "ರಾಮದೂತ ಅತುಲಿತ ಬಲಧಾಮಾ ।",
-    "ಅಂಜನಿ ಪುತ್ರ ಪವನಸುತ ನಾಮಾ ॥",
-    "ಮಹಾವೀರ ವಿಕ್ರಮ ಬಜರಂಗೀ ।",
-    "ಕುಮತಿ ನಿವಾರ ಸುಮತಿ ಕೇ ಸಂಗೀ ॥",
-    "ಕಂಚನ ವರಣ ವಿರಾಜ ಸುವೇಶಾ ।",
-    "ಕಾನನ ಕುಂಡಲ ಕುಂಚಿತ ಕೇಶಾ ॥",
-    "ಹಾಥವಜ್ರ ಔ ಧ್ವಜಾ ವಿರಾಜೈ ।",
-    "ಕಾಂಥೇ ಮೂಂಜ ಜನೇವೂ ಸಾಜೈ ॥",
-    "ಶಂಕರ ಸುವನ ಕೇಸರೀ ನಂದನ ।",
-    "ತೇಜ ಪ್ರತಾಪ ಮಹಾಜಗ ವಂದನ ॥"
-  ];
-
-  final List<String> _kannadaAdityaMantraVerses =[
-    "ದೋಹಾ",
-    "ಶ್ರೀ ಗುರು ಚರಣ ಸರೋಜ ರಜ ನಿಜಮನ ಮುಕುರ ಸುಧಾರಿ ।",
-    "ವರಣೌ ರಘುವರ ವಿಮಲಯಶ ಜೋ ದಾಯಕ ಫಲಚಾರಿ ॥",
-    "ಬುದ್ಧಿಹೀನ ತನುಜಾನಿಕೈ ಸುಮಿರೌ ಪವನ ಕುಮಾರ ।",
-    "ಬಲ ಬುದ್ಧಿ ವಿದ್ಯಾ ದೇಹು ಮೋಹಿ ಹರಹು ಕಲೇಶ ವಿಕಾರ ॥",
-
-    "ಧ್ಯಾನಂ",
-    "ನಮಸ್ಸವಿತ್ರೇ ಜಗದೇಕ ಚಕ್ಷುಸೇ",
-    "ಜಗತ್ಪ್ರಸೂತಿ ಸ್ಥಿತಿ ನಾಶಹೇತವೇ",
-    "ತ್ರಯೀಮಯಾಯ ತ್ರಿಗುಣಾತ್ಮ ಧಾರಿಣೇ",
-    "ವಿರಿಂಚಿ ನಾರಾಯಣ ಶಂಕರಾತ್ಮನೇ",
-
-    "ತತೋ ಯುದ್ಧ ಪರಿಶ್ರಾಂತಂ ಸಮರೇ ಚಿಂತಯಾಸ್ಥಿತಮ್ ।",
-    "ರಾವಣಂ ಚಾಗ್ರತೋ ದೃಷ್ಟ್ವಾ ಯುದ್ಧಾಯ ಸಮುಪಸ್ಥಿತಮ್ ॥",
-    "ದೈವತೈಶ್ಚ ಸಮಾಗಮ್ಯ ದ್ರಷ್ಟುಮಭ್ಯಾಗತೋ ರಣಮ್ ।",
-    "ಉಪಾಗಮ್ಯಾಬ್ರವೀದ್ರಾಮಂ ಅಗಸ್ತ್ಯೋ ಭಗವಾನ್ ಋಷಿಃ ॥",
-
-    "ರಾಮ ರಾಮ ಮಹಾಬಾಹೋ ಶೃಣು ಗುಹ್ಯಂ ಸನಾತನಮ್ ।",
-    "ಯೇನ ಸರ್ವಾನರೀನ್ ವತ್ಸ ಸಮರೇ ವಿಜಯಿಷ್ಯಸಿ ॥",
-    "ಆದಿತ್ಯಹೃದಯಂ ಪುಣ್ಯಂ ಸರ್ವಶತ್ರು-ವಿನಾಶನಮ್ ।",
-    "ಜಯಾವಹಂ ಜಪೇನ್ನಿತ್ಯಂ ಅಕ್ಷಯ್ಯಂ ಪರಮಂ ಶಿವಮ್ ॥",
-
-    "ಸರ್ವಮಂಗಳ-ಮಾಂಗಳ್ಯಂ ಸರ್ವಪಾಪ-ಪ್ರಣಾಶನಮ್ ।",
-    "ಚಿಂತಾಶೋಕ-ಪ್ರಶಮನಂ ಆಯುರ್ವರ್ಧನಮುತ್ತಮಮ್ ॥",
-    "ರಶ್ಮಿಮಂತಂ ಸಮುದ್ಯಂತಂ ದೇವಾಸುರ ನಮಸ್ಕೃತಮ್ ।",
-    "ಪೂಜಯಸ್ವ ವಿವಸ್ವಂತಂ ಭಾಸ್ಕರಂ ಭುವನೇಶ್ವರಮ್ ॥",
-
-    "ಸರ್ವದೇವಾತ್ಮಕೋ ಹ್ಯೇಷ ತೇಜಸ್ವೀ ರಶ್ಮಿಭಾವನಃ ।",
-    "ಏಷ ದೇವಾಸುರ-ಗಣಾನ್ ಲೋಕಾನ್ ಪಾತಿ ಗಭಸ್ತಿಭಿಃ ॥",
-    "ಏಷ ಬ್ರಹ್ಮಾ ಚ ವಿಷ್ಣುಶ್ಚ ಶಿವಃ ಸ್ಕಂದಃ ಪ್ರಜಾಪತಿಃ ।",
-    "ಮಹೇಂದ್ರೋ ಧನದಃ ಕಾಲೋ ಯಮಃ ಸೋಮೋ ಹ್ಯಪಾಂ ಪತಿಃ ॥"
-  ];
-
-
-  //bool showAdityaMantra = false;
   @override
   void initState() {
     super.initState();
+    WidgetsBinding.instance.addObserver(this);
+    _session.verseIndex.addListener(_readVersePage);
 
     // Update these asset paths to your audio files.
     _inhaleSound = AssetSource('../assets/music/inhale_bell1.mp3');
@@ -366,6 +105,18 @@ class _BoxBreathingScreenState extends State<BoxBreathingScreen>
       ..setReleaseMode(ReleaseMode.stop);
     _preloadAudio();
 
+    // The scheduler owns session time; the controller only mirrors its
+    // progress through the current round for the painters below.
+    _scheduler = BreathSessionScheduler(
+      inhale: Duration(seconds: widget.inhaleDuration),
+      hold1: Duration(seconds: widget.hold1Duration),
+      exhale: Duration(seconds: widget.exhaleDuration),
+      hold2: Duration(seconds: widget.hold2Duration),
+      rounds: widget.rounds,
+    );
+    _ticker = createTicker(_onTick);
+    _frames = Metrics.instance.trackFrames('box');
+
     _controller = AnimationController(
       vsync: this,
       duration: Duration(seconds: _totalDuration.toInt()),
@@ -381,9 +132,6 @@ class _BoxBreathingScreenState extends State<BoxBreathingScreen>
         curve: Curves.easeInOut,
       ),
     );
-
-    _controller.addListener(_handleAnimationProgress);
-    _controller.addStatusListener(_handleAnimationStatus);
   }
 
   Future<void> _preloadAudio() async {
@@ -391,129 +139,132 @@ class _BoxBreathingScreenState extends State<BoxBreathingScreen>
       await Future.wait([
         _inhalePlayer.setSource(_inhaleSound),
         _exhalePlayer.setSource(_exhaleSound),
+        BreathCueEngine.instance.ensureLoaded(),
       ]);
     } catch (e) {
       debugPrint('Error preloading audio: $e');
     }
   }
 
-  void _handleAnimationProgress() {
-    double progress = _controller.value;
-    String newPhase;
-    String newActiveSide;
-
-    // Determine current phase and side
-    if (progress < _f1) {
-      newPhase = "Inhale";
-      newActiveSide = "top";
-    } else if (progress < _f2) {
-      newPhase = "Hold";
-      newActiveSide = "right";
-    } else if (progress < _f3) {
-      newPhase = "Exhale";
-      newActiveSide = "bottom";
-    } else {
-      newPhase = "Hold";
-      newActiveSide = "left";
+  void _onTick(Duration _) {
+    for (final event in _scheduler.poll()) {
+      _handlePhaseEvent(event);
+    }
+    _controller.value = _scheduler.roundProgress;
+    if (_scheduler.isComplete) {
+      _completeSession();
     }
+  }
 
-    // If we changed sides
-    if (newActiveSide != _activeSide) {
-      setState(() {
-        _activeSide = newActiveSide;
-      });
+  void _handlePhaseEvent(BreathPhaseEvent event) {
+    final detectedAt = Metrics.now();
+    _phaseLag.record((_scheduler.elapsed - event.start).inMicroseconds);
+    _tracker?.phaseStarted(event);
+    if (event.phase == BreathPhase.inhale && event.round > _session.round.value) {
+      // A new cycle: reset the sides and move to the next group of verses
+      _resetSideReadStatus();
+      _advanceVerses();
+      _session.round.value = event.round;
     }
 
-    // If we changed phase
-    if (newPhase != _currentPhase) {
-      _currentPhase = newPhase;
-      if (isAudioPlaying) {
-        _playPhaseSound(newPhase);
-      }
+    // Only the listeners of these channels rebuild, not the whole screen
+    _session.phase.value = event.label;
+    _session.activeSide = _sideForPhase(event.phase);
+    _session.breathingText.value = event.label;
 
-      setState(() {
-        breathingText = newPhase;
-      });
+    if (BreathCueEngine.instance.isAvailable) {
+      if (!_backgroundSession) _queueUpcomingCues();
+    } else if (isAudioPlaying) {
+      _playPhaseSound(event.label, detectedAt);
     }
   }
 
-  void _handleAnimationStatus(AnimationStatus status) async {
-    if (status == AnimationStatus.completed) {
-      // When one cycle completes, reset all side statuses
-      _resetSideReadStatus();
+  Future<void> _completeSession() async {
+    _ticker.stop();
+    if (_backgroundSession) {
+      _backgroundSession = false;
+      BackgroundSession.instance.stop();
+    }
+    _tracker?.complete();
+    _resetSideReadStatus();
+    _advanceVerses();
+    _session.round.value = widget.rounds;
+    _session.breathingText.value = "Complete";
+    setState(() {
+      isRunning = false;
+    });
+    await _stopAllAudio();
+  }
+
+  String _sideForPhase(BreathPhase phase) {
+    switch (phase) {
+      case BreathPhase.inhale:
+        return "top";
+      case BreathPhase.hold1:
+        return "right";
+      case BreathPhase.exhale:
+        return "bottom";
+      case BreathPhase.hold2:
+        return "left";
+    }
+  }
 
-      // Move to next group of 4 verses
-      if (showHanumanChalisa || showAdityaMantra) {
-        setState(() {
-          List<String> currentVerses = _getCurrentVerses();
-
-          _currentVerseIndex = (_currentVerseIndex + 4) % currentVerses.length;
-          // Make sure we don't go past the end of the list
-          if (_currentVerseIndex + 3 >= currentVerses.length) {
-            _currentVerseIndex = 0;
-          }
-        });
-      }
+  void _advanceVerses() {
+    final verses = _verses;
+    if (verses == null) return;
+    int next = (_session.verseIndex.value + VerseBook.pageSize) % verses.length;
+    // Make sure we don't go past the end of the list
+    if (next + VerseBook.pageSize - 1 >= verses.length) {
+      next = 0;
+    }
+    _session.verseIndex.value = next;
+  }
 
+  /// Corpus id of the text being shown, or null when verses are off.
+  String? get _selectedText {
+    if (showAdityaMantra) return 'aditya_mantra';
+    if (showHanumanChalisa) return 'hanuman_chalisa';
+    return null;
+  }
 
-      _currentRound++;
-      if (_currentRound < widget.rounds) {
-        _controller.reset();
-        await Future.delayed(const Duration(milliseconds: 500));
-        if (isRunning) {
-          _startBreathingCycle();
-        }
-      } else {
-        setState(() {
-          isRunning = false;
-          breathingText = "Complete";
-        });
-        await _stopAllAudio();
+  /// Loads the selected text in the selected language, unless the selection
+  /// has changed again by the time it arrives.
+  Future<void> _loadVerses() async {
+    final text = _selectedText;
+    final language = _selectedLanguage;
+    if (text == null) return;
+    try {
+      final verses = await VerseCorpus.instance.book(text, language);
+      if (!mounted || text != _selectedText || language != _selectedLanguage) {
+        return;
       }
+      setState(() {
+        _verses = verses;
+      });
+      _readVersePage();
+    } catch (e) {
+      debugPrint('Error loading verses: $e');
     }
   }
 
-  List<String> _getCurrentVerses() {
-    if (showAdityaMantra) {
-      // For Aditya Mantra
-      switch (_selectedLanguage) {
-        case "English":
-          return _englishAdityaMantraVerses;
-        case "Kannada":
-          return _kannadaAdityaMantraVerses;
-        default: // Sanskrit
-          return _adityaMantraVerses;
-      }
-    } else {
-      // For Hanuman Chalisa
-      switch (_selectedLanguage) {
-        case "English":
-          return _englishHanumanChalisaVerses;
-        case "Kannada":
-          return _kannadaHanumanChalisaVerses;
-        default: // Sanskrit
-          return _hanumanChalisaVerses;
-      }
-    }
+  void _readVersePage() {
+    _versePage = _verses?.page(_session.verseIndex.value) ?? const [];
   }
 
   void _resetSideReadStatus() {
-    _sideRead = {
-      "top": false,
-      "right": false,
-      "bottom": false,
-      "left": false,
-    };
+    _session.resetSideRead();
   }
 
-  Future<void> _playPhaseSound(String phase) async {
+  Future<void> _playPhaseSound(String phase, int detectedAt) async {
     try {
       if (phase == "Inhale") {
         await _exhalePlayer.stop();
         await _inhalePlayer.resume();
+        _bellLatency.recordSince(detectedAt);
       } else if (phase == "Exhale") {
         await _inhalePlayer.stop();
         await _exhalePlayer.resume();
+        _bellLatency.recordSince(detectedAt);
       } else {
         await _inhalePlayer.stop();
         await _exhalePlayer.stop();
@@ -523,30 +274,97 @@ class _BoxBreathingScreenState extends State<BoxBreathingScreen>
     }
   }
 
-  void _startBreathingCycle() {
-    setState(() {
-      breathingText = "Inhale";
-      _currentPhase = "Inhale";
-      _activeSide = "top";
+  /// Starts a new session, or resumes a paused one where it left off.
+  Future<void> _startBreathingCycle() async {
+    final fresh = !_scheduler.isStarted || _scheduler.isComplete;
+    if (fresh) {
       _resetSideReadStatus();
-    });
-    _controller.forward();
-    if (isAudioPlaying) {
-      _playPhaseSound("Inhale");
+      _scheduler.start();
+      _tracker = SessionTelemetry.instance.begin(PracticeTechnique.box);
+    } else {
+      _scheduler.resume();
+    }
+    _cuedThrough = _scheduler.elapsed;
+    if (!_ticker.isActive) {
+      _ticker.start();
+    }
+    if (!BreathCueEngine.instance.isAvailable) return;
+
+    if (_backgroundSession && !fresh) {
+      BackgroundSession.instance.resume();
+      return;
+    }
+    if (BackgroundSession.instance.isSupported) {
+      // The native session keeps the bells on time with the screen off
+      _backgroundSession = await BackgroundSession.instance.start(
+        _scheduler,
+        cues: const {
+          BreathPhase.inhale: BreathCue.inhale,
+          BreathPhase.exhale: BreathCue.exhale,
+        },
+        title: 'Box breathing',
+      );
+    }
+    if (!_backgroundSession && mounted) {
+      _queueUpcomingCues();
+    }
+  }
+
+  @override
+  void didChangeAppLifecycleState(AppLifecycleState state) {
+    if (state == AppLifecycleState.resumed && _backgroundSession) {
+      _catchUpWithBackgroundSession();
+    }
+  }
+
+  /// Moves the scheduler to where the native session got to while no frames
+  /// were drawn; the next tick replays the phases that were missed.
+  Future<void> _catchUpWithBackgroundSession() async {
+    final status = await BackgroundSession.instance.status();
+    if (!mounted || status == null || !_scheduler.isStarted) return;
+    if (status.active || status.complete) {
+      _scheduler.syncTo(status.elapsed);
+    }
+  }
+
+  /// Keeps the native engine one cycle ahead of the session so every bell is
+  /// already queued on its exact frame when the phase begins.
+  void _queueUpcomingCues() {
+    final elapsed = _scheduler.elapsed;
+    final horizon = elapsed + _scheduler.cycleDuration;
+    for (final event in _scheduler.eventsBetween(_cuedThrough, horizon)) {
+      BreathCueEngine.instance.scheduleCue(
+        _cueForPhase(event.phase),
+        delay: event.start - elapsed,
+      );
+    }
+    _cuedThrough = horizon;
+  }
+
+  BreathCue _cueForPhase(BreathPhase phase) {
+    switch (phase) {
+      case BreathPhase.inhale:
+        return BreathCue.inhale;
+      case BreathPhase.exhale:
+        return BreathCue.exhale;
+      default:
+        return BreathCue.silence;
     }
   }
 
   Future<void> toggleBreathing() async {
     if (isRunning) {
-      _controller.stop();
+      _scheduler.pause();
+      _ticker.stop();
+      if (_backgroundSession) BackgroundSession.instance.pause();
       await _stopAllAudio();
       setState(() {
         isRunning = false;
       });
     } else {
-      if (_currentRound >= widget.rounds) {
-        _currentRound = 0;
-        _currentVerseIndex = 0;
+      if (_session.round.value >= widget.rounds) {
+        _session.round.value = 0;
+        _session.verseIndex.value = 0;
       }
       setState(() {
         isRunning = true;
@@ -559,6 +377,7 @@ class _BoxBreathingScreenState extends State<BoxBreathingScreen>
     await Future.wait([
       _inhalePlayer.stop(),
       _exhalePlayer.stop(),
+      BreathCueEngine.instance.cancelAll(),
     ]);
   }
 
@@ -567,6 +386,7 @@ class _BoxBreathingScreenState extends State<BoxBreathingScreen>
     await Future.wait([
       _inhalePlayer.setVolume(newVolume),
       _exhalePlayer.setVolume(newVolume),
+      BreathCueEngine.instance.setVolume(newVolume),
     ]);
     setState(() {
       isAudioPlaying = !isAudioPlaying;
@@ -583,9 +403,12 @@ class _BoxBreathingScreenState extends State<BoxBreathingScreen>
         showHanumanChalisa = true;
         showAdityaMantra = false;
       }
-      _currentVerseIndex = 0;
+      _verses = null;
+      _versePage = const [];
+      _session.verseIndex.value = 0;
       _resetSideReadStatus();
     });
+    _loadVerses();
   }
 
   void toggleAdityaMantra() {
@@ -598,330 +421,62 @@ class _BoxBreathingScreenState extends State<BoxBreathingScreen>
         showAdityaMantra = true;
         showHanumanChalisa = false;
       }
-      _currentVerseIndex = 0;
+      _verses = null;
+      _versePage = const [];
+      _session.verseIndex.value = 0;
       _resetSideReadStatus();
     });
+    _loadVerses();
   }
 
   // Set the selected language
   void _setLanguage(String language) {
     setState(() {
       _selectedLanguage = language;
-      _currentVerseIndex = 0;
+      _verses = null;
+      _versePage = const [];
+      _session.verseIndex.value = 0;
       _resetSideReadStatus();
     });
+    _loadVerses();
   }
 
   // Mark the current side as read
   void markSideAsRead(String side) {
-    if ((showHanumanChalisa || showAdityaMantra) && side == _activeSide &&
-        !_sideRead[side]!) {
-      setState(() {
-        _sideRead[side] = true;
-      });
-    }
-  }
-
-  /// Gets the index for the verse based on the side
-  int _getVerseIndexForSide(String side) {
-    int index;
-    switch (side) {
-      case "top":
-        index = _currentVerseIndex;
-        break;
-      case "right":
-        index = _currentVerseIndex + 1;
-        break;
-      case "bottom":
-        index = _currentVerseIndex + 2;
-        break;
-      case "left":
-        index = _currentVerseIndex + 3;
-        break;
-      default:
-        index = _currentVerseIndex;
-    }
-
-    List<String> currentVerses = _getCurrentVerses();
-
-    // Make sure we don't go out of bounds
-    return index % currentVerses.length;
-  }
-
-  /// Computes the center of the moving ball along the square's perimeter.
-  Offset _calculateCirclePosition(double t, double size) {
-    if (t < _f1) {
-      // Inhale: from A to B
-      double fraction = t / _f1;
-      double x = fraction * size;
-      double y = 0;
-      return Offset(x, y);
-    } else if (t < _f2) {
-      // Hold: from B to C
-      double fraction = (t - _f1) / (_f2 - _f1);
-      double x = size;
-      double y = fraction * size;
-      return Offset(x, y);
-    } else if (t < _f3) {
-      // Exhale: from C to D
-      double fraction = (t - _f2) / (_f3 - _f2);
-      double x = size * (1 - fraction);
-      double y = size;
-      return Offset(x, y);
-    } else {
-      // Hold: from D to A
-      double fraction = (t - _f3) / (1 - _f3);
-      double x = 0;
-      double y = size * (1 - fraction);
-      return Offset(x, y);
+    if ((showHanumanChalisa || showAdityaMantra) &&
+        side == _session.activeSide) {
+      _session.sideRead[side]!.value = true;
     }
   }
 
-  /// Create a text widget for a verse with proper styling and rotation
-  Widget _buildVerseWidget(String side, bool isActive) {
-    int verseIndex = _getVerseIndexForSide(side);
-
-    // Get the current verses based on language and type selection
-    List<String> currentVerses = _getCurrentVerses();
-
-    // Handle potential index out of bounds
-    if (verseIndex >= currentVerses.length) {
-      verseIndex = currentVerses.length - 1;
-    }
-
-    String verse = currentVerses.isNotEmpty ? currentVerses[verseIndex] : "";
-    bool isRead = _sideRead[side]!;
-
-    // Define colors for different states
-    Color textColor = isActive
-        ? isRead ? Color(0xFF4CAF50) : Color(0xFFFFAB40)
-        : Colors.grey[400]!;
-
-    Color bgColor = isActive
-        ? isRead ? Color(0xFF4CAF50).withOpacity(0.15) : Color(0xFFFFAB40)
-        .withOpacity(0.15)
-        : Colors.transparent;
-
-    Color borderColor = isActive
-        ? isRead ? Color(0xFF4CAF50) : Color(0xFFFFAB40)
-        : Colors.transparent;
-
-    FontWeight fontWeight = isActive ? FontWeight.bold : FontWeight.normal;
-    double fontSize = isActive ? 16.0 : 14.0;
-
-    Widget textWidget = Text(
-      verse,
-      style: TextStyle(
-        color: textColor,
-        fontSize: fontSize,
-        fontWeight: fontWeight,
-        letterSpacing: 0.5,
-      ),
-      textAlign: TextAlign.center,
-      maxLines: 2,
-      overflow: TextOverflow.ellipsis,
-    );
-
-    // Rotate text for left and right sides
-    if (side == "left") {
-      textWidget = RotatedBox(
-        quarterTurns: 3,
-        child: textWidget,
-      );
-    } else if (side == "right") {
-      textWidget = RotatedBox(
-        quarterTurns: 1,
-        child: textWidget,
-      );
-    }
-
-    return GestureDetector(
-      onTap: () => isActive ? markSideAsRead(side) : null,
-      child: AnimatedContainer(
-        duration: const Duration(milliseconds: 300),
-        padding: const EdgeInsets.all(10),
-        decoration: BoxDecoration(
-          color: bgColor,
-          borderRadius: BorderRadius.circular(12),
-          border: Border.all(color: borderColor, width: 1.5),
-          boxShadow: isActive ? [
-            BoxShadow(
-              color: borderColor.withOpacity(0.3),
-              blurRadius: 8,
-              spreadRadius: 1,
-            )
-          ] : null,
-        ),
-        child: textWidget,
-      ),
-    );
-  }
+  /// Sides of the box in the order their verses appear on a page
+  static const List<String> _verseSides = ["top", "right", "bottom", "left"];
 
   /// Builds the box with the moving ball and side-specific karaoke verses
   Widget _buildBoxAnimation() {
-    const double boxSize = 300;
-    const double ballDiameter = 24;
-    const double ballRadius = ballDiameter / 2;
-    const double textPadding = 40.0;
-
-    return Container(
-      width: boxSize + (textPadding * 2),
-      height: boxSize + (textPadding * 2),
-      child: Stack(
-        clipBehavior: Clip.none,
-        children: [
-          // Background glow
-          Positioned(
-            left: textPadding,
-            top: textPadding,
-            child: Container(
-              width: boxSize,
-              height: boxSize,
-              decoration: BoxDecoration(
-                borderRadius: BorderRadius.circular(12),
-                boxShadow: [
-                  BoxShadow(
-                    color: Color(0xFF2E7D32).withOpacity(0.2),
-                    blurRadius: 20,
-                    spreadRadius: 5,
-                  ),
-                ],
-              ),
-            ),
-          ),
-
-          // The main box with gradient border
-          Positioned(
-            left: textPadding,
-            top: textPadding,
-            child: Container(
-              width: boxSize,
-              height: boxSize,
-              decoration: BoxDecoration(
-                border: Border.all(color: Colors.transparent, width: 0),
-                borderRadius: BorderRadius.circular(12),
-              ),
-              child: CustomPaint(
-                painter: GradientBoxPainter(),
-                size: Size(boxSize, boxSize),
-              ),
-            ),
-          ),
-
-          // Only show verses if Hanuman Chalisa OR Aditya Mantra is enabled
-          if (showHanumanChalisa || showAdityaMantra) ...[
-            // Top verse - enough space from the box
-            Positioned(
-              top: 0,
-              left: textPadding + 20,
-              right: textPadding + 20,
-              child: _buildVerseWidget("top", _activeSide == "top"),
-            ),
-
-            // Right verse - enough space from the box
-            Positioned(
-              right: 0,
-              top: textPadding + 20,
-              bottom: textPadding + 20,
-              width: textPadding * 2,
-              child: _buildVerseWidget("right", _activeSide == "right"),
-            ),
-
-            // Bottom verse - enough space from the box
-            Positioned(
-              bottom: 0,
-              left: textPadding + 20,
-              right: textPadding + 20,
-              child: _buildVerseWidget("bottom", _activeSide == "bottom"),
-            ),
-
-            // Left verse - enough space from the box
-            Positioned(
-              left: 0,
-              top: textPadding + 20,
-              bottom: textPadding + 20,
-              width: textPadding * 2,
-              child: _buildVerseWidget("left", _activeSide == "left"),
-            ),
-          ],
-
-          // The moving ball with pulse effect
-          AnimatedBuilder(
-            animation: _controller,
-            builder: (context, child) {
-              Offset circleCenter = _calculateCirclePosition(
-                  _controller.value, boxSize);
-
-              // Customize ball appearance based on the current phase
-              Color ballColor;
-              Color glowColor;
-
-              if (_currentPhase == "Inhale") {
-                ballColor = Color(0xFF1E88E5); // Blue for inhale
-                glowColor = Color(0xFF1E88E5).withOpacity(0.5);
-              } else if (_currentPhase == "Exhale") {
-                ballColor = Color(0xFFE57373); // Red for exhale
-                glowColor = Color(0xFFE57373).withOpacity(0.5);
-              } else { // Hold phases
-                ballColor = Color(0xFFFFB74D); // Orange for hold
-                glowColor = Color(0xFFFFB74D).withOpacity(0.5);
-              }
-
-              return Positioned(
-                left: textPadding + circleCenter.dx - ballRadius,
-                top: textPadding + circleCenter.dy - ballRadius,
-                child: TweenAnimationBuilder<double>(
-                  tween: Tween<double>(
-                      begin: 1.0, end: _currentPhase == "Hold" ? 1.0 : 1.2),
-                  duration: Duration(
-                      milliseconds: _currentPhase == "Hold" ? 0 : 1000),
-                  builder: (context, value, child) {
-                    return Container(
-                      width: ballDiameter *
-                          (_currentPhase == "Inhale" ? value : 1.0),
-                      height: ballDiameter *
-                          (_currentPhase == "Inhale" ? value : 1.0),
-                      decoration: BoxDecoration(
-                        shape: BoxShape.circle,
-                        color: ballColor,
-                        border: Border.all(color: Colors.white, width: 2),
-                        boxShadow: [
-                          BoxShadow(
-                            color: glowColor,
-                            blurRadius: 15,
-                            spreadRadius: 5,
-                          ),
-                        ],
-                      ),
-                      child: Center(
-                        child: Container(
-                          width: ballDiameter * 0.5,
-                          height: ballDiameter * 0.5,
-                          decoration: BoxDecoration(
-                            shape: BoxShape.circle,
-                            color: Colors.white.withOpacity(0.6),
-                          ),
-                        ),
-                      ),
-                    );
-                  },
-                ),
-              );
-            },
-          ),
-        ],
-      ),
+    return BreathingBox(
+      session: _session,
+      progress: _controller,
+      f1: _f1,
+      f2: _f2,
+      f3: _f3,
+      showVerses: showHanumanChalisa || showAdityaMantra,
+      verseForSide: (side) {
+        if (_versePage.isEmpty) return "";
+        return _versePage[max(_verseSides.indexOf(side), 0)];
+      },
+      onSideTap: markSideAsRead,
     );
   }
 
   /// Builds the control buttons (Start/Pause/Repeat).
   Widget _buildControlButtons() {
-    if (_currentRound >= widget.rounds) {
+    if (_session.round.value >= widget.rounds) {
       return ElevatedButton(
         onPressed: () {
           setState(() {
-            _currentRound = 0;
-            _currentVerseIndex = 0;
+            _session.round.value = 0;
+            _session.verseIndex.value = 0;
             isRunning = true;
             _resetSideReadStatus();
           });
@@ -1119,10 +674,20 @@ class _BoxBreathingScreenState extends State<BoxBreathingScreen>
 
   /// Builds the breathing phase display
   Widget _buildBreathingPhaseText() {
+    return ListenableBuilder(
+      listenable: Listenable.merge([_session.phase, _session.breathingText]),
+      builder: (context, _) => _buildPhaseLabel(
+        _session.phase.value,
+        _session.breathingText.value,
+      ),
+    );
+  }
+
+  Widget _buildPhaseLabel(String phase, String breathingText) {
     Color textColor;
 
     // Different colors for different phases
-    switch (_currentPhase) {
+    switch (phase) {
       case "Inhale":
         textColor = Color(0xFF1E88E5); // Blue
         break;
@@ -1166,6 +731,13 @@ class _BoxBreathingScreenState extends State<BoxBreathingScreen>
 
   /// Builds the rounds progress indicator
   Widget _buildRoundsIndicator() {
+    return ValueListenableBuilder<int>(
+      valueListenable: _session.round,
+      builder: (context, round, _) => _buildRoundsBadge(round),
+    );
+  }
+
+  Widget _buildRoundsBadge(int round) {
     return Container(
       padding: EdgeInsets.symmetric(horizontal: 18, vertical: 10),
       decoration: BoxDecoration(
@@ -1189,7 +761,7 @@ class _BoxBreathingScreenState extends State<BoxBreathingScreen>
           ),
           SizedBox(width: 8),
           Text(
-            "Round ${_currentRound < widget.rounds ? _currentRound + 1 : widget
+            "Round ${round < widget.rounds ? round + 1 : widget
                 .rounds} of ${widget.rounds}",
             style: TextStyle(
               color: Colors.white,
@@ -1206,51 +778,53 @@ class _BoxBreathingScreenState extends State<BoxBreathingScreen>
   /// Builds the verses progress indicator
   Widget _buildVersesProgressIndicator() {
     // Only show if either text is active
-    bool showIndicator = showHanumanChalisa || showAdityaMantra;
+    bool showIndicator =
+        (showHanumanChalisa || showAdityaMantra) && _verses != null;
 
     // Choose the right icon, color, and text based on which text is active
     IconData indicatorIcon = showAdityaMantra ? Icons.wb_sunny : Icons
         .auto_stories;
     Color indicatorColor = showAdityaMantra ? Color(0xFFFF5722) : Color(
         0xFFFF9800);
-    List<String> currentVerses = showAdityaMantra
-        ? _adityaMantraVerses
-        : _hanumanChalisaVerses;
+    final int verseCount = _verses?.length ?? 0;
     String textType = showAdityaMantra ? "Mantras" : "Verses";
 
-    return AnimatedOpacity(
-      opacity: showIndicator ? 1.0 : 0.0,
-      duration: Duration(milliseconds: 300),
-      child: Container(
-        padding: EdgeInsets.symmetric(horizontal: 18, vertical: 10),
-        decoration: BoxDecoration(
-          color: indicatorColor.withOpacity(0.15),
-          borderRadius: BorderRadius.circular(30),
-          border: Border.all(
-            color: indicatorColor.withOpacity(0.5),
-            width: 1,
-          ),
-        ),
-        child: Row(
-          mainAxisSize: MainAxisSize.min,
-          children: [
-            Icon(
-              indicatorIcon,
-              color: indicatorColor,
-              size: 18,
+    return ValueListenableBuilder<int>(
+      valueListenable: _session.verseIndex,
+      builder: (context, verseIndex, _) => AnimatedOpacity(
+        opacity: showIndicator ? 1.0 : 0.0,
+        duration: Duration(milliseconds: 300),
+        child: Container(
+          padding: EdgeInsets.symmetric(horizontal: 18, vertical: 10),
+          decoration: BoxDecoration(
+            color: indicatorColor.withOpacity(0.15),
+            borderRadius: BorderRadius.circular(30),
+            border: Border.all(
+              color: indicatorColor.withOpacity(0.5),
+              width: 1,
             ),
-            SizedBox(width: 8),
-            Text(
-              "$textType ${_currentVerseIndex + 1}-${min(_currentVerseIndex + 4,
-                  currentVerses.length)} of ${currentVerses.length}",
-              style: TextStyle(
+          ),
+          child: Row(
+            mainAxisSize: MainAxisSize.min,
+            children: [
+              Icon(
+                indicatorIcon,
                 color: indicatorColor,
-                fontSize: 14,
-                fontWeight: FontWeight.w500,
-                letterSpacing: 0.5,
+                size: 18,
               ),
-            ),
-          ],
+              SizedBox(width: 8),
+              Text(
+                "$textType ${verseIndex + 1}-${min(verseIndex + VerseBook.pageSize,
+                    verseCount)} of $verseCount",
+                style: TextStyle(
+                  color: indicatorColor,
+                  fontSize: 14,
+                  fontWeight: FontWeight.w500,
+                  letterSpacing: 0.5,
+                ),
+              ),
+            ],
+          ),
         ),
       ),
     );
@@ -1258,7 +832,15 @@ class _BoxBreathingScreenState extends State<BoxBreathingScreen>
 
   @override
   void dispose() {
+    WidgetsBinding.instance.removeObserver(this);
+    _tracker?.abort();
+    if (_backgroundSession) BackgroundSession.instance.stop();
+    BreathCueEngine.instance.cancelAll();
+    _ticker.dispose();
+    _frames.stop();
+    _scheduler.dispose();
     _controller.dispose();
+    _session.dispose();
     _inhalePlayer.dispose();
     _exhalePlayer.dispose();
     super.dispose();
@@ -1376,57 +958,6 @@ class _BoxBreathingScreenState extends State<BoxBreathingScreen>
   }
 }
 
-/// Custom painter for a gradient border
-class GradientBoxPainter extends CustomPainter {
-  @override
-  void paint(Canvas canvas, Size size) {
-    final rect = Rect.fromLTWH(0, 0, size.width, size.height);
-    final rrect = RRect.fromRectAndRadius(rect, Radius.circular(12));
-
-    final gradient = LinearGradient(
-      begin: Alignment.topLeft,
-      end: Alignment.bottomRight,
-      colors: [
-        Color(0xFF00BFA5),
-        Color(0xFF1976D2),
-        Color(0xFF9C27B0),
-        Color(0xFFFF5722),
-      ],
-      stops: [0.0, 0.3, 0.7, 1.0],
-    );
-
-    final paint = Paint()
-      ..shader = gradient.createShader(rect)
-      ..style = PaintingStyle.stroke
-      ..strokeWidth = 4.0;
-
-    canvas.drawRRect(rrect, paint);
-
-    // Draw subtle inner glow
-    final innerGlowPaint = Paint()
-      ..shader = RadialGradient(
-        center: Alignment.center,
-        radius: 0.8,
-        colors: [
-          Colors.white.withOpacity(0.1),
-          Colors.transparent,
-        ],
-      ).createShader(rect)
-      ..style = PaintingStyle.fill;
-
-    canvas.drawRRect(
-      RRect.fromRectAndRadius(
-        rect.deflate(4),
-        Radius.circular(8),
-      ),
-      innerGlowPaint,
-    );
-  }
-
-  @override
-  bool shouldRepaint(CustomPainter oldDelegate) => false;
-}
-
 /// Animated background for a more immersive experience
 class AnimatedBackgroundPainter extends CustomPainter {
   final Animation<double> animation;
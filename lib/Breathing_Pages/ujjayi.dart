@@ -1,6 +1,13 @@
 import 'package:flutter/material.dart';
+import 'package:meditation_app/common_widgets/sized_asset_image.dart';
+import 'package:flutter/scheduler.dart';
 import 'dart:async';
 import 'package:audioplayers/audioplayers.dart';
+import '../services/breath_cue_engine.dart';
+import '../services/breath_detection.dart';
+import '../services/breath_session_scheduler.dart';
+import '../services/practice_log.dart';
+import '../services/session_telemetry.dart';
 
 class UjjayiBreathingScreen extends StatefulWidget {
   final int inhaleDuration;
@@ -25,14 +32,21 @@ class UjjayiBreathingScreen extends StatefulWidget {
 }
 
 class _UjjayiBreathingScreenState extends State<UjjayiBreathingScreen>
-    with SingleTickerProviderStateMixin {
+    with TickerProviderStateMixin {
   late AnimationController _controller;
+  late final BreathSessionScheduler _scheduler;
+  late final Ticker _ticker;
   late AudioPlayer _bellPlayer;
+  SessionTracker? _tracker;
+  late final BreathFollower _follower;
+  StreamSubscription<BreathSoundEvent>? _sounds;
 
   bool isRunning = false;
+  bool _listening = false;
+  int _phasesHeard = 0;
+  int _phasesListened = 0;
   int completedRounds = 0;
   int totalRounds = 0;
-  bool lastPhaseWasInhale = false;
 
   String breathingText = "Inhale";
 
@@ -41,55 +55,21 @@ class _UjjayiBreathingScreenState extends State<UjjayiBreathingScreen>
     super.initState();
     totalRounds = widget.rounds;
 
+    // Session timing comes from the scheduler; the controller follows it
+    _scheduler = BreathSessionScheduler(
+      inhale: Duration(seconds: widget.inhaleDuration),
+      exhale: Duration(seconds: widget.exhaleDuration),
+      rounds: widget.rounds,
+    );
+    _ticker = createTicker(_onTick);
+    _follower = BreathFollower(_scheduler);
+
     // Animation setup
     _controller = AnimationController(
       duration: Duration(seconds: widget.inhaleDuration + widget.exhaleDuration),
       vsync: this,
     );
 
-    _controller.addListener(() {
-      double inhaleThreshold = widget.inhaleDuration / (widget.inhaleDuration + widget.exhaleDuration);
-
-      if (_controller.value <= inhaleThreshold && (!lastPhaseWasInhale || _controller.value < 0.01)) {
-        setState(() {
-          breathingText = "Inhale";
-          lastPhaseWasInhale = true;
-        });
-        _playBellSound(true);
-      } else if (_controller.value > inhaleThreshold && lastPhaseWasInhale) {
-        setState(() {
-          breathingText = "Exhale";
-          lastPhaseWasInhale = false;
-        });
-        _playBellSound(false);
-      }
-    });
-
-    _controller.addStatusListener((status) async {
-      if (status == AnimationStatus.completed) {
-        completedRounds++;
-
-        if (completedRounds >= totalRounds && totalRounds > 0) {
-          _controller.stop();
-          setState(() {
-            isRunning = false;
-            breathingText = "Complete";
-          });
-          return;
-        }
-
-        _controller.reset();
-        setState(() {
-          lastPhaseWasInhale = false;
-        });
-
-        await Future.delayed(const Duration(milliseconds: 5));
-
-        if (isRunning) {
-          _startBreathingCycle();
-        }
-      }
-    });
 
     _bellPlayer = AudioPlayer();
 
@@ -114,13 +94,25 @@ class _UjjayiBreathingScreenState extends State<UjjayiBreathingScreen>
 
   Future<void> _setupBellPlayer() async {
     try {
+      await BreathCueEngine.instance.ensureLoaded();
       await _bellPlayer.setReleaseMode(ReleaseMode.release);
     } catch (e) {
       print('Error setting up bell player: $e');
     }
   }
 
+  // The native engine only carries the stock bells; custom paths stay on audioplayers.
+  bool get _useCueEngine =>
+      BreathCueEngine.instance.isAvailable &&
+      widget.inhaleAudioPath == 'assets/music/inhale_bell1.mp3' &&
+      widget.exhaleAudioPath == 'assets/music/exhale_bell1.mp3';
+
   Future<void> _playBellSound(bool isInhale) async {
+    if (_useCueEngine) {
+      await BreathCueEngine.instance
+          .scheduleCue(isInhale ? BreathCue.inhale : BreathCue.exhale);
+      return;
+    }
     try {
       // Stop any current playing to avoid overlap
       await _bellPlayer.stop();
@@ -135,17 +127,107 @@ class _UjjayiBreathingScreenState extends State<UjjayiBreathingScreen>
     }
   }
 
+  void _onTick(Duration _) {
+    if (_listening) {
+      // Let a long exhale finish before the next inhale.
+      final wasHolding = _follower.isHolding;
+      _follower.holdBefore(BreathPhase.inhale, BreathSound.breath);
+      if (_follower.isHolding != wasHolding) setState(() {});
+    }
+    for (final event in _scheduler.poll()) {
+      _checkPhase(_scheduler.timeline.indexOf(event) - 1);
+      _tracker?.phaseStarted(event);
+      setState(() {
+        completedRounds = event.round;
+        breathingText = event.label;
+      });
+      _playBellSound(event.phase == BreathPhase.inhale);
+    }
+    _controller.value = _scheduler.roundProgress;
+    if (_scheduler.isComplete) {
+      _checkPhase(_scheduler.timeline.length - 1);
+      _ticker.stop();
+      _tracker?.complete();
+      setState(() {
+        completedRounds = totalRounds;
+        isRunning = false;
+        breathingText = "Complete";
+      });
+    }
+  }
+
+  /// Counts whether the phase at [index] of the timeline was breathed audibly.
+  void _checkPhase(int index) {
+    if (!_listening || index < 0) return;
+    final phase = _scheduler.timeline[index];
+    setState(() {
+      _phasesListened++;
+      if (_follower.heardIn(BreathSound.breath, phase)) _phasesHeard++;
+    });
+  }
+
+  Future<void> toggleListening() async {
+    if (_listening) {
+      await _stopListening();
+      return;
+    }
+    final started = await BreathDetection.instance.start();
+    if (!mounted) {
+      if (started) BreathDetection.instance.stop();
+      return;
+    }
+    if (!started) {
+      ScaffoldMessenger.of(context).showSnackBar(
+        const SnackBar(content: Text("Microphone not available")),
+      );
+      return;
+    }
+    _follower.clear();
+    _sounds = BreathDetection.instance.events.listen(_follower.add);
+    setState(() {
+      _listening = true;
+      _phasesHeard = 0;
+      _phasesListened = 0;
+    });
+  }
+
+  Future<void> _stopListening() async {
+    await _sounds?.cancel();
+    _sounds = null;
+    if (_follower.isHolding) {
+      _follower.cancelHold();
+      if (isRunning) _scheduler.resume();
+    }
+    if (mounted) {
+      setState(() {
+        _listening = false;
+      });
+    }
+    await BreathDetection.instance.stop();
+  }
+
+  /// Not handed to BackgroundSession yet: following the breath holds the
+  /// scheduler between phases, and the native session runs on a fixed clock.
   void _startBreathingCycle() {
-    _controller.forward();
-    // Play initial bell sound when starting
-    if (_controller.value < 0.01) {
-      _playBellSound(true);
+    if (!_scheduler.isStarted || _scheduler.isComplete) {
+      _scheduler.start();
+      _tracker = SessionTelemetry.instance.begin(PracticeTechnique.ujjayi);
+      _follower.clear();
+      _phasesHeard = 0;
+      _phasesListened = 0;
+    } else {
+      _scheduler.resume();
+    }
+    if (!_ticker.isActive) {
+      _ticker.start();
     }
   }
 
   void toggleBreathing() {
     if (isRunning) {
-      _controller.stop();
+      _follower.cancelHold();
+      _scheduler.pause();
+      _ticker.stop();
       setState(() {
         isRunning = false;
       });
@@ -156,7 +238,6 @@ class _UjjayiBreathingScreenState extends State<UjjayiBreathingScreen>
         if (breathingText == "Complete") {
           completedRounds = 0;
           breathingText = "Inhale";
-          lastPhaseWasInhale = false;
         }
       });
       _startBreathingCycle();
@@ -165,6 +246,14 @@ class _UjjayiBreathingScreenState extends State<UjjayiBreathingScreen>
 
   @override
   void dispose() {
+    _tracker?.abort();
+    if (_listening) {
+      _sounds?.cancel();
+      BreathDetection.instance.stop();
+    }
+    BreathCueEngine.instance.cancelAll();
+    _ticker.dispose();
+    _scheduler.dispose();
     _controller.dispose();
     _bellPlayer.dispose();
     super.dispose();
@@ -211,6 +300,20 @@ class _UjjayiBreathingScreenState extends State<UjjayiBreathingScreen>
               ),
             ),
           ),
+          if (BreathDetection.instance.isSupported)
+            Positioned(
+              top: 10,
+              right: 15,
+              child: IconButton(
+                icon: Icon(
+                  _listening ? Icons.mic : Icons.mic_none,
+                  color: Colors.blue,
+                  size: 36.0,
+                ),
+                tooltip: _listening ? "Stop listening" : "Listen for your breath",
+                onPressed: toggleListening,
+              ),
+            ),
         ],
       ),
     );
@@ -271,7 +374,9 @@ class _UjjayiBreathingScreenState extends State<UjjayiBreathingScreen>
           decoration: BoxDecoration(
             shape: BoxShape.circle,
             image: DecorationImage(
-              image: AssetImage(widget.imagePath),
+              // Decoded for the 1.5x peak of the breath scale.
+              image: SizedAssetImage.provider(
+                  widget.imagePath, const Size(375, 225), MediaQuery.of(context).devicePixelRatio),
               fit: BoxFit.cover,
             ),
             boxShadow: [
@@ -298,6 +403,15 @@ class _UjjayiBreathingScreenState extends State<UjjayiBreathingScreen>
             fontWeight: FontWeight.w500,
           ),
         ),
+        if (_listening) ...[
+          const SizedBox(height: 6),
+          Text(
+            _follower.isHolding
+                ? "Finish your exhale"
+                : "Breaths heard $_phasesHeard / $_phasesListened",
+            style: const TextStyle(color: Colors.white70, fontSize: 16),
+          ),
+        ],
         const SizedBox(height: 10),
         SizedBox(
           width: 250,
@@ -541,7 +655,8 @@ class _UjjayiPranayamaPageState extends State<UjjayiPranayamaPage> {
               ),
               borderRadius: BorderRadius.circular(12),
               image: DecorationImage(
-                image: AssetImage(image['path']!),
+                image: SizedAssetImage.provider(
+                    image['path']!, const Size(100, 100), MediaQuery.of(context).devicePixelRatio),
                 fit: BoxFit.cover,
               ),
             ),
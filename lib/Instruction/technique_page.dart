@@ -0,0 +1,728 @@
+import 'package:flutter/material.dart';
+import 'package:flutter/services.dart';
+import 'package:youtube_player_flutter/youtube_player_flutter.dart';
+import 'package:meditation_app/Breathing_Pages/abdominal_46.dart';
+import 'package:meditation_app/Breathing_Pages/bhramari_screen.dart';
+import 'package:meditation_app/Breathing_Pages/bilateral_screen.dart';
+import 'package:meditation_app/Breathing_Pages/boxbreathing_screen.dart';
+import 'package:meditation_app/Breathing_Pages/ujjayi.dart';
+import 'package:meditation_app/Customization/customize.dart';
+import 'package:meditation_app/common_widgets/sized_asset_image.dart';
+import 'package:meditation_app/courses/technique_course_page.dart';
+import 'package:meditation_app/services/technique_catalog.dart';
+
+/// Instruction page for any technique in the [TechniqueCatalog]: pattern,
+/// duration, visualization and sound pickers, then the session screen.
+///
+/// Waits for the catalog if it is still loading, so it can be pushed at any
+/// time after startup.
+class TechniquePage extends StatelessWidget {
+  final String techniqueId;
+
+  const TechniquePage({Key? key, required this.techniqueId}) : super(key: key);
+
+  @override
+  Widget build(BuildContext context) {
+    final catalog = TechniqueCatalog.loaded;
+    if (catalog != null) {
+      return _TechniqueView(technique: catalog[techniqueId], catalog: catalog);
+    }
+    return FutureBuilder<TechniqueCatalog>(
+      future: TechniqueCatalog.load(),
+      builder: (context, snapshot) {
+        final loaded = snapshot.data;
+        if (loaded == null) {
+          return const Scaffold(body: Center(child: CircularProgressIndicator()));
+        }
+        return _TechniqueView(technique: loaded[techniqueId], catalog: loaded);
+      },
+    );
+  }
+}
+
+class _TechniqueView extends StatefulWidget {
+  final Technique technique;
+  final TechniqueCatalog catalog;
+
+  const _TechniqueView({required this.technique, required this.catalog});
+
+  @override
+  State<_TechniqueView> createState() => _TechniqueViewState();
+}
+
+class _TechniqueViewState extends State<_TechniqueView> {
+  late BreathPattern _pattern = widget.technique.defaultPattern;
+  BreathPattern? _custom;
+  late bool _isMinutesMode =
+      widget.technique.durationMode == DurationMode.minutes;
+  int _selectedDuration = 5;
+  late String? _selectedImage = widget.technique.visualizations.isEmpty
+      ? null
+      : widget.technique.visualizations.first.path;
+  String _selectedSound = 'None';
+  YoutubePlayerController? _ytController;
+
+  Technique get _technique => widget.technique;
+
+  @override
+  void initState() {
+    super.initState();
+    final videoId = _technique.video == null
+        ? null
+        : YoutubePlayer.convertUrlToId(_technique.video!);
+    if (videoId != null) {
+      _ytController = YoutubePlayerController(
+        initialVideoId: videoId,
+        flags: const YoutubePlayerFlags(autoPlay: false, mute: false),
+      );
+    }
+  }
+
+  @override
+  void didChangeDependencies() {
+    super.didChangeDependencies();
+    final pixelRatio = MediaQuery.of(context).devicePixelRatio;
+    for (final image in _technique.visualizations) {
+      precacheImage(SizedAssetImage.provider(image.path, _tileImageSize, pixelRatio), context);
+    }
+  }
+
+  @override
+  void dispose() {
+    _ytController?.dispose();
+    super.dispose();
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    return Scaffold(
+      appBar: AppBar(
+        systemOverlayStyle: SystemUiOverlayStyle.dark,
+        title: Text(
+          _technique.title,
+          style: Theme.of(context).textTheme.titleLarge?.copyWith(
+            fontWeight: FontWeight.w600,
+            color: Colors.blueGrey[900],
+          ),
+        ),
+        centerTitle: false,
+        elevation: 0,
+        backgroundColor: Theme.of(context).scaffoldBackgroundColor,
+        iconTheme: IconThemeData(color: Colors.blueGrey[800]),
+      ),
+      body: SingleChildScrollView(
+        physics: const BouncingScrollPhysics(),
+        padding: const EdgeInsets.symmetric(horizontal: 20, vertical: 16),
+        child: Column(
+          crossAxisAlignment: CrossAxisAlignment.start,
+          children: [
+            _buildHeader(),
+            const SizedBox(height: 32),
+            _buildPatternSection(),
+            const SizedBox(height: 24),
+            _buildDurationSection(),
+            if (_technique.visualizations.isNotEmpty) ...[
+              const SizedBox(height: 24),
+              _buildVisualizationSection(),
+            ],
+            if (_technique.sounds.isNotEmpty) ...[
+              const SizedBox(height: 24),
+              _buildSoundSection(),
+            ],
+            const SizedBox(height: 32),
+            _buildBeginButton(),
+            if (_technique.description != null) ...[
+              const SizedBox(height: 32),
+              _buildSectionTitle('ABOUT'),
+              const SizedBox(height: 8),
+              Text(_technique.description!,
+                  style: const TextStyle(fontSize: 15, height: 1.5)),
+            ],
+            if (_ytController != null) ...[
+              const SizedBox(height: 24),
+              _buildSectionTitle('VIDEO DEMONSTRATION'),
+              const SizedBox(height: 12),
+              ClipRRect(
+                borderRadius: BorderRadius.circular(12),
+                child: YoutubePlayer(
+                  controller: _ytController!,
+                  aspectRatio: 16 / 9,
+                  showVideoProgressIndicator: true,
+                ),
+              ),
+            ],
+            const SizedBox(height: 24),
+            _buildPracticeGuide(),
+            const SizedBox(height: 24),
+          ],
+        ),
+      ),
+      bottomNavigationBar: SafeArea(
+        child: Padding(
+          padding: const EdgeInsets.symmetric(horizontal: 24, vertical: 8),
+          child: TextButton(
+            onPressed: () => Navigator.push(
+              context,
+              MaterialPageRoute(
+                builder: (_) => TechniqueCoursePage(techniqueId: _technique.id),
+              ),
+            ),
+            child: const Text("Learn More →",
+                style: TextStyle(fontSize: 16, fontWeight: FontWeight.w800)),
+          ),
+        ),
+      ),
+    );
+  }
+
+  Widget _buildHeader() {
+    return Column(
+      crossAxisAlignment: CrossAxisAlignment.start,
+      children: [
+        Text(
+          'Prepare Your Session',
+          style: Theme.of(context).textTheme.headlineSmall?.copyWith(
+            fontWeight: FontWeight.w700,
+            color: Colors.blueGrey[900],
+          ),
+        ),
+        const SizedBox(height: 8),
+        Text(
+          _technique.subtitle,
+          style: Theme.of(context).textTheme.bodyMedium?.copyWith(
+            color: Colors.blueGrey[600],
+          ),
+        ),
+      ],
+    );
+  }
+
+  Widget _buildSectionTitle(String title) {
+    return Text(
+      title,
+      style: Theme.of(context).textTheme.labelMedium?.copyWith(
+        color: Colors.blueGrey[600],
+        fontWeight: FontWeight.w600,
+        letterSpacing: 0.8,
+      ),
+    );
+  }
+
+  Widget _buildPatternSection() {
+    return Column(
+      crossAxisAlignment: CrossAxisAlignment.start,
+      children: [
+        _buildSectionTitle('BREATHING PATTERN'),
+        const SizedBox(height: 12),
+        GridView.count(
+          shrinkWrap: true,
+          physics: const NeverScrollableScrollPhysics(),
+          crossAxisCount: 2,
+          mainAxisSpacing: 12,
+          crossAxisSpacing: 12,
+          childAspectRatio: 2.2,
+          children: [
+            for (final pattern in _technique.patterns)
+              _buildPatternOption(
+                label: pattern.label,
+                ratio: pattern.ratio,
+                selected: _pattern == pattern,
+                highlighted: pattern.recommended,
+                onTap: () => setState(() => _pattern = pattern),
+              ),
+            if (_technique.customizable)
+              _buildPatternOption(
+                label: 'Custom',
+                ratio: _custom?.ratio,
+                selected: _custom != null && _pattern == _custom,
+                highlighted: false,
+                onTap: _customize,
+              ),
+          ],
+        ),
+      ],
+    );
+  }
+
+  Widget _buildPatternOption({
+    required String label,
+    required String? ratio,
+    required bool selected,
+    required bool highlighted,
+    required VoidCallback onTap,
+  }) {
+    return GestureDetector(
+      onTap: onTap,
+      child: Container(
+        padding: const EdgeInsets.all(12),
+        decoration: BoxDecoration(
+          color: selected ? Colors.blue[50] : Colors.white,
+          borderRadius: BorderRadius.circular(12),
+          border: Border.all(
+            color: selected
+                ? Colors.blue[600]!
+                : highlighted
+                    ? Colors.amber[600]!
+                    : Colors.grey[300]!,
+            width: selected ? 1.5 : 1,
+          ),
+        ),
+        child: Column(
+          mainAxisAlignment: MainAxisAlignment.center,
+          children: [
+            Text(
+              label,
+              textAlign: TextAlign.center,
+              style: Theme.of(context).textTheme.titleMedium?.copyWith(
+                color: selected ? Colors.blue[800] : Colors.blueGrey[800],
+                fontWeight: FontWeight.w600,
+              ),
+            ),
+            if (ratio != null) ...[
+              const SizedBox(height: 4),
+              Text(
+                ratio,
+                style: Theme.of(context).textTheme.bodyMedium?.copyWith(
+                  color: selected ? Colors.blue[600] : Colors.blueGrey[600],
+                ),
+              ),
+            ],
+          ],
+        ),
+      ),
+    );
+  }
+
+  Future<void> _customize() async {
+    final current = _custom ?? _technique.defaultPattern;
+    final result = await showCustomizationDialog(
+      context,
+      initialInhale: current.inhale,
+      initialExhale: current.exhale,
+      initialHold: 0,
+    );
+    if (result != null && mounted) {
+      setState(() {
+        _custom = BreathPattern(
+          label: 'Custom',
+          inhale: result['inhale'] ?? current.inhale,
+          exhale: result['exhale'] ?? current.exhale,
+        );
+        _pattern = _custom!;
+      });
+    }
+  }
+
+  Widget _buildDurationSection() {
+    final options = _isMinutesMode
+        ? widget.catalog.minuteOptions
+        : widget.catalog.roundOptions;
+    return Column(
+      crossAxisAlignment: CrossAxisAlignment.start,
+      children: [
+        Row(
+          children: [
+            _buildSectionTitle('SESSION DURATION'),
+            const Spacer(),
+            _buildModeToggle('Rounds', !_isMinutesMode),
+            const SizedBox(width: 8),
+            _buildModeToggle('Minutes', _isMinutesMode),
+          ],
+        ),
+        const SizedBox(height: 12),
+        SizedBox(
+          height: 50,
+          child: ListView.builder(
+            scrollDirection: Axis.horizontal,
+            itemCount: options.length,
+            itemBuilder: (context, index) => _buildDurationOption(options[index]),
+          ),
+        ),
+        const SizedBox(height: 8),
+        Text(
+          _isMinutesMode
+              ? "≈ $_rounds rounds"
+              : "≈ ${(_rounds * _pattern.roundSeconds / 60).toStringAsFixed(1)} minutes",
+          style: TextStyle(color: Colors.grey[600]),
+        ),
+      ],
+    );
+  }
+
+  Widget _buildModeToggle(String label, bool active) {
+    return GestureDetector(
+      onTap: () => setState(() {
+        _isMinutesMode = label == 'Minutes';
+        _selectedDuration = 5;
+      }),
+      child: Container(
+        padding: const EdgeInsets.symmetric(vertical: 6, horizontal: 14),
+        decoration: BoxDecoration(
+          color: active ? Colors.blue[600] : Colors.transparent,
+          borderRadius: BorderRadius.circular(20),
+          border: Border.all(color: active ? Colors.blue[600]! : Colors.grey.shade400),
+        ),
+        child: Text(label,
+            style: TextStyle(color: active ? Colors.white : Colors.black87)),
+      ),
+    );
+  }
+
+  Widget _buildDurationOption(int duration) {
+    final isSelected = _selectedDuration == duration;
+    return Padding(
+      padding: const EdgeInsets.only(right: 8),
+      child: GestureDetector(
+        onTap: () => setState(() => _selectedDuration = duration),
+        child: AnimatedContainer(
+          duration: const Duration(milliseconds: 200),
+          width: 56,
+          decoration: BoxDecoration(
+            color: isSelected ? Colors.blue[50] : Colors.white,
+            borderRadius: BorderRadius.circular(10),
+            border: Border.all(
+              color: isSelected ? Colors.blue[600]! : Colors.grey[300]!,
+              width: isSelected ? 1.5 : 1,
+            ),
+          ),
+          child: Column(
+            mainAxisAlignment: MainAxisAlignment.center,
+            children: [
+              Text(
+                '$duration',
+                style: Theme.of(context).textTheme.titleMedium?.copyWith(
+                  color: isSelected ? Colors.blue[800] : Colors.blueGrey[800],
+                  fontWeight: FontWeight.w600,
+                ),
+              ),
+              Text(
+                _isMinutesMode ? 'min' : 'rounds',
+                style: Theme.of(context).textTheme.labelSmall?.copyWith(
+                  color: isSelected ? Colors.blue[600] : Colors.blueGrey[500],
+                ),
+              ),
+            ],
+          ),
+        ),
+      ),
+    );
+  }
+
+  Widget _buildVisualizationSection() {
+    final options = _technique.visualizations;
+    return Column(
+      crossAxisAlignment: CrossAxisAlignment.start,
+      children: [
+        _buildSectionTitle('VISUALIZATION'),
+        const SizedBox(height: 12),
+        SizedBox(
+          height: 120,
+          child: ListView.builder(
+            scrollDirection: Axis.horizontal,
+            itemCount: options.length,
+            itemBuilder: (context, index) => _buildVisualizationOption(options[index]),
+          ),
+        ),
+      ],
+    );
+  }
+
+  /// Inside of a visualization tile: 100x120 less the 2 px selection border.
+  static const _tileImageSize = Size(96, 116);
+
+  Widget _buildVisualizationOption(VisualizationOption image) {
+    final isSelected = _selectedImage == image.path;
+    return Padding(
+      padding: const EdgeInsets.only(right: 12),
+      child: GestureDetector(
+        onTap: () => setState(() => _selectedImage = image.path),
+        child: AnimatedContainer(
+          duration: const Duration(milliseconds: 200),
+          width: 100,
+          decoration: BoxDecoration(
+            borderRadius: BorderRadius.circular(12),
+            border: Border.all(
+              color: isSelected ? Colors.blue[600]! : Colors.transparent,
+              width: 2,
+            ),
+          ),
+          child: ClipRRect(
+            borderRadius: BorderRadius.circular(10),
+            child: Stack(
+              children: [
+                Positioned.fill(
+                  child: SizedAssetImage(
+                    image.path,
+                    width: _tileImageSize.width,
+                    height: _tileImageSize.height,
+                  ),
+                ),
+                Positioned(
+                  bottom: 0,
+                  left: 0,
+                  right: 0,
+                  child: Container(
+                    padding: const EdgeInsets.symmetric(vertical: 6),
+                    decoration: BoxDecoration(
+                      gradient: LinearGradient(
+                        begin: Alignment.topCenter,
+                        end: Alignment.bottomCenter,
+                        colors: [
+                          Colors.transparent,
+                          Colors.black.withOpacity(0.7),
+                        ],
+                      ),
+                    ),
+                    child: Text(
+                      image.name,
+                      textAlign: TextAlign.center,
+                      style: const TextStyle(
+                        color: Colors.white,
+                        fontSize: 12,
+                        fontWeight: FontWeight.w500,
+                      ),
+                    ),
+                  ),
+                ),
+                if (isSelected)
+                  const Positioned(
+                    top: 6,
+                    right: 6,
+                    child: Icon(Icons.check_circle_rounded,
+                        color: Colors.white, size: 20),
+                  ),
+              ],
+            ),
+          ),
+        ),
+      ),
+    );
+  }
+
+  Widget _buildSoundSection() {
+    final options = _technique.sounds;
+    return Column(
+      crossAxisAlignment: CrossAxisAlignment.start,
+      children: [
+        _buildSectionTitle('AMBIENT SOUND'),
+        const SizedBox(height: 12),
+        SizedBox(
+          height: 48,
+          child: ListView.builder(
+            scrollDirection: Axis.horizontal,
+            itemCount: options.length,
+            itemBuilder: (context, index) => _buildSoundOption(options[index]),
+          ),
+        ),
+      ],
+    );
+  }
+
+  Widget _buildSoundOption(SoundOption sound) {
+    final isSelected = _selectedSound == sound.name;
+    return Padding(
+      padding: const EdgeInsets.only(right: 8),
+      child: GestureDetector(
+        onTap: () => setState(() => _selectedSound = sound.name),
+        child: AnimatedContainer(
+          duration: const Duration(milliseconds: 200),
+          padding: const EdgeInsets.symmetric(horizontal: 16, vertical: 10),
+          decoration: BoxDecoration(
+            color: isSelected ? Colors.blue[600] : Colors.grey[100],
+            borderRadius: BorderRadius.circular(24),
+            border: Border.all(
+              color: isSelected ? Colors.blue[600]! : Colors.grey[300]!,
+              width: 1,
+            ),
+          ),
+          child: Row(
+            mainAxisSize: MainAxisSize.min,
+            children: [
+              Icon(
+                Icons.music_note_rounded,
+                size: 16,
+                color: isSelected ? Colors.white : Colors.blue[600],
+              ),
+              const SizedBox(width: 6),
+              Text(
+                sound.name,
+                style: Theme.of(context).textTheme.labelMedium?.copyWith(
+                  color: isSelected ? Colors.white : Colors.blueGrey[800],
+                ),
+              ),
+            ],
+          ),
+        ),
+      ),
+    );
+  }
+
+  int get _rounds {
+    if (!_isMinutesMode) return _selectedDuration;
+    final rounds = (_selectedDuration * 60) ~/ _pattern.roundSeconds;
+    return rounds < 1 ? 1 : rounds;
+  }
+
+  String get _audioPath {
+    for (final sound in _technique.sounds) {
+      if (sound.name == _selectedSound) return sound.audio;
+    }
+    return '';
+  }
+
+  Widget _buildBeginButton() {
+    return SizedBox(
+      width: double.infinity,
+      child: ElevatedButton(
+        onPressed: _begin,
+        style: ElevatedButton.styleFrom(
+          backgroundColor: Colors.blue[600],
+          foregroundColor: Colors.white,
+          padding: const EdgeInsets.symmetric(vertical: 16),
+          shape: RoundedRectangleBorder(
+            borderRadius: BorderRadius.circular(12),
+          ),
+          elevation: 0,
+        ),
+        child: Text(
+          'BEGIN SESSION',
+          style: Theme.of(context).textTheme.labelLarge?.copyWith(
+            color: Colors.white,
+            fontWeight: FontWeight.w600,
+            letterSpacing: 0.5,
+          ),
+        ),
+      ),
+    );
+  }
+
+  void _begin() {
+    final pattern = _pattern;
+    final rounds = _rounds;
+    final imagePath = _selectedImage ?? 'assets/images/option3.png';
+    final audioPath = _audioPath;
+    HapticFeedback.lightImpact();
+    Navigator.push(
+      context,
+      PageRouteBuilder(
+        pageBuilder: (context, animation, secondaryAnimation) =>
+            _sessionScreen(pattern, rounds, imagePath, audioPath),
+        transitionsBuilder: (context, animation, secondaryAnimation, child) =>
+            FadeTransition(opacity: animation, child: child),
+      ),
+    );
+  }
+
+  Widget _sessionScreen(
+      BreathPattern pattern, int rounds, String imagePath, String audioPath) {
+    switch (_technique.screen) {
+      case TechniqueScreen.box:
+        return BoxBreathingScreen(
+          inhaleDuration: pattern.inhale,
+          hold1Duration: pattern.hold1,
+          exhaleDuration: pattern.exhale,
+          hold2Duration: pattern.hold2,
+          rounds: rounds,
+        );
+      case TechniqueScreen.ujjayi:
+        return UjjayiBreathingScreen(
+          inhaleDuration: pattern.inhale,
+          exhaleDuration: pattern.exhale,
+          rounds: rounds,
+          imagePath: imagePath,
+        );
+      case TechniqueScreen.abdominal:
+        return AbdominalScreen(
+          inhaleDuration: pattern.inhale,
+          exhaleDuration: pattern.exhale,
+          rounds: rounds,
+          imagePath: imagePath,
+          audioPath: audioPath,
+        );
+      case TechniqueScreen.bhramari:
+        return BhramariScreen(
+          inhaleDuration: pattern.inhale,
+          exhaleDuration: pattern.exhale,
+          rounds: rounds,
+          imagePath: imagePath,
+        );
+      case TechniqueScreen.bilateral:
+        return BilateralScreen(
+          inhaleDuration: pattern.inhale,
+          exhaleDuration: pattern.exhale,
+          rounds: rounds,
+          imagePath: imagePath,
+          audioPath: audioPath,
+          inhaleAudioPath: 'music/inhale_bell1.mp3',
+          exhaleAudioPath: 'music/exhale_bell1.mp3',
+        );
+    }
+  }
+
+  Widget _buildPracticeGuide() {
+    final theme = Theme.of(context);
+    return Container(
+      padding: const EdgeInsets.all(16),
+      decoration: BoxDecoration(
+        color: theme.colorScheme.surfaceVariant.withOpacity(0.4),
+        borderRadius: BorderRadius.circular(16),
+        border: Border.all(color: theme.dividerColor),
+      ),
+      child: Column(
+        crossAxisAlignment: CrossAxisAlignment.start,
+        children: [
+          Text(
+            'Practice Instructions',
+            style: theme.textTheme.titleLarge?.copyWith(
+              fontWeight: FontWeight.bold,
+              color: theme.colorScheme.primary,
+            ),
+          ),
+          const SizedBox(height: 16),
+          for (var i = 0; i < _technique.steps.length; i++)
+            _buildInstructionStep(i + 1, _technique.steps[i], theme),
+        ],
+      ),
+    );
+  }
+
+  Widget _buildInstructionStep(int number, String text, ThemeData theme) {
+    return Padding(
+      padding: const EdgeInsets.symmetric(vertical: 10),
+      child: Row(
+        crossAxisAlignment: CrossAxisAlignment.start,
+        children: [
+          Container(
+            width: 30,
+            height: 30,
+            decoration: BoxDecoration(
+              color: theme.colorScheme.primary,
+              shape: BoxShape.circle,
+            ),
+            child: Center(
+              child: Text(
+                '$number',
+                style: TextStyle(
+                  color: theme.colorScheme.onPrimary,
+                  fontSize: 14,
+                  fontWeight: FontWeight.bold,
+                ),
+              ),
+            ),
+          ),
+          const SizedBox(width: 16),
+          Expanded(
+            child: Text(
+              text,
+              style: theme.textTheme.bodyLarge?.copyWith(
+                color: theme.colorScheme.onSurface.withOpacity(0.9),
+                height: 1.6,
+                fontWeight: FontWeight.w500,
+              ),
+            ),
+          ),
+        ],
+      ),
+    );
+  }
+}
@@ -1,6 +1,10 @@
 import 'package:flutter/material.dart';
+import 'package:meditation_app/common_widgets/sized_asset_image.dart';
 import 'dart:async';
 import 'package:audioplayers/audioplayers.dart';
+import 'services/breath_cue_engine.dart';
+import 'services/practice_log.dart';
+import 'services/session_telemetry.dart';
 
 class PanicBreathingPage extends StatefulWidget {
   const PanicBreathingPage({Key? key}) : super(key: key);
@@ -23,6 +27,7 @@ class _PanicBreathingPageState extends State<PanicBreathingPage>
   late int rounds;
   bool _isCalmAudioPlaying = false;
   bool _showSkipButton = true;
+  SessionTracker? _tracker;
 
   // Breathing durations (4:6 ratio)
   final int inhaleDuration = 4;
@@ -120,6 +125,7 @@ class _PanicBreathingPageState extends State<PanicBreathingPage>
       await Future.wait([
         _inhalePlayer.setSource(AssetSource('../assets/music/inhale_bell1.mp3')),
         _exhalePlayer.setSource(AssetSource('../assets/music/exhale_bell1.mp3')),
+        BreathCueEngine.instance.ensureLoaded(),
       ]);
     } catch (e) {
       debugPrint('Error preloading audio: $e');
@@ -144,6 +150,14 @@ class _PanicBreathingPageState extends State<PanicBreathingPage>
     }
 
     if (newPhase != _currentPhase) {
+      if (_currentPhase == "inhale") {
+        _tracker?.phaseComplete("Inhale", Duration(seconds: inhaleDuration),
+            round: _currentRound);
+      } else if (_currentPhase == "gap") {
+        _tracker?.phaseComplete("Hold",
+            Duration(milliseconds: (gapDuration * 1000).round()),
+            round: _currentRound);
+      }
       _currentPhase = newPhase;
       _playPhaseSound(_currentPhase);
 
@@ -157,6 +171,9 @@ class _PanicBreathingPageState extends State<PanicBreathingPage>
 
   void _handleAnimationStatus(AnimationStatus status) async {
     if (status == AnimationStatus.completed) {
+      _tracker?.phaseComplete("Exhale", Duration(seconds: exhaleDuration),
+          round: _currentRound);
+      _tracker?.roundComplete(_currentRound);
       _currentRound++;
       if (_currentRound < rounds) {
         // Reset to inhale for next round
@@ -171,6 +188,7 @@ class _PanicBreathingPageState extends State<PanicBreathingPage>
           _playPhaseSound(_currentPhase);
         }
       } else {
+        _tracker?.complete();
         if (mounted) {
           setState(() {
             isRunning = false;
@@ -183,6 +201,16 @@ class _PanicBreathingPageState extends State<PanicBreathingPage>
   }
 
   Future<void> _playPhaseSound(String phase) async {
+    final engine = BreathCueEngine.instance;
+    if (engine.isAvailable) {
+      // One message instead of a stop/seek/resume round-trip per player.
+      await engine.scheduleCue(phase == "inhale"
+          ? BreathCue.inhale
+          : phase == "exhale"
+              ? BreathCue.exhale
+              : BreathCue.silence);
+      return;
+    }
     try {
       if (phase == "inhale") {
         await _exhalePlayer.stop();
@@ -202,6 +230,9 @@ class _PanicBreathingPageState extends State<PanicBreathingPage>
   }
 
   void _startBreathingCycle() {
+    if (_tracker == null || !_tracker!.isOpen) {
+      _tracker = SessionTelemetry.instance.begin(PracticeTechnique.panic);
+    }
     if (!isRunning) {
       setState(() => isRunning = true);
       _setupAnimationListeners();
@@ -286,6 +317,7 @@ class _PanicBreathingPageState extends State<PanicBreathingPage>
         _instructionPlayer.stop(),
         _inhalePlayer.stop(),
         _exhalePlayer.stop(),
+        BreathCueEngine.instance.cancelAll(),
       ]);
     } catch (e) {
       debugPrint('Error stopping audio: $e');
@@ -342,8 +374,10 @@ class _PanicBreathingPageState extends State<PanicBreathingPage>
         width: 200,
         decoration: BoxDecoration(
           shape: BoxShape.circle,
-          image: const DecorationImage(
-            image: AssetImage('assets/images/calmingchakra1.png'),
+          image: DecorationImage(
+            // Decoded for the 1.5x peak of the breath scale.
+            image: SizedAssetImage.provider(
+                'assets/images/calmingchakra1.png', const Size(300, 300), MediaQuery.of(context).devicePixelRatio),
             fit: BoxFit.cover,
           ),
           boxShadow: [
@@ -456,6 +490,8 @@ class _PanicBreathingPageState extends State<PanicBreathingPage>
 
   @override
   void dispose() {
+    _tracker?.abort();
+    BreathCueEngine.instance.cancelAll();
     _controller.dispose();
     _instructionPlayer.dispose();
     _inhalePlayer.dispose();
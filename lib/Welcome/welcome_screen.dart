@@ -1,4 +1,5 @@
 import 'package:flutter/material.dart';
+import 'package:meditation_app/common_widgets/sized_asset_image.dart';
 import 'package:meditation_app/onbaording_screen.dart';
 import 'package:meditation_app/common_widgets/round_button.dart'; // Adjust the path as needed
 // Ensure correct import
@@ -18,7 +19,7 @@ class _WelcomeScreenState extends State<WelcomeScreen> {
       body: Stack(
         alignment: Alignment.bottomCenter,
         children: [
-          Image.asset(
+          SizedAssetImage(
             "assets/images/welcome.png", // Corrected the path
             width: MediaQuery.of(context).size.width, // Corrected the width usage
             fit: BoxFit.fitWidth,
@@ -0,0 +1,95 @@
+// GENERATED by tool/asset_pipeline.dart. Do not edit by hand.
+
+import 'dart:ui';
+
+/// Intrinsic pixel size of each referenced image asset.
+const Map<String, Size> assetImageSizes = {
+  'assets/images/1.png': Size(2380, 2380),
+  'assets/images/13.png': Size(2380, 2380),
+  'assets/images/15.png': Size(2380, 2380),
+  'assets/images/17.png': Size(2380, 2380),
+  'assets/images/19.png': Size(2380, 2380),
+  'assets/images/21.png': Size(2380, 2380),
+  'assets/images/3.png': Size(2380, 2380),
+  'assets/images/5.png': Size(2380, 2380),
+  'assets/images/7.png': Size(2380, 2380),
+  'assets/images/9.png': Size(2380, 2380),
+  'assets/images/abdominal_breathing.png': Size(1024, 1024),
+  'assets/images/ban.png': Size(437, 203),
+  'assets/images/banner.png': Size(3780, 1890),
+  'assets/images/bhramari.png': Size(1024, 1024),
+  'assets/images/calmingchakra1.png': Size(1024, 1024),
+  'assets/images/chandrabedhana.png': Size(1024, 1024),
+  'assets/images/chest_breathing.png': Size(1024, 1024),
+  'assets/images/complete_breathing.png': Size(1024, 1024),
+  'assets/images/founder.jpeg': Size(400, 400),
+  'assets/images/founder_teaching.jpeg': Size(600, 450),
+  'assets/images/image3.png': Size(5838, 4085),
+  'assets/images/medit.png': Size(3666, 2743),
+  'assets/images/muladhara_chakra3.png': Size(424, 431),
+  'assets/images/nadishodana.png': Size(1024, 1024),
+  'assets/images/option1.png': Size(690, 693),
+  'assets/images/option2.png': Size(692, 693),
+  'assets/images/option3.png': Size(693, 689),
+  'assets/images/sheetali.png': Size(1024, 1024),
+  'assets/images/sheetkari.png': Size(1024, 1024),
+  'assets/images/suryabedhana.png': Size(1024, 1024),
+  'assets/images/thought1.jpg': Size(3840, 2160),
+  'assets/images/thought2.jpg': Size(5931, 3954),
+  'assets/images/thoughts3.jpg': Size(6000, 4000),
+  'assets/images/ujjayi.png': Size(1024, 1024),
+  'assets/images/welcome.png': Size(1243, 1650),
+  'assets/images/yoga_app.jpg': Size(500, 500),
+  'assets/images/yoga_banner.jpeg': Size(590, 269),
+  'assets/images/yoga_centre.jpeg': Size(583, 450),
+  'assets/images/yoga_group.jpeg': Size(600, 399),
+  'assets/images/yoga_history.jpeg': Size(600, 399),
+  'assets/images/yoga_lotus.png': Size(1536, 1024),
+  'assets/images/yoga_students.jpeg': Size(650, 439),
+};
+
+/// WebP replacement, with 2.0x/3.0x variants, for each optimized asset.
+const Map<String, String> optimizedAssetPaths = {
+  'assets/images/1.png': 'assets/optimized/images/1.webp',
+  'assets/images/13.png': 'assets/optimized/images/13.webp',
+  'assets/images/15.png': 'assets/optimized/images/15.webp',
+  'assets/images/17.png': 'assets/optimized/images/17.webp',
+  'assets/images/19.png': 'assets/optimized/images/19.webp',
+  'assets/images/21.png': 'assets/optimized/images/21.webp',
+  'assets/images/3.png': 'assets/optimized/images/3.webp',
+  'assets/images/5.png': 'assets/optimized/images/5.webp',
+  'assets/images/7.png': 'assets/optimized/images/7.webp',
+  'assets/images/9.png': 'assets/optimized/images/9.webp',
+  'assets/images/abdominal_breathing.png': 'assets/optimized/images/abdominal_breathing.webp',
+  'assets/images/ban.png': 'assets/optimized/images/ban.webp',
+  'assets/images/banner.png': 'assets/optimized/images/banner.webp',
+  'assets/images/bhramari.png': 'assets/optimized/images/bhramari.webp',
+  'assets/images/calmingchakra1.png': 'assets/optimized/images/calmingchakra1.webp',
+  'assets/images/chandrabedhana.png': 'assets/optimized/images/chandrabedhana.webp',
+  'assets/images/chest_breathing.png': 'assets/optimized/images/chest_breathing.webp',
+  'assets/images/complete_breathing.png': 'assets/optimized/images/complete_breathing.webp',
+  'assets/images/founder.jpeg': 'assets/optimized/images/founder.webp',
+  'assets/images/founder_teaching.jpeg': 'assets/optimized/images/founder_teaching.webp',
+  'assets/images/image3.png': 'assets/optimized/images/image3.webp',
+  'assets/images/medit.png': 'assets/optimized/images/medit.webp',
+  'assets/images/muladhara_chakra3.png': 'assets/optimized/images/muladhara_chakra3.webp',
+  'assets/images/nadishodana.png': 'assets/optimized/images/nadishodana.webp',
+  'assets/images/option1.png': 'assets/optimized/images/option1.webp',
+  'assets/images/option2.png': 'assets/optimized/images/option2.webp',
+  'assets/images/option3.png': 'assets/optimized/images/option3.webp',
+  'assets/images/sheetali.png': 'assets/optimized/images/sheetali.webp',
+  'assets/images/sheetkari.png': 'assets/optimized/images/sheetkari.webp',
+  'assets/images/suryabedhana.png': 'assets/optimized/images/suryabedhana.webp',
+  'assets/images/thought1.jpg': 'assets/optimized/images/thought1.webp',
+  'assets/images/thought2.jpg': 'assets/optimized/images/thought2.webp',
+  'assets/images/thoughts3.jpg': 'assets/optimized/images/thoughts3.webp',
+  'assets/images/ujjayi.png': 'assets/optimized/images/ujjayi.webp',
+  'assets/images/welcome.png': 'assets/optimized/images/welcome.webp',
+  'assets/images/yoga_app.jpg': 'assets/optimized/images/yoga_app.webp',
+  'assets/images/yoga_banner.jpeg': 'assets/optimized/images/yoga_banner.webp',
+  'assets/images/yoga_centre.jpeg': 'assets/optimized/images/yoga_centre.webp',
+  'assets/images/yoga_group.jpeg': 'assets/optimized/images/yoga_group.webp',
+  'assets/images/yoga_history.jpeg': 'assets/optimized/images/yoga_history.webp',
+  'assets/images/yoga_lotus.png': 'assets/optimized/images/yoga_lotus.webp',
+  'assets/images/yoga_students.jpeg': 'assets/optimized/images/yoga_students.webp',
+};
@@ -0,0 +1,275 @@
+import 'dart:ui' as ui;
+
+import 'package:flutter/material.dart';
+import 'package:flutter/scheduler.dart';
+import 'package:lottie/lottie.dart';
+
+import '../services/animation_assets.dart';
+
+/// Mutes the tickers of [child] while it cannot be seen: when its route is
+/// not the top one, or when it has been scrolled out of its [Scrollable].
+///
+/// Routes covered by an opaque route are already muted by the navigator;
+/// this also covers dialogs and sheets over the route, and list items kept
+/// alive in the cache extent.
+class TickWhenVisible extends StatefulWidget {
+  final Widget child;
+
+  const TickWhenVisible({Key? key, required this.child}) : super(key: key);
+
+  @override
+  State<TickWhenVisible> createState() => _TickWhenVisibleState();
+}
+
+class _TickWhenVisibleState extends State<TickWhenVisible> {
+  ScrollPosition? _position;
+  bool _inViewport = true;
+
+  @override
+  void didChangeDependencies() {
+    super.didChangeDependencies();
+    final position = Scrollable.maybeOf(context)?.position;
+    if (position != _position) {
+      _position?.removeListener(_checkViewport);
+      _position = position?..addListener(_checkViewport);
+      SchedulerBinding.instance.addPostFrameCallback((_) => _checkViewport());
+    }
+  }
+
+  @override
+  void dispose() {
+    _position?.removeListener(_checkViewport);
+    super.dispose();
+  }
+
+  void _checkViewport() {
+    if (!mounted) return;
+    final box = context.findRenderObject() as RenderBox?;
+    final viewport = _position?.context.notificationContext?.findRenderObject() as RenderBox?;
+    if (box == null || viewport == null || !box.attached || !viewport.attached) return;
+    final bounds = MatrixUtils.transformRect(box.getTransformTo(viewport), Offset.zero & box.size);
+    final visible = bounds.overlaps(Offset.zero & viewport.size);
+    if (visible != _inViewport) {
+      setState(() {
+        _inViewport = visible;
+      });
+    }
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    final routeIsCurrent = ModalRoute.of(context)?.isCurrent ?? true;
+    return TickerMode(
+      enabled: _inViewport && routeIsCurrent,
+      child: widget.child,
+    );
+  }
+}
+
+/// A Lottie animation from [AnimationAssets]: parsed once, off the UI
+/// isolate, and paused while it cannot be seen.
+class CachedLottie extends StatefulWidget {
+  final String asset;
+  final double? width;
+  final double? height;
+  final BoxFit? fit;
+  final bool repeat;
+
+  const CachedLottie(
+    this.asset, {
+    Key? key,
+    this.width,
+    this.height,
+    this.fit,
+    this.repeat = true,
+  }) : super(key: key);
+
+  @override
+  State<CachedLottie> createState() => _CachedLottieState();
+}
+
+class _CachedLottieState extends State<CachedLottie> {
+  late Future<LottieComposition> _composition;
+
+  @override
+  void initState() {
+    super.initState();
+    _composition = AnimationAssets.instance.lottie(widget.asset);
+  }
+
+  @override
+  void didUpdateWidget(CachedLottie oldWidget) {
+    super.didUpdateWidget(oldWidget);
+    if (oldWidget.asset != widget.asset) {
+      _composition = AnimationAssets.instance.lottie(widget.asset);
+    }
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    return FutureBuilder<LottieComposition>(
+      future: _composition,
+      builder: (context, snapshot) {
+        if (snapshot.hasError) {
+          debugPrint('Could not load ${widget.asset}: ${snapshot.error}');
+        }
+        final composition = snapshot.data;
+        if (composition == null) {
+          return SizedBox(width: widget.width, height: widget.height);
+        }
+        return TickWhenVisible(
+          child: Lottie(
+            composition: composition,
+            width: widget.width,
+            height: widget.height,
+            fit: widget.fit,
+            repeat: widget.repeat,
+          ),
+        );
+      },
+    );
+  }
+}
+
+/// A looping GIF from [AnimationAssets], decoded once at the size it is
+/// drawn at and paused while it cannot be seen.
+///
+/// Give [width] and [height] when the box is known; otherwise the size comes
+/// from the layout.
+class CachedGif extends StatelessWidget {
+  final String asset;
+  final double? width;
+  final double? height;
+  final BoxFit fit;
+
+  const CachedGif(
+    this.asset, {
+    Key? key,
+    this.width,
+    this.height,
+    this.fit = BoxFit.cover,
+  }) : super(key: key);
+
+  @override
+  Widget build(BuildContext context) {
+    final pixelRatio = MediaQuery.of(context).devicePixelRatio;
+    if (width != null && height != null) {
+      return _frames(Size(width!, height!), pixelRatio);
+    }
+    return LayoutBuilder(
+      builder: (context, constraints) => _frames(constraints.biggest, pixelRatio),
+    );
+  }
+
+  Widget _frames(Size box, double pixelRatio) {
+    // Decoding to the box width keeps the aspect; unbounded boxes get the
+    // file's own size.
+    final int? decodeWidth =
+        box.width.isFinite && box.width > 0 ? (box.width * pixelRatio).ceil() : null;
+    return TickWhenVisible(
+      child: _GifPlayer(
+        asset: asset,
+        decodeWidth: decodeWidth,
+        width: width,
+        height: height,
+        fit: fit,
+      ),
+    );
+  }
+}
+
+class _GifPlayer extends StatefulWidget {
+  final String asset;
+  final int? decodeWidth;
+  final double? width;
+  final double? height;
+  final BoxFit fit;
+
+  const _GifPlayer({
+    required this.asset,
+    required this.decodeWidth,
+    required this.width,
+    required this.height,
+    required this.fit,
+  });
+
+  @override
+  State<_GifPlayer> createState() => _GifPlayerState();
+}
+
+class _GifPlayerState extends State<_GifPlayer> with SingleTickerProviderStateMixin {
+  late final Ticker _ticker;
+  GifFrames? _frames;
+  int _frame = 0;
+  int _request = 0;
+
+  @override
+  void initState() {
+    super.initState();
+    _ticker = createTicker(_onTick);
+    _load();
+  }
+
+  @override
+  void didUpdateWidget(_GifPlayer oldWidget) {
+    super.didUpdateWidget(oldWidget);
+    if (oldWidget.asset != widget.asset || oldWidget.decodeWidth != widget.decodeWidth) {
+      _load();
+    }
+  }
+
+  Future<void> _load() async {
+    final request = ++_request;
+    GifFrames frames;
+    try {
+      frames = await AnimationAssets.instance
+          .acquireGif(widget.asset, width: widget.decodeWidth);
+    } catch (e) {
+      debugPrint('Could not load ${widget.asset}: $e');
+      return;
+    }
+    if (!mounted || request != _request) {
+      AnimationAssets.instance.releaseGif(frames);
+      return;
+    }
+    final previous = _frames;
+    setState(() {
+      _frames = frames;
+      _frame = 0;
+    });
+    if (previous != null) AnimationAssets.instance.releaseGif(previous);
+    _ticker.stop();
+    if (frames.images.length > 1) _ticker.start();
+  }
+
+  void _onTick(Duration elapsed) {
+    final frames = _frames;
+    if (frames == null) return;
+    final frame = frames.frameAt(elapsed);
+    if (frame != _frame) {
+      setState(() {
+        _frame = frame;
+      });
+    }
+  }
+
+  @override
+  void dispose() {
+    _ticker.dispose();
+    final frames = _frames;
+    if (frames != null) AnimationAssets.instance.releaseGif(frames);
+    super.dispose();
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    final frames = _frames;
+    final ui.Image? image = frames?.images[_frame];
+    return RawImage(
+      image: image,
+      width: widget.width,
+      height: widget.height,
+      fit: widget.fit,
+    );
+  }
+}
@@ -0,0 +1,74 @@
+import 'package:flutter/material.dart';
+
+/// An [IndexedStack] that builds each child the first time it is shown and
+/// then keeps it alive.
+///
+/// Tabs that are never opened are never built, so their loads never run, and
+/// switching back to a tab finds its state where it was left. Hidden tabs
+/// keep their state but have their tickers muted.
+///
+/// With [evictOnMemoryPressure] the hidden tabs are dropped when the system
+/// reports memory pressure; they are built again the next time they are
+/// shown.
+class LazyIndexedStack extends StatefulWidget {
+  final int index;
+  final int itemCount;
+  final IndexedWidgetBuilder itemBuilder;
+  final bool evictOnMemoryPressure;
+
+  const LazyIndexedStack({
+    Key? key,
+    required this.index,
+    required this.itemCount,
+    required this.itemBuilder,
+    this.evictOnMemoryPressure = false,
+  }) : super(key: key);
+
+  @override
+  State<LazyIndexedStack> createState() => _LazyIndexedStackState();
+}
+
+class _LazyIndexedStackState extends State<LazyIndexedStack>
+    with WidgetsBindingObserver {
+  final Set<int> _activated = {};
+
+  @override
+  void initState() {
+    super.initState();
+    WidgetsBinding.instance.addObserver(this);
+  }
+
+  @override
+  void dispose() {
+    WidgetsBinding.instance.removeObserver(this);
+    super.dispose();
+  }
+
+  @override
+  void didHaveMemoryPressure() {
+    if (!widget.evictOnMemoryPressure) return;
+    if (_activated.length <= 1) return;
+    setState(() {
+      _activated.retainWhere((i) => i == widget.index);
+    });
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    _activated.add(widget.index);
+    return IndexedStack(
+      index: widget.index,
+      sizing: StackFit.expand,
+      children: [
+        for (var i = 0; i < widget.itemCount; i++)
+          _activated.contains(i)
+              ? TickerMode(
+                  key: ValueKey(i),
+                  enabled: i == widget.index,
+                  child: widget.itemBuilder(context, i),
+                )
+              : const SizedBox.shrink(),
+      ],
+    );
+  }
+}
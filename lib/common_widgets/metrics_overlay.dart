@@ -0,0 +1,122 @@
+import 'dart:async';
+
+import 'package:flutter/material.dart';
+
+import '../services/metrics.dart';
+
+/// Draws the [Metrics] panel over the whole app while
+/// [Metrics.overlayVisible] is set; otherwise it is just [child].
+///
+/// Installed once through `MaterialApp.builder`. The panel is opened with a
+/// long press on the profile screen title and refreshes itself once a second.
+class MetricsOverlay extends StatelessWidget {
+  final Widget child;
+
+  const MetricsOverlay({Key? key, required this.child}) : super(key: key);
+
+  @override
+  Widget build(BuildContext context) {
+    return ValueListenableBuilder<bool>(
+      valueListenable: Metrics.instance.overlayVisible,
+      child: child,
+      builder: (context, visible, child) {
+        if (!visible) return child!;
+        return Stack(
+          children: [
+            child!,
+            const Positioned(left: 8, right: 8, top: 40, child: _MetricsPanel()),
+          ],
+        );
+      },
+    );
+  }
+}
+
+class _MetricsPanel extends StatefulWidget {
+  const _MetricsPanel();
+
+  @override
+  State<_MetricsPanel> createState() => _MetricsPanelState();
+}
+
+class _MetricsPanelState extends State<_MetricsPanel> {
+  Timer? _refresh;
+  String? _exported;
+
+  @override
+  void initState() {
+    super.initState();
+    _refresh = Timer.periodic(const Duration(seconds: 1), (_) => setState(() {}));
+  }
+
+  @override
+  void dispose() {
+    _refresh?.cancel();
+    super.dispose();
+  }
+
+  Future<void> _export() async {
+    try {
+      final file = await Metrics.instance.export();
+      if (mounted) setState(() => _exported = file.path);
+    } catch (e) {
+      debugPrint('Error exporting metrics: $e');
+      if (mounted) setState(() => _exported = 'Export failed: $e');
+    }
+  }
+
+  static String _ms(int micros) => (micros / 1000).toStringAsFixed(1);
+
+  @override
+  Widget build(BuildContext context) {
+    const style = TextStyle(color: Colors.white, fontSize: 11, fontFamily: 'monospace');
+    final histograms = Metrics.instance.histograms.toList()
+      ..sort((a, b) => a.name.compareTo(b.name));
+    final counters = Metrics.instance.counters.toList()
+      ..sort((a, b) => a.name.compareTo(b.name));
+
+    return Material(
+      color: Colors.black.withOpacity(0.8),
+      borderRadius: BorderRadius.circular(8),
+      child: ConstrainedBox(
+        constraints: BoxConstraints(
+            maxHeight: MediaQuery.of(context).size.height * 0.6),
+        child: SingleChildScrollView(
+          padding: const EdgeInsets.all(8),
+          child: DefaultTextStyle(
+            style: style,
+            child: Column(
+              crossAxisAlignment: CrossAxisAlignment.start,
+              children: [
+                const Text('name  count  p50  p90  p99  max (ms)'),
+                for (final h in histograms)
+                  Text('${h.name}  ${h.count}  ${_ms(h.valueAt(0.5))}  '
+                      '${_ms(h.valueAt(0.9))}  ${_ms(h.valueAt(0.99))}  ${_ms(h.max)}'),
+                if (counters.isNotEmpty) const SizedBox(height: 6),
+                for (final c in counters) Text('${c.name}  ${c.value}'),
+                if (_exported != null) ...[
+                  const SizedBox(height: 6),
+                  Text(_exported!),
+                ],
+                Row(
+                  mainAxisAlignment: MainAxisAlignment.end,
+                  children: [
+                    TextButton(onPressed: _export, child: const Text('Export')),
+                    TextButton(
+                      onPressed: () => setState(Metrics.instance.reset),
+                      child: const Text('Reset'),
+                    ),
+                    TextButton(
+                      onPressed: Metrics.instance.toggleOverlay,
+                      child: const Text('Close'),
+                    ),
+                  ],
+                ),
+              ],
+            ),
+          ),
+        ),
+      ),
+    );
+  }
+}
@@ -0,0 +1,110 @@
+import 'dart:math';
+
+import 'package:flutter/material.dart';
+
+import '../common/asset_manifest.g.dart';
+
+/// An [Image.asset] that decodes at the size it is drawn at.
+///
+/// Most bundled images are full-resolution exports; decoding a 2380 px PNG
+/// into a 170 px grid tile costs ~22 MB of memory for no visible gain. This
+/// widget works out the smallest decode size that still fills the box for
+/// [fit] at the device pixel ratio and passes it as `cacheWidth`/`cacheHeight`.
+/// When tool/asset_pipeline.dart has produced a WebP for the asset, that file
+/// is loaded instead.
+///
+/// Give [width] and [height] when the box size is known up front, or when it
+/// changes every frame (a collapsing app bar); otherwise the size comes from
+/// the layout.
+class SizedAssetImage extends StatelessWidget {
+  final String path;
+  final BoxFit fit;
+  final double? width;
+  final double? height;
+  final ImageErrorWidgetBuilder? errorBuilder;
+
+  const SizedAssetImage(
+    this.path, {
+    Key? key,
+    this.fit = BoxFit.cover,
+    this.width,
+    this.height,
+    this.errorBuilder,
+  }) : super(key: key);
+
+  @override
+  Widget build(BuildContext context) {
+    final double? w = width, h = height;
+    if (w != null && w.isFinite && h != null && h.isFinite) {
+      return _image(context, Size(w, h));
+    }
+    // `width: double.infinity` means "as wide as allowed", so only finite
+    // extents override the layout.
+    return LayoutBuilder(
+      builder: (context, constraints) => _image(
+        context,
+        Size(
+          w != null && w.isFinite ? w : constraints.maxWidth,
+          h != null && h.isFinite ? h : constraints.maxHeight,
+        ),
+      ),
+    );
+  }
+
+  Widget _image(BuildContext context, Size box) {
+    return Image(
+      image: provider(path, box, MediaQuery.of(context).devicePixelRatio, fit: fit),
+      fit: fit,
+      width: width,
+      height: height,
+      errorBuilder: errorBuilder,
+    );
+  }
+
+  /// The provider this widget draws [path] with in [box]. Precaching it puts
+  /// the decoded image under the same cache key the widget will look up.
+  static ImageProvider provider(String path, Size box, double pixelRatio,
+      {BoxFit fit = BoxFit.cover}) {
+    final decode = decodeSize(box, pixelRatio, assetImageSizes[path], fit);
+    return ResizeImage.resizeIfNeeded(
+      _pixels(decode?.width),
+      _pixels(decode?.height),
+      AssetImage(optimizedAssetPaths[path] ?? path),
+    );
+  }
+
+  static int? _pixels(double? extent) =>
+      extent == null || extent <= 0 ? null : extent.round();
+
+  /// Physical pixels to decode [intrinsic] at so it still covers [box], or
+  /// null to decode at full size.
+  @visibleForTesting
+  static Size? decodeSize(Size box, double pixelRatio, Size? intrinsic, BoxFit fit) {
+    final bool finiteWidth = box.width.isFinite && box.width > 0;
+    final bool finiteHeight = box.height.isFinite && box.height > 0;
+    if (!finiteWidth && !finiteHeight) return null;
+
+    if (intrinsic == null) {
+      // Unknown aspect ratio: bound the width only (height 0 keeps the aspect).
+      return finiteWidth ? Size((box.width * pixelRatio).ceilToDouble(), 0) : null;
+    }
+
+    final double sx = finiteWidth ? box.width * pixelRatio / intrinsic.width : 0;
+    final double sy = finiteHeight ? box.height * pixelRatio / intrinsic.height : 0;
+    final double scale;
+    if (fit == BoxFit.cover || fit == BoxFit.fill) {
+      scale = max(sx, sy);
+    } else if (fit == BoxFit.fitWidth && sx > 0) {
+      scale = sx;
+    } else if (fit == BoxFit.fitHeight && sy > 0) {
+      scale = sy;
+    } else {
+      scale = [sx, sy].where((s) => s > 0).reduce(min);
+    }
+    if (scale >= 1) return null;
+    return Size(
+      (intrinsic.width * scale).ceilToDouble(),
+      (intrinsic.height * scale).ceilToDouble(),
+    );
+  }
+}
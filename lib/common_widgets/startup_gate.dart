@@ -0,0 +1,42 @@
+import 'package:flutter/material.dart';
+
+import '../services/startup_orchestrator.dart';
+
+/// Builds the screen for the current [StartupState].
+///
+/// The cached and live home screens are the same widget in the same place,
+/// so the live user only updates it. Input is ignored until auth has
+/// answered, since the tabs behind the shell need Firebase.
+class StartupGate extends StatelessWidget {
+  final StartupOrchestrator startup;
+  final Widget Function(BuildContext context, HomeUser user) home;
+  final WidgetBuilder signedOut;
+  final WidgetBuilder loading;
+
+  const StartupGate({
+    Key? key,
+    required this.startup,
+    required this.home,
+    required this.signedOut,
+    required this.loading,
+  }) : super(key: key);
+
+  @override
+  Widget build(BuildContext context) {
+    return ValueListenableBuilder<StartupState>(
+      valueListenable: startup.state,
+      builder: (context, state, _) {
+        final user = state.user;
+        if (user == null) {
+          return state.stage == StartupStage.live
+              ? signedOut(context)
+              : loading(context);
+        }
+        return IgnorePointer(
+          ignoring: !user.live,
+          child: home(context, user),
+        );
+      },
+    );
+  }
+}
@@ -4,66 +4,101 @@ import 'package:flutter/services.dart';
 import 'package:youtube_player_flutter/youtube_player_flutter.dart';
 import 'package:shared_preferences/shared_preferences.dart';
 import 'package:firebase_auth/firebase_auth.dart';
+import '../services/course_progress_store.dart';
+import '../services/technique_catalog.dart';
 
-class AbdominalBreathingLearnMorePage extends StatefulWidget {
-  const AbdominalBreathingLearnMorePage({Key? key}) : super(key: key);
+/// Course page for any technique in the [TechniqueCatalog]: the chapter
+/// videos with saved progress when the technique has a course, otherwise its
+/// summary.
+class TechniqueCoursePage extends StatelessWidget {
+  final String techniqueId;
+
+  const TechniqueCoursePage({Key? key, required this.techniqueId})
+      : super(key: key);
 
   @override
-  _AbdominalBreathingLearnMorePageState createState() =>
-      _AbdominalBreathingLearnMorePageState();
+  Widget build(BuildContext context) {
+    final catalog = TechniqueCatalog.loaded;
+    if (catalog != null) return _build(catalog[techniqueId]);
+    return FutureBuilder<TechniqueCatalog>(
+      future: TechniqueCatalog.load(),
+      builder: (context, snapshot) {
+        final loaded = snapshot.data;
+        if (loaded == null) {
+          return const Scaffold(body: Center(child: CircularProgressIndicator()));
+        }
+        return _build(loaded[techniqueId]);
+      },
+    );
+  }
+
+  Widget _build(Technique technique) {
+    final chapters = technique.chapters;
+    if (chapters == null) return _SummaryPage(technique: technique);
+    return _ChapterCoursePage(technique: technique, chapters: chapters);
+  }
+}
+
+class _SummaryPage extends StatelessWidget {
+  final Technique technique;
+
+  const _SummaryPage({required this.technique});
+
+  @override
+  Widget build(BuildContext context) {
+    return Scaffold(
+      appBar: AppBar(title: Text(technique.title)),
+      body: Center(
+        child: Text(
+          technique.courseSummary,
+          style: const TextStyle(fontSize: 18),
+          textAlign: TextAlign.center,
+        ),
+      ),
+    );
+  }
 }
 
-class _AbdominalBreathingLearnMorePageState
-    extends State<AbdominalBreathingLearnMorePage> {
+class _ChapterCoursePage extends StatefulWidget {
+  final Technique technique;
+  final CourseChapters chapters;
+
+  const _ChapterCoursePage({required this.technique, required this.chapters});
+
+  @override
+  _ChapterCoursePageState createState() => _ChapterCoursePageState();
+}
+
+class _ChapterCoursePageState extends State<_ChapterCoursePage> {
   late final String currentUserId;
   YoutubePlayerController? _controller;
   bool _isPlayerInitialized = false;
   Timer? _positionTimer;
+  bool _isFavorite = false;
 
-  // --- NEW FAVORITE FUNCTIONALITY ---
-  bool _isFavorite = false; // Holds the favorite state for this course.
+  final CourseProgressStore _progress = CourseProgressStore.instance;
 
-  // --- END NEW CODE ---
+  CourseChapters get chapters => widget.chapters;
 
-  // Simulated database with YouTube video links, thumbnails, and durations.
-  final List<Map<String, String>> chapters = [
-    {
-      "title": "Chapter 1",
-      "videoUrl": "https://www.youtube.com/watch?v=HhDUXFJDgB4&t=17s",
-      "thumbnail": "https://img.youtube.com/vi/HhDUXFJDgB4/0.jpg",
-      "duration": "17 mins",
-    },
-    {
-      "title": "Chapter 2",
-      "videoUrl": "https://www.youtube.com/watch?v=VbGu9pikl7I",
-      "thumbnail": "https://img.youtube.com/vi/VbGu9pikl7I/0.jpg",
-      "duration": "15 mins",
-    },
-  ];
-
-  // In-memory storage for chapter progress.
-  Map<String, double> _chapterProgress = {};
-  Map<String, int> _chapterProgressSeconds = {};
+  /// Same key the profile's favorites list reads.
+  String get _favoriteKey =>
+      "favorite_${widget.technique.title.toLowerCase().replaceAll(" ", "_")}_$currentUserId";
 
   @override
   void initState() {
     super.initState();
-    // Get the current user's UID from Firebase Auth.
     final user = FirebaseAuth.instance.currentUser;
     currentUserId = user?.uid ?? 'guest';
     _loadChapterProgress();
-    // --- NEW FAVORITE FUNCTIONALITY ---
     _loadFavoriteStatus();
-    // --- END NEW CODE ---
   }
 
-  // --- NEW FAVORITE FUNCTIONALITY ---
   /// Loads the favorite status for this course using a user-specific key.
   Future<void> _loadFavoriteStatus() async {
     SharedPreferences prefs = await SharedPreferences.getInstance();
+    if (!mounted) return;
     setState(() {
-      _isFavorite =
-          prefs.getBool("favorite_abdominal_breathing_${currentUserId}") ?? false;
+      _isFavorite = prefs.getBool(_favoriteKey) ?? false;
     });
   }
 
@@ -73,15 +108,14 @@ class _AbdominalBreathingLearnMorePageState
     setState(() {
       _isFavorite = !_isFavorite;
     });
-    await prefs.setBool("favorite_abdominal_breathing_${currentUserId}", _isFavorite);
+    await prefs.setBool(_favoriteKey, _isFavorite);
   }
-  // --- END NEW CODE ---
 
   /// Initializes the YouTube player for a given video URL,
   /// starting at the previously saved progress (if any).
   void _initializeVideo(String videoUrl) {
     String videoId = YoutubePlayer.convertUrlToId(videoUrl)!;
-    int startAtSeconds = _chapterProgressSeconds[videoId] ?? 0;
+    int startAtSeconds = _progress.positionOf(currentUserId, videoId);
     _controller = YoutubePlayerController(
       initialVideoId: videoId,
       flags: YoutubePlayerFlags(
@@ -93,7 +127,14 @@ class _AbdominalBreathingLearnMorePageState
 
     // Listen for full-screen changes.
     _controller!.addListener(() {
-      if (_controller!.value.isFullScreen) {
+      final value = _controller!.value;
+      // Save the position as soon as playback pauses or ends.
+      if (value.playerState == PlayerState.paused ||
+          value.playerState == PlayerState.ended) {
+        _recordPosition();
+        _progress.flush();
+      }
+      if (value.isFullScreen) {
         SystemChrome.setPreferredOrientations([
           DeviceOrientation.landscapeLeft,
           DeviceOrientation.landscapeRight,
@@ -110,7 +151,10 @@ class _AbdominalBreathingLearnMorePageState
   /// starting at the previously saved progress (if available).
   void _changeChapter(String videoUrl) {
     String videoId = YoutubePlayer.convertUrlToId(videoUrl)!;
-    int startAtSeconds = _chapterProgressSeconds[videoId] ?? 0;
+    if (_controller != null) {
+      _recordPosition();
+    }
+    int startAtSeconds = _progress.positionOf(currentUserId, videoId);
     if (_controller == null) {
       _initializeVideo(videoUrl);
       setState(() {
@@ -125,59 +169,38 @@ class _AbdominalBreathingLearnMorePageState
   @override
   void dispose() {
     _positionTimer?.cancel();
+    if (_controller != null) {
+      _recordPosition();
+    }
+    _progress.flush();
     _controller?.dispose();
     SystemChrome.setPreferredOrientations([DeviceOrientation.portraitUp]);
     super.dispose();
   }
 
-  /// Loads saved progress for each chapter from SharedPreferences.
+  /// Loads saved progress for each chapter.
   Future<void> _loadChapterProgress() async {
-    SharedPreferences prefs = await SharedPreferences.getInstance();
-    for (var chapter in chapters) {
-      String videoUrl = chapter["videoUrl"]!;
-      String videoId = YoutubePlayer.convertUrlToId(videoUrl)!;
-      // Use a user-specific key.
-      int savedSeconds =
-          prefs.getInt("progress_${currentUserId}_$videoId") ?? 0;
-      _chapterProgressSeconds[videoId] = savedSeconds;
-      // Parse the duration string (e.g., "17 mins").
-      int durationMins = int.tryParse(chapter["duration"]!.split(" ")[0]) ?? 1;
-      double fraction = savedSeconds / (durationMins * 60);
-      if (fraction > 1) fraction = 1;
-      _chapterProgress[videoId] = fraction;
-    }
-    setState(() {});
+    await _progress.load(currentUserId, chapters);
+    if (mounted) setState(() {});
   }
 
-  /// Starts a timer that periodically saves the current playback position
-  /// and updates the progress indicator.
+  /// Starts a timer that periodically records the current playback position
+  /// and updates the progress indicator. Positions are written to disk by
+  /// [CourseProgressStore.flush] on pause, dispose and app background.
   void _startPositionTimer() {
     _positionTimer?.cancel();
-    _positionTimer = Timer.periodic(Duration(seconds: 5), (_) async {
+    _positionTimer = Timer.periodic(Duration(seconds: 5), (_) {
       if (_controller == null) return;
-      final position = _controller!.value.position;
-      String currentVideoId = _controller!.metadata.videoId;
-      SharedPreferences prefs = await SharedPreferences.getInstance();
-      // Save progress with a user-specific key.
-      await prefs.setInt(
-          "progress_${currentUserId}_$currentVideoId", position.inSeconds);
-      _chapterProgressSeconds[currentVideoId] = position.inSeconds;
-      // Update progress indicator.
-      for (var chapter in chapters) {
-        String vidId = YoutubePlayer.convertUrlToId(chapter["videoUrl"]!)!;
-        if (vidId == currentVideoId) {
-          int durationMins =
-              int.tryParse(chapter["duration"]!.split(" ")[0]) ?? 1;
-          double fraction = position.inSeconds / (durationMins * 60);
-          if (fraction > 1) fraction = 1;
-          setState(() {
-            _chapterProgress[vidId] = fraction;
-          });
-        }
-      }
+      setState(_recordPosition);
     });
   }
 
+  void _recordPosition() {
+    final videoId = _controller!.metadata.videoId;
+    if (videoId.isEmpty) return;
+    _progress.update(currentUserId, videoId, _controller!.value.position.inSeconds);
+  }
+
   Widget _buildVideoPlayer() {
     return YoutubePlayerBuilder(
       player: YoutubePlayer(
@@ -192,10 +215,10 @@ class _AbdominalBreathingLearnMorePageState
   }
 
   Widget _buildPlaceholder() {
-    String thumbnailUrl = chapters[0]["thumbnail"]!;
+    String thumbnailUrl = chapters.first.thumbnail;
     return GestureDetector(
       onTap: () {
-        _initializeVideo(chapters[0]["videoUrl"]!);
+        _initializeVideo(chapters.first.videoUrl);
         setState(() {
           _isPlayerInitialized = true;
         });
@@ -226,10 +249,9 @@ class _AbdominalBreathingLearnMorePageState
   }
 
   /// Builds a chapter item with thumbnail, title, and a progress indicator.
-  Widget _buildChapterItem(Map<String, String> chapter) {
-    String videoUrl = chapter["videoUrl"]!;
-    String videoId = YoutubePlayer.convertUrlToId(videoUrl)!;
-    double progress = _chapterProgress[videoId] ?? 0.0;
+  Widget _buildChapterItem(CourseChapter chapter) {
+    String videoUrl = chapter.videoUrl;
+    double progress = _progress.fractionOf(currentUserId, chapter);
 
     return GestureDetector(
       onTap: () => _changeChapter(videoUrl),
@@ -258,7 +280,7 @@ class _AbdominalBreathingLearnMorePageState
                     topRight: Radius.circular(10),
                   ),
                   child: Image.network(
-                    chapter["thumbnail"]!,
+                    chapter.thumbnail,
                     width: double.infinity,
                     height: 100,
                     fit: BoxFit.cover,
@@ -271,7 +293,7 @@ class _AbdominalBreathingLearnMorePageState
                     padding: const EdgeInsets.symmetric(horizontal: 6, vertical: 2),
                     color: Colors.black54,
                     child: Text(
-                      chapter["duration"]!,
+                      chapter.duration,
                       style: const TextStyle(color: Colors.white, fontSize: 12),
                     ),
                   ),
@@ -281,7 +303,7 @@ class _AbdominalBreathingLearnMorePageState
             Padding(
               padding: const EdgeInsets.all(8.0),
               child: Text(
-                chapter["title"]!,
+                chapter.title,
                 style: const TextStyle(fontSize: 14, fontWeight: FontWeight.bold),
                 maxLines: 2,
                 overflow: TextOverflow.ellipsis,
@@ -309,11 +331,11 @@ class _AbdominalBreathingLearnMorePageState
 
   @override
   Widget build(BuildContext context) {
+    final technique = widget.technique;
     return Scaffold(
       appBar: AppBar(
-        title: const Text("Abdominal Breathing"),
+        title: Text(technique.title),
         actions: [
-          // --- NEW FAVORITE FUNCTIONALITY ---
           IconButton(
             icon: Icon(
               _isFavorite ? Icons.favorite : Icons.favorite_border,
@@ -321,7 +343,6 @@ class _AbdominalBreathingLearnMorePageState
             ),
             onPressed: _toggleFavorite,
           ),
-          // --- END NEW CODE ---
         ],
       ),
       body: SingleChildScrollView(
@@ -332,14 +353,14 @@ class _AbdominalBreathingLearnMorePageState
             children: [
               _isPlayerInitialized ? _buildVideoPlayer() : _buildPlaceholder(),
               const SizedBox(height: 10),
-              const Text(
-                "Abdominal Breathing",
-                style: TextStyle(fontSize: 22, fontWeight: FontWeight.bold),
+              Text(
+                technique.title,
+                style: const TextStyle(fontSize: 22, fontWeight: FontWeight.bold),
               ),
               const SizedBox(height: 5),
-              const Text(
-                "Learn deep abdominal breathing to improve relaxation and lung capacity.",
-                style: TextStyle(fontSize: 16, color: Colors.grey),
+              Text(
+                technique.courseSummary,
+                style: const TextStyle(fontSize: 16, color: Colors.grey),
               ),
               const SizedBox(height: 20),
               const Text(
@@ -353,7 +374,7 @@ class _AbdominalBreathingLearnMorePageState
                   scrollDirection: Axis.horizontal,
                   itemCount: chapters.length,
                   itemBuilder: (context, index) {
-                    final chapter = chapters[index];
+                    final chapter = chapters.list[index];
                     return _buildChapterItem(chapter);
                   },
                 ),
@@ -1,16 +1,5 @@
 import 'package:flutter/material.dart';
-
-// Import your dedicated course pages (if needed elsewhere):
-import 'courses/abdominal_breathing_page.dart';
-import 'courses/chest_breathing_page.dart';
-import 'courses/complete_breathing_page.dart';
-import 'courses/bhramari_pranayama_page.dart';
-import 'courses/nadi_shodhana_pranayama_page.dart';
-import 'courses/ujjayi_pranayama_page.dart';
-import 'courses/surya_bhedana_pranayama_page.dart';
-import 'courses/chandra_bhedana_pranayama_page.dart';
-import 'courses/sheetali_pranayama_page.dart';
-import 'courses/sheetkari_pranayama_page.dart';
+import 'package:meditation_app/common_widgets/sized_asset_image.dart';
 
 class CoursesGridPage extends StatelessWidget {
   final String title;
@@ -56,14 +45,10 @@ class CoursesGridPage extends StatelessWidget {
             child: Stack(
               children: [
                 // Background Image
-                Container(
-                  width: double.infinity,
-                  decoration: BoxDecoration(
+                Positioned.fill(
+                  child: ClipRRect(
                     borderRadius: BorderRadius.circular(15),
-                    image: DecorationImage(
-                      image: AssetImage(course["image"]!),
-                      fit: BoxFit.cover,
-                    ),
+                    child: SizedAssetImage(course["image"]!),
                   ),
                 ),
                 // Gradient Overlay for better readability
@@ -1,63 +1,44 @@
 import 'package:flutter/material.dart';
-import 'package:meditation_app/Instruction/instruction_abdo.dart';
-import 'package:meditation_app/Instruction/instruction_chest.dart';
-import 'package:meditation_app/Instruction/instruction_complete.dart';
-import 'package:meditation_app/courses/abdominal_breathing_page.dart';
-import 'package:meditation_app/courses/bhramari_pranayama_page.dart';
-import 'package:meditation_app/courses/chandra_bhedana_pranayama_page.dart';
-import 'package:meditation_app/courses/chest_breathing_page.dart';
-import 'package:meditation_app/courses/complete_breathing_page.dart';
-import 'package:meditation_app/courses/nadi_shodhana_pranayama_page.dart';
-import 'package:meditation_app/courses/sheetali_pranayama_page.dart';
-import 'package:meditation_app/courses/sheetkari_pranayama_page.dart';
-import 'package:meditation_app/courses/surya_bhedana_pranayama_page.dart';
-import 'package:meditation_app/courses/ujjayi_pranayama_page.dart';
+import 'package:meditation_app/common_widgets/sized_asset_image.dart';
+import 'package:meditation_app/courses/technique_course_page.dart';
 
 // First, define the CourseInfo class outside the CoursesPage class
 class CourseInfo {
   final String title;
   final String image;
   final Color color;
+  /// Entry in the technique catalog that the course page is built from.
+  final String techniqueId;
 
   CourseInfo({
     required this.title,
     required this.image,
     required this.color,
+    required this.techniqueId,
   });
 }
 
 class CoursesPage extends StatelessWidget {
   CoursesPage({Key? key}) : super(key: key);
 
-  // Mapping of course titles to their dedicated pages
-  final Map<String, Widget Function()> coursePages = {
-    "Abdominal Breathing": () =>  AbdominalBreathingLearnMorePage(),
-    "Chest Breathing": () =>  ChestBreathingLearnMorePage(),
-    "Complete Breathing": () =>  CompleteBreathingLearnMorePage(),
-    "Bhramari Pranayama": () => BhramariBreathingLearnMorePage(),
-    "Nadi Shodhana Pranayama": () => const NadiShodhanaPranayamaPage(),
-    "Ujjayi Pranayama": () => const UjjayiPranayamaLearnMorePage(),
-    "Surya Bhedana Pranayama": () => const SuryaBhedanaPranayamaLearnMorePage(),
-    "Chandra Bhedana Pranayama": () => const ChandraBhedanaPranayamaLearnMorePage(),
-    "Sheetali Pranayama": () => const SheetaliPranayamaLearnMorePage(),
-    "Sheetkari Pranayama": () => const SheetkariPranayamaLearnMorePage(),
-  };
-
   // Course data organized by category
   final Map<String, List<CourseInfo>> courseCategories = {
     "Breathing Techniques": [
       CourseInfo(
         title: "Abdominal Breathing",
+        techniqueId: "abdominal",
         image: "assets/images/abdominal_breathing.png",
         color: const Color(0xFF6A8CAF),
       ),
       CourseInfo(
         title: "Chest Breathing",
+        techniqueId: "chest",
         image: "assets/images/chest_breathing.png",
         color: const Color(0xFF7F9EB2),
       ),
       CourseInfo(
         title: "Complete Breathing",
+        techniqueId: "complete",
         image: "assets/images/complete_breathing.png",
         color: const Color(0xFF95B0C5),
       ),
@@ -65,36 +46,43 @@ class CoursesPage extends StatelessWidget {
     "Pranayama Techniques": [
       CourseInfo(
         title: "Bhramari Pranayama",
+        techniqueId: "bhramari",
         image: "assets/images/bhramari.png",
         color: const Color(0xFF8A6BBE),
       ),
       CourseInfo(
         title: "Nadi Shodhana Pranayama",
+        techniqueId: "nadi_shodhana",
         image: "assets/images/nadishodana.png",
         color: const Color(0xFF7B5CB3),
       ),
       CourseInfo(
         title: "Ujjayi Pranayama",
+        techniqueId: "ujjayi",
         image: "assets/images/ujjayi.png",
         color: const Color(0xFF6C4DA8),
       ),
       CourseInfo(
         title: "Surya Bhedana Pranayama",
+        techniqueId: "surya_bhedana",
         image: "assets/images/suryabedhana.png",
         color: const Color(0xFF5D3E9D),
       ),
       CourseInfo(
         title: "Chandra Bhedana Pranayama",
+        techniqueId: "chandra_bhedana",
         image: "assets/images/chandrabedhana.png",
         color: const Color(0xFF4E2F92),
       ),
       CourseInfo(
         title: "Sheetali Pranayama",
+        techniqueId: "sheetali",
         image: "assets/images/sheetali.png",
         color: const Color(0xFF3F2087),
       ),
       CourseInfo(
         title: "Sheetkari Pranayama",
+        techniqueId: "sheetkari",
         image: "assets/images/sheetkari.png",
         color: const Color(0xFF30117C),
       ),
@@ -129,9 +117,11 @@ class CoursesPage extends StatelessWidget {
               background: Stack(
                 fit: StackFit.expand,
                 children: [
-                  Image.asset(
+                  // Sized for the expanded bar so collapsing does not re-decode it
+                  SizedAssetImage(
                     "assets/images/banner.png",
-                    fit: BoxFit.cover,
+                    width: MediaQuery.of(context).size.width,
+                    height: 200.0,
                   ),
                   const DecoratedBox(
                     decoration: BoxDecoration(
@@ -210,12 +200,12 @@ class CoursesPage extends StatelessWidget {
     return InkWell(
       borderRadius: BorderRadius.circular(16),
       onTap: () {
-        if (coursePages.containsKey(course.title)) {
-          Navigator.push(
-            context,
-            MaterialPageRoute(builder: (context) => coursePages[course.title]!()),
-          );
-        }
+        Navigator.push(
+          context,
+          MaterialPageRoute(
+            builder: (context) => TechniqueCoursePage(techniqueId: course.techniqueId),
+          ),
+        );
       },
       child: Container(
         decoration: BoxDecoration(
@@ -237,9 +227,8 @@ class CoursesPage extends StatelessWidget {
                 borderRadius: const BorderRadius.vertical(top: Radius.circular(16)),
                 child: Stack(
                   children: [
-                    Image.asset(
+                    SizedAssetImage(
                       course.image,
-                      fit: BoxFit.cover,
                       width: double.infinity,
                       height: double.infinity,
                     ),
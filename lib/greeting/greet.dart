@@ -1,8 +1,8 @@
 import 'package:flutter/material.dart';
 import 'package:firebase_auth/firebase_auth.dart';
-import 'package:cloud_firestore/cloud_firestore.dart';
 import 'package:google_sign_in/google_sign_in.dart';
 import 'package:meditation_app/relax.dart';
+import 'package:meditation_app/services/user_profile_repository.dart';
 import 'package:flutter/services.dart';
 import 'phone_sign_up_page.dart';
 
@@ -15,7 +15,7 @@ class NameInputPage extends StatefulWidget {
 
 class _NameInputPageState extends State<NameInputPage> with SingleTickerProviderStateMixin {
   final FirebaseAuth _auth = FirebaseAuth.instance;
-  final FirebaseFirestore _firestore = FirebaseFirestore.instance;
+  final UserProfileRepository _profiles = UserProfileRepository.instance;
 
   final TextEditingController _emailController = TextEditingController();
   final TextEditingController _passwordController = TextEditingController();
@@ -78,11 +78,10 @@ class _NameInputPageState extends State<NameInputPage> with SingleTickerProvider
       String name = _nameController.text.trim();
 
       // Save user data to Firestore
-      await _firestore.collection('users').doc(userId).set({
-        'name': name,
-        'email': _emailController.text.trim(),
-        'createdAt': DateTime.now().toIso8601String(),
-      });
+      await _profiles.save(
+        UserProfile(uid: userId, name: name, email: _emailController.text.trim()),
+        extra: {'createdAt': DateTime.now().toIso8601String()},
+      );
 
       ScaffoldMessenger.of(context).showSnackBar(
         const SnackBar(
@@ -153,14 +152,10 @@ class _NameInputPageState extends State<NameInputPage> with SingleTickerProvider
       String userId = userCredential.user!.uid;
 
       // Check if the user already exists in Firestore; if not, add them.
-      DocumentSnapshot doc = await _firestore.collection('users').doc(userId).get();
-      if (!doc.exists) {
-        await _firestore.collection('users').doc(userId).set({
-          'name': googleUser.displayName ?? '',
-          'email': googleUser.email,
-          'createdAt': DateTime.now().toIso8601String(),
-        });
-      }
+      await _profiles.createIfMissing(
+        UserProfile(uid: userId, name: googleUser.displayName ?? '', email: googleUser.email),
+        extra: {'createdAt': DateTime.now().toIso8601String()},
+      );
 
       if (mounted) {
         ScaffoldMessenger.of(context).showSnackBar(
@@ -1,7 +1,7 @@
 import 'package:flutter/material.dart';
 import 'package:animated_text_kit/animated_text_kit.dart'; // For animated text
 import 'package:meditation_app/relax.dart'; // Relax page
-import 'package:lottie/lottie.dart'; // For animations like confetti
+import 'package:meditation_app/common_widgets/cached_animation.dart'; // For animations like confetti
 
 class GreetingPage extends StatelessWidget {
   final String userName;
@@ -49,8 +49,9 @@ class GreetingPage extends StatelessWidget {
           // Confetti Animation
           Align(
             alignment: Alignment.topCenter,
-            child: Lottie.asset(
-              'assets/animations/confetti.json', // Replace with your Lottie animation path
+            // Parsed once and shared, so rebuilding the page costs no parse
+            child: CachedLottie(
+              'assets/animations/confetti.json',
               height: 400,
               repeat: false, // Play once
             ),
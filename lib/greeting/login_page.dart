@@ -1,4 +1,5 @@
 import 'package:flutter/material.dart';
+import 'package:meditation_app/common_widgets/sized_asset_image.dart';
 import 'package:firebase_auth/firebase_auth.dart';
 import 'package:meditation_app/greeting/greet.dart';
 import 'package:meditation_app/relax.dart';
@@ -130,7 +131,7 @@ class _LoginPageState extends State<LoginPage> with SingleTickerProviderStateMix
                           ],
                         ),
                         child: ClipOval(
-                          child: Image.asset(
+                          child: SizedAssetImage(
                             'assets/images/yoga_app.jpg',
                             fit: BoxFit.cover,
                             width: 130,
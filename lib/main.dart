@@ -1,14 +1,20 @@
 import 'package:flutter/material.dart';
-import 'package:firebase_core/firebase_core.dart';
-import 'package:firebase_auth/firebase_auth.dart';
 import 'package:meditation_app/greeting/login_page.dart';
 import 'utils/routes.dart';
 import 'relax.dart'; // Your home screen (when logged in)
-import 'package:shared_preferences/shared_preferences.dart'; // For local tracking
-
-void main() async {
+import 'common_widgets/metrics_overlay.dart';
+import 'common_widgets/startup_gate.dart';
+import 'services/course_progress_store.dart';
+import 'services/practice_sync.dart';
+import 'services/session_telemetry.dart';
+import 'services/startup_orchestrator.dart';
+import 'services/warm_up_service.dart';
+
+void main() {
   WidgetsFlutterBinding.ensureInitialized();
-  await Firebase.initializeApp();
+  // Firebase, auth, preferences and the catalog start together; the first
+  // frame only waits for the cached user, see StartupOrchestrator.
+  StartupOrchestrator.instance.start();
   runApp(MyApp());
 }
 
@@ -19,82 +25,35 @@ class MyApp extends StatefulWidget {
 }
 
 class _MyAppState extends State<MyApp> with WidgetsBindingObserver {
-  DateTime? _sessionStart;
-
   @override
   void initState() {
     super.initState();
     WidgetsBinding.instance.addObserver(this);
-    _sessionStart = DateTime.now();
-    _logDailyUsage();
   }
 
   @override
   void dispose() {
-    _logSessionTime();
+    _flushPractice();
+    CourseProgressStore.instance.flush();
     WidgetsBinding.instance.removeObserver(this);
     super.dispose();
   }
 
-  /// This method is called whenever the app’s lifecycle state changes.
+  /// Practice time is credited by the breathing screens and course positions
+  /// are kept in memory; make sure anything buffered is written before the
+  /// app may be killed.
   @override
   void didChangeAppLifecycleState(AppLifecycleState state) {
     if (state == AppLifecycleState.paused ||
         state == AppLifecycleState.inactive) {
-      _logSessionTime();
-    } else if (state == AppLifecycleState.resumed) {
-      _sessionStart = DateTime.now();
-      _logDailyUsage();
+      _flushPractice();
+      CourseProgressStore.instance.flush();
     }
   }
 
-  /// Calculate the session duration and store it locally.
-  Future<void> _logSessionTime() async {
-    if (_sessionStart == null) return;
-
-    // Ensure that there is a logged in user.
-    final user = FirebaseAuth.instance.currentUser;
-    if (user == null) return;
-    final uid = user.uid;
-
-    final sessionEnd = DateTime.now();
-    final sessionDuration = sessionEnd.difference(_sessionStart!);
-
-    SharedPreferences prefs = await SharedPreferences.getInstance();
-
-    // Update the total usage seconds for this user.
-    final totalUsageKey = 'total_usage_seconds_$uid';
-    int totalSeconds = prefs.getInt(totalUsageKey) ?? 0;
-    totalSeconds += sessionDuration.inSeconds;
-    await prefs.setInt(totalUsageKey, totalSeconds);
-
-    // Also update the usage for today's date.
-    final today = DateTime.now().toIso8601String().substring(0, 10); // Format: YYYY-MM-DD
-    final dailyUsageKey = "usage_${uid}_$today";
-    int dailySeconds = prefs.getInt(dailyUsageKey) ?? 0;
-    dailySeconds += sessionDuration.inSeconds;
-    await prefs.setInt(dailyUsageKey, dailySeconds);
-
-    print('Logged session of ${sessionDuration.inSeconds} seconds. Total usage: $totalSeconds seconds.');
-  }
-
-  /// Record the current day as a day the app was used.
-  Future<void> _logDailyUsage() async {
-    // Ensure that there is a logged in user.
-    final user = FirebaseAuth.instance.currentUser;
-    if (user == null) return;
-    final uid = user.uid;
-
-    SharedPreferences prefs = await SharedPreferences.getInstance();
-    final today = DateTime.now().toIso8601String().substring(0, 10); // Format: YYYY-MM-DD
-    final daysUsedKey = 'days_used_$uid';
-    List<String> daysUsed = prefs.getStringList(daysUsedKey) ?? [];
-
-    if (!daysUsed.contains(today)) {
-      daysUsed.add(today);
-      await prefs.setStringList(daysUsedKey, daysUsed);
-      print('New day logged: $today');
-    }
+  /// Credits buffered practice to the log, then sends the days it touched.
+  void _flushPractice() {
+    SessionTelemetry.instance.flush().then((_) => PracticeSync.instance.flush());
   }
 
   @override
@@ -108,33 +67,66 @@ class _MyAppState extends State<MyApp> with WidgetsBindingObserver {
       // Instead of using initialRoute, use the home property with an AuthWrapper:
       home: AuthWrapper(),
       routes: AppRoutes.routes,
+      builder: (context, child) => MetricsOverlay(child: child!),
     );
   }
 }
 
 /// This widget checks the auth state and routes the user accordingly.
-class AuthWrapper extends StatelessWidget {
+class AuthWrapper extends StatefulWidget {
+  @override
+  State<AuthWrapper> createState() => _AuthWrapperState();
+}
+
+class _AuthWrapperState extends State<AuthWrapper> {
+  final StartupOrchestrator _startup = StartupOrchestrator.instance;
+
+  @override
+  void initState() {
+    super.initState();
+    _startup.state.addListener(_syncPractice);
+    // Startup may already be live when this state is created.
+    _syncPractice();
+  }
+
+  @override
+  void dispose() {
+    _startup.state.removeListener(_syncPractice);
+    super.dispose();
+  }
+
+  /// Practice history follows whoever is signed in, once auth has answered.
+  void _syncPractice() {
+    final state = _startup.state.value;
+    if (state.stage != StartupStage.live) return;
+    final user = state.user;
+    if (user == null) {
+      PracticeSync.instance.stop();
+    } else {
+      PracticeSync.instance.start(user.uid);
+    }
+  }
+
+  @override
+  void didChangeDependencies() {
+    super.didChangeDependencies();
+    // Decode the home screen and session audio while Firebase and auth start.
+    WarmUpService.instance.start(
+      context,
+      MeditationScreen.imageBoxes(MediaQuery.of(context).size),
+    );
+  }
+
   @override
   Widget build(BuildContext context) {
-    return StreamBuilder<User?>(
-      stream: FirebaseAuth.instance.authStateChanges(),
-      builder: (context, snapshot) {
-        // When the connection is active, check if the user is logged in.
-        if (snapshot.connectionState == ConnectionState.active) {
-          final User? user = snapshot.data;
-          if (user == null) {
-            // Not logged in: show the login page.
-            return LoginPage();
-          } else {
-            // Logged in: show the home page (RelaxScreen).
-            return RelaxScreen();
-          }
-        }
-        // Otherwise, display a loading indicator.
-        return Scaffold(
-          body: Center(child: CircularProgressIndicator()),
-        );
-      },
+    return StartupGate(
+      startup: _startup,
+      // The cached shell first, then the same screen with the live user.
+      home: (context, user) => RelaxScreen(user: user),
+      signedOut: (context) => LoginPage(),
+      loading: (context) => Scaffold(
+        body: Center(child: CircularProgressIndicator()),
+      ),
     );
   }
 }
@@ -1,7 +1,8 @@
 import 'package:flutter/material.dart';
 import 'package:meditation_app/common//color_extension.dart'; // Adjust the path accordingly
-// Adjust the path accordingly
- // Make sure the TColor extension is defined here
+
+import '../common_widgets/sized_asset_image.dart';
+import '../services/ambient_audio.dart';
 
 class MusicScreen extends StatefulWidget {
   const MusicScreen({super.key});
@@ -11,49 +12,98 @@ class MusicScreen extends StatefulWidget {
 }
 
 class _MusicScreenState extends State<MusicScreen> {
+  /// How long switching tracks takes: the old one fades out while the new
+  /// one fades in.
+  static const Duration _switchFade = Duration(seconds: 2);
+
   List listArr = [
     {
-      "image": "assets/image/image1.png",
-      "title": "Night Island",
-      "subtitle": "45 MIN . SLEEP MUSIC"
-    },
-    {
-      "image": "assets/image/image1.png",
-      "title": "Sweet Sleep",
-      "subtitle": "45 MIN . SLEEP MUSIC"
+      "image": "assets/images/option1.png",
+      "title": "Birdsong",
+      "subtitle": "NATURE . LOOP",
+      "audio": "assets/music/birds.mp3"
     },
     {
-      "image": "assets/image/image1.png",
-      "title": "Good Night",
-      "subtitle": "45 MIN . SLEEP MUSIC"
+      "image": "assets/images/option2.png",
+      "title": "Calm Guide",
+      "subtitle": "GUIDED . LOOP",
+      "audio": "assets/music/guide_calm.mp3"
     },
     {
-      "image": "assets/image/image1.png",
-      "title": "Moon Clouds",
-      "subtitle": "45 MIN . SLEEP MUSIC"
+      "image": "assets/images/option3.png",
+      "title": "Deep Calm",
+      "subtitle": "GUIDED . LOOP",
+      "audio": "assets/music/guide-calm1.mp3"
     },
     {
-      "image": "assets/image/image1.png",
-      "title": "Night Island",
-      "subtitle": "45 MIN . SLEEP MUSIC"
+      "image": "assets/images/thought1.jpg",
+      "title": "Still Mind",
+      "subtitle": "GUIDED . LOOP",
+      "audio": "assets/music/guide_calm2.mp3"
     },
     {
-      "image": "assets/image/image1.png",
-      "title": "Sweet Sleep",
-      "subtitle": "45 MIN . SLEEP MUSIC"
+      "image": "assets/images/calmingchakra1.png",
+      "title": "Humming",
+      "subtitle": "BHRAMARI . LOOP",
+      "audio": "assets/music/humming_sound.mp3"
     },
     {
-      "image": "assets/image/image1.png",
-      "title": "Good Night",
-      "subtitle": "45 MIN . SLEEP MUSIC"
-    },
-    {
-      "image": "assets/image/image1.png",
-      "title": "Moon Clouds",
-      "subtitle": "45 MIN . SLEEP MUSIC"
+      "image": "assets/images/bhramari.png",
+      "title": "Om Hum",
+      "subtitle": "BHRAMARI . LOOP",
+      "audio": "assets/music/hmmsound_.mp3"
     },
   ];
 
+  AmbientTrack? _track;
+  int? _selected;
+  bool _playing = false;
+
+  /// Plays or pauses the tile's track; picking another tile crossfades to it.
+  Future<void> _toggle(int index) async {
+    final current = _track;
+    if (index == _selected && current == null) return; // Still opening.
+    if (index == _selected && current != null) {
+      setState(() => _playing = !_playing);
+      if (_playing) {
+        await current.play();
+      } else {
+        await current.pause();
+      }
+      return;
+    }
+
+    setState(() {
+      _selected = index;
+      _playing = true;
+      _track = null;
+    });
+    current?.release(fadeOut: _switchFade);
+    try {
+      final track = await AmbientAudio.instance.acquire(listArr[index]["audio"]);
+      if (!mounted || _selected != index) {
+        track.release();
+        return;
+      }
+      _track = track;
+      await track.play(fade: current != null ? _switchFade : AmbientAudio.defaultFade);
+    } catch (e) {
+      debugPrint('Error playing music: $e');
+      if (mounted && _selected == index) {
+        setState(() {
+          _selected = null;
+          _playing = false;
+        });
+      }
+    }
+  }
+
+  @override
+  void dispose() {
+    _track?.release(fadeOut: AmbientAudio.defaultFade);
+    super.dispose();
+  }
+
   @override
   Widget build(BuildContext context) {
     double width = MediaQuery.of(context).size.width; // Get the width using MediaQuery
@@ -82,42 +132,55 @@ class _MusicScreenState extends State<MusicScreen> {
         ),
         itemBuilder: (context, index) {
           var cObj = listArr[index];
-          return Column(
-            crossAxisAlignment: CrossAxisAlignment.start,
-            children: [
-              ClipRRect(
-                borderRadius: BorderRadius.circular(10),
-                child: Image.asset(
-                  cObj["image"],
-                  width: width, // Use the screen width
-                  height: width * 0.3, // Calculate height based on width
-                  fit: BoxFit.cover,
+          final playing = _playing && _selected == index;
+          return GestureDetector(
+            onTap: () => _toggle(index),
+            child: Column(
+              crossAxisAlignment: CrossAxisAlignment.start,
+              children: [
+                ClipRRect(
+                  borderRadius: BorderRadius.circular(10),
+                  child: Stack(
+                    alignment: Alignment.center,
+                    children: [
+                      SizedAssetImage(
+                        cObj["image"],
+                        width: width / 2 - 22.5, // Half the grid, less the gaps
+                        height: width * 0.3, // Calculate height based on width
+                      ),
+                      Icon(
+                        playing ? Icons.pause_circle_filled : Icons.play_circle_fill,
+                        color: TColor.sleepText.withOpacity(0.9),
+                        size: 40,
+                      ),
+                    ],
+                  ),
+                ),
+                const SizedBox(
+                  height: 8,
+                ),
+                Text(
+                  cObj["title"],
+                  maxLines: 1,
+                  style: TextStyle(
+                    color: TColor.sleepText, // Ensure this is defined
+                    fontSize: 18,
+                    fontWeight: FontWeight.w700,
+                  ),
                 ),
-              ),
-              const SizedBox(
-                height: 8,
-              ),
-              Text(
-                cObj["title"],
-                maxLines: 1,
-                style: TextStyle(
-                  color: TColor.sleepText, // Ensure this is defined
-                  fontSize: 18,
-                  fontWeight: FontWeight.w700,
+                const SizedBox(
+                  height: 4,
                 ),
-              ),
-              const SizedBox(
-                height: 4,
-              ),
-              Text(
-                cObj["subtitle"],
-                maxLines: 1,
-                style: TextStyle(
-                  color: TColor.sleepText, // Ensure this is defined
-                  fontSize: 12,
+                Text(
+                  cObj["subtitle"],
+                  maxLines: 1,
+                  style: TextStyle(
+                    color: TColor.sleepText, // Ensure this is defined
+                    fontSize: 12,
+                  ),
                 ),
-              ),
-            ],
+              ],
+            ),
           );
         },
         itemCount: listArr.length,
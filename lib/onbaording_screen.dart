@@ -1,4 +1,5 @@
 import 'package:flutter/material.dart';
+import 'package:meditation_app/common_widgets/sized_asset_image.dart';
 import 'package:meditation_app/greeting/login_page.dart';
 import 'size_config.dart';
 import 'onbording_contents.dart';
@@ -70,7 +71,7 @@ class _OnboardingScreenState extends State<OnboardingScreen> {
                     child: Column(
                       children: [
                         Expanded(
-                          child: Image.asset(contents[i].image),
+                          child: SizedAssetImage(contents[i].image, fit: BoxFit.scaleDown),
                         ),
                         SizedBox(height: (height >= 840) ? 60 : 30),
                         Text(
@@ -1,9 +1,12 @@
+import 'dart:async';
+
 import 'package:flutter/material.dart';
+import 'package:meditation_app/common_widgets/sized_asset_image.dart';
 import 'package:firebase_auth/firebase_auth.dart';
-import 'package:cloud_firestore/cloud_firestore.dart';
-import 'package:meditation_app/courses/abdominal_breathing_page.dart';
-import 'package:meditation_app/courses/bhramari_pranayama_page.dart';
+import 'package:meditation_app/courses/technique_course_page.dart';
 import 'package:meditation_app/greeting/login_page.dart';
+import 'package:meditation_app/services/metrics.dart';
+import 'package:meditation_app/services/user_profile_repository.dart';
 import 'package:shared_preferences/shared_preferences.dart';
 import 'package:url_launcher/url_launcher.dart';
 import 'contributers.dart';
@@ -45,6 +48,7 @@ class _MeditationProfileState extends State<MeditationProfile> {
   int meditationSessions = 0;
   double totalMeditationTime = 0.0;
   String userName = "User Name";
+  StreamSubscription<UserProfile>? _profileSubscription;
 
   @override
   void initState() {
@@ -52,22 +56,30 @@ class _MeditationProfileState extends State<MeditationProfile> {
     _loadUserName();
   }
 
-  Future<void> _loadUserName() async {
+  @override
+  void dispose() {
+    _profileSubscription?.cancel();
+    super.dispose();
+  }
+
+  void _loadUserName() {
     User? user = FirebaseAuth.instance.currentUser;
     if (user != null) {
-      DocumentSnapshot doc = await FirebaseFirestore.instance
-          .collection('users')
-          .doc(user.uid)
-          .get();
-      if (doc.exists && doc.data() != null) {
+      _profileSubscription =
+          UserProfileRepository.instance.watch(user.uid).listen((profile) {
+        if (!mounted) return;
         setState(() {
-          userName = doc.get('name') ?? 'User Name';
+          userName = profile.name.isNotEmpty ? profile.name : 'User Name';
         });
-      }
+      });
     }
   }
 
   Future<void> _logout() async {
+    final uid = FirebaseAuth.instance.currentUser?.uid;
+    if (uid != null) {
+      await UserProfileRepository.instance.clear(uid);
+    }
     await FirebaseAuth.instance.signOut();
     Navigator.pushReplacement(
       context,
@@ -85,11 +97,15 @@ class _MeditationProfileState extends State<MeditationProfile> {
     return Scaffold(
       extendBodyBehindAppBar: true,
       appBar: AppBar(
-        title: Text(
-          'Meditation',
-          style: TextStyle(
-            fontWeight: FontWeight.w600,
-            letterSpacing: 0.5,
+        // Long press opens the metrics overlay.
+        title: GestureDetector(
+          onLongPress: Metrics.instance.toggleOverlay,
+          child: Text(
+            'Meditation',
+            style: TextStyle(
+              fontWeight: FontWeight.w600,
+              letterSpacing: 0.5,
+            ),
           ),
         ),
         backgroundColor: primaryBlue.withOpacity(0.95),
@@ -573,9 +589,11 @@ class AboutUsPage extends StatelessWidget {
               background: Stack(
                 fit: StackFit.expand,
                 children: [
-                  Image.asset(
+                  // Sized for the expanded bar so collapsing does not re-decode it
+                  SizedAssetImage(
                     'assets/images/yoga_banner.jpeg', // Add this image to your assets
-                    fit: BoxFit.cover,
+                    width: MediaQuery.of(context).size.width,
+                    height: 200.0,
                     errorBuilder: (context, error, stackTrace) {
                       return Container(
                         decoration: BoxDecoration(
@@ -702,7 +720,7 @@ class AboutUsPage extends StatelessWidget {
                 ],
               ),
               child: ClipOval(
-                child: Image.asset(
+                child: SizedAssetImage(
                   'assets/images/yoga_logo.png', // Add a circular logo image
                   fit: BoxFit.cover,
                   errorBuilder: (context, error, stackTrace) {
@@ -759,7 +777,7 @@ class AboutUsPage extends StatelessWidget {
                   textAlign: TextAlign.center,
                 ),
                 SizedBox(height: 16),
-                Image.asset(
+                SizedAssetImage(
                   'assets/images/yoga_group.jpeg', // Add an image showing a yoga class or community
                   height: 150,
                   width: double.infinity,
@@ -827,7 +845,7 @@ class AboutUsPage extends StatelessWidget {
                     SizedBox(width: 12),
                     ClipRRect(
                       borderRadius: BorderRadius.circular(8),
-                      child: Image.asset(
+                      child: SizedAssetImage(
                         'assets/images/yoga_history.jpeg', // Add an historical image
                         height: 100,
                         width: 100,
@@ -845,7 +863,7 @@ class AboutUsPage extends StatelessWidget {
                   ],
                 ),
                 SizedBox(height: 16),
-                Image.asset(
+                SizedAssetImage(
                   'assets/images/yoga_centre.jpeg', // Add an image of the center
                   height: 180,
                   width: double.infinity,
@@ -931,7 +949,7 @@ class AboutUsPage extends StatelessWidget {
             ],
           ),
           SizedBox(height: 16),
-          Image.asset(
+          SizedAssetImage(
             title == 'SURYA Program'
                 ? 'assets/images/yoga_students.jpeg' // Image of students practicing yoga
                 : 'assets/images/yoga_app.jpg', // Image of app or digital yoga
@@ -1016,7 +1034,7 @@ class AboutUsPage extends StatelessWidget {
               children: [
                 ClipRRect(
                   borderRadius: BorderRadius.circular(8),
-                  child: Image.asset(
+                  child: SizedAssetImage(
                     'assets/images/yoga_lotus.png', // Add an image of lotus flower
                     height: 150,
                     width: double.infinity,
@@ -1110,7 +1128,7 @@ class AboutUsPage extends StatelessWidget {
               shape: BoxShape.circle,
             ),
             child: ClipOval(
-              child: Image.asset(
+              child: SizedAssetImage(
                 imagePath,
                 fit: BoxFit.cover,
                 errorBuilder: (context, error, stackTrace) {
@@ -1153,12 +1171,13 @@ class AboutUsPage extends StatelessWidget {
           CircleAvatar(
             radius: 60,
             backgroundColor: lightBlue,
-            backgroundImage: AssetImage('assets/images/founder.jpeg'),
+            backgroundImage: SizedAssetImage.provider('assets/images/founder.jpeg',
+                const Size(120, 120), MediaQuery.of(context).devicePixelRatio),
             onBackgroundImageError: (exception, stackTrace) {
               // Placeholder if image fails to load
             },
             child: ClipOval(
-              child: Image.asset(
+              child: SizedAssetImage(
                 'assets/images/founder.jpeg',
                 fit: BoxFit.cover,
                 errorBuilder: (context, error, stackTrace) {
@@ -1188,7 +1207,7 @@ class AboutUsPage extends StatelessWidget {
           SizedBox(height: 16),
           ClipRRect(
             borderRadius: BorderRadius.circular(8),
-            child: Image.asset(
+            child: SizedAssetImage(
               'assets/images/founder_teaching.jpeg', // Image of founder teaching
               height: 180,
               width: double.infinity,
@@ -1245,7 +1264,7 @@ class AboutUsPage extends StatelessWidget {
               children: [
                 ClipRRect(
                   borderRadius: BorderRadius.circular(8),
-                  child: Image.asset(
+                  child: SizedAssetImage(
                     'assets/images/yoga_building.jpeg', // Image of the yoga center building
                     height: 180,
                     width: double.infinity,
@@ -1375,16 +1394,16 @@ class _FavoritesPageState extends State<FavoritesPage> {
 
   // Mapping of course names to their respective pages.
   final Map<String, WidgetBuilder> coursePages = {
-    "Abdominal Breathing": (context) => AbdominalBreathingLearnMorePage(),
-    "Chest Breathing": (context) => CoursePage(title: "Chest Breathing"),
-    "Complete Breathing": (context) => CoursePage(title: "Complete Breathing"),
-    "Bhramari Pranayama": (context) => BhramariBreathingLearnMorePage(),
-    "Nadi Shodhana Pranayama": (context) => CoursePage(title: "Nadi Shodhana Pranayama"),
-    "Ujjayi Pranayama": (context) => CoursePage(title: "Ujjayi Pranayama"),
-    "Surya Bhedana Pranayama": (context) => CoursePage(title: "Surya Bhedana Pranayama"),
-    "Chandra Bhedana Pranayama": (context) => CoursePage(title: "Chandra Bhedana Pranayama"),
-    "Sheetali Pranayama": (context) => CoursePage(title: "Sheetali Pranayama"),
-    "Sheetkari Pranayama": (context) => CoursePage(title: "Sheetkari Pranayama"),
+    "Abdominal Breathing": (context) => const TechniqueCoursePage(techniqueId: "abdominal"),
+    "Chest Breathing": (context) => const TechniqueCoursePage(techniqueId: "chest"),
+    "Complete Breathing": (context) => const TechniqueCoursePage(techniqueId: "complete"),
+    "Bhramari Pranayama": (context) => const TechniqueCoursePage(techniqueId: "bhramari"),
+    "Nadi Shodhana Pranayama": (context) => const TechniqueCoursePage(techniqueId: "nadi_shodhana"),
+    "Ujjayi Pranayama": (context) => const TechniqueCoursePage(techniqueId: "ujjayi"),
+    "Surya Bhedana Pranayama": (context) => const TechniqueCoursePage(techniqueId: "surya_bhedana"),
+    "Chandra Bhedana Pranayama": (context) => const TechniqueCoursePage(techniqueId: "chandra_bhedana"),
+    "Sheetali Pranayama": (context) => const TechniqueCoursePage(techniqueId: "sheetali"),
+    "Sheetkari Pranayama": (context) => const TechniqueCoursePage(techniqueId: "sheetkari"),
   };
   @override
   void initState() {
@@ -1402,6 +1421,7 @@ class _FavoritesPageState extends State<FavoritesPage> {
   }
 
   Future<void> _loadFavoriteCourses() async {
+    final start = Metrics.now();
     SharedPreferences prefs = await SharedPreferences.getInstance();
     List<String> tempFavorites = [];
     for (String course in allCourses) {
@@ -1410,6 +1430,7 @@ class _FavoritesPageState extends State<FavoritesPage> {
         tempFavorites.add(course);
       }
     }
+    Metrics.instance.histogram('prefs.favorites_read').recordSince(start);
     setState(() {
       favoriteCourses = tempFavorites;
       _isLoading = false;
@@ -1457,24 +1478,3 @@ class _FavoritesPageState extends State<FavoritesPage> {
     );
   }
 }
-
-class CoursePage extends StatelessWidget {
-  final String title;
-  const CoursePage({Key? key, required this.title}) : super(key: key);
-
-  @override
-  Widget build(BuildContext context) {
-    return Scaffold(
-      appBar: AppBar(
-        title: Text(title),
-        backgroundColor: const Color(0xff457B9D),
-      ),
-      body: Center(
-        child: Text(
-          "This is the page for $title",
-          style: TextStyle(color: const Color(0xff457B9D)),
-        ),
-      ),
-    );
-  }
-}
\ No newline at end of file
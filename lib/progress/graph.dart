@@ -1,8 +1,13 @@
+import 'dart:async';
+
 import 'package:flutter/material.dart';
 import 'package:fl_chart/fl_chart.dart';
 import 'package:table_calendar/table_calendar.dart';
-import 'package:shared_preferences/shared_preferences.dart';
 import 'package:firebase_auth/firebase_auth.dart';
+import '../services/practice_log.dart';
+import '../services/practice_sync.dart';
+import 'practice_series.dart';
+import 'practice_stats.dart';
 
 // Color Constants
 class AppColors {
@@ -21,14 +26,8 @@ class ProgressScreen extends StatefulWidget {
 
 class _ProgressScreenState extends State<ProgressScreen> {
   DateTime? _selectedDate;
-  Map<String, Map<String, dynamic>> usageData = {};
-
-  Map<DateTime, List<Map<String, dynamic>>> get markedDates {
-    return usageData.map((key, value) {
-      DateTime parsedDate = DateTime.parse(key);
-      return MapEntry(parsedDate, [value]);
-    });
-  }
+  final PracticeStats _stats = PracticeStats();
+  StreamSubscription<PracticeRecord>? _appended;
 
   @override
   void initState() {
@@ -36,58 +35,50 @@ class _ProgressScreenState extends State<ProgressScreen> {
     _loadUsageData();
   }
 
+  @override
+  void dispose() {
+    _appended?.cancel();
+    super.dispose();
+  }
+
   Future<void> _loadUsageData() async {
     final user = FirebaseAuth.instance.currentUser;
     if (user == null) return;
     final uid = user.uid;
 
-    SharedPreferences prefs = await SharedPreferences.getInstance();
-    final daysUsedKey = 'days_used_$uid';
-    List<String> daysUsed = prefs.getStringList(daysUsedKey) ?? [];
-    Map<String, Map<String, dynamic>> fetchedData = {};
-
-    for (var day in daysUsed) {
-      final dailyUsageKey = "usage_${uid}_$day";
-      int seconds = prefs.getInt(dailyUsageKey) ?? 0;
-      double hours = seconds / 3600.0;
-      fetchedData[day] = {"hours": hours, "activity": "Pranayama"};
+    // This device's log first; it is one local read.
+    final local = await PracticeLog.instance.watchDailyTechniqueSeconds(uid);
+    if (!mounted) {
+      await local.appended.listen(null).cancel();
+      return;
     }
+    setState(() {
+      _addDays(local.days);
+    });
+    _appended = local.appended.listen((record) {
+      setState(() {
+        _stats.add(record.start, record.duration.inSeconds, record.technique);
+      });
+    });
 
+    // Then what the user's other devices have synced, when it arrives.
+    final others = await PracticeSync.instance.otherDeviceSeconds(uid);
+    if (!mounted || others.isEmpty) return;
     setState(() {
-      usageData = fetchedData;
+      _addDays(others);
     });
   }
 
-  int _calculateMaxStreak() {
-    if (usageData.isEmpty) return 0;
-    List<DateTime> dates = usageData.keys.map((key) => DateTime.parse(key)).toList();
-    dates.sort((a, b) => a.compareTo(b));
-
-    int maxStreak = 1;
-    int currentStreak = 1;
-
-    for (int i = 1; i < dates.length; i++) {
-      if (dates[i].difference(dates[i - 1]).inDays == 1) {
-        currentStreak++;
-        if (currentStreak > maxStreak) maxStreak = currentStreak;
-      } else {
-        currentStreak = 1;
-      }
-    }
-
-    return maxStreak;
+  void _addDays(Map<String, Map<PracticeTechnique, int>> days) {
+    days.forEach((day, techniques) {
+      techniques.forEach((technique, seconds) {
+        _stats.addDay(day, seconds, technique);
+      });
+    });
   }
 
   @override
   Widget build(BuildContext context) {
-    final totalHours = usageData.values.fold<double>(
-      0,
-          (sum, item) => sum + (item["hours"] as double),
-    );
-
-    final dataList = usageData.entries.toList()
-      ..sort((a, b) => a.key.compareTo(b.key));
-
     return Scaffold(
       backgroundColor: AppColors.background,
       body: CustomScrollView(
@@ -139,13 +130,13 @@ class _ProgressScreenState extends State<ProgressScreen> {
               padding: EdgeInsets.symmetric(horizontal: 20, vertical: 16),
               child: Column(
                 children: [
-                  _buildStatsSection(totalHours),
+                  _buildStatsSection(),
                   SizedBox(height: 24),
                   _buildCalendarSection(),
                   SizedBox(height: 24),
                   if (_selectedDate != null) _buildSelectedDateInfo(),
                   SizedBox(height: 24),
-                  _buildGraphSection(dataList),
+                  _buildGraphSection(),
                   SizedBox(height: 24),
                 ],
               ),
@@ -156,8 +147,7 @@ class _ProgressScreenState extends State<ProgressScreen> {
     );
   }
 
-  Widget _buildStatsSection(double totalHours) {
-    int maxStreak = _calculateMaxStreak();
+  Widget _buildStatsSection() {
 
     return Container(
       decoration: BoxDecoration(
@@ -175,9 +165,9 @@ class _ProgressScreenState extends State<ProgressScreen> {
       child: Row(
         mainAxisAlignment: MainAxisAlignment.spaceAround,
         children: [
-          _buildStatItem(Icons.calendar_today, "${usageData.length}", "Days"),
-          _buildStatItem(Icons.timeline, "$maxStreak", "Max Streak"),
-          _buildStatItem(Icons.access_time, "${totalHours.toStringAsFixed(1)}", "Hours"),
+          _buildStatItem(Icons.calendar_today, "${_stats.dayCount}", "Days"),
+          _buildStatItem(Icons.timeline, "${_stats.maxStreak}", "Max Streak"),
+          _buildStatItem(Icons.access_time, "${_stats.totalHours.toStringAsFixed(1)}", "Hours"),
         ],
       ),
     );
@@ -294,12 +284,10 @@ class _ProgressScreenState extends State<ProgressScreen> {
               weekdayStyle: TextStyle(color: AppColors.textLight),
               weekendStyle: TextStyle(color: AppColors.textLight),
             ),
-            eventLoader: (date) => markedDates[date] ?? [],
+            eventLoader: (date) => _stats.hasActivity(date) ? const ["practice"] : const [],
             calendarBuilders: CalendarBuilders(
               defaultBuilder: (context, date, focusedDay) {
-                String formattedDate =
-                    "${date.year.toString().padLeft(4, '0')}-${date.month.toString().padLeft(2, '0')}-${date.day.toString().padLeft(2, '0')}";
-                if (usageData.containsKey(formattedDate)) {
+                if (_stats.hasActivity(date)) {
                   return Container(
                     margin: const EdgeInsets.all(4.0),
                     decoration: BoxDecoration(
@@ -323,9 +311,25 @@ class _ProgressScreenState extends State<ProgressScreen> {
     );
   }
 
+  static const Map<PracticeTechnique, String> _techniqueNames = {
+    PracticeTechnique.app: "Pranayama",
+    PracticeTechnique.box: "Box Breathing",
+    PracticeTechnique.ujjayi: "Ujjayi",
+    PracticeTechnique.bhramari: "Bhramari",
+    PracticeTechnique.bilateral: "Bilateral Breathing",
+    PracticeTechnique.abdominal: "Abdominal Breathing",
+    PracticeTechnique.panic: "Calm Breathing",
+  };
+
+  /// Techniques practised on [date], longest first.
+  String _activityOn(DateTime date) {
+    final techniques = _stats.techniquesOn(date).entries.toList()
+      ..sort((a, b) => b.value.compareTo(a.value));
+    return techniques.map((e) => _techniqueNames[e.key]).join(", ");
+  }
+
   Widget _buildSelectedDateInfo() {
-    final selectedDateStr = _selectedDate!.toLocal().toString().split(' ')[0];
-    final data = usageData[selectedDateStr];
+    final seconds = _stats.secondsOn(_selectedDate!);
 
     return Container(
       decoration: BoxDecoration(
@@ -386,8 +390,8 @@ class _ProgressScreenState extends State<ProgressScreen> {
                       ),
                     ),
                     Text(
-                      data != null
-                          ? "${data['hours'].toStringAsFixed(1)} hours of ${data['activity']}"
+                      _stats.hasActivity(_selectedDate!)
+                          ? "${(seconds / 3600.0).toStringAsFixed(1)} hours of ${_activityOn(_selectedDate!)}"
                           : "No activity recorded",
                       style: TextStyle(
                         fontSize: 16,
@@ -405,7 +409,7 @@ class _ProgressScreenState extends State<ProgressScreen> {
     );
   }
 
-  Widget _buildGraphSection(List<MapEntry<String, Map<String, dynamic>>> dataList) {
+  Widget _buildGraphSection() {
     return Container(
       decoration: BoxDecoration(
         color: Colors.white,
@@ -437,122 +441,259 @@ class _ProgressScreenState extends State<ProgressScreen> {
             ],
           ),
           SizedBox(height: 16),
-          Container(
-            height: 200,
-            child: LineChart(
-              LineChartData(
-                minX: 0,
-                maxX: dataList.isNotEmpty ? dataList.length - 1 : 1,
-                minY: 0,
-                maxY: dataList.isNotEmpty
-                    ? (dataList.map((e) => e.value['hours'] as double).reduce((a, b) => a > b ? a : b) + 1)
-                    : 5,
-                gridData: FlGridData(
-                  show: true,
-                  drawVerticalLine: true,
-                  horizontalInterval: 1,
-                  verticalInterval: 1,
-                  getDrawingHorizontalLine: (value) {
-                    return FlLine(
-                      color: Colors.grey[200],
-                      strokeWidth: 1,
-                    );
-                  },
-                  getDrawingVerticalLine: (value) {
-                    return FlLine(
-                      color: Colors.grey[200],
-                      strokeWidth: 1,
-                    );
-                  },
-                ),
-                borderData: FlBorderData(
-                  show: true,
-                  border: Border.all(color: Colors.grey[300]!, width: 1),
-                ),
-                titlesData: FlTitlesData(
-                  show: true,
-                  rightTitles: AxisTitles(
-                    sideTitles: SideTitles(showTitles: false),
-                  ),
-                  topTitles: AxisTitles(
-                    sideTitles: SideTitles(showTitles: false),
-                  ),
-                  bottomTitles: AxisTitles(
-                    sideTitles: SideTitles(
-                      showTitles: true,
-                      reservedSize: 22,
-                      interval: 1,
-                      getTitlesWidget: (value, meta) {
-                        if (value.toInt() >= 0 && value.toInt() < dataList.length) {
-                          return Padding(
-                            padding: const EdgeInsets.only(top: 8.0),
-                            child: Text(
-                              dataList[value.toInt()].key.split("-")[2],
-                              style: TextStyle(
-                                fontSize: 10,
-                                color: AppColors.textLight,
-                              ),
-                            ),
-                          );
-                        }
-                        return Container();
-                      },
-                    ),
+          _PracticeChart(series: _stats.series),
+        ],
+      ),
+    );
+  }
+}
+
+/// The "Consistency Over Time" line, one zoom level and window at a time.
+///
+/// Only the visible window is read from [series], downsampled to a point
+/// every few pixels of chart width, and the built chart is kept until the
+/// series, zoom, window or width changes, so calendar taps and other
+/// rebuilds of the progress screen reuse it. Dragging sideways pans back
+/// through the history.
+class _PracticeChart extends StatefulWidget {
+  final PracticeSeries series;
+
+  const _PracticeChart({required this.series});
+
+  @override
+  State<_PracticeChart> createState() => _PracticeChartState();
+}
+
+class _PracticeChartState extends State<_PracticeChart> {
+  /// Buckets visible at once for each zoom level.
+  static const Map<ChartZoom, int> _span = {
+    ChartZoom.day: 90,
+    ChartZoom.week: 52,
+    ChartZoom.month: 36,
+  };
+
+  static const Map<ChartZoom, String> _zoomNames = {
+    ChartZoom.day: "Day",
+    ChartZoom.week: "Week",
+    ChartZoom.month: "Month",
+  };
+
+  static const List<String> _months = [
+    "Jan", "Feb", "Mar", "Apr", "May", "Jun",
+    "Jul", "Aug", "Sep", "Oct", "Nov", "Dec",
+  ];
+
+  /// Chart width in logical pixels per point drawn, at the least.
+  static const double _pixelsPerPoint = 4;
+
+  ChartZoom _zoom = ChartZoom.day;
+
+  /// Last visible bucket; null follows the latest practice.
+  int? _end;
+  double _drag = 0;
+
+  Object? _builtFor;
+  Widget? _built;
+
+  int get _latest => widget.series.lastBucket(_zoom);
+
+  int get _windowEnd => _end ?? _latest;
+
+  void _pan(DragUpdateDetails details, double width) {
+    final series = widget.series;
+    if (series.isEmpty) return;
+    final span = _span[_zoom]!;
+    _drag -= details.delta.dx * span / width;
+    final shift = _drag.truncate();
+    if (shift == 0) return;
+    _drag -= shift;
+    final earliest = series.firstBucket(_zoom) + span - 1;
+    var end = _windowEnd + shift;
+    if (end > _latest) end = _latest;
+    if (end < earliest) end = earliest < _latest ? earliest : _latest;
+    setState(() {
+      _end = end == _latest ? null : end;
+    });
+  }
+
+  String _label(int bucket) {
+    final date = PracticeSeries.startOf(_zoom, bucket);
+    if (_zoom == ChartZoom.month) {
+      return "${_months[date.month - 1]} ${date.year % 100}";
+    }
+    return "${date.day}/${date.month}";
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    return Column(
+      crossAxisAlignment: CrossAxisAlignment.start,
+      children: [
+        Wrap(
+          spacing: 8,
+          children: [
+            for (final zoom in ChartZoom.values)
+              ChoiceChip(
+                label: Text(_zoomNames[zoom]!),
+                selected: _zoom == zoom,
+                selectedColor: AppColors.primary.withOpacity(0.2),
+                onSelected: (_) => setState(() {
+                  _zoom = zoom;
+                  _end = null;
+                  _drag = 0;
+                }),
+              ),
+          ],
+        ),
+        SizedBox(height: 12),
+        SizedBox(
+          height: 200,
+          child: LayoutBuilder(
+            builder: (context, constraints) {
+              final width = constraints.maxWidth;
+              if (widget.series.isEmpty) {
+                return Center(
+                  child: Text(
+                    "No practice recorded yet",
+                    style: TextStyle(color: AppColors.textLight),
                   ),
-                  leftTitles: AxisTitles(
-                    sideTitles: SideTitles(
-                      showTitles: true,
-                      interval: 1,
-                      reservedSize: 28,
-                      getTitlesWidget: (value, meta) {
-                        return Text(
-                          value.toInt().toString(),
-                          style: TextStyle(
-                            fontSize: 10,
-                            color: AppColors.textLight,
-                          ),
-                        );
-                      },
+                );
+              }
+              final end = _windowEnd;
+              final key = (widget.series.version, _zoom, end, width.floor());
+              if (key != _builtFor) {
+                _builtFor = key;
+                _built = _buildChart(end, width);
+              }
+              return GestureDetector(
+                onHorizontalDragUpdate: (details) => _pan(details, width),
+                child: _built,
+              );
+            },
+          ),
+        ),
+      ],
+    );
+  }
+
+  Widget _buildChart(int end, double width) {
+    final span = _span[_zoom]!;
+    final from = end - span + 1;
+    final points = widget.series.window(
+        _zoom, from, end, (width / _pixelsPerPoint).floor());
+    var maxSeconds = 0;
+    for (final point in points) {
+      if (point.seconds > maxSeconds) maxSeconds = point.seconds;
+    }
+    final maxY = maxSeconds / 3600.0 + 1;
+    final yInterval = (maxY / 5).ceilToDouble();
+    final xInterval = (span / 5).ceilToDouble();
+
+    return LineChart(
+      LineChartData(
+        minX: from.toDouble(),
+        maxX: end.toDouble(),
+        minY: 0,
+        maxY: maxY,
+        clipData: FlClipData.all(),
+        gridData: FlGridData(
+          show: true,
+          drawVerticalLine: true,
+          horizontalInterval: yInterval,
+          verticalInterval: xInterval,
+          getDrawingHorizontalLine: (value) {
+            return FlLine(
+              color: Colors.grey[200],
+              strokeWidth: 1,
+            );
+          },
+          getDrawingVerticalLine: (value) {
+            return FlLine(
+              color: Colors.grey[200],
+              strokeWidth: 1,
+            );
+          },
+        ),
+        borderData: FlBorderData(
+          show: true,
+          border: Border.all(color: Colors.grey[300]!, width: 1),
+        ),
+        titlesData: FlTitlesData(
+          show: true,
+          rightTitles: AxisTitles(
+            sideTitles: SideTitles(showTitles: false),
+          ),
+          topTitles: AxisTitles(
+            sideTitles: SideTitles(showTitles: false),
+          ),
+          bottomTitles: AxisTitles(
+            sideTitles: SideTitles(
+              showTitles: true,
+              reservedSize: 22,
+              interval: xInterval,
+              getTitlesWidget: (value, meta) {
+                return Padding(
+                  padding: const EdgeInsets.only(top: 8.0),
+                  child: Text(
+                    _label(value.toInt()),
+                    style: TextStyle(
+                      fontSize: 10,
+                      color: AppColors.textLight,
                     ),
                   ),
-                ),
-                lineBarsData: [
-                  LineChartBarData(
-                    spots: List.generate(
-                      dataList.length,
-                          (index) => FlSpot(
-                        index.toDouble(),
-                        dataList[index].value['hours'] as double,
-                      ),
-                    ),
-                    isCurved: true,
-                    color: AppColors.primaryDark,
-                    barWidth: 3,
-                    isStrokeCapRound: true,
-                    dotData: FlDotData(
-                      show: true,
-                      getDotPainter: (spot, percent, barData, index) {
-                        return FlDotCirclePainter(
-                          radius: 4,
-                          color: AppColors.primary,
-                          strokeColor: Colors.white,
-                          strokeWidth: 2,
-                        );
-                      },
-                    ),
-                    belowBarData: BarAreaData(
-                      show: true,
-                      gradient: LinearGradient(
-                        colors: [
-                          AppColors.primary.withOpacity(0.3),
-                          AppColors.primary.withOpacity(0.1),
-                        ],
-                        begin: Alignment.topCenter,
-                        end: Alignment.bottomCenter,
-                      ),
-                    ),
+                );
+              },
+            ),
+          ),
+          leftTitles: AxisTitles(
+            sideTitles: SideTitles(
+              showTitles: true,
+              interval: yInterval,
+              reservedSize: 28,
+              getTitlesWidget: (value, meta) {
+                return Text(
+                  value.toInt().toString(),
+                  style: TextStyle(
+                    fontSize: 10,
+                    color: AppColors.textLight,
                   ),
+                );
+              },
+            ),
+          ),
+        ),
+        lineBarsData: [
+          LineChartBarData(
+            spots: [
+              for (final point in points)
+                FlSpot(point.bucket.toDouble(), point.seconds / 3600.0),
+            ],
+            isCurved: true,
+            preventCurveOverShooting: true,
+            color: AppColors.primaryDark,
+            barWidth: 3,
+            isStrokeCapRound: true,
+            dotData: FlDotData(
+              // Dots only while they are far enough apart to read.
+              show: points.length <= 31,
+              getDotPainter: (spot, percent, barData, index) {
+                return FlDotCirclePainter(
+                  radius: 4,
+                  color: AppColors.primary,
+                  strokeColor: Colors.white,
+                  strokeWidth: 2,
+                );
+              },
+            ),
+            belowBarData: BarAreaData(
+              show: true,
+              gradient: LinearGradient(
+                colors: [
+                  AppColors.primary.withOpacity(0.3),
+                  AppColors.primary.withOpacity(0.1),
                 ],
+                begin: Alignment.topCenter,
+                end: Alignment.bottomCenter,
               ),
             ),
           ),
@@ -560,4 +701,4 @@ class _ProgressScreenState extends State<ProgressScreen> {
       ),
     );
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,192 @@
+import 'dart:typed_data';
+
+import 'practice_stats.dart';
+
+/// How much time one point of the progress chart covers.
+enum ChartZoom { day, week, month }
+
+/// One point of a chart window: a bucket at some [ChartZoom] and the
+/// seconds practised in it.
+class ChartPoint {
+  const ChartPoint(this.bucket, this.seconds);
+
+  final int bucket;
+  final int seconds;
+
+  @override
+  String toString() => 'ChartPoint($bucket, $seconds)';
+}
+
+/// Practice time as a series for the progress chart, at day, week and month
+/// resolution.
+///
+/// Days are added sparsely; each zoom level keeps a dense total per bucket
+/// from the first practised bucket to the last, built once after a change
+/// and reused by every window after that. [window] reads only the buckets it
+/// is asked for and, when there are more of them than the chart has room
+/// for, picks the ones that keep the shape of the line with
+/// largest-triangle-three-buckets (LTTB) downsampling, so the chart never
+/// gets more points than [window]'s `maxPoints` however long the history is.
+class PracticeSeries {
+  /// Seconds per day, keyed by [PracticeStats.dayNumber].
+  final Map<int, int> _daySeconds = {};
+  int _firstDay = 0;
+  int _lastDay = -1;
+  int _version = 0;
+  final Map<ChartZoom, _Level> _levels = {};
+
+  /// Bumped by every [add], so a chart can tell whether it is out of date.
+  int get version => _version;
+
+  bool get isEmpty => _daySeconds.isEmpty;
+
+  /// Adds [seconds] on [day], a [PracticeStats.dayNumber].
+  void add(int day, int seconds) {
+    if (_daySeconds.isEmpty) {
+      _firstDay = day;
+      _lastDay = day;
+    } else {
+      if (day < _firstDay) _firstDay = day;
+      if (day > _lastDay) _lastDay = day;
+    }
+    _daySeconds[day] = (_daySeconds[day] ?? 0) + seconds;
+    _levels.clear();
+    _version++;
+  }
+
+  /// The bucket that [day] falls in at [zoom]. Weeks start on Monday;
+  /// months are numbered `year * 12 + month - 1`.
+  static int bucketOf(ChartZoom zoom, int day) {
+    switch (zoom) {
+      case ChartZoom.day:
+        return day;
+      case ChartZoom.week:
+        // Day 4 since the epoch, 1970-01-05, is a Monday.
+        return ((day - 4) / 7).floor();
+      case ChartZoom.month:
+        final date = PracticeStats.dateOf(day);
+        return date.year * 12 + date.month - 1;
+    }
+  }
+
+  /// The first calendar day of [bucket] at [zoom], as a UTC midnight.
+  static DateTime startOf(ChartZoom zoom, int bucket) {
+    switch (zoom) {
+      case ChartZoom.day:
+        return PracticeStats.dateOf(bucket);
+      case ChartZoom.week:
+        return PracticeStats.dateOf(bucket * 7 + 4);
+      case ChartZoom.month:
+        return DateTime.utc(bucket ~/ 12, bucket % 12 + 1);
+    }
+  }
+
+  _Level _level(ChartZoom zoom) {
+    return _levels.putIfAbsent(zoom, () {
+      final first = bucketOf(zoom, _firstDay);
+      final seconds = Int32List(bucketOf(zoom, _lastDay) - first + 1);
+      _daySeconds.forEach((day, value) {
+        seconds[bucketOf(zoom, day) - first] += value;
+      });
+      return _Level(first, seconds);
+    });
+  }
+
+  /// The first bucket with practice at [zoom]. Only valid when not [isEmpty].
+  int firstBucket(ChartZoom zoom) => bucketOf(zoom, _firstDay);
+
+  /// The last bucket with practice at [zoom]. Only valid when not [isEmpty].
+  int lastBucket(ChartZoom zoom) => bucketOf(zoom, _lastDay);
+
+  /// Seconds practised in [bucket] at [zoom].
+  int secondsIn(ChartZoom zoom, int bucket) {
+    if (isEmpty) return 0;
+    final level = _level(zoom);
+    final index = bucket - level.first;
+    if (index < 0 || index >= level.seconds.length) return 0;
+    return level.seconds[index];
+  }
+
+  /// The points for buckets [from] to [to] inclusive at [zoom], no more than
+  /// [maxPoints] of them (at least 3).
+  ///
+  /// Buckets outside the history are left out rather than drawn as zero.
+  /// When the window holds more buckets than [maxPoints], the first and last
+  /// are kept and the rest are picked by LTTB; every point returned is a
+  /// real bucket total, never an average.
+  List<ChartPoint> window(ChartZoom zoom, int from, int to, int maxPoints) {
+    if (isEmpty) return const [];
+    final level = _level(zoom);
+    final start = (from - level.first).clamp(0, level.seconds.length);
+    final end = (to - level.first + 1).clamp(start, level.seconds.length);
+    final indices = largestTriangleThreeBuckets(level.seconds, start, end, maxPoints);
+    return [
+      for (final i in indices) ChartPoint(level.first + i, level.seconds[i]),
+    ];
+  }
+}
+
+class _Level {
+  _Level(this.first, this.seconds);
+
+  /// Bucket number of `seconds[0]`.
+  final int first;
+  final Int32List seconds;
+}
+
+/// Indices into [values] between [start] and [end] (exclusive) that keep the
+/// visual shape of the line when only [threshold] points can be drawn.
+///
+/// This is Steinarsson's largest-triangle-three-buckets: the first and last
+/// points are always kept, the rest of the range is split into
+/// `threshold - 2` buckets, and from each bucket the point that makes the
+/// largest triangle with the point kept before it and the average of the
+/// next bucket is kept. Peaks and dips survive where plain decimation or
+/// averaging would flatten them. Points are evenly spaced, so x is the index.
+List<int> largestTriangleThreeBuckets(
+    List<int> values, int start, int end, int threshold) {
+  final count = end - start;
+  if (threshold < 3) threshold = 3;
+  if (count <= threshold) {
+    return List<int>.generate(count, (i) => start + i);
+  }
+
+  final selected = List<int>.filled(threshold, 0);
+  selected[0] = start;
+  final every = (count - 2) / (threshold - 2);
+  var a = start;
+  for (var i = 0; i < threshold - 2; i++) {
+    // Average of the next bucket; the last point stands in past the end.
+    var avgStart = start + ((i + 1) * every).floor() + 1;
+    var avgEnd = start + ((i + 2) * every).floor() + 1;
+    if (avgEnd > end) avgEnd = end;
+    if (avgStart >= avgEnd) avgStart = avgEnd - 1;
+    var avgX = 0.0;
+    var avgY = 0.0;
+    for (var j = avgStart; j < avgEnd; j++) {
+      avgX += j;
+      avgY += values[j];
+    }
+    avgX /= avgEnd - avgStart;
+    avgY /= avgEnd - avgStart;
+
+    final rangeStart = start + (i * every).floor() + 1;
+    final rangeEnd = start + ((i + 1) * every).floor() + 1;
+    final ax = a.toDouble();
+    final ay = values[a].toDouble();
+    var maxArea = -1.0;
+    var next = rangeStart;
+    for (var j = rangeStart; j < rangeEnd; j++) {
+      // Twice the triangle's area; only the comparison matters.
+      final area = ((ax - avgX) * (values[j] - ay) - (ax - j) * (avgY - ay)).abs();
+      if (area > maxArea) {
+        maxArea = area;
+        next = j;
+      }
+    }
+    selected[i + 1] = next;
+    a = next;
+  }
+  selected[threshold - 1] = end - 1;
+  return selected;
+}
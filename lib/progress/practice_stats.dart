@@ -0,0 +1,149 @@
+import 'dart:collection';
+
+import '../services/practice_log.dart';
+import 'practice_series.dart';
+
+/// Running practice statistics for the progress screen.
+///
+/// Sessions are folded in one at a time, so totals, streaks, week/month
+/// buckets and the calendar marker set are always current and every getter is
+/// a constant-time lookup. Streaks are kept as runs of consecutive days indexed
+/// by both ends; a new day joins at most the run ending the day before and the
+/// run starting the day after.
+class PracticeStats {
+  /// Seconds per day, keyed by [dayNumber].
+  final Map<int, int> _daySeconds = {};
+  final Map<int, Map<PracticeTechnique, int>> _dayTechniques = {};
+
+  /// Practised days in ascending order.
+  final List<int> _days = [];
+
+  final Map<int, int> _weekSeconds = {};
+  final Map<int, int> _monthSeconds = {};
+
+  /// Run end -> run start, and run start -> run end.
+  final Map<int, int> _runStartByEnd = {};
+  final Map<int, int> _runEndByStart = {};
+
+  /// The same days as a chart series.
+  final PracticeSeries series = PracticeSeries();
+
+  int _totalSeconds = 0;
+  int _maxStreak = 0;
+  int _maxDaySeconds = 0;
+
+  /// Days since the epoch for the calendar date of [date].
+  static int dayNumber(DateTime date) {
+    return DateTime.utc(date.year, date.month, date.day).millisecondsSinceEpoch ~/
+        Duration.millisecondsPerDay;
+  }
+
+  /// Calendar date for a [dayNumber], as a UTC midnight.
+  static DateTime dateOf(int day) {
+    return DateTime.fromMillisecondsSinceEpoch(day * Duration.millisecondsPerDay,
+        isUtc: true);
+  }
+
+  /// Formats a [dayNumber] as YYYY-MM-DD.
+  static String keyOf(int day) => dateOf(day).toIso8601String().substring(0, 10);
+
+  /// Adds [seconds] of [technique] practice on [date].
+  void add(DateTime date, int seconds,
+      [PracticeTechnique technique = PracticeTechnique.app]) {
+    final day = dayNumber(date);
+    final previous = _daySeconds[day];
+    final daySeconds = (previous ?? 0) + seconds;
+    _daySeconds[day] = daySeconds;
+    final techniques = _dayTechniques.putIfAbsent(day, () => {});
+    techniques[technique] = (techniques[technique] ?? 0) + seconds;
+    _totalSeconds += seconds;
+    if (daySeconds > _maxDaySeconds) _maxDaySeconds = daySeconds;
+
+    final utcDate = dateOf(day);
+    final week = day - (utcDate.weekday - DateTime.monday);
+    final month = utcDate.year * 12 + utcDate.month - 1;
+    _weekSeconds[week] = (_weekSeconds[week] ?? 0) + seconds;
+    _monthSeconds[month] = (_monthSeconds[month] ?? 0) + seconds;
+    series.add(day, seconds);
+
+    if (previous == null) {
+      _insertDay(day);
+      _joinRuns(day);
+    }
+  }
+
+  /// Adds a YYYY-MM-DD keyed day total, as stored by the practice log.
+  void addDay(String key, int seconds,
+          [PracticeTechnique technique = PracticeTechnique.app]) =>
+      add(DateTime.parse(key), seconds, technique);
+
+  void _insertDay(int day) {
+    // Sessions almost always arrive in order, so this is usually an append.
+    if (_days.isEmpty || _days.last < day) {
+      _days.add(day);
+      return;
+    }
+    var low = 0;
+    var high = _days.length;
+    while (low < high) {
+      final mid = (low + high) >> 1;
+      if (_days[mid] < day) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    _days.insert(low, day);
+  }
+
+  void _joinRuns(int day) {
+    final start = _runStartByEnd.remove(day - 1) ?? day;
+    final end = _runEndByStart.remove(day + 1) ?? day;
+    _runEndByStart[start] = end;
+    _runStartByEnd[end] = start;
+    final length = end - start + 1;
+    if (length > _maxStreak) _maxStreak = length;
+  }
+
+  int get totalSeconds => _totalSeconds;
+
+  double get totalHours => _totalSeconds / 3600.0;
+
+  int get dayCount => _days.length;
+
+  int get maxStreak => _maxStreak;
+
+  int get maxDaySeconds => _maxDaySeconds;
+
+  /// Practised days in ascending [dayNumber] order.
+  List<int> get days => UnmodifiableListView(_days);
+
+  /// Length of the run that includes [today], or ends the day before it.
+  int currentStreak(DateTime today) {
+    final day = dayNumber(today);
+    final start = _runStartByEnd[day] ?? _runStartByEnd[day - 1];
+    if (start == null) return 0;
+    return _runEndByStart[start]! - start + 1;
+  }
+
+  bool hasActivity(DateTime date) => _daySeconds.containsKey(dayNumber(date));
+
+  int secondsOn(DateTime date) => _daySeconds[dayNumber(date)] ?? 0;
+
+  int secondsOnDay(int day) => _daySeconds[day] ?? 0;
+
+  /// Seconds per technique on [date]; empty when nothing was practised.
+  Map<PracticeTechnique, int> techniquesOn(DateTime date) {
+    return UnmodifiableMapView(_dayTechniques[dayNumber(date)] ?? const {});
+  }
+
+  /// Seconds in the Monday-starting week that contains [date].
+  int secondsInWeek(DateTime date) {
+    final day = dayNumber(date);
+    return _weekSeconds[day - (dateOf(day).weekday - DateTime.monday)] ?? 0;
+  }
+
+  int secondsInMonth(int year, int month) {
+    return _monthSeconds[year * 12 + month - 1] ?? 0;
+  }
+}
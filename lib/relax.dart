@@ -1,19 +1,9 @@
+import 'dart:async';
 import 'dart:io';
 import 'dart:ui';
 import 'package:flutter/material.dart';
 import 'package:firebase_auth/firebase_auth.dart';
-import 'package:cloud_firestore/cloud_firestore.dart';
-import 'package:meditation_app/Instruction/instruction_abdo.dart';
-import 'package:meditation_app/Instruction/instruction_bhramari.dart';
-import 'package:meditation_app/Instruction/instruction_chandra.dart';
-import 'package:meditation_app/Instruction/instruction_complete.dart';
-import 'package:meditation_app/Instruction/instruction_chest.dart';
-import 'package:meditation_app/Instruction/instruction_nadi.dart';
-import 'package:meditation_app/Instruction/instruction_sheetali.dart';
-import 'package:meditation_app/Instruction/instruction_sheetkari.dart';
-import 'package:meditation_app/Instruction/instruction_surya.dart';
-import 'package:meditation_app/Instruction/instruction_ujjayi.dart';
-import 'package:meditation_app/Instruction/instruction_box.dart';
+import 'package:meditation_app/Instruction/technique_page.dart';
 import 'package:meditation_app/Panic_Breathing_Page.dart';
 import 'package:shared_preferences/shared_preferences.dart';
 import 'package:meditation_app/progress/graph.dart';
@@ -21,9 +11,17 @@ import 'profile/profile.dart';
 import 'package:flutter/rendering.dart';
 import 'package:image_picker/image_picker.dart';
 import 'package:meditation_app/courses_page.dart';
+import 'package:meditation_app/common_widgets/lazy_indexed_stack.dart';
+import 'package:meditation_app/common_widgets/sized_asset_image.dart';
+import 'package:meditation_app/services/avatar_store.dart';
+import 'package:meditation_app/services/startup_orchestrator.dart';
+import 'package:meditation_app/services/user_profile_repository.dart';
 
 class RelaxScreen extends StatefulWidget {
-  const RelaxScreen({Key? key}) : super(key: key);
+  /// Who to show; null means the signed-in Firebase user.
+  final HomeUser? user;
+
+  const RelaxScreen({Key? key, this.user}) : super(key: key);
 
   @override
   State<RelaxScreen> createState() => _RelaxScreenState();
@@ -36,6 +34,7 @@ class _RelaxScreenState extends State<RelaxScreen> with SingleTickerProviderStat
   String _userName = 'User';
   File? _profileImage;
   String? _profileImageUrl;
+  StreamSubscription<UserProfile>? _profileSubscription;
 
   @override
   void initState() {
@@ -54,54 +53,102 @@ class _RelaxScreenState extends State<RelaxScreen> with SingleTickerProviderStat
     _loadUserData();
   }
 
+  @override
+  void didUpdateWidget(RelaxScreen oldWidget) {
+    super.didUpdateWidget(oldWidget);
+    // The cached shell became the live user, or the user changed.
+    if (oldWidget.user?.uid != widget.user?.uid ||
+        oldWidget.user?.live != widget.user?.live) {
+      _profileSubscription?.cancel();
+      _profileSubscription = null;
+      _loadUserData();
+    }
+  }
+
   @override
   void dispose() {
+    _profileSubscription?.cancel();
     _controller.dispose();
     super.dispose();
   }
 
-  final List<Widget> _screens = [
-    const MeditationScreen(),
-    CoursesPage(),
-    ProgressScreen(),
-    MeditationProfile(),
-  ];
+  /// Tabs are built the first time they are opened and kept alive after that.
+  Widget _buildTab(BuildContext context, int index) {
+    switch (index) {
+      case 0:
+        return MeditationScreen(
+          userName: _userName,
+          profileImage: _profileImage,
+          photoUrl: _profileImageUrl,
+          pickImage: _pickImage,
+        );
+      case 1:
+        return CoursesPage();
+      case 2:
+        return ProgressScreen();
+      default:
+        return MeditationProfile();
+    }
+  }
 
-  Future<void> _loadUserData() async {
-    User? user = FirebaseAuth.instance.currentUser;
-    if (user != null) {
-      DocumentSnapshot doc = await FirebaseFirestore.instance
-          .collection('users')
-          .doc(user.uid)
-          .get();
-      if (doc.exists && doc.data() != null) {
+  /// Shows the cached profile straight away and follows live updates.
+  void _loadUserData() {
+    final user =
+        widget.user ?? HomeUser.fromFirebase(FirebaseAuth.instance.currentUser);
+    if (user == null) return;
+    AvatarStore.instance.pickedFor(user.uid).then((file) {
+      if (file != null && mounted && _profileImage == null) {
         setState(() {
-          _userName = doc.get('name') ?? 'User';
-          _profileImageUrl = user.photoURL;
-          _screens[0] = MeditationScreen(
-            userName: _userName,
-            profileImage: _profileImage,
-            photoUrl: _profileImageUrl,
-            pickImage: _pickImage,
-          );
+          _profileImage = file;
         });
       }
+    }).catchError((e) {
+      debugPrint('Error loading avatar: $e');
+    });
+    if (!user.live) {
+      // Firebase is still starting: the local copy is all there is.
+      UserProfileRepository.instance.loadCached(user.uid).then((profile) {
+        // Unless live data has taken over in the meantime.
+        if (profile != null && widget.user?.live == false) {
+          _showProfile(profile, user);
+        }
+      });
+      return;
     }
+    _profileSubscription = UserProfileRepository.instance
+        .watch(user.uid)
+        .listen((profile) => _showProfile(profile, user));
   }
 
+  void _showProfile(UserProfile profile, HomeUser user) {
+    if (!mounted) return;
+    setState(() {
+      _userName = profile.name.isNotEmpty ? profile.name : 'User';
+      _profileImageUrl = user.photoUrl;
+    });
+  }
+
+  /// Lets the user pick a photo and keeps a small thumbnail of it.
   Future<void> _pickImage() async {
     final ImagePicker picker = ImagePicker();
-    final XFile? image = await picker.pickImage(source: ImageSource.gallery);
-    if (image != null) {
+    // The platform side scales the photo down before Dart sees any bytes.
+    final XFile? image = await picker.pickImage(
+      source: ImageSource.gallery,
+      maxWidth: 1024,
+      maxHeight: 1024,
+    );
+    if (image == null) return;
+    final user =
+        widget.user ?? HomeUser.fromFirebase(FirebaseAuth.instance.currentUser);
+    try {
+      final thumbnail =
+          await AvatarStore.instance.savePicked(user?.uid ?? '', image.path);
+      if (!mounted) return;
       setState(() {
-        _profileImage = File(image.path);
-        _screens[0] = MeditationScreen(
-          userName: _userName,
-          profileImage: _profileImage,
-          photoUrl: _profileImageUrl,
-          pickImage: _pickImage,
-        );
+        _profileImage = thumbnail;
       });
+    } catch (e) {
+      debugPrint('Error saving avatar: $e');
     }
   }
 
@@ -132,15 +179,17 @@ class _RelaxScreenState extends State<RelaxScreen> with SingleTickerProviderStat
   Widget build(BuildContext context) {
     return Scaffold(
       body: SafeArea(
-        child: AnimatedSwitcher(
-          duration: const Duration(milliseconds: 300),
-          child: _screens[_currentIndex],
-          transitionBuilder: (Widget child, Animation<double> animation) {
-            return FadeTransition(
-              opacity: animation,
-              child: SlideTransition(position: _slideAnimation, child: child),
-            );
-          },
+        child: FadeTransition(
+          opacity: _controller,
+          child: SlideTransition(
+            position: _slideAnimation,
+            child: LazyIndexedStack(
+              index: _currentIndex,
+              itemCount: 4,
+              itemBuilder: _buildTab,
+              evictOnMemoryPressure: true,
+            ),
+          ),
         ),
       ),
       bottomNavigationBar: Container(
@@ -226,181 +275,213 @@ class MeditationScreen extends StatefulWidget {
     this.pickImage,
   }) : super(key: key);
 
+  /// Every image the home screen draws on a screen of [screen] logical size,
+  /// with the box it is drawn in, so it can be decoded before the first frame.
+  static Map<String, Size> imageBoxes(Size screen) {
+    final double tileWidth = (screen.width - 2 * _gridPadding - _gridSpacing) / 2;
+    final Size tile = Size(tileWidth, tileWidth / _tileAspectRatio);
+    final boxes = <String, Size>{
+      _bannerImage: Size(screen.width, screen.height * _appBarFraction),
+    };
+    for (final entry in _homeItems()) {
+      final item = entry['item'];
+      if (item is _BreathingItem) boxes[item.imagePaths[0]] = tile;
+      if (item is _WisdomItem) boxes[item.imagePath] = tile;
+    }
+    return boxes;
+  }
+
   @override
   _MeditationScreenState createState() => _MeditationScreenState();
 }
 
+// Home layout, shared by the screen and MeditationScreen.imageBoxes.
+const String _bannerImage = 'assets/images/ban.png';
+const double _appBarFraction = 0.3;
+const double _gridPadding = 16.0;
+const double _gridSpacing = 16.0;
+const double _tileAspectRatio = 0.9;
+const double _avatarRadius = 34;
+
+/// The home grid: section headers followed by their cards.
+List<Map<String, dynamic>> _homeItems() {
+  // Daily wisdom items
+  final List<_WisdomItem> wisdomItems = [
+    _WisdomItem(
+      "Mindfulness",
+      "Mindfulness is the basic human ability to be fully present.",
+      "assets/images/thought1.jpg",
+    ),
+    _WisdomItem(
+      "Balance",
+      "Yoga helps create balance in body, mind and spirit.",
+      "assets/images/thought2.jpg",
+    ),
+    _WisdomItem(
+      "Breathe",
+      "When in doubt, breathe out.",
+      "assets/images/thoughts3.jpg",
+    ),
+  ];
+
+  // Meditation breathing items
+  final List<Map<String, dynamic>> meditationItems = [
+    {
+      'type': 'breathing',
+      'item': _BreathingItem(
+        "Abdominal\nBreathing",
+        ['assets/images/13.png'],
+        [Colors.teal[800]!, Colors.teal[400]!],
+        'abdominal',
+      )
+    },
+    {
+      'type': 'breathing',
+      'item': _BreathingItem(
+        "Chest\nBreathing",
+        ['assets/images/15.png'],
+        [Colors.teal[400]!, Colors.teal[600]!],
+        'chest',
+      )
+    },
+    {
+      'type': 'breathing',
+      'item': _BreathingItem(
+        "Complete\nBreathing",
+        ['assets/images/17.png'],
+        [Colors.teal[700]!, Colors.teal[300]!],
+        'complete',
+      )
+    },
+    // Add wisdom card to fill empty space
+    {'type': 'wisdom', 'item': wisdomItems[0]},
+  ];
+
+  // Pranayama items
+  final List<Map<String, dynamic>> pranayamaItems = [
+    {
+      'type': 'breathing',
+      'item': _BreathingItem(
+        "Bhramari\nPranayama",
+        ['assets/images/21.png'],
+        [Colors.teal[800]!, Colors.teal[300]!],
+        'bhramari',
+      )
+    },
+    {
+      'type': 'breathing',
+      'item': _BreathingItem(
+        "Nadi\nShodhana",
+        ['assets/images/1.png'],
+        [Colors.teal[500]!, Colors.teal[200]!],
+        'nadi_shodhana',
+      )
+    },
+    {
+      'type': 'breathing',
+      'item': _BreathingItem(
+        "Ujjayi\nPranayama",
+        ['assets/images/7.png'],
+        [Colors.teal[300]!, Colors.teal[700]!],
+        'ujjayi',
+      )
+    },
+    {
+      'type': 'breathing',
+      'item': _BreathingItem(
+        "Surya\nBhedana",
+        ['assets/images/3.png'],
+        [Colors.teal[200]!, Colors.teal[500]!],
+        'surya_bhedana',
+      )
+    },
+    {
+      'type': 'breathing',
+      'item': _BreathingItem(
+        "Chandra\nBhedana",
+        ['assets/images/5.png'],
+        [Colors.teal[800]!, Colors.teal[400]!],
+        'chandra_bhedana',
+      )
+    },
+    {
+      'type': 'breathing',
+      'item': _BreathingItem(
+        "Sheetali\nPranayama",
+        ['assets/images/13.png'],
+        [Colors.teal[300]!, Colors.teal[600]!],
+        'sheetali',
+      )
+    },
+    {
+      'type': 'breathing',
+      'item': _BreathingItem(
+        "Sheetkari\nPranayama",
+        ['assets/images/9.png'],
+        [Colors.teal[400]!, Colors.teal[800]!],
+        'sheetkari',
+      )
+    },
+    // Add wisdom card to fill empty space
+    {'type': 'wisdom', 'item': wisdomItems[1]},
+  ];
+
+  // Advanced items
+  final List<Map<String, dynamic>> advancedItems = [
+    {
+      'type': 'breathing',
+      'item': _BreathingItem(
+        "Box\nBreathing",
+        ['assets/images/19.png'],
+        [Colors.teal[700]!, Colors.teal[300]!],
+        'box',
+      )
+    },
+    // Add remaining wisdom card
+    {'type': 'wisdom', 'item': wisdomItems[2]},
+  ];
+
+  // Create sections with headers and items
+  return [
+    {'type': 'header', 'title': 'MEDITATION'},
+    ...meditationItems,
+    {'type': 'header', 'title': 'PRANAYAMA'},
+    ...pranayamaItems,
+    {'type': 'header', 'title': 'ADVANCED'},
+    ...advancedItems,
+  ];
+}
+
 class _MeditationScreenState extends State<MeditationScreen> {
   final ScrollController _scrollController = ScrollController();
-  double _scrollOffset = 0.0;
+
+  /// Whether the app bar has collapsed past the greeting. Only flips when the
+  /// threshold is crossed, so scrolling rebuilds nothing in between.
+  final ValueNotifier<bool> _collapsed = ValueNotifier(false);
+  double _collapseOffset = double.infinity;
 
   // Combined items list for all categories with type indication
   List<Map<String, dynamic>> _allItems = [];
+  late final List<Widget> _gridSlivers;
 
   @override
   void initState() {
     super.initState();
-    _scrollController.addListener(() {
-      setState(() {
-        _scrollOffset = _scrollController.offset;
-      });
-    });
+    _scrollController.addListener(_updateCollapsed);
 
     // Initialize all items
-    _initializeItems();
+    _allItems = _homeItems();
+    _gridSlivers = _buildGridSlivers();
   }
 
-  void _initializeItems() {
-    // Daily wisdom items
-    final List<_WisdomItem> wisdomItems = [
-      _WisdomItem(
-        "Mindfulness",
-        "Mindfulness is the basic human ability to be fully present.",
-        "assets/images/thought1.jpg",
-      ),
-      _WisdomItem(
-        "Balance",
-        "Yoga helps create balance in body, mind and spirit.",
-        "assets/images/thought2.jpg",
-      ),
-      _WisdomItem(
-        "Breathe",
-        "When in doubt, breathe out.",
-        "assets/images/thoughts3.jpg",
-      ),
-    ];
-
-    // Meditation breathing items
-    final List<Map<String, dynamic>> meditationItems = [
-      {
-        'type': 'breathing',
-        'item': _BreathingItem(
-          "Abdominal\nBreathing",
-          ['assets/images/13.png'],
-          [Colors.teal[800]!, Colors.teal[400]!],
-          AbdominalBreathingPage(),
-        )
-      },
-      {
-        'type': 'breathing',
-        'item': _BreathingItem(
-          "Chest\nBreathing",
-          ['assets/images/15.png'],
-          [Colors.teal[400]!, Colors.teal[600]!],
-          ChestBreathingPage(),
-        )
-      },
-      {
-        'type': 'breathing',
-        'item': _BreathingItem(
-          "Complete\nBreathing",
-          ['assets/images/17.png'],
-          [Colors.teal[700]!, Colors.teal[300]!],
-          CompleteBreathingPage(),
-        )
-      },
-      // Add wisdom card to fill empty space
-      {'type': 'wisdom', 'item': wisdomItems[0]},
-    ];
-
-    // Pranayama items
-    final List<Map<String, dynamic>> pranayamaItems = [
-      {
-        'type': 'breathing',
-        'item': _BreathingItem(
-          "Bhramari\nPranayama",
-          ['assets/images/21.png'],
-          [Colors.teal[800]!, Colors.teal[300]!],
-          BhramariBreathingPage(),
-        )
-      },
-      {
-        'type': 'breathing',
-        'item': _BreathingItem(
-          "Nadi\nShodhana",
-          ['assets/images/1.png'],
-          [Colors.teal[500]!, Colors.teal[200]!],
-          NadiShodhanaPage(),
-        )
-      },
-      {
-        'type': 'breathing',
-        'item': _BreathingItem(
-          "Ujjayi\nPranayama",
-          ['assets/images/7.png'],
-          [Colors.teal[300]!, Colors.teal[700]!],
-          UjjayiPranayamaPage(),
-        )
-      },
-      {
-        'type': 'breathing',
-        'item': _BreathingItem(
-          "Surya\nBhedana",
-          ['assets/images/3.png'],
-          [Colors.teal[200]!, Colors.teal[500]!],
-          SuryaBhedanaPranayamaPage(),
-        )
-      },
-      {
-        'type': 'breathing',
-        'item': _BreathingItem(
-          "Chandra\nBhedana",
-          ['assets/images/5.png'],
-          [Colors.teal[800]!, Colors.teal[400]!],
-          ChandraBhedanaPranayamaPage(),
-        )
-      },
-      {
-        'type': 'breathing',
-        'item': _BreathingItem(
-          "Sheetali\nPranayama",
-          ['assets/images/13.png'],
-          [Colors.teal[300]!, Colors.teal[600]!],
-          SheetaliPranayamaPage(),
-        )
-      },
-      {
-        'type': 'breathing',
-        'item': _BreathingItem(
-          "Sheetkari\nPranayama",
-          ['assets/images/9.png'],
-          [Colors.teal[400]!, Colors.teal[800]!],
-          SheetkariPranayamaPage(),
-        )
-      },
-      // Add wisdom card to fill empty space
-      {'type': 'wisdom', 'item': wisdomItems[1]},
-    ];
-
-    // Advanced items
-    final List<Map<String, dynamic>> advancedItems = [
-      {
-        'type': 'breathing',
-        'item': _BreathingItem(
-          "Box\nBreathing",
-          ['assets/images/19.png'],
-          [Colors.teal[700]!, Colors.teal[300]!],
-          BoxBreathingPage(),
-        )
-      },
-      // Add remaining wisdom card
-      {'type': 'wisdom', 'item': wisdomItems[2]},
-    ];
-
-    // Create sections with headers and items
-    _allItems = [
-      {'type': 'header', 'title': 'MEDITATION'},
-      ...meditationItems,
-      {'type': 'header', 'title': 'PRANAYAMA'},
-      ...pranayamaItems,
-      {'type': 'header', 'title': 'ADVANCED'},
-      ...advancedItems,
-    ];
+  void _updateCollapsed() {
+    _collapsed.value = _scrollController.offset > _collapseOffset;
   }
 
   @override
   void dispose() {
     _scrollController.dispose();
+    _collapsed.dispose();
     super.dispose();
   }
 
@@ -417,8 +498,15 @@ class _MeditationScreenState extends State<MeditationScreen> {
 
   @override
   Widget build(BuildContext context) {
-    final double appBarHeight = MediaQuery.of(context).size.height * 0.3;
+    final double appBarHeight = MediaQuery.of(context).size.height * _appBarFraction;
     final greeting = _getGreeting();
+    _collapseOffset = appBarHeight - kToolbarHeight - 15;
+    // Decoded at the size it is drawn at, whatever the photo's size.
+    final avatar = AvatarStore.instance.provider(
+      picked: widget.profileImage,
+      url: widget.photoUrl,
+      pixels: 2 * _avatarRadius * MediaQuery.of(context).devicePixelRatio,
+    );
 
     return Scaffold(
       backgroundColor: Colors.white,
@@ -430,176 +518,162 @@ class _MeditationScreenState extends State<MeditationScreen> {
             expandedHeight: appBarHeight,
             pinned: true,
             stretch: true,
-            flexibleSpace: LayoutBuilder(
-              builder: (context, constraints) {
-                final double top = constraints.biggest.height;
-                final bool showTitle = _scrollOffset > appBarHeight - kToolbarHeight - 15;
-
-                return FlexibleSpaceBar(
-                  title: showTitle
-                      ? Text(
-                    '',
-                    style: TextStyle(
-                      color: Color(0xFF1A2C50),
-                      fontWeight: FontWeight.w600,
-                      fontFamily: 'Poppins',
-                      shadows: [
-                        Shadow(
-                          color: Colors.white.withOpacity(0.8),
-                          blurRadius: 10,
-                        ),
-                      ],
-                    ),
-                  )
-                      : null,
-                  background: Stack(
-                    fit: StackFit.expand,
-                    children: [
-                      Image.asset(
-                        'assets/images/ban.png',
-                        fit: BoxFit.cover,
+            flexibleSpace: FlexibleSpaceBar(
+              title: ValueListenableBuilder<bool>(
+                valueListenable: _collapsed,
+                builder: (context, collapsed, _) => collapsed
+                    ? Text(
+                  '',
+                  style: TextStyle(
+                    color: Color(0xFF1A2C50),
+                    fontWeight: FontWeight.w600,
+                    fontFamily: 'Poppins',
+                    shadows: [
+                      Shadow(
+                        color: Colors.white.withOpacity(0.8),
+                        blurRadius: 10,
                       ),
-                      Container(
-                        decoration: BoxDecoration(
-                          gradient: LinearGradient(
-                            begin: Alignment.bottomCenter,
-                            end: Alignment.topCenter,
-                            colors: [
-                              Color(0xFF1A2C50).withOpacity(0.4),
-                              Colors.transparent,
-                            ],
-                          ),
-                        ),
+                    ],
+                  ),
+                )
+                    : const SizedBox.shrink(),
+              ),
+              background: Stack(
+                fit: StackFit.expand,
+                children: [
+                  // Sized for the expanded bar so collapsing does not re-decode it
+                  SizedAssetImage(
+                    _bannerImage,
+                    width: MediaQuery.of(context).size.width,
+                    height: appBarHeight,
+                  ),
+                  Container(
+                    decoration: BoxDecoration(
+                      gradient: LinearGradient(
+                        begin: Alignment.bottomCenter,
+                        end: Alignment.topCenter,
+                        colors: [
+                          Color(0xFF1A2C50).withOpacity(0.4),
+                          Colors.transparent,
+                        ],
                       ),
-                      if (!showTitle)
-                        Align(
-                          alignment: Alignment.bottomLeft,
-                          child: Padding(
-                            padding: const EdgeInsets.fromLTRB(20, 0, 20, 30),
-                            child: Row(
-                              crossAxisAlignment: CrossAxisAlignment.center,
+                    ),
+                  ),
+                  ValueListenableBuilder<bool>(
+                    valueListenable: _collapsed,
+                    builder: (context, collapsed, greetingRow) =>
+                        collapsed ? const SizedBox.shrink() : greetingRow!,
+                    child: Align(
+                      alignment: Alignment.bottomLeft,
+                      child: Padding(
+                        padding: const EdgeInsets.fromLTRB(20, 0, 20, 30),
+                        child: Row(
+                          crossAxisAlignment: CrossAxisAlignment.center,
+                          children: [
+                            CircleAvatar(
+                              radius: _avatarRadius,
+                              backgroundImage: avatar,
+                              backgroundColor: Colors.white,
+                              child: avatar == null
+                                  ? Icon(Icons.person, size: 30, color: Color(0xFF1A2C50))
+                                  : null,
+                            ),
+                            const SizedBox(width: 16),
+                            Column(
+                              crossAxisAlignment: CrossAxisAlignment.start,
+                              mainAxisSize: MainAxisSize.min,
                               children: [
-                                CircleAvatar(
-                                  radius: 34,
-                                  backgroundImage: widget.profileImage != null
-                                      ? FileImage(widget.profileImage!)
-                                      : (widget.photoUrl != null
-                                      ? NetworkImage(widget.photoUrl!)
-                                      : null) as ImageProvider?,
-                                  backgroundColor: Colors.white,
-                                  child: (widget.profileImage == null && widget.photoUrl == null)
-                                      ? Icon(Icons.person, size: 30, color: Color(0xFF1A2C50))
-                                      : null,
+                                Text(
+                                  greeting,
+                                  style: TextStyle(
+                                    color: Colors.white,
+                                    fontSize: 18,
+                                    fontWeight: FontWeight.w500,
+                                    fontFamily: 'Poppins',
+                                  ),
                                 ),
-                                const SizedBox(width: 16),
-                                Column(
-                                  crossAxisAlignment: CrossAxisAlignment.start,
-                                  mainAxisSize: MainAxisSize.min,
-                                  children: [
-                                    Text(
-                                      greeting,
-                                      style: TextStyle(
-                                        color: Colors.white,
-                                        fontSize: 18,
-                                        fontWeight: FontWeight.w500,
-                                        fontFamily: 'Poppins',
-                                      ),
-                                    ),
-                                    Text(
-                                      widget.userName,
-                                      style: TextStyle(
-                                        color: Colors.white,
-                                        fontSize: 24,
-                                        fontWeight: FontWeight.bold,
-                                        fontFamily: 'Poppins',
-                                      ),
-                                    ),
-                                  ],
+                                Text(
+                                  widget.userName,
+                                  style: TextStyle(
+                                    color: Colors.white,
+                                    fontSize: 24,
+                                    fontWeight: FontWeight.bold,
+                                    fontFamily: 'Poppins',
+                                  ),
                                 ),
                               ],
                             ),
-                          ),
+                          ],
                         ),
-                    ],
+                      ),
+                    ),
                   ),
-                );
-              },
-            ),
-          ),
-          SliverPadding(
-            padding: const EdgeInsets.symmetric(horizontal: 16.0),
-            sliver: SliverToBoxAdapter(
-              child: Column(
-                crossAxisAlignment: CrossAxisAlignment.stretch,
-                children: [
-                  const SizedBox(height: 20),
-                  _buildUnifiedGrid(),
-                  const SizedBox(height: 40),
                 ],
               ),
             ),
           ),
+          ..._gridSlivers,
         ],
       ),
     );
   }
 
-  Widget _buildUnifiedGrid() {
-    // Group the items to build sections
-    List<Widget> sections = [];
-    String? currentHeader;
-    List<Map<String, dynamic>> currentItems = [];
-
-    for (var i = 0; i < _allItems.length; i++) {
-      var item = _allItems[i];
-
+  /// The home sections as slivers, so cards are built as they scroll in.
+  List<Widget> _buildGridSlivers() {
+    // Group the items into sections
+    final List<MapEntry<String, List<Map<String, dynamic>>>> sections = [];
+    for (final item in _allItems) {
       if (item['type'] == 'header') {
-        // If we have accumulated items, add them to sections
-        if (currentHeader != null && currentItems.isNotEmpty) {
-          sections.add(_buildSectionTitle(currentHeader));
-          sections.add(const SizedBox(height: 16));
-          sections.add(_buildGridItems(currentItems));
-          sections.add(const SizedBox(height: 30));
-
-          // Reset for next section
-          currentItems = [];
-        }
-        currentHeader = item['title'];
-      } else {
-        currentItems.add(item);
+        sections.add(MapEntry(item['title'], []));
+      } else if (sections.isNotEmpty) {
+        sections.last.value.add(item);
       }
     }
+    sections.removeWhere((section) => section.value.isEmpty);
 
-    // Add any remaining items
-    if (currentHeader != null && currentItems.isNotEmpty) {
-      sections.add(_buildSectionTitle(currentHeader));
-      sections.add(const SizedBox(height: 16));
-      sections.add(_buildGridItems(currentItems));
+    final List<Widget> slivers = [
+      const SliverToBoxAdapter(child: SizedBox(height: 20)),
+    ];
+    for (var i = 0; i < sections.length; i++) {
+      slivers.add(SliverPadding(
+        padding: EdgeInsets.fromLTRB(
+            _gridPadding, 0, _gridPadding, i < sections.length - 1 ? 30 : 40),
+        sliver: SliverMainAxisGroup(
+          slivers: [
+            SliverToBoxAdapter(
+              child: Padding(
+                padding: const EdgeInsets.only(bottom: 16),
+                child: _buildSectionTitle(sections[i].key),
+              ),
+            ),
+            _buildGridItems(sections[i].value),
+          ],
+        ),
+      ));
     }
-
-    return Column(children: sections);
+    return slivers;
   }
 
   Widget _buildGridItems(List<Map<String, dynamic>> items) {
-    return GridView.builder(
-      shrinkWrap: true,
-      physics: const NeverScrollableScrollPhysics(),
+    return SliverGrid(
       gridDelegate: const SliverGridDelegateWithFixedCrossAxisCount(
         crossAxisCount: 2,
         mainAxisSpacing: 16.0,
-        crossAxisSpacing: 16.0,
-        childAspectRatio: 0.9,
+        crossAxisSpacing: _gridSpacing,
+        childAspectRatio: _tileAspectRatio,
+      ),
+      delegate: SliverChildBuilderDelegate(
+        (context, index) {
+          final item = items[index];
+          if (item['type'] == 'breathing') {
+            return _BreathingCard(item: item['item']);
+          } else if (item['type'] == 'wisdom') {
+            return _WisdomCard(item: item['item']);
+          }
+          return Container(); // Fallback
+        },
+        childCount: items.length,
       ),
-      itemCount: items.length,
-      itemBuilder: (context, index) {
-        final item = items[index];
-        if (item['type'] == 'breathing') {
-          return _BreathingCard(item: item['item']);
-        } else if (item['type'] == 'wisdom') {
-          return _WisdomCard(item: item['item']);
-        }
-        return Container(); // Fallback
-      },
     );
   }
 
@@ -660,9 +734,8 @@ class _WisdomCard extends StatelessWidget {
           children: [
             // Background image
             Positioned.fill(
-              child: Image.asset(
+              child: SizedAssetImage(
                 item.imagePath,
-                fit: BoxFit.cover,
                 errorBuilder: (context, error, stackTrace) {
                   // Fallback if image is missing
                   return Container(
@@ -727,9 +800,10 @@ class _BreathingItem {
   final String title;
   final List<String> imagePaths;
   final List<Color> gradientColors;
-  final Widget destinationPage;
+  /// Technique opened on tap; the page is only built then.
+  final String techniqueId;
 
-  _BreathingItem(this.title, this.imagePaths, this.gradientColors, this.destinationPage);
+  _BreathingItem(this.title, this.imagePaths, this.gradientColors, this.techniqueId);
 }
 
 class _BreathingCard extends StatelessWidget {
@@ -744,7 +818,8 @@ class _BreathingCard extends StatelessWidget {
       onTap: () {
         Navigator.push(
           context,
-          MaterialPageRoute(builder: (context) => item.destinationPage),
+          MaterialPageRoute(
+              builder: (context) => TechniquePage(techniqueId: item.techniqueId)),
         );
       },
       child: Container(
@@ -764,10 +839,7 @@ class _BreathingCard extends StatelessWidget {
             children: [
               // Background image with scale effect
               Positioned.fill(
-                child: Image.asset(
-                  item.imagePaths[0],
-                  fit: BoxFit.cover,
-                ),
+                child: SizedAssetImage(item.imagePaths[0]),
               ),
 
               // Gradient overlay
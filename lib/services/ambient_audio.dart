@@ -0,0 +1,323 @@
+import 'dart:async';
+import 'dart:io';
+
+import 'package:flutter/foundation.dart';
+import 'package:flutter/services.dart';
+import 'package:just_audio/just_audio.dart' as just_audio;
+
+/// What [AmbientAudio] plays through: the native engine on Android, a
+/// just_audio player per track elsewhere, a fake in tests.
+///
+/// Sources are decoded assets; voices are playbacks of a source. Ids are
+/// handed out by the backend.
+abstract class AmbientBackend {
+  Future<int> open(String asset, Duration crossfade);
+  Future<void> close(int source);
+  Future<int> createVoice(int source);
+  Future<void> play(int voice, double volume, Duration fade);
+  Future<void> pause(int voice, Duration fade);
+  Future<void> stop(int voice, Duration fade);
+  Future<void> setVolume(int voice, double volume, Duration fade);
+  Future<void> disposeVoice(int voice);
+}
+
+/// The Android engine (see AmbientAudioEngine.java): sample-accurate loops
+/// with the crossfade mixed into the seam, long tracks streamed.
+class NativeAmbientBackend implements AmbientBackend {
+  static const MethodChannel _channel = MethodChannel('meditation_app/ambient_audio');
+
+  @override
+  Future<int> open(String asset, Duration crossfade) async {
+    final id = await _channel.invokeMethod<int>('open', {
+      'asset': asset,
+      'crossfadeMs': crossfade.inMilliseconds,
+    });
+    if (id == null) throw StateError('No source id for $asset');
+    return id;
+  }
+
+  @override
+  Future<void> close(int source) =>
+      _channel.invokeMethod('close', {'source': source});
+
+  @override
+  Future<int> createVoice(int source) async {
+    final id = await _channel.invokeMethod<int>('createVoice', {'source': source});
+    if (id == null) throw StateError('No voice id for source $source');
+    return id;
+  }
+
+  @override
+  Future<void> play(int voice, double volume, Duration fade) =>
+      _channel.invokeMethod('play', {
+        'voice': voice,
+        'volume': volume,
+        'fadeMs': fade.inMilliseconds,
+      });
+
+  @override
+  Future<void> pause(int voice, Duration fade) =>
+      _channel.invokeMethod('pause', {'voice': voice, 'fadeMs': fade.inMilliseconds});
+
+  @override
+  Future<void> stop(int voice, Duration fade) =>
+      _channel.invokeMethod('stop', {'voice': voice, 'fadeMs': fade.inMilliseconds});
+
+  @override
+  Future<void> setVolume(int voice, double volume, Duration fade) =>
+      _channel.invokeMethod('setVolume', {
+        'voice': voice,
+        'volume': volume,
+        'fadeMs': fade.inMilliseconds,
+      });
+
+  @override
+  Future<void> disposeVoice(int voice) =>
+      _channel.invokeMethod('disposeVoice', {'voice': voice});
+}
+
+/// just_audio players looping with [just_audio.LoopMode.one], for platforms
+/// without the native engine. Loops are gapless where the platform player
+/// is, but the seam is not crossfaded, and fades are stepped volume changes.
+class JustAudioAmbientBackend implements AmbientBackend {
+  static const int _fadeSteps = 12;
+
+  final Map<int, String> _sources = {};
+  final Map<int, just_audio.AudioPlayer> _players = {};
+  final Map<int, int> _fades = {};
+  int _nextId = 1;
+
+  @override
+  Future<int> open(String asset, Duration crossfade) async {
+    final id = _nextId++;
+    _sources[id] = asset;
+    return id;
+  }
+
+  @override
+  Future<void> close(int source) async {
+    _sources.remove(source);
+  }
+
+  @override
+  Future<int> createVoice(int source) async {
+    final asset = _sources[source];
+    if (asset == null) throw StateError('Unknown source $source');
+    final player = just_audio.AudioPlayer();
+    try {
+      await player.setAsset(asset);
+      await player.setLoopMode(just_audio.LoopMode.one);
+    } catch (_) {
+      await player.dispose();
+      rethrow;
+    }
+    final id = _nextId++;
+    _players[id] = player;
+    return id;
+  }
+
+  @override
+  Future<void> play(int voice, double volume, Duration fade) async {
+    final player = _players[voice];
+    if (player == null) return;
+    if (!player.playing) {
+      await player.setVolume(fade == Duration.zero ? volume : 0);
+      player.play();
+    }
+    await _fade(voice, player, volume, fade);
+  }
+
+  @override
+  Future<void> pause(int voice, Duration fade) async {
+    final player = _players[voice];
+    if (player == null) return;
+    if (await _fade(voice, player, 0, fade)) await player.pause();
+  }
+
+  @override
+  Future<void> stop(int voice, Duration fade) async {
+    final player = _players[voice];
+    if (player == null) return;
+    if (await _fade(voice, player, 0, fade)) {
+      await player.pause();
+      await player.seek(Duration.zero);
+    }
+  }
+
+  @override
+  Future<void> setVolume(int voice, double volume, Duration fade) async {
+    final player = _players[voice];
+    if (player == null) return;
+    await _fade(voice, player, volume, fade);
+  }
+
+  @override
+  Future<void> disposeVoice(int voice) async {
+    _fades.remove(voice);
+    await _players.remove(voice)?.dispose();
+  }
+
+  /// Steps [player]'s volume to [target]. Returns false if a later fade on
+  /// the same voice took over.
+  Future<bool> _fade(
+      int voice, just_audio.AudioPlayer player, double target, Duration fade) async {
+    final generation = (_fades[voice] ?? 0) + 1;
+    _fades[voice] = generation;
+    final from = player.volume;
+    for (var i = 1; i <= _fadeSteps && fade > Duration.zero; i++) {
+      await Future.delayed(fade ~/ _fadeSteps);
+      if (_fades[voice] != generation) return false;
+      await player.setVolume(from + (target - from) * i / _fadeSteps);
+    }
+    if (_fades[voice] != generation) return false;
+    await player.setVolume(target);
+    return true;
+  }
+}
+
+/// Shared, gapless ambient loops: the music screen, the session background
+/// sounds and the Bhramari hum.
+///
+/// [acquire] hands out an [AmbientTrack] to play. Tracks of the same asset
+/// and crossfade share one decoded source, which is reference counted and
+/// freed when the last track using it is released, so moving between screens
+/// reuses what is already decoded instead of opening the file again. Every
+/// track must be released.
+///
+/// On Android the tracks are mixed by AmbientAudioEngine.java, which decodes
+/// short tracks once, streams long ones, and joins each loop on the sample
+/// with its end crossfaded into its start over [AmbientAudio.acquire]'s
+/// `crossfade`.
+class AmbientAudio {
+  AmbientAudio({AmbientBackend? backend}) : _backendOverride = backend;
+
+  static final AmbientAudio instance = AmbientAudio();
+
+  /// Loop seam crossfade used unless a caller asks for another.
+  static const Duration defaultCrossfade = Duration(seconds: 2);
+
+  /// Fade used by [AmbientTrack.play], [AmbientTrack.pause] and
+  /// [AmbientTrack.stop] unless a caller asks for another.
+  static const Duration defaultFade = Duration(milliseconds: 300);
+
+  final AmbientBackend? _backendOverride;
+  AmbientBackend? _defaultBackend;
+  final Map<String, _SharedSource> _sources = {};
+
+  AmbientBackend get _backend =>
+      _backendOverride ??
+      (_defaultBackend ??= !kIsWeb && Platform.isAndroid
+          ? NativeAmbientBackend()
+          : JustAudioAmbientBackend());
+
+  /// The bundle key for [asset]. Sounds named the audioplayers way, relative
+  /// to `assets/` (as the technique catalog does), are accepted too.
+  static String assetKey(String asset) =>
+      asset.startsWith('assets/') ? asset : 'assets/$asset';
+
+  /// Sources currently open, by asset and crossfade.
+  @visibleForTesting
+  Map<String, int> get sourceRefs =>
+      {for (final source in _sources.values) source.key: source.refs};
+
+  /// A new track of [asset], stopped. Throws if the asset cannot be opened.
+  Future<AmbientTrack> acquire(String asset,
+      {Duration crossfade = defaultCrossfade}) async {
+    final path = assetKey(asset);
+    final key = '$path#${crossfade.inMilliseconds}';
+    final source = _sources.putIfAbsent(
+        key, () => _SharedSource(key, _backend.open(path, crossfade)));
+    source.refs++;
+    try {
+      final voice = await _backend.createVoice(await source.id);
+      return AmbientTrack._(this, source, path, voice);
+    } catch (e) {
+      _releaseSource(source);
+      rethrow;
+    }
+  }
+
+  void _releaseSource(_SharedSource source) {
+    if (--source.refs > 0) return;
+    if (identical(_sources[source.key], source)) _sources.remove(source.key);
+    source.id.then(_backend.close).catchError((Object e) {
+      // A source that never opened has nothing to close.
+    });
+  }
+}
+
+class _SharedSource {
+  _SharedSource(this.key, this.id);
+
+  final String key;
+  final Future<int> id;
+  int refs = 0;
+}
+
+/// One playback of an ambient loop; see [AmbientAudio.acquire].
+///
+/// Calls after [release] do nothing.
+class AmbientTrack {
+  AmbientTrack._(this._audio, this._source, this.asset, this._voice);
+
+  final AmbientAudio _audio;
+  final _SharedSource _source;
+  final int _voice;
+
+  /// The asset's bundle key.
+  final String asset;
+
+  bool _playing = false;
+  bool _released = false;
+
+  bool get isPlaying => _playing;
+
+  AmbientBackend get _backend => _audio._backend;
+
+  /// Plays, or resumes after [pause], fading in over [fade].
+  Future<void> play(
+      {double volume = 1.0, Duration fade = AmbientAudio.defaultFade}) async {
+    if (_released) return;
+    _playing = true;
+    await _backend.play(_voice, volume, fade);
+  }
+
+  /// Fades out over [fade] and holds the position for the next [play].
+  Future<void> pause({Duration fade = AmbientAudio.defaultFade}) async {
+    if (_released) return;
+    _playing = false;
+    await _backend.pause(_voice, fade);
+  }
+
+  /// Fades out over [fade]; the next [play] starts from the beginning.
+  Future<void> stop({Duration fade = AmbientAudio.defaultFade}) async {
+    if (_released) return;
+    _playing = false;
+    await _backend.stop(_voice, fade);
+  }
+
+  Future<void> setVolume(double volume,
+      {Duration fade = AmbientAudio.defaultFade}) async {
+    if (_released) return;
+    await _backend.setVolume(_voice, volume, fade);
+  }
+
+  /// Lets go of the track, fading out over [fadeOut] first if it is playing.
+  /// The source is closed once no other track uses it.
+  Future<void> release({Duration fadeOut = Duration.zero}) async {
+    if (_released) return;
+    _released = true;
+    final fading = _playing && fadeOut > Duration.zero;
+    _playing = false;
+    try {
+      if (fading) {
+        await _backend.stop(_voice, fadeOut);
+        await Future.delayed(fadeOut);
+      }
+      await _backend.disposeVoice(_voice);
+    } catch (e) {
+      debugPrint('Error releasing ambient track: $e');
+    }
+    _audio._releaseSource(_source);
+  }
+}
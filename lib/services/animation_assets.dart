@@ -0,0 +1,178 @@
+import 'dart:async';
+import 'dart:collection';
+import 'dart:ui' as ui;
+
+import 'package:flutter/foundation.dart';
+import 'package:flutter/services.dart';
+import 'package:lottie/lottie.dart';
+
+/// Every frame of a GIF, decoded at one size.
+///
+/// Held through [AnimationAssets.acquireGif] and given back with
+/// [AnimationAssets.releaseGif]; the images belong to the cache.
+class GifFrames {
+  GifFrames._(this.key, this.images, this.durations)
+      : bytes = images.fold(0, (sum, image) => sum + image.width * image.height * 4),
+        totalDuration = durations.fold(Duration.zero, (sum, d) => sum + d);
+
+  final String key;
+  final List<ui.Image> images;
+  final List<Duration> durations;
+
+  /// Decoded size in memory.
+  final int bytes;
+  final Duration totalDuration;
+
+  /// The frame showing [elapsed] into a loop of the animation.
+  int frameAt(Duration elapsed) {
+    if (images.length == 1 || totalDuration <= Duration.zero) return 0;
+    var t = elapsed.inMicroseconds % totalDuration.inMicroseconds;
+    for (var i = 0; i < durations.length; i++) {
+      t -= durations[i].inMicroseconds;
+      if (t < 0) return i;
+    }
+    return durations.length - 1;
+  }
+
+  void _dispose() {
+    for (final image in images) {
+      image.dispose();
+    }
+  }
+}
+
+class _GifEntry {
+  final Future<GifFrames> frames;
+  GifFrames? loaded;
+  int users = 0;
+
+  _GifEntry(this.frames);
+}
+
+/// Decorative animations, decoded once and shared by every widget that
+/// shows them.
+///
+///  * Lottie files are parsed with [compute], off the UI isolate, and the
+///    composition is kept for the life of the app; they are small and the
+///    parse is what costs.
+///  * GIFs are decoded whole, every frame at the size they are drawn at, by
+///    the engine's codec. Entries are reference counted like
+///    ambient tracks; ones nobody shows are kept until the decoded
+///    frames of the cache pass [maxGifBytes], least recently used first.
+///
+/// See `CachedLottie` and `CachedGif`, which also stop ticking while off
+/// screen.
+class AnimationAssets {
+  AnimationAssets({AssetBundle? bundle, this.maxGifBytes = 32 << 20})
+      : _bundle = bundle;
+
+  static final AnimationAssets instance = AnimationAssets();
+
+  final AssetBundle? _bundle;
+
+  /// Budget for GIF frames nobody is showing.
+  final int maxGifBytes;
+
+  final Map<String, Future<LottieComposition>> _compositions = {};
+  // Insertion order is use order: an entry is moved to the end when acquired.
+  final LinkedHashMap<String, _GifEntry> _gifs = LinkedHashMap();
+
+  AssetBundle get _assets => _bundle ?? rootBundle;
+
+  /// The parsed composition of the Lottie file at [asset].
+  Future<LottieComposition> lottie(String asset) {
+    return _compositions[asset] ??= _parseLottie(asset).catchError((Object e) {
+      _compositions.remove(asset);
+      throw e;
+    });
+  }
+
+  Future<LottieComposition> _parseLottie(String asset) async {
+    final data = await _assets.load(asset);
+    return compute(parseLottieBytes, data.buffer.asUint8List(data.offsetInBytes, data.lengthInBytes),
+        debugLabel: 'Lottie $asset');
+  }
+
+  @visibleForTesting
+  static Future<LottieComposition> parseLottieBytes(Uint8List bytes) async {
+    return await LottieComposition.fromBytes(bytes);
+  }
+
+  /// The frames of the GIF at [asset], decoded [width] by [height] physical
+  /// pixels; give one of them to keep the aspect ratio.
+  Future<GifFrames> acquireGif(String asset, {int? width, int? height}) async {
+    final key = '$asset@${width ?? 0}x${height ?? 0}';
+    final entry = _gifs.remove(key) ?? _GifEntry(_decodeGif(key, asset, width, height));
+    _gifs[key] = entry;
+    entry.users++;
+    try {
+      final frames = await entry.frames;
+      entry.loaded = frames;
+      _trim();
+      return frames;
+    } catch (e) {
+      entry.users--;
+      if (identical(_gifs[key], entry)) _gifs.remove(key);
+      rethrow;
+    }
+  }
+
+  /// Gives back frames from [acquireGif]. They stay cached until evicted.
+  void releaseGif(GifFrames frames) {
+    final entry = _gifs[frames.key];
+    if (entry == null || entry.users == 0) return;
+    entry.users--;
+    _trim();
+  }
+
+  /// Drops every GIF nobody is showing, e.g. on memory pressure.
+  void evictUnusedGifs() => _trim(0);
+
+  @visibleForTesting
+  int get cachedGifBytes =>
+      _gifs.values.fold(0, (sum, entry) => sum + (entry.loaded?.bytes ?? 0));
+
+  @visibleForTesting
+  bool isGifCached(String asset, {int? width, int? height}) =>
+      _gifs.containsKey('$asset@${width ?? 0}x${height ?? 0}');
+
+  void _trim([int? budget]) {
+    final limit = budget ?? maxGifBytes;
+    var total = cachedGifBytes;
+    if (total <= limit) return;
+    for (final key in _gifs.keys.toList()) {
+      final entry = _gifs[key]!;
+      final loaded = entry.loaded;
+      if (entry.users > 0 || loaded == null) continue;
+      _gifs.remove(key);
+      loaded._dispose();
+      total -= loaded.bytes;
+      if (total <= limit) return;
+    }
+  }
+
+  Future<GifFrames> _decodeGif(String key, String asset, int? width, int? height) async {
+    final data = await _assets.load(asset);
+    final buffer = await ui.ImmutableBuffer.fromUint8List(
+        data.buffer.asUint8List(data.offsetInBytes, data.lengthInBytes));
+    final codec = await ui.instantiateImageCodecFromBuffer(buffer,
+        targetWidth: width, targetHeight: height);
+    final images = <ui.Image>[];
+    final durations = <Duration>[];
+    try {
+      for (var i = 0; i < codec.frameCount; i++) {
+        final frame = await codec.getNextFrame();
+        images.add(frame.image);
+        durations.add(frame.duration);
+      }
+    } catch (e) {
+      for (final image in images) {
+        image.dispose();
+      }
+      rethrow;
+    } finally {
+      codec.dispose();
+    }
+    return GifFrames._(key, images, durations);
+  }
+}
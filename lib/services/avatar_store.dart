@@ -0,0 +1,244 @@
+import 'dart:async';
+import 'dart:convert';
+import 'dart:io';
+import 'dart:math';
+import 'dart:ui' as ui;
+
+import 'package:flutter/foundation.dart';
+import 'package:flutter/painting.dart';
+import 'package:path_provider/path_provider.dart';
+
+/// Downloads the bytes at a URL.
+typedef AvatarFetcher = Future<Uint8List> Function(Uri url);
+
+/// Re-encodes an image as a square thumbnail at most [pixels] on a side.
+typedef AvatarResizer = Future<Uint8List> Function(Uint8List encoded, int pixels);
+
+/// Small square profile pictures, kept on disk in app documents.
+///
+/// A picked photo is cropped to its centre square and re-encoded once at
+/// [pickedPixels]; the original, often a 12-megapixel camera file, is never
+/// decoded at full size. Remote photos are fetched once per size bucket
+/// ([buckets]) and stored the same way, so the home header decodes at most
+/// a few hundred pixels whatever the source.
+///
+/// Decoding and encoding go through the engine's image codecs
+/// ([ui.ImageDescriptor] and [ui.Image.toByteData]), which run on engine
+/// worker threads; the UI isolate only waits for them. The decoded images are
+/// cached in memory by [ImageCache] under [AvatarImage] keys, which include
+/// the size.
+class AvatarStore {
+  AvatarStore({
+    Future<Directory> Function()? directory,
+    AvatarFetcher? fetch,
+    AvatarResizer? resize,
+  })  : _directory = directory ?? getApplicationDocumentsDirectory,
+        _fetch = fetch ?? _httpFetch,
+        _resize = resize ?? squareThumbnail;
+
+  static final AvatarStore instance = AvatarStore();
+
+  static const String folder = 'avatars';
+
+  /// Edge of a picked photo's thumbnail; covers the largest avatar at 3x.
+  static const int pickedPixels = 256;
+
+  /// Edges remote photos are stored at.
+  static const List<int> buckets = [64, 128, 256];
+
+  final Future<Directory> Function() _directory;
+  final AvatarFetcher _fetch;
+  final AvatarResizer _resize;
+
+  Directory? _dir;
+  final Map<String, Future<Uint8List>> _inflight = {};
+
+  /// The smallest bucket covering [pixels], or the largest one.
+  static int bucketFor(double pixels) {
+    for (final bucket in buckets) {
+      if (bucket >= pixels) return bucket;
+    }
+    return buckets.last;
+  }
+
+  /// 64-bit FNV-1a of [value], in hex, for file names.
+  static String _hash(String value) {
+    var hash = 0xcbf29ce484222325;
+    for (final byte in utf8.encode(value)) {
+      hash ^= byte;
+      hash *= 0x100000001b3;
+    }
+    return hash.toUnsigned(64).toRadixString(16).padLeft(16, '0');
+  }
+
+  Future<Directory> _folder() async {
+    final existing = _dir;
+    if (existing != null) return existing;
+    final dir = Directory('${(await _directory()).path}/$folder');
+    await dir.create(recursive: true);
+    return _dir = dir;
+  }
+
+  /// Makes [uid]'s thumbnail from the photo at [sourcePath] and drops any
+  /// older one. Each save gets a new file name, so an [ImageCache] entry for
+  /// the previous photo is never shown for the new one.
+  Future<File> savePicked(String uid, String sourcePath) async {
+    final thumbnail = await _resize(await File(sourcePath).readAsBytes(), pickedPixels);
+    final dir = await _folder();
+    final prefix = 'picked_${_hash(uid)}_';
+    final file = File('${dir.path}/$prefix${DateTime.now().microsecondsSinceEpoch}.png');
+    await file.writeAsBytes(thumbnail, flush: true);
+    await for (final entry in dir.list()) {
+      if (entry is File && entry.path != file.path && _name(entry).startsWith(prefix)) {
+        await entry.delete();
+      }
+    }
+    return file;
+  }
+
+  /// [uid]'s picked thumbnail, if there is one.
+  Future<File?> pickedFor(String uid) async {
+    final dir = await _folder();
+    final prefix = 'picked_${_hash(uid)}_';
+    File? newest;
+    await for (final entry in dir.list()) {
+      if (entry is File &&
+          _name(entry).startsWith(prefix) &&
+          (newest == null || _name(entry).compareTo(_name(newest)) > 0)) {
+        newest = entry;
+      }
+    }
+    return newest;
+  }
+
+  static String _name(File file) => file.uri.pathSegments.last;
+
+  /// The thumbnail of [url] at [bucket] pixels, fetched and stored the first
+  /// time it is asked for.
+  Future<Uint8List> remote(String url, int bucket) {
+    final key = '$url@$bucket';
+    return _inflight[key] ??= _loadRemote(url, bucket).whenComplete(() {
+      _inflight.remove(key);
+    });
+  }
+
+  Future<Uint8List> _loadRemote(String url, int bucket) async {
+    final dir = await _folder();
+    final file = File('${dir.path}/remote_${_hash(url)}_$bucket.png');
+    if (await file.exists()) {
+      return file.readAsBytes();
+    }
+    final thumbnail = await _resize(await _fetch(Uri.parse(url)), bucket);
+    try {
+      await file.writeAsBytes(thumbnail, flush: true);
+    } catch (e) {
+      debugPrint('Error caching avatar: $e');
+    }
+    return thumbnail;
+  }
+
+  /// The provider to draw an avatar [pixels] across with: the picked
+  /// thumbnail when there is one, else [url], else null.
+  ImageProvider? provider({File? picked, String? url, required double pixels}) {
+    if (picked != null) {
+      final edge = pixels.ceil();
+      return edge < pickedPixels
+          ? ResizeImage(FileImage(picked), width: edge, height: edge)
+          : FileImage(picked);
+    }
+    if (url != null && url.isNotEmpty) {
+      return AvatarImage(url, bucketFor(pixels), store: this);
+    }
+    return null;
+  }
+
+  static Future<Uint8List> _httpFetch(Uri url) async {
+    final client = HttpClient()..connectionTimeout = const Duration(seconds: 10);
+    try {
+      final request = await client.getUrl(url);
+      final response = await request.close();
+      if (response.statusCode != HttpStatus.ok) {
+        throw HttpException('Avatar fetch failed: ${response.statusCode}', uri: url);
+      }
+      return await consolidateHttpClientResponseBytes(response);
+    } finally {
+      client.close();
+    }
+  }
+
+  /// Decodes [encoded] straight to the size its centre square needs, crops
+  /// that square and encodes it as PNG. Never scales up.
+  static Future<Uint8List> squareThumbnail(Uint8List encoded, int pixels) async {
+    final buffer = await ui.ImmutableBuffer.fromUint8List(encoded);
+    final descriptor = await ui.ImageDescriptor.encoded(buffer);
+    final shortSide = min(descriptor.width, descriptor.height);
+    final scale = shortSide > pixels ? pixels / shortSide : 1.0;
+    final codec = await descriptor.instantiateCodec(
+      targetWidth: max(1, (descriptor.width * scale).round()),
+      targetHeight: max(1, (descriptor.height * scale).round()),
+    );
+    final image = (await codec.getNextFrame()).image;
+    final edge = min(image.width, image.height);
+    final recorder = ui.PictureRecorder();
+    ui.Canvas(recorder).drawImageRect(
+      image,
+      ui.Rect.fromLTWH((image.width - edge) / 2, (image.height - edge) / 2,
+          edge.toDouble(), edge.toDouble()),
+      ui.Rect.fromLTWH(0, 0, edge.toDouble(), edge.toDouble()),
+      ui.Paint(),
+    );
+    final picture = recorder.endRecording();
+    final square = await picture.toImage(edge, edge);
+    try {
+      final png = await square.toByteData(format: ui.ImageByteFormat.png);
+      if (png == null) throw StateError('Avatar could not be encoded');
+      return png.buffer.asUint8List(png.offsetInBytes, png.lengthInBytes);
+    } finally {
+      square.dispose();
+      picture.dispose();
+      image.dispose();
+      codec.dispose();
+      descriptor.dispose();
+      buffer.dispose();
+    }
+  }
+}
+
+/// A remote avatar decoded at [pixels] on a side, read from [AvatarStore].
+///
+/// Two instances are equal when the URL and size are, so each size of a
+/// photo has its own [ImageCache] entry and none is decoded larger than it
+/// is drawn.
+class AvatarImage extends ImageProvider<AvatarImage> {
+  const AvatarImage(this.url, this.pixels, {required this.store});
+
+  final String url;
+  final int pixels;
+  final AvatarStore store;
+
+  @override
+  Future<AvatarImage> obtainKey(ImageConfiguration configuration) =>
+      SynchronousFuture<AvatarImage>(this);
+
+  @override
+  ImageStreamCompleter loadImage(AvatarImage key, ImageDecoderCallback decode) {
+    return OneFrameImageStreamCompleter(_load(decode),
+        informationCollector: () => [DiagnosticsProperty<String>('URL', url)]);
+  }
+
+  Future<ImageInfo> _load(ImageDecoderCallback decode) async {
+    final bytes = await store.remote(url, pixels);
+    final codec = await decode(await ui.ImmutableBuffer.fromUint8List(bytes));
+    return ImageInfo(image: (await codec.getNextFrame()).image);
+  }
+
+  @override
+  bool operator ==(Object other) =>
+      other is AvatarImage && other.url == url && other.pixels == pixels;
+
+  @override
+  int get hashCode => Object.hash(url, pixels);
+
+  @override
+  String toString() => 'AvatarImage("$url", $pixels)';
+}
@@ -0,0 +1,131 @@
+import 'dart:io';
+
+import 'package:flutter/foundation.dart';
+import 'package:flutter/services.dart';
+
+import 'breath_cue_engine.dart';
+import 'breath_session_scheduler.dart';
+
+/// State of the native session, as reported by [BackgroundSession.status].
+class BackgroundSessionStatus {
+  final bool active;
+  final bool paused;
+  final bool complete;
+  final Duration elapsed;
+  final int? round;
+  final String? label;
+
+  const BackgroundSessionStatus({
+    this.active = false,
+    this.paused = false,
+    this.complete = false,
+    this.elapsed = Duration.zero,
+    this.round,
+    this.label,
+  });
+
+  factory BackgroundSessionStatus.fromMap(Map<dynamic, dynamic> map) {
+    return BackgroundSessionStatus(
+      active: map['active'] as bool? ?? false,
+      paused: map['paused'] as bool? ?? false,
+      complete: map['complete'] as bool? ?? false,
+      elapsed: Duration(milliseconds: (map['elapsedMillis'] as num?)?.toInt() ?? 0),
+      round: (map['round'] as num?)?.toInt(),
+      label: map['label'] as String?,
+    );
+  }
+}
+
+/// Dart front end for the Android foreground-service session runner.
+///
+/// Once started, the native side plays every cue and haptic of the session on
+/// its own clock, whether or not the Flutter UI is attached; a backgrounded or
+/// screen-off session keeps exact timing without rendering frames. Screens
+/// keep their [BreathSessionScheduler] for visuals and call [status] when they
+/// come back to the foreground to catch up.
+///
+/// Only available on Android; elsewhere [start] returns false and screens
+/// keep scheduling cues themselves.
+class BackgroundSession {
+  BackgroundSession._();
+
+  static final BackgroundSession instance = BackgroundSession._();
+
+  static const MethodChannel _channel = MethodChannel('meditation_app/breath_session');
+  static const EventChannel _events = EventChannel('meditation_app/breath_session/events');
+
+  Stream<BackgroundSessionStatus>? _updates;
+
+  bool get isSupported => !kIsWeb && Platform.isAndroid;
+
+  /// Phase changes while the UI is attached.
+  Stream<BackgroundSessionStatus> get updates {
+    return _updates ??= _events
+        .receiveBroadcastStream()
+        .map((event) => BackgroundSessionStatus.fromMap(event as Map))
+        .asBroadcastStream();
+  }
+
+  /// Starts the native session for [scheduler] from its current position.
+  ///
+  /// [cues] gives the sound for each phase; phases without one are silent.
+  Future<bool> start(
+    BreathSessionScheduler scheduler, {
+    required Map<BreathPhase, BreathCue> cues,
+    required String title,
+    bool haptics = true,
+  }) async {
+    if (!isSupported) return false;
+    final phases = BreathPhase.values;
+    try {
+      return await _channel.invokeMethod<bool>('start', {
+            'phaseMillis': [
+              for (final duration in scheduler.phaseDurations) duration.inMilliseconds
+            ],
+            'cues': [for (final phase in phases) (cues[phase] ?? BreathCue.silence).name],
+            'labels': [for (final phase in phases) BreathPhaseEvent.labelOf(phase)],
+            'rounds': scheduler.rounds,
+            'elapsedMillis': scheduler.elapsed.inMilliseconds,
+            'title': title,
+            'haptics': haptics,
+          }) ??
+          false;
+    } on PlatformException catch (e) {
+      debugPrint('Background session not started: $e');
+    } on MissingPluginException {
+      debugPrint('Background session not registered');
+    }
+    return false;
+  }
+
+  Future<void> pause() => _invoke('pause');
+
+  Future<void> resume() => _invoke('resume');
+
+  Future<void> stop() => _invoke('stop');
+
+  /// Where the native session is now, or null when there is none to ask.
+  Future<BackgroundSessionStatus?> status() async {
+    if (!isSupported) return null;
+    try {
+      final map = await _channel.invokeMethod<Map>('status');
+      return map == null ? null : BackgroundSessionStatus.fromMap(map);
+    } on PlatformException catch (e) {
+      debugPrint('Error reading background session: $e');
+    } on MissingPluginException {
+      // Not registered on this platform.
+    }
+    return null;
+  }
+
+  Future<void> _invoke(String method) async {
+    if (!isSupported) return;
+    try {
+      await _channel.invokeMethod(method);
+    } on PlatformException catch (e) {
+      debugPrint('Error calling background session $method: $e');
+    } on MissingPluginException {
+      // Not registered on this platform.
+    }
+  }
+}
@@ -0,0 +1,94 @@
+import 'dart:io';
+
+import 'package:flutter/foundation.dart';
+import 'package:flutter/services.dart';
+
+/// Cues understood by the native engine (see BreathCueEngine.java).
+enum BreathCue { inhale, exhale, hum, silence }
+
+/// Dart front end for the Android breath cue engine.
+///
+/// Bells are decoded once on the Java side and started on an exact audio
+/// frame. Callers schedule cues ahead of time with a [Duration] delay; the
+/// delay is converted to the engine's monotonic clock here so that the
+/// platform channel round-trip does not shift the cue.
+///
+/// On platforms without the native engine [isAvailable] stays false and
+/// screens keep using their audioplayers fallback.
+class BreathCueEngine {
+  BreathCueEngine._();
+
+  static final BreathCueEngine instance = BreathCueEngine._();
+
+  static const MethodChannel _channel = MethodChannel('meditation_app/breath_cues');
+
+  final Stopwatch _clock = Stopwatch()..start();
+  Future<bool>? _loading;
+  bool _available = false;
+
+  /// Native clock minus [_clock], in nanoseconds.
+  int _clockOffsetNanos = 0;
+
+  bool get isAvailable => _available;
+
+  /// Decodes the cue assets and syncs clocks. Safe to call repeatedly.
+  Future<bool> ensureLoaded() {
+    return _loading ??= _load();
+  }
+
+  Future<bool> _load() async {
+    if (kIsWeb || !Platform.isAndroid) return false;
+    try {
+      final loaded = await _channel.invokeMethod<bool>('load') ?? false;
+      if (loaded) {
+        await _syncClock();
+      }
+      _available = loaded;
+    } on PlatformException catch (e) {
+      debugPrint('Breath cue engine unavailable: $e');
+    } on MissingPluginException {
+      debugPrint('Breath cue engine not registered');
+    }
+    return _available;
+  }
+
+  Future<void> _syncClock() async {
+    final before = _localNanos();
+    final nativeNow = await _channel.invokeMethod<int>('now') ?? 0;
+    final after = _localNanos();
+    _clockOffsetNanos = nativeNow - (before + after) ~/ 2;
+  }
+
+  int _localNanos() => _clock.elapsedMicroseconds * 1000;
+
+  /// Current time on the engine's monotonic clock.
+  int get nowNanos => _localNanos() + _clockOffsetNanos;
+
+  /// Schedules [cue] to sound [delay] from now.
+  Future<void> scheduleCue(BreathCue cue, {Duration delay = Duration.zero}) {
+    return scheduleCueAt(cue, nowNanos + delay.inMicroseconds * 1000);
+  }
+
+  /// Schedules [cue] at an absolute instant on the engine clock.
+  Future<void> scheduleCueAt(BreathCue cue, int atMonotonicNanos) async {
+    if (!_available) return;
+    try {
+      await _channel.invokeMethod('scheduleCue', {
+        'phase': cue.name,
+        'atMonotonicNanos': atMonotonicNanos,
+      });
+    } on PlatformException catch (e) {
+      debugPrint('Error scheduling cue: $e');
+    }
+  }
+
+  Future<void> cancelAll() async {
+    if (!_available) return;
+    await _channel.invokeMethod('cancelAll');
+  }
+
+  Future<void> setVolume(double volume) async {
+    if (!_available) return;
+    await _channel.invokeMethod('setVolume', {'volume': volume});
+  }
+}
@@ -0,0 +1,208 @@
+import 'dart:async';
+import 'dart:io';
+
+import 'package:flutter/foundation.dart';
+import 'package:flutter/services.dart';
+
+import 'breath_session_scheduler.dart';
+
+enum BreathSound { breath, hum }
+
+/// A breath or hum starting or ending, as heard by [BreathDetection].
+class BreathSoundEvent {
+  final BreathSound sound;
+  final bool started;
+
+  /// How long before the event arrived the sound started or ended.
+  final Duration age;
+
+  /// Smoothed level at the time, in dBFS.
+  final double levelDb;
+
+  const BreathSoundEvent(this.sound, this.started, this.age, this.levelDb);
+
+  /// Decodes `[event, ageMicros, levelCentiDb]` from BreathMicAnalyzer.java,
+  /// using the event codes of its BreathDetector.
+  static BreathSoundEvent? fromList(List<dynamic> values) {
+    final code = (values[0] as num).toInt();
+    if (code < 1 || code > 4) return null;
+    return BreathSoundEvent(
+      code <= 2 ? BreathSound.breath : BreathSound.hum,
+      code.isOdd,
+      Duration(microseconds: (values[1] as num).toInt()),
+      (values[2] as num).toInt() / 100,
+    );
+  }
+
+  @override
+  String toString() => 'BreathSoundEvent($sound, ${started ? 'start' : 'end'}, -$age)';
+}
+
+/// Dart front end for the Android microphone analyser.
+///
+/// Listening is optional and only asked for when a screen turns it on; the
+/// first [start] shows the system microphone prompt. Analysis runs natively
+/// on a small fixed-size FFT per 16 ms hop and only sound starts and ends
+/// cross the channel. Elsewhere [start] returns false.
+class BreathDetection {
+  BreathDetection._();
+
+  static final BreathDetection instance = BreathDetection._();
+
+  static const MethodChannel _channel = MethodChannel('meditation_app/breath_detector');
+  static const EventChannel _events = EventChannel('meditation_app/breath_detector/events');
+
+  Stream<BreathSoundEvent>? _sounds;
+
+  bool get isSupported => !kIsWeb && Platform.isAndroid;
+
+  /// Sounds heard while listening.
+  Stream<BreathSoundEvent> get events {
+    return _sounds ??= _events
+        .receiveBroadcastStream()
+        .map((event) => BreathSoundEvent.fromList(event as List))
+        .where((event) => event != null)
+        .cast<BreathSoundEvent>()
+        .asBroadcastStream();
+  }
+
+  /// Starts listening; false if the microphone is refused or unavailable.
+  Future<bool> start() async {
+    if (!isSupported) return false;
+    try {
+      return await _channel.invokeMethod<bool>('start') ?? false;
+    } on PlatformException catch (e) {
+      debugPrint('Breath detection not started: $e');
+    } on MissingPluginException {
+      debugPrint('Breath detection not registered');
+    }
+    return false;
+  }
+
+  Future<void> stop() async {
+    if (!isSupported) return;
+    try {
+      await _channel.invokeMethod('stop');
+    } on PlatformException catch (e) {
+      debugPrint('Error stopping breath detection: $e');
+    } on MissingPluginException {
+      // Not registered on this platform.
+    }
+  }
+}
+
+class _HeardSound {
+  final BreathSound sound;
+  final Duration start;
+  Duration? end;
+
+  _HeardSound(this.sound, this.start);
+}
+
+/// Lines up heard sounds with a session's timeline, so a screen can confirm
+/// each phase and let the user set the pace.
+///
+/// Sounds are placed in session time, [BreathSessionScheduler.elapsed] less
+/// the event's age. The detector only tells breath from hum; whether a breath
+/// was an inhale or an exhale is read off the phase it fell in.
+///
+/// [holdBefore] is called before every [BreathSessionScheduler.poll]. When
+/// the next boundary is due while the user is still making the sound of the
+/// phase it ends, the session is paused just short of it until the sound
+/// stops, for up to [maxHold], so a long exhale isn't cut off by the next
+/// inhale.
+class BreathFollower {
+  BreathFollower(
+    this.scheduler, {
+    this.maxHold = const Duration(seconds: 4),
+    this.minShare = 0.25,
+  });
+
+  final BreathSessionScheduler scheduler;
+
+  /// Longest a boundary waits for the user.
+  final Duration maxHold;
+
+  /// Share of a phase a sound has to fill for [heardIn] to count it.
+  final double minShare;
+
+  /// Sounds older than this are forgotten.
+  static const Duration _retention = Duration(minutes: 1);
+
+  final List<_HeardSound> _sounds = [];
+  Duration? _holdStartedAt;
+
+  bool get isHolding => _holdStartedAt != null;
+
+  void add(BreathSoundEvent event) {
+    final now = scheduler.elapsed;
+    var at = now - event.age;
+    if (at < Duration.zero) at = Duration.zero;
+    if (event.started) {
+      _sounds.add(_HeardSound(event.sound, at));
+    } else {
+      for (final sound in _sounds.reversed) {
+        if (sound.sound == event.sound && sound.end == null) {
+          sound.end = at < sound.start ? sound.start : at;
+          break;
+        }
+      }
+    }
+    _sounds.removeWhere((s) => s.end != null && s.end! < now - _retention);
+  }
+
+  bool isSounding(BreathSound sound) =>
+      _sounds.any((s) => s.sound == sound && s.end == null);
+
+  /// How much of `[from, to)` in session time had [sound] in it.
+  Duration heardDuring(BreathSound sound, Duration from, Duration to) {
+    final now = scheduler.elapsed;
+    var total = Duration.zero;
+    for (final s in _sounds) {
+      if (s.sound != sound) continue;
+      final start = s.start > from ? s.start : from;
+      final endOrNow = s.end ?? now;
+      final end = endOrNow < to ? endOrNow : to;
+      if (end > start) total += end - start;
+    }
+    return total;
+  }
+
+  /// Whether [sound] filled at least [minShare] of [phase].
+  bool heardIn(BreathSound sound, BreathPhaseEvent phase) {
+    return heardDuring(sound, phase.start, phase.end) >= phase.duration * minShare;
+  }
+
+  /// Holds the boundary into [phase] while [sound] goes on; see the class doc.
+  void holdBefore(BreathPhase phase, BreathSound sound) {
+    final holdStartedAt = _holdStartedAt;
+    if (holdStartedAt != null) {
+      if (!isSounding(sound) || scheduler.clock.now - holdStartedAt >= maxHold) {
+        _holdStartedAt = null;
+        scheduler.resume();
+      }
+      return;
+    }
+    final next = scheduler.nextPhase;
+    if (next == null ||
+        next.phase != phase ||
+        !scheduler.isRunning ||
+        scheduler.elapsed < next.start ||
+        !isSounding(sound)) {
+      return;
+    }
+    _holdStartedAt = scheduler.clock.now;
+    scheduler.pause();
+    scheduler.syncTo(next.start - const Duration(milliseconds: 1));
+  }
+
+  /// Drops a hold without resuming, e.g. when the user pauses the session.
+  void cancelHold() {
+    _holdStartedAt = null;
+  }
+
+  void clear() {
+    _sounds.clear();
+    _holdStartedAt = null;
+  }
+}
@@ -0,0 +1,218 @@
+import 'dart:async';
+
+/// Monotonic time source for [BreathSessionScheduler].
+abstract class SessionClock {
+  Duration get now;
+}
+
+/// Real clock backed by a [Stopwatch], which is monotonic on every platform.
+class StopwatchSessionClock implements SessionClock {
+  final Stopwatch _stopwatch = Stopwatch()..start();
+
+  @override
+  Duration get now => _stopwatch.elapsed;
+}
+
+/// Deterministic clock for tests: time only moves when [advance] is called.
+class FakeSessionClock implements SessionClock {
+  Duration _now = Duration.zero;
+
+  @override
+  Duration get now => _now;
+
+  void advance(Duration step) {
+    _now += step;
+  }
+}
+
+enum BreathPhase { inhale, hold1, exhale, hold2 }
+
+/// One phase boundary in a precomputed session timeline.
+class BreathPhaseEvent {
+  final int round; // 0-based
+  final BreathPhase phase;
+  final Duration start; // offset from session start
+  final Duration duration;
+
+  const BreathPhaseEvent(this.round, this.phase, this.start, this.duration);
+
+  Duration get end => start + duration;
+
+  bool get isHold => phase == BreathPhase.hold1 || phase == BreathPhase.hold2;
+
+  /// Text the breathing screens show for this phase.
+  String get label => labelOf(phase);
+
+  static String labelOf(BreathPhase phase) {
+    switch (phase) {
+      case BreathPhase.inhale:
+        return "Inhale";
+      case BreathPhase.exhale:
+        return "Exhale";
+      default:
+        return "Hold";
+    }
+  }
+
+  @override
+  String toString() => 'BreathPhaseEvent($round, $phase, $start)';
+}
+
+/// Drives a breathing session from a single monotonic clock.
+///
+/// The whole `rounds × (inhale, hold1, exhale, hold2)` timeline is computed up
+/// front and every phase position is derived from absolute elapsed time, so
+/// rounds never accumulate drift and a stalled frame cannot skip a boundary:
+/// [poll] emits every boundary crossed since the previous call, in order.
+/// Zero-length holds are left out, which makes the same scheduler fit the
+/// inhale/exhale-only screens.
+///
+/// Screens call [poll] from a ticker and set their `AnimationController` to
+/// [roundProgress], so the animation follows the session instead of driving it.
+class BreathSessionScheduler {
+  BreathSessionScheduler({
+    required Duration inhale,
+    Duration hold1 = Duration.zero,
+    required Duration exhale,
+    Duration hold2 = Duration.zero,
+    required this.rounds,
+    SessionClock? clock,
+  })  : clock = clock ?? StopwatchSessionClock(),
+        cycleDuration = inhale + hold1 + exhale + hold2,
+        phaseDurations = List.unmodifiable([inhale, hold1, exhale, hold2]),
+        timeline = List.unmodifiable(
+            _buildTimeline([inhale, hold1, exhale, hold2], rounds)) {
+    assert(cycleDuration > Duration.zero, 'A breathing cycle needs a duration');
+  }
+
+  final SessionClock clock;
+  final int rounds;
+  final Duration cycleDuration;
+
+  /// Length of each [BreathPhase], indexed by `phase.index`.
+  final List<Duration> phaseDurations;
+  final List<BreathPhaseEvent> timeline;
+
+  final StreamController<BreathPhaseEvent> _events =
+      StreamController<BreathPhaseEvent>.broadcast(sync: true);
+
+  Duration? _startedAt;
+  Duration? _pausedAt;
+  Duration _pausedTotal = Duration.zero;
+  int _nextIndex = 0;
+
+  static List<BreathPhaseEvent> _buildTimeline(
+      List<Duration> phases, int rounds) {
+    final events = <BreathPhaseEvent>[];
+    var offset = Duration.zero;
+    for (var round = 0; round < rounds; round++) {
+      for (var i = 0; i < phases.length; i++) {
+        if (phases[i] > Duration.zero) {
+          events.add(
+              BreathPhaseEvent(round, BreathPhase.values[i], offset, phases[i]));
+        }
+        offset += phases[i];
+      }
+    }
+    return events;
+  }
+
+  Duration get totalDuration => cycleDuration * rounds;
+
+  /// Phase events as they are crossed; fired synchronously from [poll].
+  Stream<BreathPhaseEvent> get phaseEvents => _events.stream;
+
+  bool get isStarted => _startedAt != null;
+
+  bool get isPaused => _pausedAt != null;
+
+  bool get isRunning => isStarted && !isPaused && !isComplete;
+
+  bool get isComplete => isStarted && elapsed >= totalDuration;
+
+  /// Session time, excluding pauses and clamped to [totalDuration].
+  Duration get elapsed {
+    final startedAt = _startedAt;
+    if (startedAt == null) return Duration.zero;
+    final t = (_pausedAt ?? clock.now) - startedAt - _pausedTotal;
+    return t > totalDuration ? totalDuration : t;
+  }
+
+  /// The phase most recently emitted by [poll].
+  BreathPhaseEvent? get currentPhase =>
+      _nextIndex == 0 ? null : timeline[_nextIndex - 1];
+
+  /// The next boundary [poll] will emit.
+  BreathPhaseEvent? get nextPhase =>
+      _nextIndex < timeline.length ? timeline[_nextIndex] : null;
+
+  int get currentRound => currentPhase?.round ?? 0;
+
+  /// Position within the current round in `[0, 1]`.
+  double get roundProgress {
+    final t = elapsed;
+    if (t >= totalDuration) return 1.0;
+    final cycle = cycleDuration.inMicroseconds;
+    return (t.inMicroseconds % cycle) / cycle;
+  }
+
+  /// Timeline entries starting in `[from, to)`, e.g. to queue audio cues ahead.
+  Iterable<BreathPhaseEvent> eventsBetween(Duration from, Duration to) {
+    return timeline.where((e) => e.start >= from && e.start < to);
+  }
+
+  void start() {
+    _startedAt = clock.now;
+    _pausedAt = null;
+    _pausedTotal = Duration.zero;
+    _nextIndex = 0;
+  }
+
+  void pause() {
+    if (isRunning) {
+      _pausedAt = clock.now;
+    }
+  }
+
+  void resume() {
+    final pausedAt = _pausedAt;
+    if (pausedAt != null) {
+      _pausedTotal += clock.now - pausedAt;
+      _pausedAt = null;
+    }
+  }
+
+  /// Moves the session to [target] elapsed time, e.g. to follow the native
+  /// session after the UI was in the background. Boundaries passed on the way
+  /// are emitted by the next [poll].
+  void syncTo(Duration target) {
+    final startedAt = _startedAt;
+    if (startedAt == null) return;
+    _pausedTotal = (_pausedAt ?? clock.now) - startedAt - target;
+  }
+
+  void reset() {
+    _startedAt = null;
+    _pausedAt = null;
+    _pausedTotal = Duration.zero;
+    _nextIndex = 0;
+  }
+
+  /// Emits and returns every boundary crossed since the last call.
+  List<BreathPhaseEvent> poll() {
+    if (!isStarted) return const [];
+    final t = elapsed;
+    final crossed = <BreathPhaseEvent>[];
+    while (_nextIndex < timeline.length && timeline[_nextIndex].start <= t) {
+      crossed.add(timeline[_nextIndex++]);
+    }
+    for (final event in crossed) {
+      _events.add(event);
+    }
+    return crossed;
+  }
+
+  void dispose() {
+    _events.close();
+  }
+}
@@ -0,0 +1,161 @@
+import 'dart:convert';
+
+import 'package:flutter/foundation.dart';
+import 'package:shared_preferences/shared_preferences.dart';
+import 'package:youtube_player_flutter/youtube_player_flutter.dart';
+
+/// One video of a course, with its id and length worked out once.
+class CourseChapter {
+  final String title;
+  final String videoUrl;
+  final String thumbnail;
+  final String duration;
+  final String videoId;
+  final int durationSeconds;
+
+  CourseChapter._(this.title, this.videoUrl, this.thumbnail, this.duration,
+      this.videoId, this.durationSeconds);
+
+  /// From the `title`/`videoUrl`/`thumbnail`/`duration` maps the course pages
+  /// declare; `duration` is "<minutes> mins".
+  factory CourseChapter.fromMap(Map<String, String> map) {
+    final videoUrl = map["videoUrl"]!;
+    final duration = map["duration"]!;
+    final minutes = int.tryParse(duration.split(" ")[0]) ?? 1;
+    return CourseChapter._(
+      map["title"]!,
+      videoUrl,
+      map["thumbnail"]!,
+      duration,
+      YoutubePlayer.convertUrlToId(videoUrl)!,
+      minutes * 60,
+    );
+  }
+}
+
+/// A course's chapters, indexed by video id.
+class CourseChapters {
+  final List<CourseChapter> list;
+  final Map<String, CourseChapter> _byVideoId = {};
+
+  CourseChapters(Iterable<Map<String, String>> maps)
+      : list = List.unmodifiable(maps.map(CourseChapter.fromMap)) {
+    for (final chapter in list) {
+      _byVideoId[chapter.videoId] = chapter;
+    }
+  }
+
+  CourseChapter? operator [](String videoId) => _byVideoId[videoId];
+
+  CourseChapter get first => list.first;
+  int get length => list.length;
+}
+
+/// Playback positions of course videos, shared by every course page.
+///
+/// Positions live in memory; [update] is a map write, so the pages can
+/// report every few seconds without touching disk. Changed users are written
+/// by [flush] as one JSON value per user, which the pages call on pause and
+/// dispose and the app calls when it goes to the background.
+///
+/// Positions saved by older builds under `progress_${uid}_$videoId` are read
+/// on [load] and removed on the next flush.
+class CourseProgressStore {
+  CourseProgressStore();
+
+  static final CourseProgressStore instance = CourseProgressStore();
+
+  final Map<String, Map<String, int>> _seconds = {};
+  final Map<String, Future<void>> _loading = {};
+  final Set<String> _dirty = {};
+  final Map<String, Set<String>> _legacyKeys = {};
+  Future<void> _pending = Future.value();
+
+  static String _key(String uid) => 'course_progress_$uid';
+  static String _legacyKey(String uid, String videoId) => 'progress_${uid}_$videoId';
+
+  /// Reads [uid]'s saved positions, including older per-video entries for
+  /// [chapters]. Later calls for a loaded user only check for older entries.
+  Future<void> load(String uid, CourseChapters chapters) async {
+    await (_loading[uid] ??= _loadUser(uid));
+    final positions = _seconds[uid]!;
+    final missing = chapters.list.where((c) => !positions.containsKey(c.videoId));
+    if (missing.isEmpty) return;
+
+    final prefs = await SharedPreferences.getInstance();
+    for (final chapter in missing) {
+      final key = _legacyKey(uid, chapter.videoId);
+      final legacy = prefs.getInt(key);
+      if (legacy == null) continue;
+      positions[chapter.videoId] = legacy;
+      _legacyKeys.putIfAbsent(uid, () => {}).add(key);
+      _dirty.add(uid);
+    }
+  }
+
+  Future<void> _loadUser(String uid) async {
+    final positions = _seconds.putIfAbsent(uid, () => {});
+    try {
+      final prefs = await SharedPreferences.getInstance();
+      final json = prefs.getString(_key(uid));
+      if (json == null) return;
+      final saved = jsonDecode(json);
+      if (saved is! Map<String, dynamic>) {
+        debugPrint('Discarding unreadable course progress: $json');
+        return;
+      }
+      saved.forEach((videoId, seconds) {
+        // Anything recorded before the load finished is newer.
+        if (seconds is int) positions.putIfAbsent(videoId, () => seconds);
+      });
+    } on FormatException catch (e) {
+      debugPrint('Discarding unreadable course progress: $e');
+    } catch (e) {
+      // Let the next load() try again instead of failing every flush.
+      _loading.remove(uid);
+      rethrow;
+    }
+  }
+
+  /// Saved position of [videoId] in seconds, 0 if none.
+  int positionOf(String uid, String videoId) => _seconds[uid]?[videoId] ?? 0;
+
+  /// How much of [chapter] has been watched, from 0 to 1.
+  double fractionOf(String uid, CourseChapter chapter) {
+    final fraction = positionOf(uid, chapter.videoId) / chapter.durationSeconds;
+    return fraction > 1 ? 1 : fraction;
+  }
+
+  /// Records the current position; written out by the next [flush].
+  void update(String uid, String videoId, int seconds) {
+    final positions = _seconds.putIfAbsent(uid, () => {});
+    if (positions[videoId] == seconds) return;
+    positions[videoId] = seconds;
+    _dirty.add(uid);
+  }
+
+  /// Writes every changed user. Flushes run one after another.
+  Future<void> flush() {
+    return _pending = _pending.then((_) => _flush());
+  }
+
+  Future<void> _flush() async {
+    if (_dirty.isEmpty) return;
+    final uids = _dirty.toList();
+    _dirty.clear();
+    try {
+      final prefs = await SharedPreferences.getInstance();
+      for (final uid in uids) {
+        // Never write a partial map over positions that are still loading.
+        await _loading[uid];
+        await prefs.setString(_key(uid), jsonEncode(_seconds[uid]));
+        for (final key in _legacyKeys.remove(uid) ?? const <String>{}) {
+          await prefs.remove(key);
+        }
+      }
+    } catch (e) {
+      debugPrint('Error saving course progress: $e');
+      _dirty.addAll(uids);
+    }
+  }
+}
@@ -0,0 +1,225 @@
+import 'dart:convert';
+import 'dart:io';
+import 'dart:math' as math;
+import 'dart:typed_data';
+import 'dart:ui' show FramePhase, FrameTiming;
+
+import 'package:flutter/foundation.dart';
+import 'package:flutter/scheduler.dart';
+import 'package:path_provider/path_provider.dart';
+
+/// A running count, e.g. of fallbacks or failures.
+class MetricCounter {
+  MetricCounter._(this.name);
+
+  final String name;
+  int value = 0;
+
+  void increment([int by = 1]) => value += by;
+}
+
+/// Latency histogram with HDR-style log-linear buckets, in microseconds.
+///
+/// Values below 64 µs get a bucket each; above that every power of two is
+/// split into 32 buckets, so any recorded value is reported within about 3%
+/// up to the 2^31 µs (36 minute) ceiling. The buckets are one fixed
+/// [Uint32List]; [record] only does arithmetic on it and never allocates,
+/// so it is safe to call from frame callbacks.
+class LatencyHistogram {
+  LatencyHistogram._(this.name) : _counts = Uint32List(bucketCount);
+
+  static const int _subBucketBits = 6;
+  static const int _subBucketCount = 1 << _subBucketBits; // 64
+  static const int _halfCount = _subBucketCount >> 1; // 32
+  static const int maxValue = 0x7fffffff;
+  static const int bucketCount =
+      _subBucketCount + (31 - _subBucketBits) * _halfCount;
+
+  final String name;
+  final Uint32List _counts;
+  int _count = 0;
+  int _sum = 0;
+  int _min = 0;
+  int _max = 0;
+
+  int get count => _count;
+  int get min => _min;
+  int get max => _max;
+  double get mean => _count == 0 ? 0 : _sum / _count;
+
+  static int _indexOf(int value) {
+    if (value < _subBucketCount) return value;
+    final shift = value.bitLength - _subBucketBits;
+    // (value >> shift) is in [32, 64): the top bits select the sub-bucket.
+    return _subBucketCount + (shift - 1) * _halfCount + (value >> shift) - _halfCount;
+  }
+
+  /// Smallest value that lands in bucket [index].
+  static int _lowerBound(int index) {
+    if (index < _subBucketCount) return index;
+    final shift = (index - _subBucketCount) ~/ _halfCount + 1;
+    final sub = (index - _subBucketCount) % _halfCount + _halfCount;
+    return sub << shift;
+  }
+
+  static int _width(int index) =>
+      index < _subBucketCount ? 1 : 1 << ((index - _subBucketCount) ~/ _halfCount + 1);
+
+  void record(int micros) {
+    final value = micros < 0 ? 0 : (micros > maxValue ? maxValue : micros);
+    _counts[_indexOf(value)]++;
+    if (_count == 0 || value < _min) _min = value;
+    if (value > _max) _max = value;
+    _count++;
+    _sum += value;
+  }
+
+  /// Records the time since [startMicros], a [Metrics.now] reading.
+  void recordSince(int startMicros) => record(Metrics.now() - startMicros);
+
+  /// Times [body], which should not be on a hot path: the closure allocates.
+  Future<T> time<T>(Future<T> Function() body) async {
+    final start = Metrics.now();
+    try {
+      return await body();
+    } finally {
+      recordSince(start);
+    }
+  }
+
+  /// The value at quantile [q] (0..1), to bucket precision.
+  int valueAt(double q) {
+    if (_count == 0) return 0;
+    final target = math.max(1, (q * _count).ceil());
+    var seen = 0;
+    for (var i = 0; i < bucketCount; i++) {
+      seen += _counts[i];
+      if (seen >= target) {
+        return math.min(_lowerBound(i) + _width(i) - 1, _max);
+      }
+    }
+    return _max;
+  }
+
+  void reset() {
+    _counts.fillRange(0, bucketCount, 0);
+    _count = 0;
+    _sum = 0;
+    _min = 0;
+    _max = 0;
+  }
+
+  /// Summary plus the non-empty buckets as `[lowest value, count]`, so
+  /// exports from different runs can be added together.
+  Map<String, Object> toJson() => {
+        'count': _count,
+        'min': _min,
+        'max': _max,
+        'mean': mean.round(),
+        'p50': valueAt(0.5),
+        'p90': valueAt(0.9),
+        'p99': valueAt(0.99),
+        'p999': valueAt(0.999),
+        'buckets': [
+          for (var i = 0; i < bucketCount; i++)
+            if (_counts[i] != 0) [_lowerBound(i), _counts[i]],
+        ],
+      };
+}
+
+/// Process-wide counters and latency histograms.
+///
+/// Instruments are created by name once, usually into a field, and recorded
+/// into directly after that. Names are dotted by area (`box.bell_latency`,
+/// `firestore.profile_fetch`) and histograms are in microseconds. [export]
+/// writes everything to a JSON file in the app documents directory so runs
+/// can be compared across builds and devices; [MetricsOverlay] shows the
+/// same numbers live and is opened with [toggleOverlay].
+class Metrics {
+  Metrics({Future<Directory> Function()? directory})
+      : _directory = directory ?? getApplicationDocumentsDirectory;
+
+  static final Metrics instance = Metrics();
+
+  static final Stopwatch _clock = Stopwatch()..start();
+
+  /// Monotonic microseconds, for timing with [LatencyHistogram.recordSince].
+  static int now() => _clock.elapsedMicroseconds;
+
+  final Future<Directory> Function() _directory;
+  final Map<String, MetricCounter> _counters = {};
+  final Map<String, LatencyHistogram> _histograms = {};
+
+  /// Whether the debug overlay is showing.
+  final ValueNotifier<bool> overlayVisible = ValueNotifier<bool>(false);
+
+  void toggleOverlay() => overlayVisible.value = !overlayVisible.value;
+
+  MetricCounter counter(String name) =>
+      _counters.putIfAbsent(name, () => MetricCounter._(name));
+
+  LatencyHistogram histogram(String name) =>
+      _histograms.putIfAbsent(name, () => LatencyHistogram._(name));
+
+  Iterable<MetricCounter> get counters => _counters.values;
+  Iterable<LatencyHistogram> get histograms => _histograms.values;
+
+  /// Records build and raster time of every frame into `<prefix>.frame_build`
+  /// and `<prefix>.frame_raster` until the returned tracker is stopped.
+  FrameMetrics trackFrames(String prefix) => FrameMetrics._(
+      histogram('$prefix.frame_build'), histogram('$prefix.frame_raster'));
+
+  void reset() {
+    for (final counter in _counters.values) {
+      counter.value = 0;
+    }
+    for (final histogram in _histograms.values) {
+      histogram.reset();
+    }
+  }
+
+  Map<String, Object> toJson() => {
+        'exportedAt': DateTime.now().toIso8601String(),
+        'platform': Platform.operatingSystem,
+        'osVersion': Platform.operatingSystemVersion,
+        'mode': kReleaseMode ? 'release' : (kProfileMode ? 'profile' : 'debug'),
+        'uptimeMicros': now(),
+        'counters': {for (final c in _counters.values) c.name: c.value},
+        'histograms': {for (final h in _histograms.values) h.name: h.toJson()},
+      };
+
+  /// Writes [toJson] to `metrics/metrics_<timestamp>.json` in the documents
+  /// directory and returns the file.
+  Future<File> export() async {
+    final dir = Directory('${(await _directory()).path}/metrics');
+    await dir.create(recursive: true);
+    final stamp = DateTime.now()
+        .toIso8601String()
+        .replaceAll(RegExp(r'[:.]'), '-');
+    final file = File('${dir.path}/metrics_$stamp.json');
+    await file.writeAsString(const JsonEncoder.withIndent('  ').convert(toJson()));
+    return file;
+  }
+}
+
+/// Frame timings for one screen; see [Metrics.trackFrames].
+class FrameMetrics {
+  FrameMetrics._(this._build, this._raster) {
+    SchedulerBinding.instance.addTimingsCallback(_onTimings);
+  }
+
+  final LatencyHistogram _build;
+  final LatencyHistogram _raster;
+
+  void _onTimings(List<FrameTiming> timings) {
+    for (final timing in timings) {
+      // Raw timestamps rather than the Duration getters, which allocate.
+      _build.record(timing.timestampInMicroseconds(FramePhase.buildFinish) -
+          timing.timestampInMicroseconds(FramePhase.buildStart));
+      _raster.record(timing.timestampInMicroseconds(FramePhase.rasterFinish) -
+          timing.timestampInMicroseconds(FramePhase.rasterStart));
+    }
+  }
+
+  void stop() => SchedulerBinding.instance.removeTimingsCallback(_onTimings);
+}
@@ -0,0 +1,292 @@
+import 'dart:async';
+import 'dart:convert';
+import 'dart:io';
+import 'dart:typed_data';
+
+import 'package:flutter/foundation.dart';
+import 'package:path_provider/path_provider.dart';
+import 'package:shared_preferences/shared_preferences.dart';
+
+/// What a logged session was spent on. Stored by index, so only append.
+enum PracticeTechnique { app, box, ujjayi, bhramari, bilateral, abdominal, panic }
+
+/// One fixed-width entry in the practice log.
+class PracticeRecord {
+  final int uidHash;
+  final DateTime start;
+  final Duration duration;
+  final PracticeTechnique technique;
+
+  const PracticeRecord(this.uidHash, this.start, this.duration, this.technique);
+
+  /// Local calendar day of [start], formatted YYYY-MM-DD.
+  String get day => start.toIso8601String().substring(0, 10);
+}
+
+/// A user's day totals and every record appended after they were read.
+class PracticeLogView {
+  final Map<String, Map<PracticeTechnique, int>> days;
+
+  /// Buffered until listened to; cancel it when done.
+  final Stream<PracticeRecord> appended;
+
+  const PracticeLogView(this.days, this.appended);
+}
+
+/// Append-only binary log of practice sessions.
+///
+/// The file is an 8-byte header followed by 24-byte little-endian records:
+///
+///     uid hash (int64) | start epoch seconds (int64) |
+///     duration seconds (uint32) | technique (uint16) | reserved (uint16)
+///
+/// Logging a session writes one record at the end of the file. The first read
+/// loads the whole file in one sequential read and builds per-user day
+/// totals in memory; later appends update those totals directly.
+class PracticeLog {
+  PracticeLog({Future<Directory> Function()? directory})
+      : _directory = directory ?? getApplicationDocumentsDirectory;
+
+  static final PracticeLog instance = PracticeLog();
+
+  static const String fileName = 'practice_log.bin';
+  static const int headerSize = 8;
+  static const int recordSize = 24;
+  static const int _magic = 0x474F4C50; // "PLOG"
+  static const int _version = 1;
+
+  final Future<Directory> Function() _directory;
+
+  File? _file;
+  RandomAccessFile? _writer;
+  Future<void> _pending = Future.value();
+
+  /// uid hash -> day (YYYY-MM-DD) -> technique -> seconds. Null until the
+  /// first read.
+  Map<int, Map<String, Map<PracticeTechnique, int>>>? _days;
+  final Set<int> _imported = {};
+
+  final StreamController<PracticeRecord> _appended =
+      StreamController<PracticeRecord>.broadcast();
+
+  /// Stable 64-bit FNV-1a hash of a Firebase uid.
+  static int hashUid(String uid) {
+    var hash = 0xcbf29ce484222325;
+    for (final byte in utf8.encode(uid)) {
+      hash ^= byte;
+      hash *= 0x100000001b3;
+    }
+    return hash;
+  }
+
+  /// Appends one session record. Writes are serialised in call order.
+  Future<void> append({
+    required String uid,
+    required DateTime start,
+    required Duration duration,
+    PracticeTechnique technique = PracticeTechnique.app,
+  }) {
+    final record = PracticeRecord(hashUid(uid), start, duration, technique);
+    return _pending = _pending.then((_) async {
+      await _write([record]);
+      _appended.add(record);
+    }).catchError((e) {
+      debugPrint('Error appending to practice log: $e');
+    });
+  }
+
+  /// Records for [uid] as they are appended, for screens that stay open.
+  Stream<PracticeRecord> appended(String uid) {
+    final uidHash = hashUid(uid);
+    return _appended.stream.where((r) => r.uidHash == uidHash);
+  }
+
+  /// Seconds practised per day for [uid].
+  Future<Map<String, int>> dailySeconds(String uid) async {
+    final days = await dailyTechniqueSeconds(uid);
+    return days.map((day, techniques) =>
+        MapEntry(day, techniques.values.fold<int>(0, (sum, s) => sum + s)));
+  }
+
+  /// Seconds practised per day and technique for [uid].
+  Future<Map<String, Map<PracticeTechnique, int>>> dailyTechniqueSeconds(
+      String uid) async {
+    await _importLegacyUsage(uid);
+    final days = await _index();
+    final perDay = days[hashUid(uid)] ?? const {};
+    return {
+      for (final entry in perDay.entries) entry.key: Map.unmodifiable(entry.value),
+    };
+  }
+
+  /// [dailyTechniqueSeconds] together with the records appended after it,
+  /// so a screen that keeps its totals current neither misses nor double
+  /// counts a session logged while it was reading.
+  Future<PracticeLogView> watchDailyTechniqueSeconds(String uid) async {
+    await _importLegacyUsage(uid);
+    await _index();
+    final uidHash = hashUid(uid);
+    late final StreamSubscription<PracticeRecord> source;
+    final later = StreamController<PracticeRecord>(onCancel: () => source.cancel());
+    late final Map<String, Map<PracticeTechnique, int>> days;
+    // On the write queue, so no append lands between the read and the
+    // subscription.
+    await (_pending = _pending.then((_) {
+      final perDay = _days?[uidHash] ?? const {};
+      days = {
+        for (final entry in perDay.entries) entry.key: Map.unmodifiable(entry.value),
+      };
+      source = _appended.stream.where((r) => r.uidHash == uidHash).listen(later.add);
+    }));
+    return PracticeLogView(days, later.stream);
+  }
+
+  /// Every record in the log, oldest first.
+  Future<List<PracticeRecord>> records() async {
+    await _pending;
+    final file = await _logFile();
+    if (!await file.exists()) return const [];
+    return _decode(await file.readAsBytes());
+  }
+
+  Future<void> close() async {
+    await _pending;
+    await _writer?.close();
+    _writer = null;
+  }
+
+  Future<File> _logFile() async {
+    return _file ??= File('${(await _directory()).path}/$fileName');
+  }
+
+  Future<RandomAccessFile> _open() async {
+    final existing = _writer;
+    if (existing != null) return existing;
+
+    final file = await _logFile();
+    final writer = await file.open(mode: FileMode.append);
+    final length = await writer.length();
+    if (length < headerSize) {
+      final header = ByteData(headerSize)
+        ..setUint32(0, _magic, Endian.little)
+        ..setUint32(4, _version, Endian.little);
+      await writer.truncate(0);
+      await writer.setPosition(0);
+      await writer.writeFrom(header.buffer.asUint8List());
+    } else {
+      // Drop a record torn by a crash mid-write so the next one stays aligned.
+      final torn = (length - headerSize) % recordSize;
+      if (torn != 0) {
+        await writer.truncate(length - torn);
+        await writer.setPosition(length - torn);
+      }
+    }
+    return _writer = writer;
+  }
+
+  Future<void> _write(List<PracticeRecord> records) async {
+    final data = ByteData(recordSize * records.length);
+    for (var i = 0; i < records.length; i++) {
+      final r = records[i];
+      final offset = i * recordSize;
+      data
+        ..setInt64(offset, r.uidHash, Endian.little)
+        ..setInt64(offset + 8, r.start.millisecondsSinceEpoch ~/ 1000, Endian.little)
+        ..setUint32(offset + 16, r.duration.inSeconds, Endian.little)
+        ..setUint16(offset + 20, r.technique.index, Endian.little);
+    }
+    final writer = await _open();
+    await writer.writeFrom(data.buffer.asUint8List());
+    await writer.flush();
+
+    final days = _days;
+    if (days != null) {
+      for (final r in records) {
+        _addToIndex(days, r);
+      }
+    }
+  }
+
+  Future<Map<int, Map<String, Map<PracticeTechnique, int>>>> _index() async {
+    if (_days == null) {
+      // Built on the write queue so no append can land between read and index.
+      await (_pending = _pending.then((_) async {
+        final days = <int, Map<String, Map<PracticeTechnique, int>>>{};
+        try {
+          final file = await _logFile();
+          if (await file.exists()) {
+            for (final r in _decode(await file.readAsBytes())) {
+              _addToIndex(days, r);
+            }
+          }
+        } on FileSystemException catch (e) {
+          debugPrint('Error reading practice log: $e');
+        }
+        _days ??= days;
+      }));
+    }
+    return _days!;
+  }
+
+  static void _addToIndex(
+      Map<int, Map<String, Map<PracticeTechnique, int>>> days, PracticeRecord r) {
+    final perDay = days
+        .putIfAbsent(r.uidHash, () => {})
+        .putIfAbsent(r.day, () => <PracticeTechnique, int>{});
+    perDay[r.technique] = (perDay[r.technique] ?? 0) + r.duration.inSeconds;
+  }
+
+  static List<PracticeRecord> _decode(Uint8List bytes) {
+    if (bytes.length < headerSize) return const [];
+    final data = ByteData.sublistView(bytes);
+    if (data.getUint32(0, Endian.little) != _magic) {
+      debugPrint('Practice log has an unknown header; ignoring it');
+      return const [];
+    }
+    final count = (bytes.length - headerSize) ~/ recordSize;
+    final techniques = PracticeTechnique.values;
+    return List.generate(count, (i) {
+      final offset = headerSize + i * recordSize;
+      final technique = data.getUint16(offset + 20, Endian.little);
+      return PracticeRecord(
+        data.getInt64(offset, Endian.little),
+        DateTime.fromMillisecondsSinceEpoch(
+            data.getInt64(offset + 8, Endian.little) * 1000),
+        Duration(seconds: data.getUint32(offset + 16, Endian.little)),
+        technique < techniques.length ? techniques[technique] : PracticeTechnique.app,
+      );
+    });
+  }
+
+  /// Moves the old per-day SharedPreferences counters into the log, once.
+  Future<void> _importLegacyUsage(String uid) async {
+    if (!_imported.add(hashUid(uid))) return;
+    final prefs = await SharedPreferences.getInstance();
+    final daysUsedKey = 'days_used_$uid';
+    final daysUsed = prefs.getStringList(daysUsedKey);
+    if (daysUsed == null) return;
+
+    final records = <PracticeRecord>[];
+    for (final day in daysUsed) {
+      final seconds = prefs.getInt('usage_${uid}_$day') ?? 0;
+      final start = DateTime.tryParse(day);
+      if (start == null) continue;
+      records.add(PracticeRecord(hashUid(uid), start.add(const Duration(hours: 12)),
+          Duration(seconds: seconds), PracticeTechnique.app));
+    }
+    try {
+      await (_pending = _pending.then((_) => _write(records)));
+    } on FileSystemException catch (e) {
+      // Keep the preferences so the import is retried next launch.
+      debugPrint('Error importing usage history: $e');
+      _pending = Future.value();
+      return;
+    }
+
+    for (final day in daysUsed) {
+      await prefs.remove('usage_${uid}_$day');
+    }
+    await prefs.remove(daysUsedKey);
+    await prefs.remove('total_usage_seconds_$uid');
+  }
+}
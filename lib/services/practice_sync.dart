@@ -0,0 +1,437 @@
+import 'dart:async';
+import 'dart:convert';
+import 'dart:math';
+
+import 'package:cloud_firestore/cloud_firestore.dart';
+import 'package:flutter/foundation.dart';
+import 'package:shared_preferences/shared_preferences.dart';
+
+import 'metrics.dart';
+import 'practice_log.dart';
+
+/// Seconds per technique name, per device id, for one day.
+typedef DeviceTotals = Map<String, Map<String, int>>;
+
+/// Joins two views of a day's practice.
+///
+/// A device only ever writes its own entry, and its totals only grow, so the
+/// larger value per device and technique is the newer one. The result is the
+/// same in either order and however often a write is repeated.
+DeviceTotals mergeDeviceTotals(DeviceTotals a, DeviceTotals b) {
+  final merged = <String, Map<String, int>>{
+    for (final entry in a.entries) entry.key: Map.of(entry.value),
+  };
+  b.forEach((device, techniques) {
+    final into = merged.putIfAbsent(device, () => {});
+    techniques.forEach((technique, seconds) {
+      into[technique] = max(into[technique] ?? 0, seconds);
+    });
+  });
+  return merged;
+}
+
+/// The `devices` field of a `practice_days` document, tolerating bad data.
+DeviceTotals deviceTotalsOf(Map<String, dynamic> document) {
+  final devices = document['devices'];
+  if (devices is! Map) return {};
+  return {
+    for (final device in devices.entries)
+      if (device.value is Map)
+        device.key as String: {
+          for (final technique in (device.value as Map).entries)
+            if (technique.value is num)
+              technique.key as String: (technique.value as num).toInt(),
+        },
+  };
+}
+
+/// Every device's seconds for a day added up per technique. Techniques this
+/// build does not know are counted as general app use.
+Map<PracticeTechnique, int> sumDeviceTotals(DeviceTotals devices) {
+  final byName = PracticeTechnique.values.asNameMap();
+  final totals = <PracticeTechnique, int>{};
+  for (final techniques in devices.values) {
+    techniques.forEach((name, seconds) {
+      final technique = byName[name] ?? PracticeTechnique.app;
+      totals[technique] = (totals[technique] ?? 0) + seconds;
+    });
+  }
+  return totals;
+}
+
+/// Where per-day practice documents live; Firestore in the app, memory in
+/// tests.
+abstract class PracticeDaySource {
+  /// The day documents of [uid], by day (YYYY-MM-DD): every one, or those
+  /// written at or after [updatedSince]. Each carries the time of its last
+  /// write as a [DateTime] under `updatedAt`, when it has one.
+  Future<Map<String, Map<String, dynamic>>> fetchDays(String uid, {DateTime? updatedSince});
+
+  /// Merges each of [documents] into its day's document, all in one batch,
+  /// and stamps them with the time of the write.
+  Future<void> commit(String uid, Map<String, Map<String, dynamic>> documents);
+}
+
+/// Day documents at `users/{uid}/practice_days/{day}`.
+///
+/// Pass a [FirebaseFirestore] set up with `useFirestoreEmulator` to run
+/// against the local emulator.
+class FirestorePracticeDaySource implements PracticeDaySource {
+  FirestorePracticeDaySource([FirebaseFirestore? firestore])
+      : _firestore = firestore ?? FirebaseFirestore.instance;
+
+  final FirebaseFirestore _firestore;
+
+  CollectionReference<Map<String, dynamic>> _days(String uid) =>
+      _firestore.collection('users').doc(uid).collection('practice_days');
+
+  @override
+  Future<Map<String, Map<String, dynamic>>> fetchDays(String uid, {DateTime? updatedSince}) async {
+    Query<Map<String, dynamic>> query = _days(uid);
+    if (updatedSince != null) {
+      query = query.where('updatedAt', isGreaterThanOrEqualTo: Timestamp.fromDate(updatedSince));
+    }
+    final snapshot = await query.get();
+    final days = <String, Map<String, dynamic>>{};
+    for (final doc in snapshot.docs) {
+      final data = doc.data();
+      final updated = data['updatedAt'];
+      days[doc.id] = {...data, if (updated is Timestamp) 'updatedAt': updated.toDate()};
+    }
+    return days;
+  }
+
+  @override
+  Future<void> commit(String uid, Map<String, Map<String, dynamic>> documents) {
+    final batch = _firestore.batch();
+    documents.forEach((day, data) {
+      // Merging leaves the other devices' entries in `devices` alone.
+      batch.set(_days(uid).doc(day), {...data, 'updatedAt': FieldValue.serverTimestamp()},
+          SetOptions(merge: true));
+    });
+    return batch.commit();
+  }
+}
+
+/// In-memory stand-in for Firestore, for tests. Commits merge nested maps
+/// the way `SetOptions(merge: true)` does.
+class InMemoryPracticeDaySource implements PracticeDaySource {
+  final Map<String, Map<String, Map<String, dynamic>>> documents = {};
+  final List<int> commitSizes = [];
+
+  /// Commits to fail before the next one succeeds, as if offline.
+  int failingCommits = 0;
+
+  /// Number of days returned by each [fetchDays].
+  final List<int> fetchSizes = [];
+
+  DateTime _lastWrite = DateTime.fromMillisecondsSinceEpoch(0);
+
+  @override
+  Future<Map<String, Map<String, dynamic>>> fetchDays(String uid, {DateTime? updatedSince}) async {
+    final days = {
+      for (final entry in (documents[uid] ?? const {}).entries)
+        if (updatedSince == null ||
+            (entry.value['updatedAt'] is DateTime &&
+                !(entry.value['updatedAt'] as DateTime).isBefore(updatedSince)))
+          entry.key: _copy(entry.value),
+    };
+    fetchSizes.add(days.length);
+    return days;
+  }
+
+  @override
+  Future<void> commit(String uid, Map<String, Map<String, dynamic>> data) async {
+    if (failingCommits > 0) {
+      failingCommits--;
+      throw StateError('offline');
+    }
+    commitSizes.add(data.length);
+    // Strictly increasing, as server timestamps are for one writer.
+    final now = DateTime.now();
+    _lastWrite = now.isAfter(_lastWrite) ? now : _lastWrite.add(const Duration(microseconds: 1));
+    final days = documents.putIfAbsent(uid, () => {});
+    data.forEach((day, fields) {
+      _merge(days.putIfAbsent(day, () => {}), {...fields, 'updatedAt': _lastWrite});
+    });
+  }
+
+  static void _merge(Map<String, dynamic> into, Map<String, dynamic> fields) {
+    fields.forEach((key, value) {
+      final existing = into[key];
+      if (value is Map && existing is Map<String, dynamic>) {
+        _merge(existing, Map<String, dynamic>.from(value));
+      } else {
+        into[key] = value is Map ? _copy(Map<String, dynamic>.from(value)) : value;
+      }
+    });
+  }
+
+  static Map<String, dynamic> _copy(Map<String, dynamic> map) => {
+        for (final entry in map.entries)
+          entry.key: entry.value is Map
+              ? _copy(Map<String, dynamic>.from(entry.value as Map))
+              : entry.value,
+      };
+}
+
+/// Mirrors the signed-in user's [PracticeLog] to per-day documents so their
+/// history survives a reinstall and shows on their other devices.
+///
+/// Appends only mark their day as pending; pending days are written together
+/// [debounce] after the first one, or on [flush] when the app goes to the
+/// background, at most [maxBatchWrites] days per batch. Each day document
+/// holds every device's totals for that day under its own device id, and a
+/// device always writes its full totals rather than an increment, so a retried
+/// or reordered write cannot double count, and concurrent devices never
+/// overwrite each other; see [mergeDeviceTotals].
+///
+/// The pending days are kept in SharedPreferences until their batch commits,
+/// so practice logged offline, or before the app was killed, is sent on a
+/// later launch. Failed batches are retried with exponential backoff.
+///
+/// The other devices' days are kept in SharedPreferences too; each read
+/// fetches only the day documents written since the newest one seen.
+class PracticeSync {
+  PracticeSync({
+    PracticeDaySource? source,
+    PracticeLog? log,
+    this.debounce = const Duration(seconds: 30),
+    this.commitTimeout = const Duration(seconds: 20),
+    this.fetchTimeout = const Duration(seconds: 10),
+  })  : _sourceOverride = source,
+        _log = log ?? PracticeLog.instance;
+
+  static final PracticeSync instance = PracticeSync();
+
+  /// Firestore's limit on writes in one batch.
+  static const int maxBatchWrites = 500;
+
+  static const String _deviceKey = 'practice_sync_device';
+  static String _queueKey(String uid) => 'practice_sync_queue_$uid';
+  static String _seededKey(String uid) => 'practice_sync_seeded_$uid';
+  static String _remoteKey(String uid) => 'practice_sync_remote_$uid';
+
+  final PracticeDaySource? _sourceOverride;
+  PracticeDaySource? _defaultSource;
+  final PracticeLog _log;
+  final Duration debounce;
+
+  /// How long to wait for a commit. Firestore holds writes made offline
+  /// until it reconnects; the day stays pending and is sent again instead.
+  final Duration commitTimeout;
+
+  /// How long to wait for the changed day documents before showing the
+  /// copy kept from the last read.
+  final Duration fetchTimeout;
+
+  PracticeDaySource get _source =>
+      _sourceOverride ?? (_defaultSource ??= FirestorePracticeDaySource());
+
+  final LatencyHistogram _commitLatency =
+      Metrics.instance.histogram('firestore.practice_commit');
+  final MetricCounter _commitFailures =
+      Metrics.instance.counter('firestore.practice_commit_failures');
+
+  String? _uid;
+  String? _device;
+  StreamSubscription<PracticeRecord>? _appended;
+  Timer? _timer;
+  int _failures = 0;
+  final Set<String> _pending = {};
+  final Set<String> _sending = {};
+  Future<void> _flushing = Future.value();
+  final Map<String, Future<Map<String, DeviceTotals>>> _remoteReads = {};
+
+  /// Days waiting to be written for the current user.
+  @visibleForTesting
+  Set<String> get pendingDays => {..._pending, ..._sending};
+
+  /// Starts syncing [uid]'s practice. The first start for a user queues every
+  /// day already in the log.
+  Future<void> start(String uid) async {
+    if (_uid == uid) return;
+    await stop();
+    _uid = uid;
+    final prefs = await SharedPreferences.getInstance();
+    _pending.addAll(prefs.getStringList(_queueKey(uid)) ?? const []);
+    if (!(prefs.getBool(_seededKey(uid)) ?? false)) {
+      _pending.addAll((await _log.dailyTechniqueSeconds(uid)).keys);
+      await _saveQueue(uid);
+      await prefs.setBool(_seededKey(uid), true);
+    }
+    if (_uid != uid) return;
+    _appended = _log.appended(uid).listen((record) => _enqueue(uid, record.day));
+    if (_pending.isNotEmpty) _schedule(debounce);
+  }
+
+  /// Stops syncing, e.g. on sign-out. Pending days stay saved for next time.
+  Future<void> stop() async {
+    await _appended?.cancel();
+    _appended = null;
+    _timer?.cancel();
+    _timer = null;
+    _uid = null;
+    // A batch in flight saves the queue when it commits; the days appended
+    // since must still be in it then.
+    await _flushing;
+    _pending.clear();
+    _failures = 0;
+  }
+
+  void _enqueue(String uid, String day) {
+    if (_uid != uid || !_pending.add(day)) return;
+    _saveQueue(uid);
+    _timer ??= Timer(debounce, flush);
+  }
+
+  void _schedule(Duration delay) {
+    _timer?.cancel();
+    _timer = Timer(delay, flush);
+  }
+
+  /// Writes every pending day now.
+  Future<void> flush() {
+    _timer?.cancel();
+    _timer = null;
+    return _flushing = _flushing.then((_) => _send());
+  }
+
+  Future<void> _send() async {
+    final uid = _uid;
+    if (uid == null || _pending.isEmpty) return;
+    final days = _pending.toList()..sort();
+    _pending.clear();
+    _sending.addAll(days);
+    try {
+      final device = await _deviceId();
+      final totals = await _log.dailyTechniqueSeconds(uid);
+      for (var i = 0; i < days.length; i += maxBatchWrites) {
+        final batch = days.sublist(i, min(i + maxBatchWrites, days.length));
+        final start = Metrics.now();
+        await _source.commit(uid, {
+          for (final day in batch)
+            day: {
+              'devices': {
+                device: {
+                  for (final entry in (totals[day] ?? const {}).entries)
+                    entry.key.name: entry.value,
+                },
+              },
+            },
+        }).timeout(commitTimeout);
+        _commitLatency.recordSince(start);
+        _sending.removeAll(batch);
+        await _saveQueue(uid);
+      }
+      _failures = 0;
+    } catch (e) {
+      debugPrint('Error syncing practice history: $e');
+      _commitFailures.increment();
+      if (_uid != uid) return;
+      _pending.addAll(_sending);
+      _failures++;
+      _schedule(debounce * (1 << min(_failures, 6)));
+    } finally {
+      _sending.clear();
+    }
+  }
+
+  Future<void> _saveQueue(String uid) async {
+    final prefs = await SharedPreferences.getInstance();
+    await prefs.setStringList(_queueKey(uid), pendingDays.toList()..sort());
+  }
+
+  Future<String> _deviceId() async {
+    final cached = _device;
+    if (cached != null) return cached;
+    final prefs = await SharedPreferences.getInstance();
+    var id = prefs.getString(_deviceKey);
+    if (id == null) {
+      final random = Random.secure();
+      id = List.generate(16, (_) => random.nextInt(16).toRadixString(16)).join();
+      await prefs.setString(_deviceKey, id);
+    }
+    return _device = id;
+  }
+
+  /// Seconds practised per day and technique for [uid] on every device that
+  /// has synced, with this device's days read from the local log.
+  Future<Map<String, Map<PracticeTechnique, int>>> dailyTechniqueSeconds(
+      String uid) async {
+    final local = await _log.dailyTechniqueSeconds(uid);
+    final others = await otherDeviceSeconds(uid);
+    final days = {...local.keys, ...others.keys};
+    return {
+      for (final day in days)
+        day: Map.unmodifiable({
+          for (final technique in {...?local[day]?.keys, ...?others[day]?.keys})
+            technique: (local[day]?[technique] ?? 0) + (others[day]?[technique] ?? 0),
+        }),
+    };
+  }
+
+  /// Seconds per day and technique that [uid]'s other devices have synced,
+  /// to add to this device's own log. When the day documents cannot be read
+  /// in [fetchTimeout], the days kept from the last read are returned.
+  Future<Map<String, Map<PracticeTechnique, int>>> otherDeviceSeconds(String uid) async {
+    final remote = await (_remoteReads[uid] ??=
+        _readRemote(uid).whenComplete(() => _remoteReads.remove(uid)));
+    final device = await _deviceId();
+    return {
+      for (final entry in remote.entries)
+        if (entry.value.keys.any((id) => id != device))
+          entry.key: Map.unmodifiable(
+              sumDeviceTotals(Map.of(entry.value)..remove(device))),
+    };
+  }
+
+  /// Every device's totals per day: the kept copy, updated with the day
+  /// documents written since its newest one.
+  Future<Map<String, DeviceTotals>> _readRemote(String uid) async {
+    final prefs = await SharedPreferences.getInstance();
+    var days = <String, DeviceTotals>{};
+    DateTime? newest;
+    try {
+      final kept = jsonDecode(prefs.getString(_remoteKey(uid)) ?? '{}') as Map<String, dynamic>;
+      final micros = kept['newest'];
+      if (micros is int) newest = DateTime.fromMicrosecondsSinceEpoch(micros);
+      final keptDays = kept['days'];
+      if (keptDays is Map<String, dynamic>) {
+        days = {
+          for (final entry in keptDays.entries)
+            if (entry.value is Map<String, dynamic>)
+              entry.key: deviceTotalsOf({'devices': entry.value}),
+        };
+      }
+    } catch (e) {
+      debugPrint('Ignoring kept practice history: $e');
+      days = {};
+      newest = null;
+    }
+
+    final Map<String, Map<String, dynamic>> changed;
+    try {
+      changed = await _source.fetchDays(uid, updatedSince: newest).timeout(fetchTimeout);
+    } catch (e) {
+      debugPrint('Error reading synced practice history: $e');
+      return days;
+    }
+    if (changed.isEmpty) return days;
+    changed.forEach((day, document) {
+      // Totals only grow, so merging keeps the newer value either way.
+      days[day] = mergeDeviceTotals(days[day] ?? const {}, deviceTotalsOf(document));
+      final updated = document['updatedAt'];
+      if (updated is DateTime && (newest == null || updated.isAfter(newest!))) {
+        newest = updated;
+      }
+    });
+    await prefs.setString(
+        _remoteKey(uid),
+        jsonEncode({
+          if (newest != null) 'newest': newest!.microsecondsSinceEpoch,
+          'days': days,
+        }));
+    return days;
+  }
+}
@@ -0,0 +1,189 @@
+import 'dart:async';
+
+import 'package:firebase_auth/firebase_auth.dart';
+import 'package:flutter/foundation.dart';
+
+import 'breath_session_scheduler.dart';
+import 'practice_log.dart';
+
+enum SessionEventType { start, phaseComplete, roundComplete, complete, abort }
+
+/// One structured event from a breathing screen.
+class SessionEvent {
+  final int sessionId;
+  final String uid;
+  final PracticeTechnique technique;
+  final SessionEventType type;
+  final DateTime at;
+  final int round; // 0-based
+  final String phase;
+  final Duration duration; // phase length for phaseComplete
+
+  const SessionEvent(
+    this.sessionId,
+    this.uid,
+    this.technique,
+    this.type,
+    this.at, {
+    this.round = 0,
+    this.phase = '',
+    this.duration = Duration.zero,
+  });
+}
+
+/// Practice time earned by one session within one flushed batch.
+class SessionCredit {
+  final String uid;
+  final PracticeTechnique technique;
+  final DateTime start;
+  final Duration practised;
+
+  const SessionCredit(this.uid, this.technique, this.start, this.practised);
+}
+
+/// Sums completed phases per session. Runs on a background isolate.
+List<SessionCredit> summariseSessionEvents(List<SessionEvent> events) {
+  final credits = <int, SessionCredit>{};
+  for (final event in events) {
+    final previous = credits[event.sessionId];
+    final practised = (previous?.practised ?? Duration.zero) +
+        (event.type == SessionEventType.phaseComplete ? event.duration : Duration.zero);
+    credits[event.sessionId] = SessionCredit(event.uid, event.technique,
+        previous?.start ?? event.at, practised);
+  }
+  return credits.values.where((c) => c.practised > Duration.zero).toList();
+}
+
+/// Buffers breathing-session events and credits practice time in batches.
+///
+/// Screens report each completed phase instead of writing to storage. Events
+/// collect in memory and are flushed after [flushInterval] or once
+/// [maxBatchSize] are waiting. A flush summarises the batch on a background
+/// isolate into per-session practice time and appends one [PracticeLog]
+/// record per session, tagged with its technique. Only time spent in completed
+/// phases counts, so an idle or paused screen earns nothing.
+class SessionTelemetry {
+  SessionTelemetry({
+    PracticeLog? log,
+    String? Function()? currentUid,
+    this.flushInterval = const Duration(seconds: 30),
+    this.maxBatchSize = 64,
+  })  : _log = log ?? PracticeLog.instance,
+        _currentUid = currentUid ?? (() => FirebaseAuth.instance.currentUser?.uid);
+
+  static final SessionTelemetry instance = SessionTelemetry();
+
+  final PracticeLog _log;
+  final String? Function() _currentUid;
+  final Duration flushInterval;
+  final int maxBatchSize;
+
+  List<SessionEvent> _buffer = [];
+  Timer? _timer;
+  Future<void> _flushing = Future.value();
+  int _nextSessionId = 0;
+
+  int get pendingEvents => _buffer.length;
+
+  /// Starts tracking a session. Without a signed-in user nothing is recorded.
+  SessionTracker begin(PracticeTechnique technique) {
+    final tracker = SessionTracker._(this, _nextSessionId++, technique, _currentUid());
+    tracker._emit(SessionEventType.start);
+    return tracker;
+  }
+
+  void _add(SessionEvent event) {
+    _buffer.add(event);
+    if (_buffer.length >= maxBatchSize) {
+      flush();
+    } else {
+      _timer ??= Timer(flushInterval, flush);
+    }
+  }
+
+  /// Credits everything buffered so far.
+  Future<void> flush() {
+    _timer?.cancel();
+    _timer = null;
+    if (_buffer.isEmpty) return _flushing;
+    final batch = _buffer;
+    _buffer = [];
+    return _flushing = _flushing.then((_) => _write(batch));
+  }
+
+  Future<void> _write(List<SessionEvent> batch) async {
+    try {
+      final credits = await compute(summariseSessionEvents, batch);
+      for (final credit in credits) {
+        await _log.append(
+          uid: credit.uid,
+          start: credit.start,
+          duration: credit.practised,
+          technique: credit.technique,
+        );
+      }
+    } catch (e) {
+      debugPrint('Error flushing session telemetry: $e');
+    }
+  }
+}
+
+/// Handle a breathing screen holds for the session it is running.
+class SessionTracker {
+  SessionTracker._(this._telemetry, this._sessionId, this.technique, this._uid);
+
+  final SessionTelemetry _telemetry;
+  final int _sessionId;
+  final PracticeTechnique technique;
+  final String? _uid;
+
+  BreathPhaseEvent? _currentPhase;
+  bool _closed = false;
+
+  bool get isOpen => !_closed;
+
+  void _emit(SessionEventType type,
+      {int round = 0, String phase = '', Duration duration = Duration.zero}) {
+    final uid = _uid;
+    if (_closed || uid == null) return;
+    _telemetry._add(SessionEvent(_sessionId, uid, technique, type, DateTime.now(),
+        round: round, phase: phase, duration: duration));
+  }
+
+  void phaseComplete(String phase, Duration duration, {int round = 0}) {
+    _emit(SessionEventType.phaseComplete, round: round, phase: phase, duration: duration);
+  }
+
+  void roundComplete(int round) {
+    _emit(SessionEventType.roundComplete, round: round);
+  }
+
+  /// For scheduler-driven screens: a new phase completes the one before it.
+  void phaseStarted(BreathPhaseEvent event) {
+    final previous = _currentPhase;
+    _currentPhase = event;
+    if (previous == null) return;
+    phaseComplete(previous.label, previous.duration, round: previous.round);
+    if (event.round > previous.round) {
+      roundComplete(previous.round);
+    }
+  }
+
+  /// Ends the session normally; a scheduler-driven session credits its last phase.
+  void complete() {
+    final last = _currentPhase;
+    if (last != null) {
+      phaseComplete(last.label, last.duration, round: last.round);
+      roundComplete(last.round);
+      _currentPhase = null;
+    }
+    _emit(SessionEventType.complete);
+    _closed = true;
+  }
+
+  /// Ends the session early, e.g. when the screen is closed mid-session.
+  void abort() {
+    _emit(SessionEventType.abort, round: _currentPhase?.round ?? 0);
+    _closed = true;
+  }
+}
@@ -0,0 +1,189 @@
+import 'dart:async';
+import 'dart:convert';
+
+import 'package:firebase_auth/firebase_auth.dart';
+import 'package:firebase_core/firebase_core.dart';
+import 'package:flutter/widgets.dart';
+import 'package:shared_preferences/shared_preferences.dart';
+
+import 'metrics.dart';
+import 'technique_catalog.dart';
+
+/// Who the home screen is for.
+///
+/// Until auth has answered this is the last signed-in user as remembered on
+/// this device ([live] false): enough to draw the home screen from the cached
+/// profile, but nothing that needs Firebase may run yet.
+class HomeUser {
+  final String uid;
+  final String? photoUrl;
+  final bool live;
+
+  const HomeUser(this.uid, {this.photoUrl, this.live = true});
+
+  static HomeUser? fromFirebase(User? user) =>
+      user == null ? null : HomeUser(user.uid, photoUrl: user.photoURL);
+
+  Map<String, dynamic> toJson() => {'uid': uid, 'photoUrl': photoUrl};
+
+  static HomeUser? fromJson(String? json) {
+    if (json == null) return null;
+    try {
+      final map = jsonDecode(json) as Map<String, dynamic>;
+      return HomeUser(map['uid'] as String,
+          photoUrl: map['photoUrl'] as String?, live: false);
+    } catch (_) {
+      return null;
+    }
+  }
+}
+
+enum StartupStage {
+  /// Nothing known yet: no cached user, and auth has not answered.
+  starting,
+
+  /// Showing the cached home shell while Firebase and auth start.
+  cached,
+
+  /// Auth has answered; [StartupState.user] is the signed-in user or null.
+  live,
+}
+
+class StartupState {
+  final StartupStage stage;
+  final HomeUser? user;
+
+  const StartupState(this.stage, [this.user]);
+}
+
+/// Runs cold start work side by side instead of one step after another.
+///
+/// `main` calls [start] and then `runApp` straight away. Firebase, auth,
+/// SharedPreferences and the technique catalog start together; the image and
+/// audio warm-up starts with the first frame. As soon as preferences are read
+/// the last signed-in user is known, and [state] moves to
+/// [StartupStage.cached] so the home screen can be drawn from the local
+/// profile cache. When auth answers, [state] moves to [StartupStage.live]
+/// and the screen swaps in live data.
+///
+/// The first frame is held until preferences are read, for at most
+/// [firstFrameBudget], so that it already shows the shell rather than a
+/// spinner. `startup.first_frame` and `startup.interactive` are recorded in
+/// [Metrics], measured from [start].
+class StartupOrchestrator {
+  StartupOrchestrator({
+    Future<void> Function()? initFirebase,
+    Stream<HomeUser?> Function()? authStates,
+    Future<SharedPreferences> Function()? preferences,
+    this.holdFirstFrame = true,
+    this.firstFrameBudget = const Duration(milliseconds: 100),
+  })  : _initFirebase = initFirebase ?? _defaultInitFirebase,
+        _authStates = authStates ?? _defaultAuthStates,
+        _preferences = preferences ?? SharedPreferences.getInstance;
+
+  static final StartupOrchestrator instance = StartupOrchestrator();
+
+  static const String _lastUserKey = 'startup_last_user';
+
+  final Future<void> Function() _initFirebase;
+  final Stream<HomeUser?> Function() _authStates;
+  final Future<SharedPreferences> Function() _preferences;
+  final bool holdFirstFrame;
+  final Duration firstFrameBudget;
+
+  final ValueNotifier<StartupState> state =
+      ValueNotifier(const StartupState(StartupStage.starting));
+
+  Future<void>? _started;
+  StreamSubscription<HomeUser?>? _auth;
+  int _startedAt = 0;
+  bool _interactiveRecorded = false;
+
+  static Future<void> _defaultInitFirebase() => Firebase.initializeApp();
+
+  static Stream<HomeUser?> _defaultAuthStates() =>
+      FirebaseAuth.instance.authStateChanges().map(HomeUser.fromFirebase);
+
+  /// Starts everything once; later calls return the same future, which
+  /// completes when auth has answered.
+  Future<void> start() => _started ??= _run();
+
+  Future<void> _run() async {
+    _startedAt = Metrics.now();
+    final binding = WidgetsBinding.instance;
+    var holding = holdFirstFrame;
+    void release() {
+      if (!holding) return;
+      holding = false;
+      binding.allowFirstFrame();
+    }
+
+    if (holding) {
+      binding.deferFirstFrame();
+      Timer(firstFrameBudget, release);
+    }
+    binding.waitUntilFirstFrameRasterized.then((_) => Metrics.instance
+        .histogram('startup.first_frame')
+        .recordSince(_startedAt));
+
+    TechniqueCatalog.load().ignore();
+    final firebase = Metrics.instance
+        .histogram('startup.firebase_init')
+        .time(_initFirebase);
+    final prefs = _preferences();
+    prefs.then((prefs) {
+      if (state.value.stage == StartupStage.starting) {
+        final cached = HomeUser.fromJson(prefs.getString(_lastUserKey));
+        if (cached != null) state.value = StartupState(StartupStage.cached, cached);
+      }
+    }).catchError((e) {
+      debugPrint('Error reading cached user: $e');
+    }).whenComplete(release);
+
+    try {
+      await firebase;
+    } catch (e) {
+      debugPrint('Error initialising Firebase: $e');
+      release();
+      state.value = const StartupState(StartupStage.live);
+      return;
+    }
+
+    final answered = Completer<void>();
+    _auth = _authStates().listen((user) {
+      state.value = StartupState(StartupStage.live, user);
+      _remember(prefs, user);
+      _recordInteractive();
+      if (!answered.isCompleted) answered.complete();
+    }, onError: (e) {
+      debugPrint('Auth state error: $e');
+    });
+    await answered.future;
+  }
+
+  void _recordInteractive() {
+    if (_interactiveRecorded) return;
+    _interactiveRecorded = true;
+    WidgetsBinding.instance.endOfFrame.then((_) => Metrics.instance
+        .histogram('startup.interactive')
+        .recordSince(_startedAt));
+  }
+
+  Future<void> _remember(Future<SharedPreferences> prefs, HomeUser? user) async {
+    try {
+      final p = await prefs;
+      if (user == null) {
+        await p.remove(_lastUserKey);
+      } else {
+        await p.setString(_lastUserKey, jsonEncode(user.toJson()));
+      }
+    } catch (e) {
+      debugPrint('Error caching signed-in user: $e');
+    }
+  }
+
+  Future<void> dispose() async {
+    await _auth?.cancel();
+    state.dispose();
+  }
+}
@@ -0,0 +1,210 @@
+import 'dart:convert';
+
+import 'package:flutter/foundation.dart';
+import 'package:flutter/services.dart';
+
+import 'course_progress_store.dart';
+
+/// The session screen a technique starts.
+enum TechniqueScreen { bilateral, box, ujjayi, abdominal, bhramari }
+
+/// How a technique's session length is picked by default.
+enum DurationMode { rounds, minutes }
+
+/// One selectable breathing pattern, in seconds per phase.
+class BreathPattern {
+  final String label;
+  final int inhale;
+  final int hold1;
+  final int exhale;
+  final int hold2;
+  final bool recommended;
+
+  const BreathPattern({
+    required this.label,
+    required this.inhale,
+    this.hold1 = 0,
+    required this.exhale,
+    this.hold2 = 0,
+    this.recommended = false,
+  });
+
+  factory BreathPattern.fromJson(Map<String, dynamic> json) {
+    return BreathPattern(
+      label: json['label'] as String,
+      inhale: json['inhale'] as int,
+      hold1: json['hold1'] as int? ?? 0,
+      exhale: json['exhale'] as int,
+      hold2: json['hold2'] as int? ?? 0,
+      recommended: json['recommended'] as bool? ?? false,
+    );
+  }
+
+  int get roundSeconds => inhale + hold1 + exhale + hold2;
+
+  /// "4:6", or "4:4:4:4" when the pattern has holds.
+  String get ratio => hold1 == 0 && hold2 == 0
+      ? '$inhale:$exhale'
+      : '$inhale:$hold1:$exhale:$hold2';
+}
+
+/// A visualization background offered before a session.
+class VisualizationOption {
+  final String name;
+  final String path;
+
+  const VisualizationOption(this.name, this.path);
+
+  factory VisualizationOption.fromJson(Map<String, dynamic> json) =>
+      VisualizationOption(json['name'] as String, json['path'] as String);
+}
+
+/// An ambient sound offered before a session. [audio] is relative to
+/// `assets/` and empty for silence.
+class SoundOption {
+  final String name;
+  final String audio;
+
+  const SoundOption(this.name, this.audio);
+
+  factory SoundOption.fromJson(Map<String, dynamic> json) =>
+      SoundOption(json['name'] as String, json['audio'] as String);
+}
+
+/// Everything the instruction and course pages show for one technique.
+class Technique {
+  final String id;
+  final String title;
+  final String subtitle;
+  final String? description;
+  final TechniqueScreen screen;
+  final DurationMode durationMode;
+  final String? video;
+  final List<BreathPattern> patterns;
+  final bool customizable;
+  final List<VisualizationOption> visualizations;
+  final List<SoundOption> sounds;
+  final List<String> steps;
+  final String courseSummary;
+  final CourseChapters? chapters;
+
+  Technique._({
+    required this.id,
+    required this.title,
+    required this.subtitle,
+    required this.description,
+    required this.screen,
+    required this.durationMode,
+    required this.video,
+    required this.patterns,
+    required this.customizable,
+    required this.visualizations,
+    required this.sounds,
+    required this.steps,
+    required this.courseSummary,
+    required this.chapters,
+  });
+
+  factory Technique._fromJson(Map<String, dynamic> json,
+      List<VisualizationOption> visualizations, List<SoundOption> sounds) {
+    final course = json['course'] as Map<String, dynamic>? ?? const {};
+    final chapters = course['chapters'] as List?;
+    final ownVisualizations = json['visualizations'] as List?;
+    return Technique._(
+      id: json['id'] as String,
+      title: json['title'] as String,
+      subtitle: json['subtitle'] as String? ?? '',
+      description: json['description'] as String?,
+      screen: TechniqueScreen.values.byName(json['screen'] as String),
+      durationMode: DurationMode.values.byName(json['durationMode'] as String? ?? 'minutes'),
+      video: json['video'] as String?,
+      patterns: List.unmodifiable((json['patterns'] as List)
+          .map((p) => BreathPattern.fromJson(p as Map<String, dynamic>))),
+      customizable: json['customizable'] as bool? ?? false,
+      visualizations: json['visualization'] == false
+          ? const []
+          : ownVisualizations == null
+              ? visualizations
+              : List.unmodifiable(ownVisualizations
+                  .map((v) => VisualizationOption.fromJson(v as Map<String, dynamic>))),
+      sounds: json['ambientSound'] == false ? const [] : sounds,
+      steps: List.unmodifiable((json['steps'] as List).cast<String>()),
+      courseSummary: course['summary'] as String? ?? '',
+      chapters: chapters == null || chapters.isEmpty
+          ? null
+          : CourseChapters(chapters.map((c) => Map<String, String>.from(c as Map))),
+    );
+  }
+
+  BreathPattern get defaultPattern =>
+      patterns.firstWhere((p) => p.recommended, orElse: () => patterns.first);
+}
+
+/// The techniques behind the instruction and course pages, read from
+/// `assets/catalog/techniques.json`.
+///
+/// The asset is parsed once, at startup, and every page after that looks its
+/// technique up by id. Adding or rewording a technique is a data change; the
+/// pages are built by [TechniquePage] and [TechniqueCoursePage] from what is
+/// here, and only when they are opened.
+class TechniqueCatalog {
+  TechniqueCatalog._(this.techniques, this.minuteOptions, this.roundOptions)
+      : _byId = {for (final t in techniques) t.id: t};
+
+  static const String asset = 'assets/catalog/techniques.json';
+
+  static Future<TechniqueCatalog>? _loading;
+  static TechniqueCatalog? _loaded;
+
+  final List<Technique> techniques;
+  final List<int> minuteOptions;
+  final List<int> roundOptions;
+  final Map<String, Technique> _byId;
+
+  /// The catalog once [load] has finished, otherwise null.
+  static TechniqueCatalog? get loaded => _loaded;
+
+  /// Reads and parses the catalog; later calls share the first result.
+  static Future<TechniqueCatalog> load([AssetBundle? bundle]) {
+    return _loading ??= _load(bundle ?? rootBundle);
+  }
+
+  static Future<TechniqueCatalog> _load(AssetBundle bundle) async {
+    try {
+      return _loaded = TechniqueCatalog.parse(await bundle.loadString(asset));
+    } catch (e) {
+      debugPrint('Error loading technique catalog: $e');
+      _loading = null;
+      rethrow;
+    }
+  }
+
+  factory TechniqueCatalog.parse(String source) {
+    final json = jsonDecode(source) as Map<String, dynamic>;
+    final visualizations = List<VisualizationOption>.unmodifiable(
+        (json['visualizations'] as List)
+            .map((v) => VisualizationOption.fromJson(v as Map<String, dynamic>)));
+    final sounds = List<SoundOption>.unmodifiable((json['sounds'] as List)
+        .map((s) => SoundOption.fromJson(s as Map<String, dynamic>)));
+    final durations = json['durations'] as Map<String, dynamic>;
+    return TechniqueCatalog._(
+      List.unmodifiable((json['techniques'] as List).map((t) =>
+          Technique._fromJson(t as Map<String, dynamic>, visualizations, sounds))),
+      List.unmodifiable((durations['minutes'] as List).cast<int>()),
+      List.unmodifiable((durations['rounds'] as List).cast<int>()),
+    );
+  }
+
+  Technique operator [](String id) {
+    final technique = _byId[id];
+    if (technique == null) throw ArgumentError.value(id, 'id', 'Unknown technique');
+    return technique;
+  }
+
+  Technique? byTitle(String title) {
+    for (final technique in techniques) {
+      if (technique.title == title) return technique;
+    }
+    return null;
+  }
+}
@@ -0,0 +1,251 @@
+import 'dart:async';
+import 'dart:convert';
+
+import 'package:cloud_firestore/cloud_firestore.dart';
+import 'package:flutter/foundation.dart';
+import 'package:shared_preferences/shared_preferences.dart';
+
+import 'metrics.dart';
+
+/// The fields of `users/{uid}` the app reads.
+class UserProfile {
+  final String uid;
+  final String name;
+  final String email;
+
+  const UserProfile({required this.uid, this.name = '', this.email = ''});
+
+  factory UserProfile.fromMap(String uid, Map<String, dynamic> data) {
+    return UserProfile(
+      uid: uid,
+      name: data['name'] as String? ?? '',
+      email: data['email'] as String? ?? '',
+    );
+  }
+
+  Map<String, dynamic> toMap() => {'name': name, 'email': email};
+
+  @override
+  bool operator ==(Object other) =>
+      other is UserProfile &&
+      other.uid == uid &&
+      other.name == name &&
+      other.email == email;
+
+  @override
+  int get hashCode => Object.hash(uid, name, email);
+}
+
+/// Where user documents come from; Firestore in the app, memory in tests.
+abstract class UserProfileSource {
+  Future<Map<String, dynamic>?> fetch(String uid);
+
+  /// Emits the document on every change, or null while it does not exist.
+  Stream<Map<String, dynamic>?> watch(String uid);
+
+  Future<void> write(String uid, Map<String, dynamic> data);
+}
+
+class FirestoreUserProfileSource implements UserProfileSource {
+  FirestoreUserProfileSource([FirebaseFirestore? firestore])
+      : _firestore = firestore ?? FirebaseFirestore.instance;
+
+  final FirebaseFirestore _firestore;
+
+  DocumentReference<Map<String, dynamic>> _doc(String uid) =>
+      _firestore.collection('users').doc(uid);
+
+  @override
+  Future<Map<String, dynamic>?> fetch(String uid) async => (await _doc(uid).get()).data();
+
+  @override
+  Stream<Map<String, dynamic>?> watch(String uid) => _doc(uid).snapshots().map((s) => s.data());
+
+  @override
+  Future<void> write(String uid, Map<String, dynamic> data) => _doc(uid).set(data);
+}
+
+/// In-memory stand-in for Firestore, for tests.
+class InMemoryUserProfileSource implements UserProfileSource {
+  final Map<String, Map<String, dynamic>> documents = {};
+  final Map<String, StreamController<Map<String, dynamic>?>> _watchers = {};
+  int fetchCount = 0;
+  int watchCount = 0;
+
+  /// Lets a test hold a fetch in flight.
+  Completer<void>? fetchGate;
+
+  @override
+  Future<Map<String, dynamic>?> fetch(String uid) async {
+    fetchCount++;
+    await fetchGate?.future;
+    return documents[uid];
+  }
+
+  @override
+  Stream<Map<String, dynamic>?> watch(String uid) {
+    watchCount++;
+    final controller = _watchers.putIfAbsent(
+        uid, () => StreamController<Map<String, dynamic>?>.broadcast());
+    scheduleMicrotask(() => controller.add(documents[uid]));
+    return controller.stream;
+  }
+
+  @override
+  Future<void> write(String uid, Map<String, dynamic> data) async {
+    documents[uid] = Map.of(data);
+    _watchers[uid]?.add(documents[uid]);
+  }
+}
+
+/// Process-wide, offline-first access to user profiles.
+///
+/// [cached] answers synchronously from memory, and [load] falls back to the
+/// copy kept in SharedPreferences, so screens can greet the user before the
+/// network answers. The first [watch] for a uid opens the only Firestore
+/// `snapshots()` listener for it; every screen shares that listener, and each
+/// snapshot refreshes both caches. Concurrent [refresh] calls share one
+/// request.
+class UserProfileRepository {
+  UserProfileRepository({UserProfileSource? source})
+      : _sourceOverride = source;
+
+  static final UserProfileRepository instance = UserProfileRepository();
+
+  final UserProfileSource? _sourceOverride;
+  UserProfileSource? _defaultSource;
+
+  UserProfileSource get _source =>
+      _sourceOverride ?? (_defaultSource ??= FirestoreUserProfileSource());
+
+  final LatencyHistogram _fetchLatency =
+      Metrics.instance.histogram('firestore.profile_fetch');
+  final LatencyHistogram _cacheLatency =
+      Metrics.instance.histogram('prefs.profile_cache_read');
+
+  final Map<String, UserProfile> _memory = {};
+  final Map<String, Future<UserProfile?>> _inFlight = {};
+  final Map<String, StreamController<UserProfile>> _controllers = {};
+  final Map<String, StreamSubscription<Map<String, dynamic>?>> _listeners = {};
+
+  static String _cacheKey(String uid) => 'user_profile_$uid';
+
+  /// The last profile seen this session, without waiting.
+  UserProfile? cached(String uid) => _memory[uid];
+
+  /// The last-known profile: memory, then disk, then the network.
+  Future<UserProfile?> load(String uid) async {
+    return await _loadLocal(uid) ?? await refresh(uid);
+  }
+
+  /// The last-known profile from memory or disk, without the network.
+  Future<UserProfile?> loadCached(String uid) => _loadLocal(uid);
+
+  Future<UserProfile?> _loadLocal(String uid) async {
+    final inMemory = _memory[uid];
+    if (inMemory != null) return inMemory;
+
+    final onDisk = await _readCache(uid);
+    if (onDisk == null) return null;
+    return _memory.putIfAbsent(uid, () => onDisk);
+  }
+
+  /// Fetches the profile from the source; concurrent callers share one request.
+  Future<UserProfile?> refresh(String uid) {
+    return _inFlight[uid] ??= _fetch(uid).whenComplete(() => _inFlight.remove(uid));
+  }
+
+  Future<UserProfile?> _fetch(String uid) async {
+    try {
+      final data = await _fetchLatency.time(() => _source.fetch(uid));
+      if (data == null) return null;
+      final profile = UserProfile.fromMap(uid, data);
+      await _store(profile);
+      return profile;
+    } catch (e) {
+      debugPrint('Error fetching user profile: $e');
+      return _memory[uid];
+    }
+  }
+
+  /// The cached profile first, then every change, from one shared listener.
+  Stream<UserProfile> watch(String uid) {
+    final controller = _controllers.putIfAbsent(uid, () {
+      return StreamController<UserProfile>.broadcast(
+        onListen: () => _listen(uid),
+      );
+    });
+    return Stream.multi((listener) {
+      final current = _memory[uid];
+      if (current != null) {
+        listener.add(current);
+      } else {
+        // The listener brings the network copy; only the disk cache is read here.
+        _loadLocal(uid).then((profile) {
+          if (profile != null && !listener.isClosed) listener.add(profile);
+        });
+      }
+      final subscription = controller.stream.listen(listener.add);
+      listener.onCancel = subscription.cancel;
+    });
+  }
+
+  void _listen(String uid) {
+    if (_listeners.containsKey(uid)) return;
+    _listeners[uid] = _source.watch(uid).listen((data) {
+      if (data != null) {
+        _store(UserProfile.fromMap(uid, data));
+      }
+    }, onError: (e) {
+      debugPrint('User profile listener error: $e');
+    });
+  }
+
+  /// Creates `users/{uid}` unless it already exists.
+  Future<void> createIfMissing(UserProfile profile,
+      {Map<String, dynamic> extra = const {}}) async {
+    // Read the source directly: a failed read must not look like a missing user.
+    final existing = await _source.fetch(profile.uid);
+    if (existing != null) {
+      await _store(UserProfile.fromMap(profile.uid, existing));
+      return;
+    }
+    await save(profile, extra: extra);
+  }
+
+  /// Writes the profile and updates the caches straight away.
+  Future<void> save(UserProfile profile, {Map<String, dynamic> extra = const {}}) async {
+    await _source.write(profile.uid, {...profile.toMap(), ...extra});
+    await _store(profile);
+  }
+
+  Future<void> _store(UserProfile profile) async {
+    if (_memory[profile.uid] == profile) return;
+    _memory[profile.uid] = profile;
+    _controllers[profile.uid]?.add(profile);
+    final prefs = await SharedPreferences.getInstance();
+    await prefs.setString(_cacheKey(profile.uid), jsonEncode(profile.toMap()));
+  }
+
+  Future<UserProfile?> _readCache(String uid) async {
+    final start = Metrics.now();
+    final prefs = await SharedPreferences.getInstance();
+    final json = prefs.getString(_cacheKey(uid));
+    _cacheLatency.recordSince(start);
+    if (json == null) return null;
+    try {
+      return UserProfile.fromMap(uid, jsonDecode(json) as Map<String, dynamic>);
+    } on FormatException {
+      return null;
+    }
+  }
+
+  /// Drops the listener and caches, e.g. on sign-out.
+  Future<void> clear(String uid) async {
+    await _listeners.remove(uid)?.cancel();
+    await _controllers.remove(uid)?.close();
+    _memory.remove(uid);
+    final prefs = await SharedPreferences.getInstance();
+    await prefs.remove(_cacheKey(uid));
+  }
+}
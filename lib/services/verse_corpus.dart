@@ -0,0 +1,127 @@
+import 'dart:collection';
+import 'dart:convert';
+import 'dart:io';
+import 'dart:typed_data';
+
+import 'package:flutter/foundation.dart';
+import 'package:flutter/services.dart';
+
+/// One text in one language, inflated but not decoded.
+///
+/// The verses stay as the UTF-8 bytes of the corpus file with the offset of
+/// each line, so a book costs two typed arrays however long it is; a verse
+/// becomes a [String] only when a page of it is read.
+class VerseBook {
+  VerseBook._(this._bytes, this._starts);
+
+  /// Verses shown at once, one on each side of the box.
+  static const int pageSize = 4;
+
+  final Uint8List _bytes;
+  // Start of each verse, plus one past the end of the last.
+  final Int32List _starts;
+
+  int get length => _starts.length - 1;
+
+  String operator [](int index) {
+    RangeError.checkValidIndex(index, this, 'index', length);
+    // Each verse ends in '\n', which is not part of it.
+    return utf8.decode(
+        Uint8List.sublistView(_bytes, _starts[index], _starts[index + 1] - 1));
+  }
+
+  /// The [pageSize] verses from [start], wrapping round to the first verse
+  /// for texts shorter than a page.
+  List<String> page(int start) {
+    if (length == 0) return const [];
+    return List.generate(pageSize, (i) => this[(start + i) % length],
+        growable: false);
+  }
+
+  /// Inflates a gzip corpus file of newline-terminated verses. Run through
+  /// [compute] so the UI isolate never does the work.
+  static VerseBook inflate(Uint8List compressed) {
+    final bytes = Uint8List.fromList(gzip.decode(compressed));
+    final starts = <int>[0];
+    for (var i = 0; i < bytes.length; i++) {
+      if (bytes[i] == 0x0A) starts.add(i + 1);
+    }
+    if (starts.last != bytes.length) {
+      throw const FormatException('Verse corpus file does not end in a newline');
+    }
+    return VerseBook._(bytes, Int32List.fromList(starts));
+  }
+}
+
+/// The chanting texts box breathing can show, read from `assets/verses`.
+///
+/// `index.json` says which texts exist in which languages and how many verses
+/// each has; it is small and read once. A text's verses are inflated off the
+/// UI isolate the first time they are asked for and kept for the
+/// [capacity] most recently used text and language pairs, so switching
+/// back and forth between languages does not reload them and adding texts
+/// does not grow what stays in memory. `tool/verse_corpus.dart` writes the
+/// assets.
+class VerseCorpus {
+  VerseCorpus({AssetBundle? bundle, this.capacity = 3})
+      : _bundle = bundle ?? rootBundle;
+
+  static final VerseCorpus instance = VerseCorpus();
+
+  static const String directory = 'assets/verses';
+
+  final AssetBundle _bundle;
+  final int capacity;
+
+  Future<Map<String, dynamic>>? _index;
+  // Most recently used last.
+  final LinkedHashMap<String, Future<VerseBook>> _books = LinkedHashMap();
+
+  Future<Map<String, dynamic>> _loadIndex() => _index ??= _readIndex();
+
+  Future<Map<String, dynamic>> _readIndex() async {
+    try {
+      final source = await _bundle.loadString('$directory/index.json');
+      return jsonDecode(source)['texts'] as Map<String, dynamic>;
+    } catch (e) {
+      _index = null;
+      rethrow;
+    }
+  }
+
+  /// The verses of [text] in [language], from the cache when it has them.
+  Future<VerseBook> book(String text, String language) {
+    final key = '$text/$language';
+    final cached = _books.remove(key);
+    if (cached != null) {
+      _books[key] = cached;
+      return cached;
+    }
+    final loading = _loadBook(text, language);
+    _books[key] = loading;
+    while (_books.length > capacity) {
+      _books.remove(_books.keys.first);
+    }
+    loading.then<void>((_) {}, onError: (Object e) {
+      debugPrint('Error loading verses $key: $e');
+      if (identical(_books[key], loading)) _books.remove(key);
+    });
+    return loading;
+  }
+
+  Future<VerseBook> _loadBook(String text, String language) async {
+    final entry = ((await _loadIndex())[text] as Map<String, dynamic>?)?[language]
+        as Map<String, dynamic>?;
+    if (entry == null) {
+      throw ArgumentError('No verses for $text in $language');
+    }
+    final data = await _bundle.load('$directory/${entry['file']}');
+    final compressed =
+        data.buffer.asUint8List(data.offsetInBytes, data.lengthInBytes);
+    return compute(VerseBook.inflate, compressed);
+  }
+
+  /// Text and language pairs currently held, least recently used first.
+  @visibleForTesting
+  Iterable<String> get cachedKeys => _books.keys;
+}
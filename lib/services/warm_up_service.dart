@@ -0,0 +1,166 @@
+import 'dart:developer';
+import 'dart:ui' as ui;
+
+import 'package:audioplayers/audioplayers.dart' as audioplayers;
+import 'package:flutter/material.dart';
+
+import '../common_widgets/sized_asset_image.dart';
+import 'ambient_audio.dart';
+import 'breath_cue_engine.dart';
+import 'metrics.dart';
+
+/// Work done while `AuthWrapper` waits on `authStateChanges()`, so that the
+/// home screen and the first session screen do not pay for it on screen.
+///
+///  * Home images are decoded at the size [SizedAssetImage] will ask for, so
+///    the grid finds them in the image cache on its first frame instead of
+///    decoding eleven images during the slide-in.
+///  * The native cue engine decodes the bells; the audioplayers fallback gets
+///    its asset copies made; the Bhramari hum is opened as an [AmbientTrack]
+///    that the screen takes over with [takeHumTrack].
+///  * The gradient, clip and shadow shaders the cards use are compiled by
+///    drawing them once off screen. With Impeller there is nothing to compile
+///    and this only costs one small raster.
+///
+/// Every step is best effort: a failure is logged and startup carries on.
+class WarmUpService {
+  WarmUpService();
+
+  static final WarmUpService instance = WarmUpService();
+
+  /// Bell assets as the session screens name them for audioplayers.
+  static const List<String> bellAssets = [
+    '../assets/music/inhale_bell1.mp3',
+    '../assets/music/exhale_bell1.mp3',
+    'music/inhale_bell1.mp3',
+    'music/exhale_bell1.mp3',
+  ];
+
+  static const String humAsset = 'assets/music/hmmsound_.mp3';
+
+  /// Loop seam of the hum; Bhramari opens it with the same crossfade so a
+  /// screen that missed the warm-up still shares its source.
+  static const Duration humCrossfade = Duration(milliseconds: 500);
+
+  Future<void>? _running;
+  AmbientTrack? _hum;
+
+  /// Starts the warm-up once; later calls return the same future.
+  ///
+  /// [images] maps each asset to the logical box it will be drawn in, e.g.
+  /// MeditationScreen.imageBoxes.
+  Future<void> start(BuildContext context, Map<String, Size> images) {
+    return _running ??= _run(context, images);
+  }
+
+  Future<void> _run(BuildContext context, Map<String, Size> images) async {
+    final task = TimelineTask()..start('WarmUp');
+    // Images first: they are needed on the very next screen.
+    final decoding = precacheImages(context, images);
+    await Future.wait([
+      decoding,
+      warmShaders(),
+      _warmAudio(),
+    ]);
+    task.finish();
+  }
+
+  /// Decodes [images] into the image cache at their on-screen size. Each
+  /// decode is timed into `home.image_decode`.
+  Future<void> precacheImages(BuildContext context, Map<String, Size> images) {
+    final double pixelRatio = MediaQuery.of(context).devicePixelRatio;
+    final decode = Metrics.instance.histogram('home.image_decode');
+    return Future.wait([
+      for (final entry in images.entries)
+        decode.time(() => precacheImage(
+              SizedAssetImage.provider(entry.key, entry.value, pixelRatio),
+              context,
+              onError: (e, _) =>
+                  debugPrint('Warm-up could not decode ${entry.key}: $e'),
+            )),
+    ]);
+  }
+
+  /// Rasterizes one small picture using the card paint setups.
+  static Future<void> warmShaders() async {
+    const size = Size(64, 64);
+    final recorder = ui.PictureRecorder();
+    final canvas = Canvas(recorder);
+    final rect = Offset.zero & size;
+    final rrect = RRect.fromRectAndRadius(rect.deflate(8), const Radius.circular(20));
+
+    // Card shadow.
+    canvas.drawRRect(
+      rrect.shift(const Offset(0, 6)),
+      Paint()
+        ..color = Colors.black.withOpacity(0.1)
+        ..maskFilter = const MaskFilter.blur(BlurStyle.normal, 6),
+    );
+
+    canvas.save();
+    canvas.clipRRect(rrect);
+    // Breathing card overlay: two colours with explicit stops.
+    canvas.drawRect(
+      rect,
+      Paint()
+        ..shader = const LinearGradient(
+          begin: Alignment.topCenter,
+          end: Alignment.bottomCenter,
+          stops: [0.4, 1.0],
+          colors: [Colors.transparent, Color(0xCC00897B)],
+        ).createShader(rect),
+    );
+    // Wisdom card and app bar overlays: diagonal, evenly spaced.
+    canvas.drawRect(
+      rect,
+      Paint()
+        ..shader = const LinearGradient(
+          begin: Alignment.topRight,
+          end: Alignment.bottomLeft,
+          colors: [Color(0x33000000), Color(0x80000000)],
+        ).createShader(rect),
+    );
+    canvas.restore();
+
+    final picture = recorder.endRecording();
+    try {
+      final image = await picture.toImage(size.width.toInt(), size.height.toInt());
+      image.dispose();
+    } catch (e) {
+      debugPrint('Shader warm-up failed: $e');
+    } finally {
+      picture.dispose();
+    }
+  }
+
+  Future<void> _warmAudio() async {
+    await Future.wait([
+      BreathCueEngine.instance.ensureLoaded(),
+      _cacheBells(),
+      _prepareHum(),
+    ]);
+  }
+
+  Future<void> _cacheBells() async {
+    try {
+      await audioplayers.AudioCache.instance.loadAll(bellAssets);
+    } catch (e) {
+      debugPrint('Bell warm-up failed: $e');
+    }
+  }
+
+  Future<void> _prepareHum() async {
+    try {
+      _hum = await AmbientAudio.instance.acquire(humAsset, crossfade: humCrossfade);
+    } catch (e) {
+      debugPrint('Hum warm-up failed: $e');
+    }
+  }
+
+  /// The prepared hum track, once; the caller owns and releases it.
+  AmbientTrack? takeHumTrack() {
+    final track = _hum;
+    _hum = null;
+    return track;
+  }
+}
@@ -1,4 +1,5 @@
 import 'package:flutter/material.dart';
+import 'package:meditation_app/common_widgets/sized_asset_image.dart';
 import 'package:meditation_app/Welcome/welcome_screen.dart';
 import 'package:meditation_app/greeting/login_page.dart'; // Ensure only one correct import
 
@@ -33,8 +34,9 @@ class _StartScreenState extends State<StartScreen> {
               mainAxisAlignment: MainAxisAlignment.center,
               children: [
                 // Add the image
-                Image.asset(
+                SizedAssetImage(
                   'assets/images/medit.png', // Replace with your image path
+                  fit: BoxFit.scaleDown,
                   width: 150, // Adjust size as needed
                   height: 150,
                 ),
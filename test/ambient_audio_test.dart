@@ -0,0 +1,130 @@
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:meditation_app/services/ambient_audio.dart';
+
+/// Records what the service asks of the engine.
+class _FakeBackend implements AmbientBackend {
+  final List<String> calls = [];
+  final Set<String> missing = {};
+  final Map<int, String> openSources = {};
+  int _nextId = 1;
+
+  @override
+  Future<int> open(String asset, Duration crossfade) async {
+    calls.add('open $asset ${crossfade.inMilliseconds}');
+    if (missing.contains(asset)) throw StateError('no such asset');
+    final id = _nextId++;
+    openSources[id] = asset;
+    return id;
+  }
+
+  @override
+  Future<void> close(int source) async {
+    calls.add('close ${openSources.remove(source)}');
+  }
+
+  @override
+  Future<int> createVoice(int source) async => _nextId++;
+
+  @override
+  Future<void> play(int voice, double volume, Duration fade) async {
+    calls.add('play $voice $volume ${fade.inMilliseconds}');
+  }
+
+  @override
+  Future<void> pause(int voice, Duration fade) async {
+    calls.add('pause $voice ${fade.inMilliseconds}');
+  }
+
+  @override
+  Future<void> stop(int voice, Duration fade) async {
+    calls.add('stop $voice ${fade.inMilliseconds}');
+  }
+
+  @override
+  Future<void> setVolume(int voice, double volume, Duration fade) async {
+    calls.add('volume $voice $volume');
+  }
+
+  @override
+  Future<void> disposeVoice(int voice) async {
+    calls.add('dispose $voice');
+  }
+}
+
+void main() {
+  test('catalog sound names resolve to bundle keys', () {
+    expect(AmbientAudio.assetKey('music/birds.mp3'), 'assets/music/birds.mp3');
+    expect(AmbientAudio.assetKey('assets/music/birds.mp3'), 'assets/music/birds.mp3');
+  });
+
+  test('tracks of one asset share a source until the last is released',
+      () async {
+    final backend = _FakeBackend();
+    final audio = AmbientAudio(backend: backend);
+
+    final first = await audio.acquire('music/birds.mp3');
+    final second = await audio.acquire('assets/music/birds.mp3');
+    expect(backend.calls.where((c) => c.startsWith('open')), hasLength(1));
+    expect(audio.sourceRefs, {'assets/music/birds.mp3#2000': 2});
+
+    await first.release();
+    expect(backend.openSources, hasLength(1));
+    await second.release();
+    await Future<void>.delayed(Duration.zero);
+    expect(backend.openSources, isEmpty);
+    expect(audio.sourceRefs, isEmpty);
+
+    await audio.acquire('music/birds.mp3');
+    expect(backend.calls.where((c) => c.startsWith('open')), hasLength(2));
+  });
+
+  test('a different crossfade opens its own source', () async {
+    final backend = _FakeBackend();
+    final audio = AmbientAudio(backend: backend);
+
+    await audio.acquire('assets/music/hmmsound_.mp3');
+    await audio.acquire('assets/music/hmmsound_.mp3',
+        crossfade: const Duration(milliseconds: 500));
+    expect(backend.calls, [
+      'open assets/music/hmmsound_.mp3 2000',
+      'open assets/music/hmmsound_.mp3 500',
+    ]);
+  });
+
+  test('a source that fails to open is not kept', () async {
+    final backend = _FakeBackend()..missing.add('assets/music/rain.mp3');
+    final audio = AmbientAudio(backend: backend);
+
+    await expectLater(audio.acquire('music/rain.mp3'), throwsStateError);
+    expect(audio.sourceRefs, isEmpty);
+    await expectLater(audio.acquire('music/rain.mp3'), throwsStateError);
+    expect(backend.calls.where((c) => c.startsWith('open')), hasLength(2));
+  });
+
+  test('a track forwards to its voice and goes quiet once released', () async {
+    final backend = _FakeBackend();
+    final audio = AmbientAudio(backend: backend);
+    final track = await audio.acquire('music/birds.mp3');
+    backend.calls.clear();
+
+    await track.play(volume: 0.5);
+    expect(track.isPlaying, isTrue);
+    await track.pause(fade: Duration.zero);
+    expect(track.isPlaying, isFalse);
+    await track.play();
+    await track.release(fadeOut: const Duration(milliseconds: 10));
+    await track.play();
+    await track.stop();
+    await Future<void>.delayed(Duration.zero);
+
+    expect(backend.calls, [
+      'play 2 0.5 300',
+      'pause 2 0',
+      'play 2 1.0 300',
+      'stop 2 10',
+      'dispose 2',
+      'close assets/music/birds.mp3',
+    ]);
+  });
+}
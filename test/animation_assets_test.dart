@@ -0,0 +1,94 @@
+import 'dart:io';
+import 'dart:typed_data';
+
+import 'package:flutter/services.dart';
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:meditation_app/services/animation_assets.dart';
+
+/// Serves assets from the project directory and counts the loads.
+class _DiskBundle extends CachingAssetBundle {
+  final Map<String, int> loads = {};
+
+  @override
+  Future<ByteData> load(String key) async {
+    loads[key] = (loads[key] ?? 0) + 1;
+    final bytes = await File(key).readAsBytes();
+    return ByteData.sublistView(bytes);
+  }
+}
+
+void main() {
+  TestWidgetsFlutterBinding.ensureInitialized();
+
+  const confetti = 'assets/animations/confetti.json';
+  const gif = 'assets/images/10.gif';
+
+  late _DiskBundle bundle;
+
+  setUp(() {
+    bundle = _DiskBundle();
+  });
+
+  test('parses a Lottie file once and shares the composition', () async {
+    final assets = AnimationAssets(bundle: bundle);
+
+    final first = await assets.lottie(confetti);
+    final second = await assets.lottie(confetti);
+
+    expect(identical(first, second), isTrue);
+    expect(bundle.loads[confetti], 1);
+    expect(first.duration, greaterThan(Duration.zero));
+  });
+
+  test('a failed parse is retried on the next request', () async {
+    final assets = AnimationAssets(bundle: bundle);
+
+    await expectLater(assets.lottie('assets/animations/missing.json'), throwsA(anything));
+    await expectLater(assets.lottie('assets/animations/missing.json'), throwsA(anything));
+    expect(bundle.loads['assets/animations/missing.json'], 2);
+  });
+
+  test('decodes GIF frames at the requested size and shares them', () async {
+    final assets = AnimationAssets(bundle: bundle);
+
+    final frames = await assets.acquireGif(gif, width: 32);
+    final again = await assets.acquireGif(gif, width: 32);
+
+    expect(identical(frames, again), isTrue);
+    expect(bundle.loads[gif], 1);
+    expect(frames.images, isNotEmpty);
+    expect(frames.images.every((image) => image.width == 32), isTrue);
+    expect(frames.durations.length, frames.images.length);
+    expect(frames.bytes, assets.cachedGifBytes);
+
+    // Looping wraps back to the first frame.
+    expect(frames.frameAt(Duration.zero), 0);
+    expect(frames.frameAt(frames.totalDuration), 0);
+
+    final larger = await assets.acquireGif(gif, width: 64);
+    expect(larger.images.first.width, 64);
+    expect(bundle.loads[gif], 2);
+  });
+
+  test('keeps released frames within budget and evicts least recently used', () async {
+    final probe = AnimationAssets(bundle: bundle);
+    final size = (await probe.acquireGif(gif, width: 32)).bytes;
+
+    // Room for one unused entry.
+    final assets = AnimationAssets(bundle: bundle, maxGifBytes: size);
+    final small = await assets.acquireGif(gif, width: 32);
+    assets.releaseGif(small);
+    expect(assets.isGifCached(gif, width: 32), isTrue);
+
+    final other = await assets.acquireGif(gif, width: 33);
+    // Still in use, so kept even though the cache is over budget.
+    expect(assets.isGifCached(gif, width: 33), isTrue);
+    expect(assets.isGifCached(gif, width: 32), isFalse);
+
+    assets.releaseGif(other);
+    assets.evictUnusedGifs();
+    expect(assets.isGifCached(gif, width: 33), isFalse);
+    expect(assets.cachedGifBytes, 0);
+  });
+}
@@ -0,0 +1,125 @@
+import 'dart:io';
+import 'dart:typed_data';
+import 'dart:ui' as ui;
+
+import 'package:flutter/painting.dart';
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:meditation_app/services/avatar_store.dart';
+
+void main() {
+  late Directory dir;
+  late List<Uri> fetched;
+  late List<int> resizedTo;
+  late AvatarStore store;
+
+  setUp(() async {
+    dir = await Directory.systemTemp.createTemp('avatar_store_test');
+    fetched = [];
+    resizedTo = [];
+    store = AvatarStore(
+      directory: () async => dir,
+      fetch: (url) async {
+        fetched.add(url);
+        return Uint8List.fromList([1, 2, 3]);
+      },
+      resize: (bytes, pixels) async {
+        resizedTo.add(pixels);
+        return Uint8List.fromList([...bytes, pixels & 0xFF]);
+      },
+    );
+  });
+
+  tearDown(() async {
+    await dir.delete(recursive: true);
+  });
+
+  List<String> files() => Directory('${dir.path}/${AvatarStore.folder}')
+      .listSync()
+      .map((e) => e.uri.pathSegments.last)
+      .toList()
+    ..sort();
+
+  test('picks the smallest bucket that covers the drawn size', () {
+    expect(AvatarStore.bucketFor(48), 64);
+    expect(AvatarStore.bucketFor(64), 64);
+    expect(AvatarStore.bucketFor(68 * 2.75), 256);
+    expect(AvatarStore.bucketFor(1000), 256);
+  });
+
+  test('fetches a remote photo once per size and keeps it on disk', () async {
+    const url = 'https://example.com/me.jpg';
+    final first = await store.remote(url, 128);
+    expect(await store.remote(url, 128), first);
+    await store.remote(url, 64);
+    expect(fetched.length, 2);
+    expect(resizedTo, [128, 64]);
+    expect(files().length, 2);
+
+    // A new store, as after a restart, reads the stored thumbnails.
+    final restarted = AvatarStore(
+      directory: () async => dir,
+      fetch: (url) => fail('should not fetch $url'),
+      resize: (bytes, pixels) => fail('should not resize'),
+    );
+    expect(await restarted.remote(url, 128), first);
+  });
+
+  test('concurrent requests for the same size share one fetch', () async {
+    const url = 'https://example.com/me.jpg';
+    await Future.wait([store.remote(url, 256), store.remote(url, 256)]);
+    expect(fetched.length, 1);
+  });
+
+  test('a new pick replaces the previous thumbnail', () async {
+    final source = File('${dir.path}/photo.jpg')..writeAsBytesSync([9, 9]);
+    expect(await store.pickedFor('a'), isNull);
+
+    final first = await store.savePicked('a', source.path);
+    await store.savePicked('b', source.path);
+    final second = await store.savePicked('a', source.path);
+
+    expect(second.path, isNot(first.path));
+    expect(first.existsSync(), isFalse);
+    expect((await store.pickedFor('a'))!.path, second.path);
+    expect(resizedTo, everyElement(AvatarStore.pickedPixels));
+    expect(files().where((f) => f.startsWith('picked_')).length, 2);
+  });
+
+  test('remote providers are keyed by URL and size', () {
+    const url = 'https://example.com/me.jpg';
+    expect(store.provider(url: url, pixels: 150), AvatarImage(url, 256, store: store));
+    expect(store.provider(url: url, pixels: 100),
+        isNot(store.provider(url: url, pixels: 150)));
+    expect(store.provider(pixels: 100), isNull);
+
+    final picked = File('${dir.path}/picked.png');
+    final small = store.provider(picked: picked, url: url, pixels: 100);
+    expect(small, isA<ResizeImage>());
+    expect((small as ResizeImage).width, 100);
+  });
+
+  testWidgets('thumbnails are centre squares no larger than asked for', (tester) async {
+    await tester.runAsync(() async {
+      final recorder = ui.PictureRecorder();
+      ui.Canvas(recorder).drawRect(
+          const ui.Rect.fromLTWH(0, 0, 600, 400), ui.Paint()..color = const ui.Color(0xFF336699));
+      final source = await recorder.endRecording().toImage(600, 400);
+      final png = (await source.toByteData(format: ui.ImageByteFormat.png))!;
+
+      Future<ui.Image> decode(Uint8List bytes) async =>
+          (await (await ui.instantiateImageCodec(bytes)).getNextFrame()).image;
+
+      final thumbnail = await decode(
+          await AvatarStore.squareThumbnail(png.buffer.asUint8List(), 128));
+      expect(thumbnail.width, 128);
+      expect(thumbnail.height, 128);
+
+      // Smaller photos are cropped but not scaled up.
+      final small = await decode(
+          await AvatarStore.squareThumbnail(png.buffer.asUint8List(), 1024));
+      expect(small.width, 400);
+      expect(small.height, 400);
+    });
+  });
+}
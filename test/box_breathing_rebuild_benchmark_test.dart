@@ -0,0 +1,91 @@
+import 'package:flutter/material.dart';
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:meditation_app/Breathing_Pages/box_session_view.dart';
+
+/// Frame-timing benchmark for the box breathing view.
+///
+/// Plays one 4-4-4-4 cycle at 60 fps and counts widget rebuilds per second,
+/// once with the listenable channels alone and once with a whole-view
+/// setState on every tick, which is how the screen used to update.
+void main() {
+  const int fps = 60;
+  const int cycleSeconds = 16;
+  const sides = ["top", "right", "bottom", "left"];
+  const phases = ["Inhale", "Hold", "Exhale", "Hold"];
+
+  Future<List<int>> playCycle(WidgetTester tester,
+      {required bool setStateEveryTick}) async {
+    final session = BoxSessionState()..phase.value = phases[0];
+    final controller = AnimationController(vsync: const TestVSync());
+    late StateSetter setOuterState;
+
+    await tester.pumpWidget(MaterialApp(
+      home: Scaffold(
+        body: Center(
+          child: StatefulBuilder(builder: (context, setState) {
+            setOuterState = setState;
+            return BreathingBox(
+              session: session,
+              progress: controller,
+              f1: 0.25,
+              f2: 0.5,
+              f3: 0.75,
+              showVerses: true,
+              verseForSide: (side) => "verse for $side",
+              onSideTap: (_) {},
+            );
+          }),
+        ),
+      ),
+    ));
+
+    final buildsPerFrame = <int>[];
+    var builds = 0;
+    debugOnRebuildDirtyWidget = (element, builtOnce) => builds++;
+    for (var frame = 0; frame < fps * cycleSeconds; frame++) {
+      final t = frame / (fps * cycleSeconds);
+      final quarter = (t * 4).floor();
+      controller.value = t;
+      if (session.activeSide != sides[quarter]) {
+        session.phase.value = phases[quarter];
+        session.activeSide = sides[quarter];
+      }
+      if (setStateEveryTick) {
+        setOuterState(() {});
+      }
+      builds = 0;
+      await tester.pump(const Duration(microseconds: 1000000 ~/ fps));
+      buildsPerFrame.add(builds);
+    }
+    debugOnRebuildDirtyWidget = null;
+
+    controller.dispose();
+    session.dispose();
+    return buildsPerFrame;
+  }
+
+  testWidgets('animation ticks rebuild nothing between phase changes',
+      (WidgetTester tester) async {
+    final baseline = await playCycle(tester, setStateEveryTick: true);
+    final channels = await playCycle(tester, setStateEveryTick: false);
+
+    final baselinePerSecond = baseline.reduce((a, b) => a + b) / cycleSeconds;
+    final channelsPerSecond = channels.reduce((a, b) => a + b) / cycleSeconds;
+    // ignore: avoid_print
+    print('Box breathing builds/s: setState per tick '
+        '${baselinePerSecond.toStringAsFixed(1)}, '
+        'listenable channels ${channelsPerSecond.toStringAsFixed(1)}');
+
+    expect(channelsPerSecond, lessThan(baselinePerSecond / 4));
+
+    // Once the 300 ms panel transition settles, a tick only repaints the ball.
+    const settleFrames = fps * 400 ~/ 1000;
+    for (var frame = 0; frame < channels.length; frame++) {
+      final sinceBoundary = frame % (fps * cycleSeconds ~/ 4);
+      if (sinceBoundary > settleFrames) {
+        expect(channels[frame], 0, reason: 'frame $frame rebuilt widgets');
+      }
+    }
+  });
+}
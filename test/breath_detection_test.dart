@@ -0,0 +1,136 @@
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:meditation_app/services/breath_detection.dart';
+import 'package:meditation_app/services/breath_session_scheduler.dart';
+
+void main() {
+  const second = Duration(seconds: 1);
+
+  BreathSessionScheduler bhramari(FakeSessionClock clock) {
+    return BreathSessionScheduler(
+      inhale: const Duration(seconds: 4),
+      exhale: const Duration(seconds: 6),
+      rounds: 3,
+      clock: clock,
+    );
+  }
+
+  BreathSoundEvent hum(bool started, {Duration age = Duration.zero}) =>
+      BreathSoundEvent(BreathSound.hum, started, age, -30);
+
+  test('decodes the native event triples', () {
+    final start = BreathSoundEvent.fromList([3, 120000, -2875])!;
+    expect(start.sound, BreathSound.hum);
+    expect(start.started, isTrue);
+    expect(start.age, const Duration(milliseconds: 120));
+    expect(start.levelDb, -28.75);
+
+    final end = BreathSoundEvent.fromList([2, 0, -4000])!;
+    expect(end.sound, BreathSound.breath);
+    expect(end.started, isFalse);
+
+    expect(BreathSoundEvent.fromList([9, 0, 0]), isNull);
+  });
+
+  test('places sounds in session time by their age', () {
+    final clock = FakeSessionClock();
+    final scheduler = bhramari(clock)..start();
+    final follower = BreathFollower(scheduler);
+
+    clock.advance(const Duration(milliseconds: 4300));
+    follower.add(hum(true, age: const Duration(milliseconds: 300)));
+    expect(follower.isSounding(BreathSound.hum), isTrue);
+    expect(follower.isSounding(BreathSound.breath), isFalse);
+
+    clock.advance(const Duration(milliseconds: 5000));
+    follower.add(hum(false, age: const Duration(milliseconds: 300)));
+    expect(follower.isSounding(BreathSound.hum), isFalse);
+
+    // Hummed from 4.0 s to 9.0 s of the 4–10 s exhale.
+    expect(follower.heardDuring(BreathSound.hum, 4 * second, 10 * second), 5 * second);
+    expect(follower.heardDuring(BreathSound.hum, Duration.zero, 4 * second), Duration.zero);
+    final phases = scheduler.timeline;
+    expect(follower.heardIn(BreathSound.hum, phases[1]), isTrue);
+    expect(follower.heardIn(BreathSound.hum, phases[0]), isFalse);
+    expect(follower.heardIn(BreathSound.breath, phases[1]), isFalse);
+  });
+
+  test('a short sound does not confirm a phase', () {
+    final clock = FakeSessionClock();
+    final scheduler = bhramari(clock)..start();
+    final follower = BreathFollower(scheduler);
+
+    clock.advance(5 * second);
+    follower.add(hum(true));
+    clock.advance(const Duration(milliseconds: 500));
+    follower.add(hum(false));
+
+    expect(follower.heardIn(BreathSound.hum, scheduler.timeline[1]), isFalse);
+  });
+
+  test('holds the next inhale while the user is still humming', () {
+    final clock = FakeSessionClock();
+    final scheduler = bhramari(clock)..start();
+    final follower = BreathFollower(scheduler);
+    scheduler.poll();
+
+    clock.advance(5 * second);
+    scheduler.poll();
+    follower.add(hum(true));
+    clock.advance(5 * second + const Duration(milliseconds: 20));
+    follower.holdBefore(BreathPhase.inhale, BreathSound.hum);
+    expect(follower.isHolding, isTrue);
+    expect(scheduler.poll(), isEmpty);
+    expect(scheduler.elapsed, lessThan(10 * second));
+
+    clock.advance(const Duration(milliseconds: 1500));
+    follower.holdBefore(BreathPhase.inhale, BreathSound.hum);
+    expect(scheduler.poll(), isEmpty);
+
+    follower.add(hum(false));
+    follower.holdBefore(BreathPhase.inhale, BreathSound.hum);
+    expect(follower.isHolding, isFalse);
+    clock.advance(const Duration(milliseconds: 16));
+    final next = scheduler.poll();
+    expect(next.single.phase, BreathPhase.inhale);
+    expect(next.single.round, 1);
+  });
+
+  test('gives up holding after maxHold', () {
+    final clock = FakeSessionClock();
+    final scheduler = bhramari(clock)..start();
+    final follower = BreathFollower(scheduler, maxHold: 2 * second);
+    scheduler.poll();
+
+    clock.advance(5 * second);
+    scheduler.poll();
+    follower.add(hum(true));
+    clock.advance(5 * second);
+    follower.holdBefore(BreathPhase.inhale, BreathSound.hum);
+    expect(follower.isHolding, isTrue);
+
+    clock.advance(2 * second);
+    follower.holdBefore(BreathPhase.inhale, BreathSound.hum);
+    expect(follower.isHolding, isFalse);
+    expect(scheduler.isRunning, isTrue);
+  });
+
+  test('does not hold when nothing is heard or for other phases', () {
+    final clock = FakeSessionClock();
+    final scheduler = bhramari(clock)..start();
+    final follower = BreathFollower(scheduler);
+    scheduler.poll();
+
+    clock.advance(4 * second);
+    follower.add(hum(true));
+    // The exhale is next, not an inhale.
+    follower.holdBefore(BreathPhase.inhale, BreathSound.hum);
+    expect(follower.isHolding, isFalse);
+    follower.add(hum(false));
+
+    clock.advance(6 * second);
+    follower.holdBefore(BreathPhase.inhale, BreathSound.hum);
+    expect(follower.isHolding, isFalse);
+    expect(scheduler.poll().map((e) => e.phase), [BreathPhase.exhale, BreathPhase.inhale]);
+  });
+}
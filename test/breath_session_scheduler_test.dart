@@ -0,0 +1,124 @@
+import 'dart:math';
+
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:meditation_app/services/breath_session_scheduler.dart';
+
+void main() {
+  BreathSessionScheduler boxSession(FakeSessionClock clock, {int rounds = 20}) {
+    return BreathSessionScheduler(
+      inhale: const Duration(seconds: 4),
+      hold1: const Duration(seconds: 4),
+      exhale: const Duration(seconds: 4),
+      hold2: const Duration(seconds: 4),
+      rounds: rounds,
+      clock: clock,
+    );
+  }
+
+  test('precomputes every phase boundary up front', () {
+    final scheduler = boxSession(FakeSessionClock());
+
+    expect(scheduler.timeline.length, 80);
+    expect(scheduler.totalDuration, const Duration(seconds: 320));
+    for (var i = 0; i < scheduler.timeline.length; i++) {
+      expect(scheduler.timeline[i].start, Duration(seconds: 4 * i));
+      expect(scheduler.timeline[i].phase, BreathPhase.values[i % 4]);
+      expect(scheduler.timeline[i].round, i ~/ 4);
+    }
+  });
+
+  test('skips zero-length holds', () {
+    final scheduler = BreathSessionScheduler(
+      inhale: const Duration(seconds: 4),
+      exhale: const Duration(seconds: 6),
+      rounds: 3,
+      clock: FakeSessionClock(),
+    );
+
+    expect(scheduler.timeline.map((e) => e.phase).toSet(),
+        {BreathPhase.inhale, BreathPhase.exhale});
+    expect(scheduler.timeline.last.start, const Duration(seconds: 24));
+  });
+
+  test('20-round session has zero drift under jittery, stalled ticks', () {
+    final clock = FakeSessionClock();
+    final scheduler = boxSession(clock);
+    final random = Random(42);
+    final emitted = <BreathPhaseEvent>[];
+    final lateness = <Duration>[];
+
+    scheduler.start();
+    while (!scheduler.isComplete) {
+      // 8–40 ms frames with the occasional 700 ms jank stall
+      final step = random.nextInt(50) == 0
+          ? const Duration(milliseconds: 700)
+          : Duration(microseconds: 8000 + random.nextInt(32000));
+      clock.advance(step);
+      for (final event in scheduler.poll()) {
+        emitted.add(event);
+        lateness.add(scheduler.elapsed - event.start);
+      }
+    }
+
+    expect(emitted, scheduler.timeline);
+    expect(scheduler.elapsed, scheduler.totalDuration);
+    // A boundary is never reported later than the frame that crossed it.
+    expect(lateness.every((d) => d <= const Duration(milliseconds: 700)), isTrue);
+    expect(scheduler.roundProgress, 1.0);
+  });
+
+  test('pauses do not shift the remaining timeline', () {
+    final clock = FakeSessionClock();
+    final scheduler = boxSession(clock, rounds: 2);
+
+    scheduler.start();
+    clock.advance(const Duration(seconds: 5));
+    expect(scheduler.poll().map((e) => e.phase),
+        [BreathPhase.inhale, BreathPhase.hold1]);
+
+    scheduler.pause();
+    clock.advance(const Duration(minutes: 3));
+    expect(scheduler.poll(), isEmpty);
+    expect(scheduler.elapsed, const Duration(seconds: 5));
+
+    scheduler.resume();
+    clock.advance(const Duration(seconds: 3));
+    final crossed = scheduler.poll();
+    expect(crossed.single.phase, BreathPhase.exhale);
+    expect(scheduler.elapsed, crossed.single.start);
+  });
+
+  test('roundProgress tracks position within the round', () {
+    final clock = FakeSessionClock();
+    final scheduler = boxSession(clock, rounds: 3);
+
+    scheduler.start();
+    clock.advance(const Duration(seconds: 20));
+    scheduler.poll();
+
+    expect(scheduler.currentRound, 1);
+    expect(scheduler.currentPhase!.phase, BreathPhase.hold1);
+    expect(scheduler.roundProgress, closeTo(0.25, 1e-9));
+  });
+
+  test('syncTo follows a session that ran without frames', () {
+    final clock = FakeSessionClock();
+    final scheduler = boxSession(clock, rounds: 3);
+
+    scheduler.start();
+    clock.advance(const Duration(seconds: 1));
+    expect(scheduler.poll().single.phase, BreathPhase.inhale);
+
+    // The native session was ahead by the time the UI came back.
+    scheduler.syncTo(const Duration(seconds: 13));
+    expect(scheduler.elapsed, const Duration(seconds: 13));
+    expect(scheduler.poll().map((e) => e.phase),
+        [BreathPhase.hold1, BreathPhase.exhale, BreathPhase.hold2]);
+
+    clock.advance(const Duration(seconds: 3));
+    expect(scheduler.poll().single.round, 1);
+    expect(scheduler.phaseDurations,
+        List.filled(4, const Duration(seconds: 4)));
+  });
+}
@@ -0,0 +1,76 @@
+import 'package:flutter_test/flutter_test.dart';
+import 'package:shared_preferences/shared_preferences.dart';
+
+import 'package:meditation_app/services/course_progress_store.dart';
+
+void main() {
+  final chapters = CourseChapters([
+    {
+      "title": "Chapter 1",
+      "videoUrl": "https://www.youtube.com/watch?v=HhDUXFJDgB4&t=17s",
+      "thumbnail": "https://img.youtube.com/vi/HhDUXFJDgB4/0.jpg",
+      "duration": "17 mins",
+    },
+    {
+      "title": "Chapter 2",
+      "videoUrl": "https://www.youtube.com/watch?v=VbGu9pikl7I",
+      "thumbnail": "https://img.youtube.com/vi/VbGu9pikl7I/0.jpg",
+      "duration": "15 mins",
+    },
+  ]);
+
+  test('chapters are indexed by video id with parsed durations', () {
+    expect(chapters['VbGu9pikl7I']!.title, 'Chapter 2');
+    expect(chapters['HhDUXFJDgB4']!.durationSeconds, 17 * 60);
+    expect(chapters['missing'], isNull);
+  });
+
+  test('updates stay in memory until flushed', () async {
+    SharedPreferences.setMockInitialValues({});
+    final store = CourseProgressStore();
+    await store.load('u', chapters);
+
+    for (var seconds = 5; seconds <= 450; seconds += 5) {
+      store.update('u', 'VbGu9pikl7I', seconds);
+    }
+    final prefs = await SharedPreferences.getInstance();
+    expect(prefs.getKeys(), isEmpty);
+    expect(store.fractionOf('u', chapters['VbGu9pikl7I']!), 0.5);
+
+    await store.flush();
+    await prefs.reload();
+    expect(prefs.getString('course_progress_u'), '{"VbGu9pikl7I":450}');
+  });
+
+  test('imports and removes per-video positions from older builds', () async {
+    SharedPreferences.setMockInitialValues({'progress_u_HhDUXFJDgB4': 120});
+    final store = CourseProgressStore();
+    await store.load('u', chapters);
+    expect(store.positionOf('u', 'HhDUXFJDgB4'), 120);
+
+    await store.flush();
+    final prefs = await SharedPreferences.getInstance();
+    expect(prefs.containsKey('progress_u_HhDUXFJDgB4'), isFalse);
+
+    final reopened = CourseProgressStore();
+    await reopened.load('u', chapters);
+    expect(reopened.positionOf('u', 'HhDUXFJDgB4'), 120);
+  });
+
+  test('skips saved entries that are not positions', () async {
+    SharedPreferences.setMockInitialValues({
+      'course_progress_u': '{"VbGu9pikl7I":30,"HhDUXFJDgB4":"x"}',
+      'course_progress_v': '[1, 2]',
+    });
+    final store = CourseProgressStore();
+    await store.load('u', chapters);
+    await store.load('v', chapters);
+    expect(store.positionOf('u', 'VbGu9pikl7I'), 30);
+    expect(store.positionOf('u', 'HhDUXFJDgB4'), 0);
+
+    store.update('v', 'VbGu9pikl7I', 60);
+    await store.flush();
+    final prefs = await SharedPreferences.getInstance();
+    expect(prefs.getString('course_progress_v'), '{"VbGu9pikl7I":60}');
+  });
+}
@@ -0,0 +1,40 @@
+import 'package:flutter/material.dart';
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:meditation_app/common_widgets/sized_asset_image.dart';
+import 'package:meditation_app/relax.dart';
+
+/// Scrolls the home screen through the app bar collapse and counts rebuilds
+/// of widgets that were already built. Only the two collapse listeners
+/// should rebuild, once each, when the threshold is crossed.
+void main() {
+  testWidgets('scrolling rebuilds nothing between threshold crossings',
+      (tester) async {
+    tester.view.physicalSize = const Size(1080, 2340);
+    tester.view.devicePixelRatio = 3.0;
+    addTearDown(tester.view.reset);
+
+    await tester.pumpWidget(const MaterialApp(home: MeditationScreen()));
+    final position =
+        tester.state<ScrollableState>(find.byType(Scrollable).first).position;
+
+    final rebuilt = <Type, int>{};
+    debugOnRebuildDirtyWidget = (element, builtOnce) {
+      if (builtOnce) {
+        rebuilt.update(element.widget.runtimeType, (n) => n + 1, ifAbsent: () => 1);
+      }
+    };
+    for (var offset = 0.0; offset <= 400; offset += 4) {
+      position.jumpTo(offset);
+      await tester.pump(const Duration(milliseconds: 16));
+    }
+    debugOnRebuildDirtyWidget = null;
+
+    // ignore: avoid_print
+    print('Home rebuilds over 400 px of scrolling: $rebuilt');
+
+    expect(rebuilt[MeditationScreen], isNull);
+    expect(rebuilt[SizedAssetImage], isNull);
+    expect(rebuilt[ValueListenableBuilder<bool>], 2);
+  });
+}
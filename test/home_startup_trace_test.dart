@@ -0,0 +1,88 @@
+import 'package:flutter/material.dart';
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:meditation_app/relax.dart';
+import 'package:meditation_app/services/warm_up_service.dart';
+
+/// Startup trace for the home screen.
+///
+/// Measures time-to-first-interactive-frame: frames and wall time from the
+/// first pump of [MeditationScreen] until every image on it is decoded and
+/// drawn. Runs once cold and once after the warm-up service has done its
+/// image and shader stages, as it does while auth resolves.
+void main() {
+  const Duration frameInterval = Duration(microseconds: 16667);
+
+  setUp(() {
+    imageCache.clear();
+    imageCache.clearLiveImages();
+  });
+
+  bool imagesDrawn(WidgetTester tester) {
+    final images = tester.widgetList<RawImage>(find.byType(RawImage, skipOffstage: false));
+    return images.isNotEmpty && images.every((image) => image.image != null);
+  }
+
+  /// Pumps the home screen until its images are drawn; returns the frame count.
+  Future<int> pumpToInteractive(WidgetTester tester, Stopwatch clock) async {
+    clock.start();
+    await tester.pumpWidget(const MaterialApp(home: MeditationScreen()));
+    var frames = 1;
+    while (!imagesDrawn(tester) && frames < 600) {
+      // Decoding happens on real I/O and codec threads.
+      await tester.runAsync(() => Future<void>.delayed(const Duration(milliseconds: 4)));
+      await tester.pump(frameInterval);
+      frames++;
+    }
+    clock.stop();
+    return frames;
+  }
+
+  void report(String label, int frames, Stopwatch clock) {
+    // ignore: avoid_print
+    print('Home time-to-first-interactive-frame ($label): '
+        '$frames frames, ${clock.elapsedMilliseconds} ms');
+  }
+
+  testWidgets('cold start decodes the grid after the first frame', (tester) async {
+    tester.view.physicalSize = const Size(1080, 2340);
+    tester.view.devicePixelRatio = 3.0;
+    addTearDown(tester.view.reset);
+
+    final clock = Stopwatch();
+    final frames = await pumpToInteractive(tester, clock);
+    report('cold', frames, clock);
+
+    expect(frames, greaterThan(1));
+  });
+
+  testWidgets('after warm-up the first frame is fully drawn', (tester) async {
+    tester.view.physicalSize = const Size(1080, 2340);
+    tester.view.devicePixelRatio = 3.0;
+    addTearDown(tester.view.reset);
+
+    late BuildContext context;
+    await tester.pumpWidget(MaterialApp(
+      home: Builder(builder: (c) {
+        context = c;
+        return const SizedBox();
+      }),
+    ));
+    final screen = tester.view.physicalSize / tester.view.devicePixelRatio;
+    final warmUp = Stopwatch()..start();
+    await tester.runAsync(() => Future.wait([
+          WarmUpService().precacheImages(context, MeditationScreen.imageBoxes(screen)),
+          WarmUpService.warmShaders(),
+        ]));
+    warmUp.stop();
+    // ignore: avoid_print
+    print('Warm-up during auth wait: ${warmUp.elapsedMilliseconds} ms');
+
+    final clock = Stopwatch();
+    final frames = await pumpToInteractive(tester, clock);
+    report('warm', frames, clock);
+
+    // Every image was found in the cache at the size the grid asks for.
+    expect(frames, 1);
+  });
+}
@@ -0,0 +1,76 @@
+import 'package:flutter/material.dart';
+import 'package:flutter/services.dart';
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:meditation_app/common_widgets/lazy_indexed_stack.dart';
+
+/// Counts how often it is created, like a tab that loads data in initState.
+class _Tab extends StatefulWidget {
+  final int index;
+  final List<int> created;
+
+  const _Tab(this.index, this.created);
+
+  @override
+  State<_Tab> createState() => _TabState();
+}
+
+class _TabState extends State<_Tab> {
+  @override
+  void initState() {
+    super.initState();
+    widget.created.add(widget.index);
+  }
+
+  @override
+  Widget build(BuildContext context) => Text('tab ${widget.index}');
+}
+
+void main() {
+  late List<int> created;
+
+  setUp(() => created = []);
+
+  Widget host(int index) {
+    return MaterialApp(
+      home: LazyIndexedStack(
+        index: index,
+        itemCount: 4,
+        itemBuilder: (context, i) => _Tab(i, created),
+        evictOnMemoryPressure: true,
+      ),
+    );
+  }
+
+  testWidgets('builds tabs on first visit and keeps them', (tester) async {
+    await tester.pumpWidget(host(0));
+    expect(created, [0]);
+
+    await tester.pumpWidget(host(2));
+    await tester.pumpWidget(host(0));
+    await tester.pumpWidget(host(2));
+
+    expect(created, [0, 2]);
+    expect(find.text('tab 2'), findsOneWidget);
+  });
+
+  testWidgets('memory pressure drops hidden tabs only', (tester) async {
+    await tester.pumpWidget(host(0));
+    await tester.pumpWidget(host(1));
+    await tester.pumpWidget(host(0));
+    expect(created, [0, 1]);
+
+    await tester.binding.defaultBinaryMessenger.handlePlatformMessage(
+      SystemChannels.system.name,
+      SystemChannels.system.codec.encodeMessage(<String, dynamic>{'type': 'memoryPressure'}),
+      (_) {},
+    );
+    await tester.pump();
+
+    // Tab 1 was hidden and is built again; tab 0 was showing and is kept.
+    await tester.pumpWidget(host(1));
+    expect(created, [0, 1, 1]);
+    await tester.pumpWidget(host(0));
+    expect(created, [0, 1, 1]);
+  });
+}
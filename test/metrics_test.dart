@@ -0,0 +1,69 @@
+import 'dart:convert';
+import 'dart:io';
+
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:meditation_app/services/metrics.dart';
+
+void main() {
+  test('percentiles are reported within bucket precision', () {
+    final histogram = Metrics().histogram('test');
+    for (var micros = 1; micros <= 100000; micros++) {
+      histogram.record(micros);
+    }
+    expect(histogram.count, 100000);
+    expect(histogram.min, 1);
+    expect(histogram.max, 100000);
+    for (final q in [0.5, 0.9, 0.99]) {
+      final exact = q * 100000;
+      expect(histogram.valueAt(q), closeTo(exact, exact * 0.035), reason: '$q');
+    }
+    expect(histogram.valueAt(1), 100000);
+  });
+
+  test('small values are exact and out-of-range values are clamped', () {
+    final histogram = Metrics().histogram('test');
+    histogram
+      ..record(7)
+      ..record(-5)
+      ..record(1 << 40);
+    expect(histogram.valueAt(0.3), 0);
+    expect(histogram.valueAt(0.6), 7);
+    expect(histogram.max, LatencyHistogram.maxValue);
+  });
+
+  test('instruments are shared by name and reset together', () {
+    final metrics = Metrics();
+    metrics.counter('c').increment();
+    metrics.counter('c').increment(2);
+    metrics.histogram('h').record(10);
+    expect(metrics.counter('c').value, 3);
+    expect(identical(metrics.histogram('h'), metrics.histogram('h')), isTrue);
+
+    metrics.reset();
+    expect(metrics.counter('c').value, 0);
+    expect(metrics.histogram('h').count, 0);
+  });
+
+  test('export writes counters and mergeable buckets as JSON', () async {
+    final dir = await Directory.systemTemp.createTemp('metrics_test');
+    addTearDown(() => dir.delete(recursive: true));
+    final metrics = Metrics(directory: () async => dir);
+    metrics.counter('box.fallback').increment();
+    metrics.histogram('box.bell_latency')
+      ..record(1500)
+      ..record(1500)
+      ..record(40);
+
+    final file = await metrics.export();
+    expect(file.path, startsWith('${dir.path}/metrics/metrics_'));
+    final json = jsonDecode(await file.readAsString()) as Map<String, dynamic>;
+    expect(json['counters'], {'box.fallback': 1});
+    final bell = json['histograms']['box.bell_latency'] as Map<String, dynamic>;
+    expect(bell['count'], 3);
+    expect(bell['buckets'], [
+      [40, 1],
+      [1472, 2],
+    ]);
+  });
+}
@@ -0,0 +1,109 @@
+import 'dart:io';
+
+import 'package:flutter_test/flutter_test.dart';
+import 'package:shared_preferences/shared_preferences.dart';
+
+import 'package:meditation_app/services/practice_log.dart';
+
+void main() {
+  late Directory dir;
+  late PracticeLog log;
+
+  setUp(() async {
+    SharedPreferences.setMockInitialValues({});
+    dir = await Directory.systemTemp.createTemp('practice_log_test');
+    log = PracticeLog(directory: () async => dir);
+  });
+
+  tearDown(() async {
+    await log.close();
+    await dir.delete(recursive: true);
+  });
+
+  File logFile() => File('${dir.path}/${PracticeLog.fileName}');
+
+  test('appends fixed-width records and rolls them up per day', () async {
+    final morning = DateTime(2024, 3, 1, 8);
+    await log.append(uid: 'a', start: morning, duration: const Duration(minutes: 5));
+    await log.append(
+        uid: 'a',
+        start: morning.add(const Duration(hours: 10)),
+        duration: const Duration(minutes: 10),
+        technique: PracticeTechnique.box);
+    await log.append(uid: 'b', start: morning, duration: const Duration(minutes: 1));
+    await log.append(
+        uid: 'a',
+        start: DateTime(2024, 3, 2, 9),
+        duration: const Duration(seconds: 30));
+
+    expect(await logFile().length(),
+        PracticeLog.headerSize + 4 * PracticeLog.recordSize);
+    expect(await log.dailySeconds('a'), {'2024-03-01': 900, '2024-03-02': 30});
+    expect(await log.dailySeconds('b'), {'2024-03-01': 60});
+
+    final records = await log.records();
+    expect(records[1].technique, PracticeTechnique.box);
+    expect(records[1].uidHash, PracticeLog.hashUid('a'));
+  });
+
+  test('appends after the first read update the rollup', () async {
+    final day = DateTime(2024, 5, 4, 7);
+    await log.append(uid: 'a', start: day, duration: const Duration(seconds: 10));
+    expect(await log.dailySeconds('a'), {'2024-05-04': 10});
+
+    await log.append(uid: 'a', start: day, duration: const Duration(seconds: 5));
+    expect(await log.dailySeconds('a'), {'2024-05-04': 15});
+  });
+
+  test('a watch counts appends made around its read exactly once', () async {
+    final day = DateTime(2024, 5, 4, 7);
+    await log.append(uid: 'a', start: day, duration: const Duration(seconds: 10));
+
+    final before = log.append(uid: 'a', start: day, duration: const Duration(seconds: 5));
+    final watching = log.watchDailyTechniqueSeconds('a');
+    final after = log.append(uid: 'a', start: day, duration: const Duration(seconds: 2));
+    final view = await watching;
+    final later = <int>[];
+    final subscription = view.appended.listen((r) => later.add(r.duration.inSeconds));
+    await Future.wait([before, after]);
+    await pumpEventQueue();
+
+    final read = view.days['2024-05-04']![PracticeTechnique.app]!;
+    expect(read + later.fold<int>(0, (sum, s) => sum + s), 17);
+
+    await log.append(uid: 'a', start: day, duration: const Duration(seconds: 3));
+    await log.append(uid: 'b', start: day, duration: const Duration(seconds: 4));
+    await pumpEventQueue();
+    expect(later.last, 3);
+    expect(read + later.fold<int>(0, (sum, s) => sum + s), 20);
+    await subscription.cancel();
+  });
+
+  test('a torn trailing record is dropped before the next append', () async {
+    final day = DateTime(2024, 1, 1, 12);
+    await log.append(uid: 'a', start: day, duration: const Duration(seconds: 20));
+    await log.close();
+    await logFile().writeAsBytes([1, 2, 3], mode: FileMode.append);
+
+    final reopened = PracticeLog(directory: () async => dir);
+    await reopened.append(uid: 'a', start: day, duration: const Duration(seconds: 1));
+    expect(await reopened.dailySeconds('a'), {'2024-01-01': 21});
+    await reopened.close();
+  });
+
+  test('imports the old SharedPreferences counters once', () async {
+    SharedPreferences.setMockInitialValues({
+      'days_used_a': ['2023-12-30', '2023-12-31'],
+      'usage_a_2023-12-30': 120,
+      'usage_a_2023-12-31': 45,
+      'total_usage_seconds_a': 165,
+    });
+
+    expect(await log.dailySeconds('a'), {'2023-12-30': 120, '2023-12-31': 45});
+
+    final prefs = await SharedPreferences.getInstance();
+    expect(prefs.getKeys(), isEmpty);
+    final reopened = PracticeLog(directory: () async => dir);
+    expect(await reopened.dailySeconds('a'), {'2023-12-30': 120, '2023-12-31': 45});
+  });
+}
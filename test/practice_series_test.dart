@@ -0,0 +1,131 @@
+import 'dart:math';
+
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:meditation_app/progress/practice_series.dart';
+import 'package:meditation_app/progress/practice_stats.dart';
+
+void main() {
+  /// Three years of mostly daily practice, as raw day -> seconds.
+  Map<int, int> history(int seed) {
+    final random = Random(seed);
+    final first = PracticeStats.dayNumber(DateTime.utc(2023, 2, 14));
+    return {
+      for (var day = first; day < first + 3 * 365; day++)
+        if (random.nextInt(10) < 8) day: 300 + random.nextInt(3000),
+    };
+  }
+
+  PracticeSeries seriesOf(Map<int, int> raw) {
+    final series = PracticeSeries();
+    // Out of order, and some days in two sessions, as synced history arrives.
+    final days = raw.keys.toList()..shuffle(Random(1));
+    for (final day in days) {
+      final seconds = raw[day]!;
+      series.add(day, seconds ~/ 3);
+      series.add(day, seconds - seconds ~/ 3);
+    }
+    return series;
+  }
+
+  test('week and month buckets add up the raw days', () {
+    final raw = history(7);
+    final series = seriesOf(raw);
+
+    for (final zoom in ChartZoom.values) {
+      final expected = <int, int>{};
+      raw.forEach((day, seconds) {
+        final bucket = PracticeSeries.bucketOf(zoom, day);
+        expected[bucket] = (expected[bucket] ?? 0) + seconds;
+      });
+      for (var b = series.firstBucket(zoom); b <= series.lastBucket(zoom); b++) {
+        expect(series.secondsIn(zoom, b), expected[b] ?? 0, reason: '$zoom $b');
+      }
+    }
+
+    final total = raw.values.fold(0, (sum, s) => sum + s);
+    for (final zoom in ChartZoom.values) {
+      final points = series.window(
+          zoom, series.firstBucket(zoom), series.lastBucket(zoom), 1 << 20);
+      expect(points.fold(0, (sum, p) => sum + p.seconds), total);
+    }
+  });
+
+  test('buckets start on Monday and on the first of the month', () {
+    final tuesday = PracticeStats.dayNumber(DateTime.utc(2025, 3, 18));
+    final week = PracticeSeries.bucketOf(ChartZoom.week, tuesday);
+    expect(PracticeSeries.startOf(ChartZoom.week, week), DateTime.utc(2025, 3, 17));
+    expect(PracticeSeries.bucketOf(ChartZoom.week, tuesday - 1), week);
+    expect(PracticeSeries.bucketOf(ChartZoom.week, tuesday - 2), week - 1);
+
+    final month = PracticeSeries.bucketOf(ChartZoom.month, tuesday);
+    expect(PracticeSeries.startOf(ChartZoom.month, month), DateTime.utc(2025, 3, 1));
+  });
+
+  test('a window that fits is the raw series, clipped to the history', () {
+    final raw = history(3);
+    final series = seriesOf(raw);
+    final last = series.lastBucket(ChartZoom.day);
+
+    final points = series.window(ChartZoom.day, last - 59, last + 10, 100);
+    expect(points.map((p) => p.bucket), [for (var d = last - 59; d <= last; d++) d]);
+    for (final point in points) {
+      expect(point.seconds, raw[point.bucket] ?? 0);
+    }
+
+    final first = series.firstBucket(ChartZoom.day);
+    expect(series.window(ChartZoom.day, first - 30, first - 1, 100), isEmpty);
+    expect(series.window(ChartZoom.day, first - 30, first, 100).single.bucket, first);
+  });
+
+  test('a long window is downsampled to real points within the budget', () {
+    final raw = history(11);
+    final series = seriesOf(raw);
+    final first = series.firstBucket(ChartZoom.day);
+    final last = series.lastBucket(ChartZoom.day);
+
+    final points = series.window(ChartZoom.day, first, last, 80);
+    expect(points, hasLength(80));
+    expect(points.first.bucket, first);
+    expect(points.last.bucket, last);
+    for (var i = 0; i < points.length; i++) {
+      expect(points[i].seconds, raw[points[i].bucket] ?? 0);
+      if (i > 0) expect(points[i].bucket, greaterThan(points[i - 1].bucket));
+    }
+  });
+
+  test('downsampling keeps isolated peaks and dips', () {
+    final values = List<int>.filled(2000, 600);
+    values[777] = 7200;
+    values[1500] = 0;
+    final kept = largestTriangleThreeBuckets(values, 0, values.length, 50);
+    expect(kept, hasLength(50));
+    expect(kept, containsAll([0, 777, 1500, 1999]));
+
+    // Averaging the same buckets would flatten the peak to a bump.
+    final bucket = values.sublist(760, 800);
+    expect(bucket.reduce((a, b) => a + b) / bucket.length, lessThan(800));
+  });
+
+  test('the series version moves with every addition', () {
+    final series = PracticeSeries();
+    expect(series.isEmpty, isTrue);
+    expect(series.window(ChartZoom.month, 0, 1 << 30, 10), isEmpty);
+    final before = series.version;
+    series.add(PracticeStats.dayNumber(DateTime.utc(2025, 1, 1)), 60);
+    expect(series.version, isNot(before));
+    expect(series.isEmpty, isFalse);
+  });
+
+  test('practice stats feed their series', () {
+    final stats = PracticeStats()
+      ..addDay('2025-01-06', 600)
+      ..addDay('2025-01-07', 300)
+      ..addDay('2025-02-03', 900);
+    final week = PracticeSeries.bucketOf(
+        ChartZoom.week, PracticeStats.dayNumber(DateTime.utc(2025, 1, 6)));
+    expect(stats.series.secondsIn(ChartZoom.week, week), 900);
+    expect(stats.series.secondsIn(ChartZoom.month, 2025 * 12), 900);
+    expect(stats.series.secondsIn(ChartZoom.month, 2025 * 12 + 1), 900);
+  });
+}
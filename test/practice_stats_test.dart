@@ -0,0 +1,109 @@
+import 'dart:math';
+
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:meditation_app/progress/practice_stats.dart';
+
+/// Batch computation the progress screen used to run on every build.
+class _Batch {
+  final Map<String, int> daySeconds;
+
+  _Batch(this.daySeconds);
+
+  int get total => daySeconds.values.fold(0, (sum, s) => sum + s);
+
+  int get maxStreak {
+    if (daySeconds.isEmpty) return 0;
+    final dates = daySeconds.keys.map((k) => DateTime.parse('${k}T00:00:00Z')).toList()
+      ..sort();
+    var maxStreak = 1;
+    var current = 1;
+    for (var i = 1; i < dates.length; i++) {
+      if (dates[i].difference(dates[i - 1]).inDays == 1) {
+        current++;
+        if (current > maxStreak) maxStreak = current;
+      } else {
+        current = 1;
+      }
+    }
+    return maxStreak;
+  }
+
+  int currentStreak(DateTime today) {
+    var day = DateTime.utc(today.year, today.month, today.day);
+    String key(DateTime d) => d.toIso8601String().substring(0, 10);
+    if (!daySeconds.containsKey(key(day))) {
+      day = day.subtract(const Duration(days: 1));
+    }
+    var streak = 0;
+    while (daySeconds.containsKey(key(day))) {
+      streak++;
+      day = day.subtract(const Duration(days: 1));
+    }
+    return streak;
+  }
+
+  int month(int year, int month) => daySeconds.entries
+      .where((e) => DateTime.parse(e.key).year == year && DateTime.parse(e.key).month == month)
+      .fold(0, (sum, e) => sum + e.value);
+
+  int week(DateTime date) {
+    final d = DateTime.utc(date.year, date.month, date.day);
+    final monday = d.subtract(Duration(days: d.weekday - DateTime.monday));
+    var sum = 0;
+    for (var i = 0; i < 7; i++) {
+      final key = monday.add(Duration(days: i)).toIso8601String().substring(0, 10);
+      sum += daySeconds[key] ?? 0;
+    }
+    return sum;
+  }
+}
+
+void main() {
+  test('matches the batch computation on randomised histories', () {
+    final random = Random(7);
+    for (var trial = 0; trial < 200; trial++) {
+      final stats = PracticeStats();
+      final batch = _Batch({});
+      final origin = DateTime(2023, 1, 1).add(Duration(days: random.nextInt(700)));
+      final sessions = random.nextInt(120);
+
+      for (var i = 0; i < sessions; i++) {
+        // Clustered days so streaks of varying length form, in any order.
+        final date = origin.add(Duration(days: random.nextInt(90), hours: random.nextInt(20)));
+        final seconds = random.nextInt(3600);
+        stats.add(date, seconds);
+        final key = PracticeStats.keyOf(PracticeStats.dayNumber(date));
+        batch.daySeconds[key] = (batch.daySeconds[key] ?? 0) + seconds;
+
+        expect(stats.totalSeconds, batch.total);
+        expect(stats.maxStreak, batch.maxStreak, reason: 'trial $trial step $i');
+      }
+
+      expect(stats.dayCount, batch.daySeconds.length);
+      expect(stats.days.map(PracticeStats.keyOf).toList(),
+          batch.daySeconds.keys.toList()..sort());
+      for (var d = -1; d < 92; d++) {
+        final date = origin.add(Duration(days: d));
+        expect(stats.currentStreak(date), batch.currentStreak(date));
+        expect(stats.secondsInWeek(date), batch.week(date));
+        expect(stats.hasActivity(date),
+            batch.daySeconds.containsKey(PracticeStats.keyOf(PracticeStats.dayNumber(date))));
+        expect(stats.secondsInMonth(date.year, date.month), batch.month(date.year, date.month));
+      }
+    }
+  });
+
+  test('joins runs from both sides', () {
+    final stats = PracticeStats()
+      ..addDay('2024-02-27', 60)
+      ..addDay('2024-03-01', 60)
+      ..addDay('2024-02-28', 60);
+    expect(stats.maxStreak, 2);
+
+    stats.addDay('2024-02-29', 60);
+    expect(stats.maxStreak, 4);
+    expect(stats.currentStreak(DateTime(2024, 3, 2)), 4);
+    expect(stats.currentStreak(DateTime(2024, 3, 3)), 0);
+  });
+}
@@ -0,0 +1,230 @@
+import 'dart:async';
+import 'dart:io';
+
+import 'package:flutter_test/flutter_test.dart';
+import 'package:shared_preferences/shared_preferences.dart';
+
+import 'package:meditation_app/services/practice_log.dart';
+import 'package:meditation_app/services/practice_sync.dart';
+
+void main() {
+  late Directory dir;
+  late PracticeLog log;
+  late InMemoryPracticeDaySource source;
+  late PracticeSync sync;
+
+  PracticeSync newSync() =>
+      PracticeSync(source: source, log: log, debounce: const Duration(hours: 1));
+
+  setUp(() async {
+    SharedPreferences.setMockInitialValues({});
+    dir = await Directory.systemTemp.createTemp('practice_sync_test');
+    log = PracticeLog(directory: () async => dir);
+    source = InMemoryPracticeDaySource();
+    sync = newSync();
+  });
+
+  tearDown(() async {
+    await sync.stop();
+    await log.close();
+    await dir.delete(recursive: true);
+  });
+
+  Future<void> practise(DateTime start, int minutes,
+      [PracticeTechnique technique = PracticeTechnique.app]) {
+    return log.append(
+        uid: 'a',
+        start: start,
+        duration: Duration(minutes: minutes),
+        technique: technique);
+  }
+
+  Map<String, dynamic> devicesOn(String day) =>
+      source.documents['a']![day]!['devices'] as Map<String, dynamic>;
+
+  test('the first start uploads existing history as one batch', () async {
+    await practise(DateTime(2024, 3, 1, 8), 5);
+    await practise(DateTime(2024, 3, 2, 8), 10, PracticeTechnique.box);
+
+    await sync.start('a');
+    expect(sync.pendingDays, {'2024-03-01', '2024-03-02'});
+    await sync.flush();
+
+    expect(source.commitSizes, [2]);
+    expect(sync.pendingDays, isEmpty);
+    final device = devicesOn('2024-03-02').keys.single;
+    expect(devicesOn('2024-03-02')[device], {'box': 600});
+  });
+
+  test('sessions on the same day coalesce into one write of its totals', () async {
+    await sync.start('a');
+    final morning = DateTime(2024, 3, 1, 8);
+    await practise(morning, 5);
+    await practise(morning.add(const Duration(hours: 2)), 5);
+    await practise(morning.add(const Duration(hours: 4)), 3, PracticeTechnique.box);
+    await pumpEventQueue();
+
+    expect(sync.pendingDays, {'2024-03-01'});
+    await sync.flush();
+
+    expect(source.commitSizes, [1]);
+    expect(devicesOn('2024-03-01').values.single, {'app': 600, 'box': 180});
+  });
+
+  test('days that fail to send are kept and sent by a later launch', () async {
+    await sync.start('a');
+    await practise(DateTime(2024, 3, 1, 8), 5);
+    await pumpEventQueue();
+
+    source.failingCommits = 1;
+    await sync.flush();
+    expect(source.commitSizes, isEmpty);
+    expect(sync.pendingDays, {'2024-03-01'});
+
+    // The app is killed while offline and started again.
+    await sync.stop();
+    sync = newSync();
+    await sync.start('a');
+    expect(sync.pendingDays, {'2024-03-01'});
+    await sync.flush();
+
+    expect(source.commitSizes, [1]);
+    expect(devicesOn('2024-03-01').values.single, {'app': 300});
+    final prefs = await SharedPreferences.getInstance();
+    expect(prefs.getStringList('practice_sync_queue_a'), isEmpty);
+  });
+
+  test('stopping during a send keeps the days appended meanwhile', () async {
+    final gated = _GatedSource();
+    source = gated;
+    sync = newSync();
+    await sync.start('a');
+    await practise(DateTime(2024, 3, 1, 8), 5);
+    await pumpEventQueue();
+
+    final sending = sync.flush();
+    await pumpEventQueue();
+    await practise(DateTime(2024, 3, 2, 8), 5);
+    await pumpEventQueue();
+    final stopping = sync.stop();
+    gated.gate.complete();
+    await sending;
+    await stopping;
+
+    expect(gated.commitSizes, [1]);
+    final prefs = await SharedPreferences.getInstance();
+    expect(prefs.getStringList('practice_sync_queue_a'), ['2024-03-02']);
+  });
+
+  test('other devices keep their entries and are counted in the history', () async {
+    source.documents['a'] = {
+      '2024-03-01': {
+        'devices': {
+          'tablet': {'box': 240},
+        },
+      },
+      '2024-02-28': {
+        'devices': {
+          'tablet': {'app': 60},
+        },
+      },
+    };
+    await sync.start('a');
+    await practise(DateTime(2024, 3, 1, 8), 5, PracticeTechnique.box);
+    await pumpEventQueue();
+    await sync.flush();
+
+    expect(devicesOn('2024-03-01')['tablet'], {'box': 240});
+    expect(devicesOn('2024-03-01').length, 2);
+
+    final daily = await sync.dailyTechniqueSeconds('a');
+    expect(daily['2024-03-01'], {PracticeTechnique.box: 540});
+    expect(daily['2024-02-28'], {PracticeTechnique.app: 60});
+  });
+
+  test('history falls back to the local log when the days cannot be read', () async {
+    await practise(DateTime(2024, 3, 1, 8), 5);
+    final daily = await PracticeSync(source: _UnreachableSource(), log: log)
+        .dailyTechniqueSeconds('a');
+    expect(daily, {
+      '2024-03-01': {PracticeTechnique.app: 300},
+    });
+  });
+
+  test('later reads fetch only changed days and keep the rest', () async {
+    source.documents['a'] = {
+      '2024-02-28': {
+        'devices': {
+          'tablet': {'app': 60},
+        },
+      },
+    };
+    await sync.start('a');
+    // The tablet syncs a day, which stamps the document.
+    await source.commit('a', {
+      '2024-03-01': {
+        'devices': {
+          'tablet': {'box': 240},
+        },
+      },
+    });
+    expect(await sync.otherDeviceSeconds('a'), {
+      '2024-02-28': {PracticeTechnique.app: 60},
+      '2024-03-01': {PracticeTechnique.box: 240},
+    });
+    expect(source.fetchSizes, [2]);
+
+    await source.commit('a', {
+      '2024-03-02': {
+        'devices': {
+          'tablet': {'app': 30},
+        },
+      },
+    });
+    final others = await sync.otherDeviceSeconds('a');
+    expect(others.keys, containsAll(['2024-02-28', '2024-03-01', '2024-03-02']));
+    // The newest day seen is read again; older ones are not.
+    expect(source.fetchSizes.last, 2);
+
+    // Offline, as in a new process, the kept days are shown.
+    final offline = await PracticeSync(source: _UnreachableSource(), log: log)
+        .otherDeviceSeconds('a');
+    expect(offline, others);
+  });
+
+  test('merging is commutative and idempotent', () {
+    final a = {
+      'phone': {'app': 300, 'box': 60},
+    };
+    final b = {
+      'phone': {'app': 120},
+      'tablet': {'box': 30},
+    };
+    final ab = mergeDeviceTotals(a, b);
+    expect(ab, mergeDeviceTotals(b, a));
+    expect(mergeDeviceTotals(ab, b), ab);
+    expect(sumDeviceTotals(ab),
+        {PracticeTechnique.app: 300, PracticeTechnique.box: 90});
+  });
+}
+
+class _UnreachableSource implements PracticeDaySource {
+  @override
+  Future<Map<String, Map<String, dynamic>>> fetchDays(String uid, {DateTime? updatedSince}) =>
+      Future.error(StateError('offline'));
+
+  @override
+  Future<void> commit(String uid, Map<String, Map<String, dynamic>> documents) =>
+      Future.error(StateError('offline'));
+}
+
+/// Holds every commit until [gate] completes.
+class _GatedSource extends InMemoryPracticeDaySource {
+  final Completer<void> gate = Completer();
+
+  @override
+  Future<void> commit(String uid, Map<String, Map<String, dynamic>> data) async {
+    await gate.future;
+    return super.commit(uid, data);
+  }
+}
@@ -0,0 +1,79 @@
+import 'dart:io';
+
+import 'package:flutter_test/flutter_test.dart';
+import 'package:shared_preferences/shared_preferences.dart';
+
+import 'package:meditation_app/services/breath_session_scheduler.dart';
+import 'package:meditation_app/services/practice_log.dart';
+import 'package:meditation_app/services/session_telemetry.dart';
+
+void main() {
+  late Directory dir;
+  late PracticeLog log;
+
+  setUp(() async {
+    SharedPreferences.setMockInitialValues({});
+    dir = await Directory.systemTemp.createTemp('session_telemetry_test');
+    log = PracticeLog(directory: () async => dir);
+  });
+
+  tearDown(() async {
+    await log.close();
+    await dir.delete(recursive: true);
+  });
+
+  test('credits only completed phases, per technique', () async {
+    final telemetry = SessionTelemetry(log: log, currentUid: () => 'a');
+
+    final box = telemetry.begin(PracticeTechnique.box);
+    const phases = [BreathPhase.inhale, BreathPhase.hold1, BreathPhase.exhale, BreathPhase.hold2];
+    for (var round = 0; round < 2; round++) {
+      for (var i = 0; i < phases.length; i++) {
+        box.phaseStarted(BreathPhaseEvent(
+            round, phases[i], Duration(seconds: 16 * round + 4 * i), const Duration(seconds: 4)));
+      }
+    }
+    box.complete();
+
+    final bilateral = telemetry.begin(PracticeTechnique.bilateral);
+    bilateral.phaseComplete("Inhale", const Duration(seconds: 4));
+    bilateral.abort();
+
+    // Nothing is written until the batch is flushed.
+    expect(await log.records(), isEmpty);
+    await telemetry.flush();
+
+    final records = await log.records();
+    expect(records.map((r) => r.technique),
+        [PracticeTechnique.box, PracticeTechnique.bilateral]);
+    expect(records.map((r) => r.duration),
+        [const Duration(seconds: 32), const Duration(seconds: 4)]);
+  });
+
+  test('flushes once the batch size is reached', () async {
+    final telemetry = SessionTelemetry(
+        log: log, currentUid: () => 'a', maxBatchSize: 4, flushInterval: const Duration(hours: 1));
+
+    final tracker = telemetry.begin(PracticeTechnique.panic);
+    tracker.phaseComplete("Inhale", const Duration(seconds: 4));
+    tracker.phaseComplete("Exhale", const Duration(seconds: 6));
+    expect(telemetry.pendingEvents, 3);
+
+    tracker.roundComplete(0);
+    expect(telemetry.pendingEvents, 0);
+    await telemetry.flush();
+
+    final today = DateTime.now().toIso8601String().substring(0, 10);
+    expect(await log.dailySeconds('a'), {today: 10});
+  });
+
+  test('records nothing without a signed-in user', () async {
+    final telemetry = SessionTelemetry(log: log, currentUid: () => null);
+
+    telemetry.begin(PracticeTechnique.ujjayi)
+      ..phaseComplete("Inhale", const Duration(seconds: 4))
+      ..complete();
+
+    expect(telemetry.pendingEvents, 0);
+  });
+}
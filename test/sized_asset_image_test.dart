@@ -0,0 +1,37 @@
+import 'package:flutter/material.dart';
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:meditation_app/common_widgets/sized_asset_image.dart';
+
+void main() {
+  const square = Size(2380, 2380);
+
+  test('a grid tile decodes at its physical size', () {
+    final size = SizedAssetImage.decodeSize(const Size(170, 200), 3, square, BoxFit.cover);
+    // Cover fills the taller side: 200 logical px at 3x.
+    expect(size, const Size(600, 600));
+  });
+
+  test('contain fits the smaller side', () {
+    final size = SizedAssetImage.decodeSize(const Size(170, 200), 2, square, BoxFit.contain);
+    expect(size, const Size(340, 340));
+  });
+
+  test('fitWidth and fitHeight follow their own axis', () {
+    final wide = SizedAssetImage.decodeSize(const Size(400, 100), 2, square, BoxFit.fitWidth);
+    expect(wide, const Size(800, 800));
+    final tall = SizedAssetImage.decodeSize(const Size(400, 100), 2, square, BoxFit.fitHeight);
+    expect(tall, const Size(200, 200));
+  });
+
+  test('never decodes above the intrinsic size', () {
+    final size = SizedAssetImage.decodeSize(const Size(430, 250), 3, const Size(437, 203), BoxFit.cover);
+    expect(size, isNull);
+  });
+
+  test('unbounded boxes and unknown images fall back safely', () {
+    expect(SizedAssetImage.decodeSize(Size.infinite, 2, square, BoxFit.cover), isNull);
+    expect(SizedAssetImage.decodeSize(const Size(100, double.infinity), 2, null, BoxFit.cover),
+        const Size(200, 0));
+  });
+}
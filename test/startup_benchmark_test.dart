@@ -0,0 +1,125 @@
+import 'dart:async';
+import 'dart:convert';
+
+import 'package:flutter/material.dart';
+import 'package:flutter_test/flutter_test.dart';
+import 'package:shared_preferences/shared_preferences.dart';
+
+import 'package:meditation_app/common_widgets/startup_gate.dart';
+import 'package:meditation_app/relax.dart';
+import 'package:meditation_app/services/startup_orchestrator.dart';
+
+/// Cold start benchmark.
+///
+/// Firebase init and the first auth answer are simulated with the delays
+/// below, on the test clock. Time-to-first-frame is when the first frame
+/// shows the home screen; time-to-interactive is when it has the live user.
+/// The serial figures are what `main` used to do: await Firebase, then show
+/// a spinner until auth answers, then build the home screen.
+void main() {
+  const Duration firebaseInit = Duration(milliseconds: 350);
+  const Duration authAnswer = Duration(milliseconds: 120);
+  const Duration frameInterval = Duration(microseconds: 16667);
+
+  setUp(() {
+    SharedPreferences.setMockInitialValues({
+      'startup_last_user': jsonEncode({'uid': 'a', 'photoUrl': null}),
+    });
+  });
+
+  StartupOrchestrator orchestrator(StreamController<HomeUser?> auth) {
+    return StartupOrchestrator(
+      initFirebase: () => Future.delayed(firebaseInit),
+      authStates: () {
+        Timer(authAnswer, () => auth.add(const HomeUser('a')));
+        return auth.stream;
+      },
+      holdFirstFrame: false,
+    );
+  }
+
+  Widget gate(StartupOrchestrator startup) => MaterialApp(
+        home: StartupGate(
+          startup: startup,
+          home: (context, user) =>
+              MeditationScreen(userName: user.live ? 'live' : 'cached'),
+          signedOut: (context) => const Text('login'),
+          loading: (context) => const CircularProgressIndicator(),
+        ),
+      );
+
+  /// Pumps frames until [done]; returns the simulated time it took.
+  Future<Duration> pumpUntil(WidgetTester tester, bool Function() done) async {
+    var elapsed = Duration.zero;
+    while (!done() && elapsed < const Duration(seconds: 5)) {
+      await tester.pump(frameInterval);
+      elapsed += frameInterval;
+    }
+    return elapsed;
+  }
+
+  testWidgets('the first frame shows the cached home and live data follows',
+      (tester) async {
+    final auth = StreamController<HomeUser?>();
+    final startup = orchestrator(auth);
+    unawaited(startup.start());
+    // The preferences mock answers in a microtask, as they do before the
+    // first vsync on a device.
+    await tester.pumpWidget(gate(startup));
+    await tester.pump();
+
+    final firstFrame = await pumpUntil(
+        tester, () => find.byType(MeditationScreen).evaluate().isNotEmpty);
+    expect(firstFrame, Duration.zero);
+    expect(startup.state.value.stage, StartupStage.cached);
+
+    final interactive = await pumpUntil(
+        tester, () => startup.state.value.stage == StartupStage.live);
+    expect(find.byType(MeditationScreen), findsOneWidget);
+    expect(interactive, lessThan(firebaseInit + authAnswer + frameInterval * 2));
+
+    // ignore: avoid_print
+    print('Parallel start: first frame ${firstFrame.inMilliseconds} ms, '
+        'interactive ${interactive.inMilliseconds} ms; serial: first frame '
+        '${firebaseInit.inMilliseconds} ms, interactive '
+        '${(firebaseInit + authAnswer).inMilliseconds} ms');
+    await auth.close();
+  });
+
+  testWidgets('without a cached user the spinner shows until auth answers',
+      (tester) async {
+    SharedPreferences.setMockInitialValues({});
+    final auth = StreamController<HomeUser?>();
+    final startup = orchestrator(auth);
+    unawaited(startup.start());
+    await tester.pumpWidget(gate(startup));
+    await tester.pump();
+    expect(find.byType(CircularProgressIndicator), findsOneWidget);
+
+    await pumpUntil(tester, () => startup.state.value.stage == StartupStage.live);
+    await tester.pump();
+    expect(find.byType(MeditationScreen), findsOneWidget);
+
+    final prefs = await SharedPreferences.getInstance();
+    expect(prefs.getString('startup_last_user'), contains('"uid":"a"'));
+    await auth.close();
+  });
+
+  testWidgets('signing out forgets the cached user', (tester) async {
+    final auth = StreamController<HomeUser?>();
+    final startup = StartupOrchestrator(
+      initFirebase: () async {},
+      authStates: () => auth.stream,
+      holdFirstFrame: false,
+    );
+    unawaited(startup.start());
+    await tester.pumpWidget(gate(startup));
+    auth.add(null);
+    await tester.pump();
+
+    expect(find.text('login'), findsOneWidget);
+    final prefs = await SharedPreferences.getInstance();
+    expect(prefs.getString('startup_last_user'), isNull);
+    await auth.close();
+  });
+}
@@ -0,0 +1,67 @@
+import 'dart:io';
+
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:meditation_app/services/technique_catalog.dart';
+
+void main() {
+  final catalog =
+      TechniqueCatalog.parse(File(TechniqueCatalog.asset).readAsStringSync());
+
+  test('every technique the home grid and course list open is in the catalog', () {
+    const ids = [
+      'abdominal', 'chest', 'complete', 'bhramari', 'nadi_shodhana', 'ujjayi',
+      'surya_bhedana', 'chandra_bhedana', 'sheetali', 'sheetkari', 'box',
+    ];
+    for (final id in ids) {
+      expect(catalog[id].id, id);
+    }
+    expect(catalog.techniques.length, ids.length);
+    expect(() => catalog['missing'], throwsArgumentError);
+  });
+
+  test('techniques are complete enough to start a session', () {
+    for (final technique in catalog.techniques) {
+      expect(technique.patterns, isNotEmpty, reason: technique.id);
+      expect(technique.steps, isNotEmpty, reason: technique.id);
+      for (final pattern in technique.patterns) {
+        expect(pattern.inhale, greaterThan(0), reason: technique.id);
+        expect(pattern.exhale, greaterThan(0), reason: technique.id);
+      }
+      // Only the box screen plays holds.
+      if (technique.screen != TechniqueScreen.box) {
+        expect(technique.patterns.every((p) => p.hold1 == 0 && p.hold2 == 0),
+            isTrue,
+            reason: technique.id);
+      }
+      expect(technique.patterns.where((p) => p.recommended).length,
+          lessThanOrEqualTo(1),
+          reason: technique.id);
+    }
+  });
+
+  test('referenced assets exist', () {
+    for (final technique in catalog.techniques) {
+      for (final image in technique.visualizations) {
+        expect(File(image.path).existsSync(), isTrue, reason: image.path);
+      }
+    }
+  });
+
+  test('courses with chapters index them by video id', () {
+    final chapters = catalog['abdominal'].chapters!;
+    expect(chapters.length, 2);
+    expect(chapters['VbGu9pikl7I']!.durationSeconds, 15 * 60);
+    expect(catalog['chest'].chapters, isNull);
+    expect(catalog.byTitle('Bhramari Pranayama'), same(catalog['bhramari']));
+  });
+
+  test('ratios and defaults', () {
+    final box = catalog['box'];
+    expect(box.defaultPattern.ratio, '4:4:4:4');
+    expect(box.defaultPattern.roundSeconds, 16);
+    expect(box.visualizations, isEmpty);
+    expect(catalog['bhramari'].defaultPattern.ratio, '5:8');
+    expect(catalog['nadi_shodhana'].durationMode, DurationMode.rounds);
+  });
+}
@@ -0,0 +1,72 @@
+import 'dart:async';
+
+import 'package:flutter_test/flutter_test.dart';
+import 'package:shared_preferences/shared_preferences.dart';
+
+import 'package:meditation_app/services/user_profile_repository.dart';
+
+void main() {
+  late InMemoryUserProfileSource source;
+
+  setUp(() {
+    SharedPreferences.setMockInitialValues({});
+    source = InMemoryUserProfileSource()
+      ..documents['a'] = {'name': 'Asha', 'email': 'asha@example.com'};
+  });
+
+  test('concurrent callers share one in-flight request', () async {
+    final repository = UserProfileRepository(source: source);
+    source.fetchGate = Completer<void>();
+
+    final first = repository.load('a');
+    final second = repository.refresh('a');
+    final third = repository.load('a');
+    source.fetchGate!.complete();
+
+    final profiles = await Future.wait([first, second, third]);
+    expect(profiles.map((p) => p!.name), ['Asha', 'Asha', 'Asha']);
+    expect(source.fetchCount, 1);
+  });
+
+  test('serves the cached profile before the network answers', () async {
+    await UserProfileRepository(source: source).load('a');
+
+    // A new process: memory is empty and the network is stalled.
+    final repository = UserProfileRepository(source: source);
+    source.fetchGate = Completer<void>();
+    expect((await repository.load('a'))!.name, 'Asha');
+    expect(source.fetchCount, 1);
+  });
+
+  test('all watchers share one listener and see live updates', () async {
+    final repository = UserProfileRepository(source: source);
+    final seenByGreeting = <String>[];
+    final seenByProfile = <String>[];
+
+    final a = repository.watch('a').listen((p) => seenByGreeting.add(p.name));
+    final b = repository.watch('a').listen((p) => seenByProfile.add(p.name));
+    await pumpEventQueue();
+
+    await source.write('a', {'name': 'Asha R', 'email': 'asha@example.com'});
+    await pumpEventQueue();
+
+    expect(source.watchCount, 1);
+    expect(seenByGreeting.last, 'Asha R');
+    expect(seenByProfile.last, 'Asha R');
+    expect(repository.cached('a')!.name, 'Asha R');
+
+    await a.cancel();
+    await b.cancel();
+  });
+
+  test('createIfMissing leaves existing users alone', () async {
+    final repository = UserProfileRepository(source: source);
+
+    await repository.createIfMissing(const UserProfile(uid: 'a', name: 'Other'));
+    await repository.createIfMissing(const UserProfile(uid: 'b', name: 'Ben'),
+        extra: {'createdAt': '2024-01-01'});
+
+    expect(source.documents['a']!['name'], 'Asha');
+    expect(source.documents['b'], {'name': 'Ben', 'email': '', 'createdAt': '2024-01-01'});
+  });
+}
@@ -0,0 +1,77 @@
+import 'dart:convert';
+import 'dart:io';
+import 'dart:typed_data';
+
+import 'package:flutter/services.dart';
+import 'package:flutter_test/flutter_test.dart';
+
+import 'package:meditation_app/services/verse_corpus.dart';
+
+/// Serves assets straight from the working tree and counts file reads.
+class _DiskBundle extends CachingAssetBundle {
+  final List<String> loaded = [];
+
+  @override
+  Future<ByteData> load(String key) async {
+    loaded.add(key);
+    final bytes = File(key).readAsBytesSync();
+    return ByteData.sublistView(Uint8List.fromList(bytes));
+  }
+}
+
+void main() {
+  final index = jsonDecode(
+      File('${VerseCorpus.directory}/index.json').readAsStringSync())['texts']
+      as Map<String, dynamic>;
+
+  test('every corpus file holds as many verses as the index says', () {
+    for (final text in index.entries) {
+      for (final language in (text.value as Map<String, dynamic>).entries) {
+        final entry = language.value as Map<String, dynamic>;
+        final book = VerseBook.inflate(File('${VerseCorpus.directory}/${entry['file']}')
+            .readAsBytesSync());
+        expect(book.length, entry['count'], reason: '${text.key} ${language.key}');
+        for (var i = 0; i < book.length; i++) {
+          expect(book[i].trim(), isNotEmpty);
+          expect(book[i], isNot(contains('\n')));
+        }
+      }
+    }
+  });
+
+  test('pages are four verses and wrap past the end', () {
+    final book = VerseBook.inflate(Uint8List.fromList(
+        gzip.encode(utf8.encode('ॐ one\ntwo\nಮೂರು\n'))));
+    expect(book.length, 3);
+    expect(book[0], 'ॐ one');
+    expect(book.page(0), ['ॐ one', 'two', 'ಮೂರು', 'ॐ one']);
+    expect(book.page(2), ['ಮೂರು', 'ॐ one', 'two', 'ಮೂರು']);
+    expect(() => book[3], throwsRangeError);
+  });
+
+  test('books are cached per text and language and evicted least recently used',
+      () async {
+    final bundle = _DiskBundle();
+    final corpus = VerseCorpus(bundle: bundle, capacity: 2);
+
+    final sanskrit = await corpus.book('hanuman_chalisa', 'Sanskrit');
+    expect(sanskrit.page(0).first, startsWith('श्री गुरु चरन'));
+    await corpus.book('hanuman_chalisa', 'English');
+    expect(await corpus.book('hanuman_chalisa', 'Sanskrit'), same(sanskrit));
+    await corpus.book('hanuman_chalisa', 'Kannada');
+
+    expect(corpus.cachedKeys,
+        ['hanuman_chalisa/Sanskrit', 'hanuman_chalisa/Kannada']);
+    int fileReads() => bundle.loaded.where((key) => key.endsWith('.gz')).length;
+    expect(fileReads(), 3);
+
+    await corpus.book('hanuman_chalisa', 'English');
+    expect(fileReads(), 4);
+  });
+
+  test('an unknown text fails and is not cached', () async {
+    final corpus = VerseCorpus(bundle: _DiskBundle());
+    await expectLater(corpus.book('gita', 'Sanskrit'), throwsArgumentError);
+    expect(corpus.cachedKeys, isEmpty);
+  });
+}
@@ -0,0 +1,193 @@
+// Build-time image stage.
+//
+//   dart run tool/asset_pipeline.dart            # report + generate variants
+//   dart run tool/asset_pipeline.dart --report   # report only
+//   dart run tool/asset_pipeline.dart --width=480
+//
+// Finds every `assets/images/...` path referenced from lib/ and then:
+//  * reports files in assets/images that nothing references (stray files such
+//    as RelaxScreen.java or desktop.ini are bundled too), and references to
+//    files that do not exist;
+//  * encodes each referenced PNG/JPEG as WebP at 1x/2x/3x of a logical width
+//    into assets/optimized/images/ (Flutter resolution-variant layout), using
+//    `cwebp` from libwebp;
+//  * writes lib/common/asset_manifest.g.dart with the intrinsic size of each
+//    image and the optimized path of each generated one, which
+//    SizedAssetImage uses to pick a decode size and the smaller file.
+//
+// GIFs are left alone: they are animated and cwebp only encodes still images.
+// AVIF is not produced because Flutter's image codecs cannot decode it.
+
+import 'dart:io';
+import 'dart:typed_data';
+
+const String imagesDir = 'assets/images';
+const String optimizedDir = 'assets/optimized/images';
+const String manifestPath = 'lib/common/asset_manifest.g.dart';
+const List<int> scales = [1, 2, 3];
+
+final RegExp _reference =
+    RegExp(r'''assets/images/[A-Za-z0-9_\-./]+\.(?:png|jpe?g|gif|webp)''');
+
+Future<void> main(List<String> args) async {
+  final reportOnly = args.contains('--report');
+  final widthArg = args.firstWhere((a) => a.startsWith('--width='),
+      orElse: () => '--width=480');
+  final logicalWidth = int.parse(widthArg.substring('--width='.length));
+
+  final referenced = _referencedAssets(Directory('lib'));
+  final bundled = Directory(imagesDir)
+      .listSync()
+      .whereType<File>()
+      .map((f) => f.path.replaceAll(r'\', '/'))
+      .toSet();
+
+  _printReport(referenced, bundled);
+  if (reportOnly) return;
+
+  final sizes = <String, List<int>>{};
+  final optimized = <String, String>{};
+  final hasEncoder = await _hasCwebp();
+  if (!hasEncoder) {
+    stderr.writeln('cwebp not found; writing sizes only. Install libwebp to '
+        'generate variants.');
+  }
+
+  for (final path in (referenced.intersection(bundled).toList()..sort())) {
+    final size = _intrinsicSize(File(path).readAsBytesSync());
+    if (size == null) continue;
+    sizes[path] = size;
+    if (!hasEncoder || path.endsWith('.gif') || path.endsWith('.webp')) continue;
+
+    final name = path.split('/').last.replaceFirst(RegExp(r'\.\w+$'), '.webp');
+    var ok = true;
+    for (final scale in scales) {
+      final dir = scale == 1 ? optimizedDir : '$optimizedDir/$scale.0x';
+      final target = '$dir/$name';
+      final width = (logicalWidth * scale).clamp(1, size[0]);
+      ok &= await _encode(path, target, width);
+    }
+    if (ok) optimized[path] = '$optimizedDir/$name';
+  }
+
+  _writeManifest(sizes, optimized);
+  if (optimized.isNotEmpty && !_pubspecListsOptimized()) {
+    stderr.writeln('Add "- $optimizedDir/" under flutter/assets in pubspec.yaml '
+        'so the generated variants are bundled.');
+    exitCode = 1;
+  }
+}
+
+Set<String> _referencedAssets(Directory lib) {
+  final found = <String>{};
+  for (final file in lib.listSync(recursive: true).whereType<File>()) {
+    if (!file.path.endsWith('.dart') || file.path.endsWith('.g.dart')) continue;
+    for (final match in _reference.allMatches(file.readAsStringSync())) {
+      found.add(match.group(0)!);
+    }
+  }
+  return found;
+}
+
+void _printReport(Set<String> referenced, Set<String> bundled) {
+  int total(Iterable<String> paths) =>
+      paths.fold(0, (sum, p) => sum + File(p).lengthSync());
+  String mb(int bytes) => '${(bytes / (1 << 20)).toStringAsFixed(1)} MB';
+
+  final unreferenced = bundled.difference(referenced).toList()..sort();
+  final missing = referenced.difference(bundled).toList()..sort();
+
+  stdout.writeln('Bundled images: ${bundled.length} (${mb(total(bundled))})');
+  stdout.writeln('Unreferenced: ${unreferenced.length} (${mb(total(unreferenced))})');
+  for (final path in unreferenced) {
+    stdout.writeln('  $path  ${mb(File(path).lengthSync())}');
+  }
+  stdout.writeln('Referenced but missing: ${missing.length}');
+  for (final path in missing) {
+    stdout.writeln('  $path');
+  }
+}
+
+/// Width and height from a PNG, GIF or JPEG header.
+List<int>? _intrinsicSize(Uint8List bytes) {
+  final data = ByteData.sublistView(bytes);
+  if (bytes.length > 24 && bytes[0] == 0x89 && bytes[1] == 0x50) {
+    return [data.getUint32(16), data.getUint32(20)];
+  }
+  if (bytes.length > 10 && bytes[0] == 0x47 && bytes[1] == 0x49) {
+    return [data.getUint16(6, Endian.little), data.getUint16(8, Endian.little)];
+  }
+  if (bytes.length > 4 && bytes[0] == 0xFF && bytes[1] == 0xD8) {
+    var offset = 2;
+    while (offset + 9 < bytes.length) {
+      if (bytes[offset] != 0xFF) {
+        offset++;
+        continue;
+      }
+      final marker = bytes[offset + 1];
+      final length = data.getUint16(offset + 2);
+      final isFrame = marker >= 0xC0 &&
+          marker <= 0xCF &&
+          marker != 0xC4 &&
+          marker != 0xC8 &&
+          marker != 0xCC;
+      if (isFrame) {
+        return [data.getUint16(offset + 7), data.getUint16(offset + 5)];
+      }
+      offset += 2 + length;
+    }
+  }
+  return null;
+}
+
+Future<bool> _hasCwebp() async {
+  try {
+    final result = await Process.run('cwebp', ['-version']);
+    return result.exitCode == 0;
+  } on ProcessException {
+    return false;
+  }
+}
+
+Future<bool> _encode(String source, String target, int width) async {
+  final out = File(target);
+  if (out.existsSync() &&
+      out.lastModifiedSync().isAfter(File(source).lastModifiedSync())) {
+    return true;
+  }
+  out.parent.createSync(recursive: true);
+  final result = await Process.run(
+      'cwebp', ['-quiet', '-q', '80', '-resize', '$width', '0', source, '-o', target]);
+  if (result.exitCode != 0) {
+    stderr.writeln('cwebp failed for $source: ${result.stderr}');
+    return false;
+  }
+  return true;
+}
+
+bool _pubspecListsOptimized() {
+  return File('pubspec.yaml').readAsStringSync().contains('$optimizedDir/');
+}
+
+void _writeManifest(Map<String, List<int>> sizes, Map<String, String> optimized) {
+  final out = StringBuffer()
+    ..writeln('// GENERATED by tool/asset_pipeline.dart. Do not edit by hand.')
+    ..writeln()
+    ..writeln("import 'dart:ui';")
+    ..writeln()
+    ..writeln('/// Intrinsic pixel size of each referenced image asset.')
+    ..writeln('const Map<String, Size> assetImageSizes = {');
+  for (final entry in sizes.entries) {
+    out.writeln("  '${entry.key}': Size(${entry.value[0]}, ${entry.value[1]}),");
+  }
+  out
+    ..writeln('};')
+    ..writeln()
+    ..writeln('/// WebP replacement, with 2.0x/3.0x variants, for each optimized asset.')
+    ..writeln('const Map<String, String> optimizedAssetPaths = {');
+  for (final entry in optimized.entries) {
+    out.writeln("  '${entry.key}': '${entry.value}',");
+  }
+  out.writeln('};');
+  File(manifestPath).writeAsStringSync(out.toString());
+}
@@ -0,0 +1,54 @@
+// Build-time verse stage.
+//
+//   dart run tool/verse_corpus.dart
+//
+// Reads the chanting texts from tool/verses/<text>/<language>.txt, one verse
+// per line, and writes the corpus VerseCorpus loads at runtime:
+//  * assets/verses/<text>.<language>.gz, the verses gzip-compressed, still one
+//    per line;
+//  * assets/verses/index.json, the file and verse count of every text in
+//    every language, which is how VerseCorpus finds a text's file.
+//
+// Edit the .txt files and rerun this; never edit assets/verses by hand.
+
+import 'dart:convert';
+import 'dart:io';
+
+const String sourceDir = 'tool/verses';
+const String corpusDir = 'assets/verses';
+
+/// Language code used in file names, to the name the screens show.
+const Map<String, String> languages = {
+  'sa': 'Sanskrit',
+  'en': 'English',
+  'kn': 'Kannada',
+};
+
+void main() {
+  final index = <String, Map<String, Object>>{};
+  final texts = Directory(sourceDir).listSync().whereType<Directory>().toList()
+    ..sort((a, b) => a.path.compareTo(b.path));
+
+  for (final dir in texts) {
+    final text = dir.uri.pathSegments.lastWhere((s) => s.isNotEmpty);
+    final entry = <String, Object>{};
+    for (final code in languages.keys) {
+      final source = File('${dir.path}/$code.txt');
+      if (!source.existsSync()) continue;
+      final verses = const LineSplitter()
+          .convert(source.readAsStringSync())
+          .map((line) => line.trim())
+          .where((line) => line.isNotEmpty)
+          .toList();
+      final file = '$text.$code.gz';
+      File('$corpusDir/$file').writeAsBytesSync(
+          GZipCodec(level: 9).encode(utf8.encode('${verses.join('\n')}\n')));
+      entry[languages[code]!] = {'file': file, 'count': verses.length};
+      stdout.writeln('$file: ${verses.length} verses');
+    }
+    index[text] = entry;
+  }
+
+  File('$corpusDir/index.json').writeAsStringSync(
+      '${const JsonEncoder.withIndent('  ').convert({'texts': index})}\n');
+}